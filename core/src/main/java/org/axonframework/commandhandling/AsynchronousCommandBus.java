@@ -18,6 +18,7 @@
 
 import org.axonframework.common.Assert;
 
+import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -29,7 +30,8 @@
  * {@link java.util.concurrent.Executors#newCachedThreadPool()}). It will reuse threads while possible, and shut them
  * down after 60 seconds of inactivity.
  * <p/>
- * Each Command is dispatched in a separate task, which is processed by the Executor.
+ * Each Command is dispatched in a separate task, which is processed by the Executor. A batch of commands dispatched
+ * using {@link #dispatchAll(List, CommandCallback)} is processed in a single task.
  * <p/>
  * Note that you should call {@link #shutdown()} to stop any threads waiting for new tasks. Failure to do so may cause
  * the JVM to hang for up to 60 seconds on JVM shutdown.
@@ -63,6 +65,16 @@ protected <C, R> void doDispatch(CommandMessage<C> command, CommandCallback<? su
         executor.execute(new DispatchCommand<>(command, callback));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The batch of commands is processed in a single task by the Executor.
+     */
+    @Override
+    protected <R> void doDispatchAll(List<CommandMessage<?>> commands, CommandCallback<Object, R> callback) {
+        executor.execute(() -> super.doDispatchAll(commands, callback));
+    }
+
     /**
      * Shuts down the Executor used to asynchronously dispatch incoming commands. If the {@code Executor} provided
      * in the constructor does not implement {@code ExecutorService}, this method does nothing.
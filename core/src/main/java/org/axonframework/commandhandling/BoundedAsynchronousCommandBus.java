@@ -0,0 +1,405 @@
+/*
+ * Copyright (c) 2010-2017. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling;
+
+import org.axonframework.commandhandling.distributed.AnnotationRoutingStrategy;
+import org.axonframework.commandhandling.distributed.RoutingStrategy;
+import org.axonframework.commandhandling.distributed.UnresolvedRoutingKeyPolicy;
+import org.axonframework.common.Assert;
+import org.axonframework.common.AxonThreadFactory;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.monitoring.MessageMonitor;
+import org.axonframework.monitoring.NoOpMessageMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Specialization of the SimpleCommandBus that processes Commands asynchronously from the calling thread, using a fixed
+ * number of worker threads with a bounded queue each. Unlike the {@link AsynchronousCommandBus}, the number of threads
+ * and the number of commands waiting to be processed are limited.
+ * <p/>
+ * Each command is assigned to a worker based on its routing key, which by default is the identifier of the targeted
+ * aggregate (see {@link AnnotationRoutingStrategy}). Commands with the same routing key are therefore processed one at
+ * a time, in the order in which they were dispatched. Instead of competing for the lock of their aggregate, commands
+ * targeting the same aggregate wait in the queue of their worker. Commands without routing key are assigned to a
+ * random worker.
+ * <p/>
+ * When the queue of a worker is full, the {@link RejectionPolicy} of the command bus determines whether the
+ * dispatching thread waits for room in the queue (the default), or whether the command is rejected. A rejected command
+ * is reported to its callback as failed with a {@link RejectedExecutionException}. As this exception is transient, a
+ * command gateway configured with a {@link org.axonframework.commandhandling.gateway.RetryScheduler} will retry the
+ * command.
+ * <p/>
+ * Commands dispatched by a command handler, i.e. from one of the worker threads, are processed right away on that
+ * thread if they are assigned to the same worker, which prevents a worker from waiting for room in its own queue.
+ * Commands assigned to another worker are queued, so that they are processed in order with the other commands of their
+ * routing key. To prevent workers from waiting for each other, such commands are rejected if the queue of the other
+ * worker is full, regardless of the rejection policy.
+ * <p/>
+ * A batch of commands dispatched using {@link #dispatchAll(List, CommandCallback)} is split per worker, and each part
+ * is processed as a batch by its worker.
+ * <p/>
+ * Note that you should call {@link #shutdown()} to stop the worker threads.
+ *
+ * @since 3.1
+ */
+public class BoundedAsynchronousCommandBus extends SimpleCommandBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedAsynchronousCommandBus.class);
+    private static final Task STOP = new Task(() -> {
+    }, cause -> {
+    });
+
+    private final RoutingStrategy routingStrategy;
+    private final RejectionPolicy rejectionPolicy;
+    private final Worker[] workers;
+    private final ReadWriteLock shutdownLock = new ReentrantReadWriteLock();
+    private volatile boolean running = true;
+
+    /**
+     * Initializes a BoundedAsynchronousCommandBus with the given number of workers, each with a queue that holds up to
+     * the given number of commands. The workers are started immediately. Commands are assigned to workers based on the
+     * identifier of the aggregate they target, and dispatching threads wait when the queue of a worker is full.
+     *
+     * @param workerCount   The number of worker threads processing commands
+     * @param queueCapacity The maximum number of commands waiting to be processed by each of the workers
+     */
+    public BoundedAsynchronousCommandBus(int workerCount, int queueCapacity) {
+        this(builder().withWorkerCount(workerCount).withQueueCapacity(queueCapacity));
+    }
+
+    /**
+     * Initializes a BoundedAsynchronousCommandBus with the settings of the given {@code builder}. The workers are
+     * started immediately.
+     *
+     * @param builder The builder containing the settings of the command bus
+     */
+    protected BoundedAsynchronousCommandBus(Builder builder) {
+        super(builder.transactionManager, builder.messageMonitor);
+        this.routingStrategy = builder.routingStrategy;
+        this.rejectionPolicy = builder.rejectionPolicy;
+        this.workers = new Worker[builder.workerCount];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(builder.queueCapacity);
+            workers[i].thread = builder.threadFactory.newThread(workers[i]);
+            workers[i].thread.start();
+        }
+    }
+
+    /**
+     * Returns a new {@link Builder} to configure a BoundedAsynchronousCommandBus.
+     *
+     * @return a builder for a BoundedAsynchronousCommandBus
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    protected <C, R> void doDispatch(CommandMessage<C> command, CommandCallback<? super C, R> callback) {
+        workerFor(command).submit(new Task(() -> super.doDispatch(command, callback),
+                                           cause -> callback.onFailure(command, cause)));
+    }
+
+    @Override
+    protected <R> void doDispatchAll(List<CommandMessage<?>> commands, CommandCallback<Object, R> callback) {
+        Map<Worker, List<CommandMessage<?>>> commandsPerWorker = new LinkedHashMap<>();
+        for (CommandMessage<?> command : commands) {
+            commandsPerWorker.computeIfAbsent(workerFor(command), w -> new ArrayList<>()).add(command);
+        }
+        commandsPerWorker.forEach((worker, group) -> worker.submit(
+                new Task(() -> super.doDispatchAll(group, callback),
+                         cause -> group.forEach(command -> callback.onFailure(command, cause)))));
+    }
+
+    private Worker workerFor(CommandMessage<?> command) {
+        return workers[(routingStrategy.getRoutingKey(command).hashCode() & Integer.MAX_VALUE) % workers.length];
+    }
+
+    private boolean isWorkerThread() {
+        Thread currentThread = Thread.currentThread();
+        for (Worker worker : workers) {
+            if (worker.thread == currentThread) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Shuts down the command bus. Commands dispatched after invocation of this method are rejected. The workers
+     * process the commands remaining in their queue, and are then stopped. This method waits up to 5 seconds for the
+     * workers to stop.
+     */
+    public void shutdown() {
+        // wait for dispatching threads that have been admitted, so that their commands are queued before STOP
+        shutdownLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            shutdownLock.writeLock().unlock();
+        }
+        try {
+            for (Worker worker : workers) {
+                worker.queue.put(STOP);
+            }
+            long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+            for (Worker worker : workers) {
+                worker.awaitTermination(deadline - System.currentTimeMillis());
+            }
+        } catch (InterruptedException e) {
+            // we've been interrupted. Reset the interruption flag and continue
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The policy describing what happens when a command is dispatched to a worker whose queue is full.
+     */
+    public enum RejectionPolicy {
+
+        /**
+         * Policy that makes the dispatching thread wait until there is room in the queue of the worker. This applies
+         * back-pressure to the components dispatching commands.
+         */
+        BLOCK,
+
+        /**
+         * Policy that rejects the command, reporting a {@link RejectedExecutionException} to its callback.
+         */
+        REJECT
+    }
+
+    private final class Worker implements Runnable {
+
+        private final BlockingQueue<Task> queue;
+        private volatile Thread thread;
+
+        private Worker(int queueCapacity) {
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        private void submit(Task task) {
+            if (thread == Thread.currentThread()) {
+                // commands dispatched by a command handler of this worker are processed right away, as waiting for
+                // room in the queue of this worker would deadlock
+                task.run();
+                return;
+            }
+            boolean queued;
+            shutdownLock.readLock().lock();
+            try {
+                if (!running) {
+                    task.reject(new RejectedExecutionException("The command bus has been shut down"));
+                    return;
+                }
+                // a worker waiting for room in the queue of another worker could deadlock with that worker
+                queued = isWorkerThread() ? queue.offer(task) : enqueue(task);
+            } finally {
+                shutdownLock.readLock().unlock();
+            }
+            if (!queued) {
+                task.reject(new RejectedExecutionException("The queue of the command bus worker is full"));
+            }
+        }
+
+        private boolean enqueue(Task task) {
+            if (rejectionPolicy == RejectionPolicy.REJECT) {
+                return queue.offer(task);
+            }
+            try {
+                queue.put(task);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Task task;
+                while ((task = queue.take()) != STOP) {
+                    task.run();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                List<Task> remaining = new ArrayList<>();
+                queue.drainTo(remaining);
+                remaining.forEach(task -> task.reject(
+                        new RejectedExecutionException("The command bus worker has been stopped")));
+            }
+        }
+
+        private void awaitTermination(long timeoutMillis) throws InterruptedException {
+            if (timeoutMillis > 0) {
+                thread.join(timeoutMillis);
+            }
+        }
+    }
+
+    private static final class Task {
+
+        private final Runnable action;
+        private final Consumer<RejectedExecutionException> rejectionHandler;
+
+        private Task(Runnable action, Consumer<RejectedExecutionException> rejectionHandler) {
+            this.action = action;
+            this.rejectionHandler = rejectionHandler;
+        }
+
+        private void run() {
+            try {
+                action.run();
+            } catch (Exception e) {
+                logger.error("Exception occurred while dispatching a command", e);
+            }
+        }
+
+        private void reject(RejectedExecutionException cause) {
+            rejectionHandler.accept(cause);
+        }
+    }
+
+    /**
+     * Builder for a {@link BoundedAsynchronousCommandBus}.
+     */
+    public static class Builder {
+
+        private int workerCount = Runtime.getRuntime().availableProcessors();
+        private int queueCapacity = 1024;
+        private RoutingStrategy routingStrategy = new AnnotationRoutingStrategy(UnresolvedRoutingKeyPolicy.RANDOM_KEY);
+        private RejectionPolicy rejectionPolicy = RejectionPolicy.BLOCK;
+        private ThreadFactory threadFactory = new AxonThreadFactory("BoundedAsynchronousCommandBus");
+        private TransactionManager transactionManager = NoTransactionManager.INSTANCE;
+        private MessageMonitor<? super CommandMessage<?>> messageMonitor = NoOpMessageMonitor.INSTANCE;
+
+        /**
+         * Sets the number of worker threads processing commands. Defaults to the number of available processors.
+         *
+         * @param workerCount the number of worker threads
+         * @return the modified Builder instance
+         */
+        public Builder withWorkerCount(int workerCount) {
+            Assert.isTrue(workerCount > 0, () -> "The number of workers must be positive");
+            this.workerCount = workerCount;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of commands waiting to be processed by each of the workers. Defaults to 1024.
+         *
+         * @param queueCapacity the capacity of the queue of each worker
+         * @return the modified Builder instance
+         */
+        public Builder withQueueCapacity(int queueCapacity) {
+            Assert.isTrue(queueCapacity > 0, () -> "The queue capacity must be positive");
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Sets the strategy that provides the routing key of a command, which determines the worker that processes
+         * it. Defaults to an {@link AnnotationRoutingStrategy} that uses the identifier of the targeted aggregate, and
+         * a random key for commands that do not target an aggregate.
+         *
+         * @param routingStrategy the strategy providing the routing key of commands
+         * @return the modified Builder instance
+         */
+        public Builder withRoutingStrategy(RoutingStrategy routingStrategy) {
+            Assert.notNull(routingStrategy, () -> "The routing strategy may not be null");
+            this.routingStrategy = routingStrategy;
+            return this;
+        }
+
+        /**
+         * Sets the policy that determines what happens when a command is dispatched to a worker whose queue is full.
+         * Defaults to {@link RejectionPolicy#BLOCK}.
+         *
+         * @param rejectionPolicy the policy to apply when the queue of a worker is full
+         * @return the modified Builder instance
+         */
+        public Builder withRejectionPolicy(RejectionPolicy rejectionPolicy) {
+            Assert.notNull(rejectionPolicy, () -> "The rejection policy may not be null");
+            this.rejectionPolicy = rejectionPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the factory creating the worker threads. Defaults to an {@link AxonThreadFactory}.
+         *
+         * @param threadFactory the factory creating the worker threads
+         * @return the modified Builder instance
+         */
+        public Builder withThreadFactory(ThreadFactory threadFactory) {
+            Assert.notNull(threadFactory, () -> "The thread factory may not be null");
+            this.threadFactory = threadFactory;
+            return this;
+        }
+
+        /**
+         * Sets the transaction manager that manages the transaction in which commands are processed. Defaults to no
+         * transaction management.
+         *
+         * @param transactionManager the transaction manager to use
+         * @return the modified Builder instance
+         */
+        public Builder withTransactionManager(TransactionManager transactionManager) {
+            Assert.notNull(transactionManager, () -> "The transaction manager may not be null");
+            this.transactionManager = transactionManager;
+            return this;
+        }
+
+        /**
+         * Sets the monitor to notify of the commands processed by the command bus. Defaults to no monitoring.
+         *
+         * @param messageMonitor the message monitor to use
+         * @return the modified Builder instance
+         */
+        public Builder withMessageMonitor(MessageMonitor<? super CommandMessage<?>> messageMonitor) {
+            Assert.notNull(messageMonitor, () -> "The message monitor may not be null");
+            this.messageMonitor = messageMonitor;
+            return this;
+        }
+
+        /**
+         * Initializes a {@link BoundedAsynchronousCommandBus} with the settings of this builder, and starts its
+         * workers.
+         *
+         * @return a command bus with the settings of this builder
+         */
+        public BoundedAsynchronousCommandBus build() {
+            return new BoundedAsynchronousCommandBus(this);
+        }
+    }
+}
@@ -20,6 +20,8 @@
 import org.axonframework.common.Registration;
 import org.axonframework.messaging.MessageHandler;
 
+import java.util.List;
+
 /**
  * The mechanism that dispatches Command objects to their appropriate CommandHandler. CommandHandlers can subscribe and
  * unsubscribe to specific commands (identified by their {@link CommandMessage#getCommandName() name}) on the command
@@ -64,6 +66,27 @@ default <C> void dispatch(CommandMessage<C> command) {
      */
     <C, R> void dispatch(CommandMessage<C> command, CommandCallback<? super C, R> callback);
 
+    /**
+     * Dispatch the given batch of {@code commands} to the CommandHandlers subscribed to their names. The given {@code
+     * callback} is invoked once for each of the commands, with the command as it was dispatched (i.e. after any
+     * dispatch interceptors have been invoked) and the result of its processing.
+     * <p/>
+     * Implementations may use the batch to reduce the overhead of dispatching commands, for example by processing
+     * several commands in a single Unit of Work and transaction, or by sending several commands to a remote destination
+     * at once. Callers are responsible for limiting the size of each batch. By default, each of the commands is
+     * dispatched separately using {@link #dispatch(CommandMessage, CommandCallback)}.
+     *
+     * @param commands The Commands to dispatch
+     * @param callback The callback to invoke for each command when its processing is complete
+     * @param <R>      The type of the expected results
+     * @throws NoHandlerForCommandException when no command handler is registered for one of the {@code commands}
+     */
+    default <R> void dispatchAll(List<? extends CommandMessage<?>> commands, CommandCallback<Object, R> callback) {
+        for (CommandMessage<?> command : commands) {
+            dispatch(command, callback);
+        }
+    }
+
     /**
      * Subscribe the given {@code handler} to commands with the given {@code commandName}.
      * <p/>
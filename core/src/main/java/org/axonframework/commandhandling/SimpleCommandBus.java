@@ -19,10 +19,11 @@
 
 import org.axonframework.common.Registration;
 import org.axonframework.common.transaction.NoTransactionManager;
-import org.axonframework.common.transaction.Transaction;
 import org.axonframework.common.transaction.TransactionManager;
 import org.axonframework.messaging.*;
+import org.axonframework.messaging.unitofwork.BatchingUnitOfWork;
 import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.axonframework.messaging.unitofwork.ExecutionResult;
 import org.axonframework.messaging.unitofwork.RollbackConfiguration;
 import org.axonframework.messaging.unitofwork.RollbackConfigurationType;
 import org.axonframework.messaging.unitofwork.UnitOfWork;
@@ -31,12 +32,14 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
 
 /**
  * Implementation of the CommandBus that dispatches commands to the handlers subscribed to that specific command's name.
@@ -122,6 +125,94 @@ protected <C, R> void doDispatch(CommandMessage<C> command, CommandCallback<? su
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * This implementation invokes the dispatch interceptors and verifies that a handler is subscribed for each of the
+     * commands before dispatching any of them. The commands are then processed in a single Unit of Work and
+     * transaction. Handlers of later commands in the batch see the changes made by earlier ones, and an aggregate
+     * targeted by several commands is only loaded once.
+     * <p/>
+     * When processing of one of the commands causes the Unit of Work to be rolled back, each of the commands is
+     * processed again in a Unit of Work and transaction of its own, so that the failure only affects the command that
+     * caused it. Note that this means that handlers may be invoked twice for the same command, so any side effects
+     * they have outside of the transaction should be idempotent.
+     */
+    @Override
+    public <R> void dispatchAll(List<? extends CommandMessage<?>> commands, CommandCallback<Object, R> callback) {
+        List<CommandMessage<?>> commandsToDispatch = new ArrayList<>(commands.size());
+        for (CommandMessage<?> command : commands) {
+            CommandMessage<?> commandToDispatch = intercept(command);
+            findCommandHandlerFor(commandToDispatch);
+            commandsToDispatch.add(commandToDispatch);
+        }
+        if (!commandsToDispatch.isEmpty()) {
+            doDispatchAll(commandsToDispatch, callback);
+        }
+    }
+
+    /**
+     * Performs the actual dispatching logic of a batch of commands. The dispatch interceptors must have been invoked
+     * at this point.
+     *
+     * @param commands The actual commands to dispatch to their handlers
+     * @param callback The callback to notify of the result of each command
+     * @param <R>      The type of result expected from the command handlers
+     */
+    @SuppressWarnings({"unchecked"})
+    protected <R> void doDispatchAll(List<CommandMessage<?>> commands, CommandCallback<Object, R> callback) {
+        List<MessageMonitor.MonitorCallback> monitorCallbacks =
+                commands.stream().map(messageMonitor::onMessageIngested).collect(toList());
+        List<ExecutionResult> results = commands.size() > 1 ? doDispatchBatch(commands) : null;
+        for (int i = 0; i < commands.size(); i++) {
+            CommandMessage<?> command = commands.get(i);
+            ExecutionResult result = results != null ? results.get(i) : doDispatchSeparately(command);
+            if (result.isExceptionResult()) {
+                monitorCallbacks.get(i).reportFailure(result.getExceptionResult());
+                callback.onFailure(command, result.getExceptionResult());
+            } else {
+                monitorCallbacks.get(i).reportSuccess();
+                callback.onSuccess(command, (R) result.getResult());
+            }
+        }
+    }
+
+    private List<ExecutionResult> doDispatchBatch(List<CommandMessage<?>> commands) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Dispatching batch of {} commands", commands.size());
+        }
+        BatchingUnitOfWork<CommandMessage<?>> unitOfWork = new BatchingUnitOfWork<>(commands);
+        unitOfWork.start();
+        List<ExecutionResult> results = new ArrayList<>(commands.size());
+        try {
+            unitOfWork.attachTransaction(transactionManager);
+            unitOfWork.executeWithResult(() -> {
+                try {
+                    InterceptorChain chain = new DefaultInterceptorChain<>(
+                            unitOfWork, handlerInterceptors, findCommandHandlerFor(unitOfWork.getMessage()));
+                    Object result = chain.proceed();
+                    results.add(new ExecutionResult(result));
+                    return result;
+                } catch (Exception e) {
+                    results.add(new ExecutionResult(e));
+                    throw e;
+                }
+            }, rollbackConfiguration);
+        } catch (Exception e) {
+            // the exceptions of commands that did not cause a rollback have been registered as their result, and a
+            // batch that was rolled back is dispatched again command by command
+        }
+        return unitOfWork.isRolledBack() ? null : results;
+    }
+
+    private ExecutionResult doDispatchSeparately(CommandMessage<?> command) {
+        try {
+            return new ExecutionResult(doDispatch(command, findCommandHandlerFor(command)));
+        } catch (Exception e) {
+            return new ExecutionResult(e);
+        }
+    }
+
     private MessageHandler<? super CommandMessage<?>> findCommandHandlerFor(CommandMessage<?> command) {
         final MessageHandler<? super CommandMessage<?>> handler = subscriptions.get(command.getCommandName());
         if (handler == null) {
@@ -136,9 +227,7 @@ private <C> Object doDispatch(CommandMessage<C> command, MessageHandler<? super
             logger.debug("Dispatching command [{}]", command.getCommandName());
         }
         UnitOfWork<CommandMessage<?>> unitOfWork = DefaultUnitOfWork.startAndGet(command);
-        Transaction transaction = transactionManager.startTransaction();
-        unitOfWork.onCommit(u -> transaction.commit());
-        unitOfWork.onRollback(u -> transaction.rollback());
+        unitOfWork.attachTransaction(transactionManager);
         InterceptorChain chain = new DefaultInterceptorChain<>(unitOfWork, handlerInterceptors, handler);
         return unitOfWork.executeWithResult(chain::proceed, rollbackConfiguration);
     }
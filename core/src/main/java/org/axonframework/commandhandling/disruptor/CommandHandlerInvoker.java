@@ -26,6 +26,7 @@
 import org.axonframework.commandhandling.model.inspection.ModelInspector;
 import org.axonframework.common.Assert;
 import org.axonframework.common.caching.Cache;
+import org.axonframework.common.caching.WeakReferenceCache;
 import org.axonframework.eventsourcing.AggregateFactory;
 import org.axonframework.eventsourcing.EventSourcedAggregate;
 import org.axonframework.eventsourcing.SnapshotTrigger;
@@ -34,11 +35,12 @@
 import org.axonframework.eventsourcing.eventstore.EventStore;
 import org.axonframework.messaging.annotation.ParameterResolverFactory;
 import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.monitoring.AggregateLoadMonitor;
+import org.axonframework.monitoring.NoOpAggregateLoadMonitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Map;
-import java.util.WeakHashMap;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -53,7 +55,6 @@ public class CommandHandlerInvoker implements EventHandler<CommandHandlingEntry>
 
     private static final Logger logger = LoggerFactory.getLogger(CommandHandlerInvoker.class);
     private static final ThreadLocal<CommandHandlerInvoker> CURRENT_INVOKER = new ThreadLocal<>();
-    private static final Object PLACEHOLDER_VALUE = new Object();
 
     private final Map<Class<?>, DisruptorRepository> repositories = new ConcurrentHashMap<>();
     private final Cache cache;
@@ -119,14 +120,35 @@ public void onEvent(CommandHandlingEntry entry, long sequence, boolean endOfBatc
      * @param parameterResolverFactory  The factory used to resolve parameters on command handler methods
      * @return A Repository instance for the given aggregate
      */
-    @SuppressWarnings("unchecked")
     public <T> Repository<T> createRepository(AggregateFactory<T> aggregateFactory,
                                               SnapshotTriggerDefinition snapshotTriggerDefinition,
                                               ParameterResolverFactory parameterResolverFactory) {
+        return createRepository(aggregateFactory, snapshotTriggerDefinition, parameterResolverFactory,
+                                NoOpAggregateLoadMonitor.INSTANCE);
+    }
+
+    /**
+     * Create a repository instance for an aggregate created by the given {@code aggregateFactory}, which notifies the
+     * given {@code aggregateLoadMonitor} of each aggregate it loads. The returning repository must be safe to use by
+     * this invoker instance.
+     *
+     * @param <T>                       The type of aggregate created by the factory
+     * @param aggregateFactory          The factory creating aggregate instances
+     * @param snapshotTriggerDefinition The trigger definition for snapshots
+     * @param parameterResolverFactory  The factory used to resolve parameters on command handler methods
+     * @param aggregateLoadMonitor      The monitor to notify of aggregate loads
+     * @return A Repository instance for the given aggregate
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Repository<T> createRepository(AggregateFactory<T> aggregateFactory,
+                                              SnapshotTriggerDefinition snapshotTriggerDefinition,
+                                              ParameterResolverFactory parameterResolverFactory,
+                                              AggregateLoadMonitor aggregateLoadMonitor) {
         return repositories.computeIfAbsent(aggregateFactory.getAggregateType(),
                                             k -> new DisruptorRepository<>(aggregateFactory, cache, eventStore,
                                                                            parameterResolverFactory,
-                                                                           snapshotTriggerDefinition));
+                                                                           snapshotTriggerDefinition,
+                                                                           aggregateLoadMonitor));
     }
 
     private void removeEntry(String aggregateIdentifier) {
@@ -156,14 +178,18 @@ public void onShutdown() {
         private final EventStore eventStore;
         private final SnapshotTriggerDefinition snapshotTriggerDefinition;
         private final AggregateFactory<T> aggregateFactory;
-        private final Map<EventSourcedAggregate<T>, Object> firstLevelCache = new WeakHashMap<>();
+        // aggregates by identifier, kept for as long as they are referenced elsewhere, e.g. by the second level cache
+        private final Cache firstLevelCache = new WeakReferenceCache();
         private final Cache cache;
         private final AggregateModel<T> model;
+        private final AggregateLoadMonitor aggregateLoadMonitor;
 
         private DisruptorRepository(AggregateFactory<T> aggregateFactory, Cache cache, EventStore eventStore,
                                     ParameterResolverFactory parameterResolverFactory,
-                                    SnapshotTriggerDefinition snapshotTriggerDefinition) {
+                                    SnapshotTriggerDefinition snapshotTriggerDefinition,
+                                    AggregateLoadMonitor aggregateLoadMonitor) {
             this.aggregateFactory = aggregateFactory;
+            this.aggregateLoadMonitor = aggregateLoadMonitor;
             this.cache = cache;
             this.eventStore = eventStore;
             this.snapshotTriggerDefinition = snapshotTriggerDefinition;
@@ -185,14 +211,11 @@ public Aggregate<T> load(String aggregateIdentifier, Long expectedVersion) {
         @Override
         public Aggregate<T> load(String aggregateIdentifier) {
             ((CommandHandlingEntry) CurrentUnitOfWork.get()).registerAggregateIdentifier(aggregateIdentifier);
-            EventSourcedAggregate<T> aggregateRoot = null;
-            for (EventSourcedAggregate<T> cachedAggregate : firstLevelCache.keySet()) {
-                if (aggregateIdentifier.equals(cachedAggregate.identifierAsString())) {
-                    logger.debug("Aggregate {} found in first level cache", aggregateIdentifier);
-                    aggregateRoot = cachedAggregate;
-                }
-            }
-            if (aggregateRoot == null) {
+            long startTime = System.nanoTime();
+            EventSourcedAggregate<T> aggregateRoot = firstLevelCache.get(aggregateIdentifier);
+            if (aggregateRoot != null) {
+                logger.debug("Aggregate {} found in first level cache", aggregateIdentifier);
+            } else {
                 Object cachedItem = cache.get(aggregateIdentifier);
                 if (cachedItem != null && EventSourcedAggregate.class.isInstance(cachedItem)) {
                     EventSourcedAggregate<T> cachedAggregate = (EventSourcedAggregate<T>) cachedItem;
@@ -205,20 +228,28 @@ public Aggregate<T> load(String aggregateIdentifier) {
                     });
                 }
             }
-            if (aggregateRoot == null) {
+            if (aggregateRoot != null) {
+                aggregateLoadMonitor.onLoadedFromCache(System.nanoTime() - startTime);
+            } else {
                 logger.debug("Aggregate {} not in first level cache, loading fresh one from Event Store",
                              aggregateIdentifier);
+                startTime = System.nanoTime();
                 DomainEventStream eventStream = eventStore.readEvents(aggregateIdentifier);
                 SnapshotTrigger trigger = snapshotTriggerDefinition.prepareTrigger(aggregateFactory.getAggregateType());
                 if (!eventStream.hasNext()) {
                     throw new AggregateNotFoundException(aggregateIdentifier,
                                                          "The aggregate was not found in the event store");
                 }
+                long firstSequenceNumber = eventStream.peek().getSequenceNumber();
                 aggregateRoot = EventSourcedAggregate
                         .initialize(aggregateFactory.createAggregateRoot(aggregateIdentifier, eventStream.peek()),
                                     model, eventStore, trigger);
                 aggregateRoot.initializeState(eventStream);
-                firstLevelCache.put(aggregateRoot, PLACEHOLDER_VALUE);
+                Long lastSequenceNumber = eventStream.getLastSequenceNumber();
+                aggregateLoadMonitor.onLoadedFromEventStore(System.nanoTime() - startTime,
+                                                            lastSequenceNumber == null ? 0 :
+                                                                    lastSequenceNumber - firstSequenceNumber + 1);
+                firstLevelCache.put(aggregateIdentifier, aggregateRoot);
                 cache.put(aggregateIdentifier, aggregateRoot);
             }
             return aggregateRoot;
@@ -229,19 +260,18 @@ public Aggregate<T> newInstance(Callable<T> factoryMethod) throws Exception {
             SnapshotTrigger trigger = snapshotTriggerDefinition.prepareTrigger(aggregateFactory.getAggregateType());
             EventSourcedAggregate<T> aggregate =
                     EventSourcedAggregate.initialize(factoryMethod, model, eventStore, trigger);
-            firstLevelCache.put(aggregate, PLACEHOLDER_VALUE);
-            cache.put(aggregate.identifierAsString(), aggregate);
+            String aggregateIdentifier = aggregate.identifierAsString();
+            if (aggregateIdentifier != null) {
+                firstLevelCache.put(aggregateIdentifier, aggregate);
+            }
+            cache.put(aggregateIdentifier, aggregate);
             return aggregate;
         }
 
         private void removeFromCache(String aggregateIdentifier) {
-            for (EventSourcedAggregate<T> cachedAggregate : firstLevelCache.keySet()) {
-                if (aggregateIdentifier.equals(cachedAggregate.identifierAsString())) {
-                    firstLevelCache.remove(cachedAggregate);
-                    logger.debug("Aggregate {} removed from first level cache for recovery purposes.",
-                                 aggregateIdentifier);
-                    return;
-                }
+            if (firstLevelCache.remove(aggregateIdentifier)) {
+                logger.debug("Aggregate {} removed from first level cache for recovery purposes.",
+                             aggregateIdentifier);
             }
         }
     }
@@ -35,7 +35,9 @@
 import org.axonframework.messaging.MessageHandlerInterceptor;
 import org.axonframework.messaging.annotation.ClasspathParameterResolverFactory;
 import org.axonframework.messaging.annotation.ParameterResolverFactory;
+import org.axonframework.monitoring.AggregateLoadMonitor;
 import org.axonframework.monitoring.MessageMonitor;
+import org.axonframework.monitoring.NoOpAggregateLoadMonitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -90,7 +92,8 @@
  * <p>
  * The DisruptorCommandBus must have access to at least 3 threads, two of which are permanently used while the
  * DisruptorCommandBus is operational. At least one additional thread is required to invoke callbacks and initiate a
- * recovery process in the case of exceptions.
+ * recovery process in the case of exceptions. When more than one publisher thread is configured, one more thread is
+ * permanently used to route commands to their publisher.
  * <p>
  * Consider providing an alternative {@link IdentifierFactory} implementation. The default
  * implementation used {@link java.util.UUID#randomUUID()} to generated identifier for Events. The poor performance of
@@ -165,9 +168,18 @@ public DisruptorCommandBus(EventStore eventStore, DisruptorConfiguration configu
                                                                  transactionManager);
         messageMonitor = configuration.getMessageMonitor();
         publisherCount = publishers.length;
-        disruptor.setDefaultExceptionHandler(new ExceptionHandler());
-
-        disruptor.handleEventsWith(commandHandlerInvokers).then(publishers);
+        ExceptionHandler exceptionHandler = new ExceptionHandler();
+        disruptor.setDefaultExceptionHandler(exceptionHandler);
+
+        if (publisherCount > 1) {
+            // route entries to their publisher, instead of having each publisher read all entries
+            PublisherRouter publisherRouter = new PublisherRouter(publishers, executor, exceptionHandler,
+                                                                  configuration.getBufferSize());
+            disruptor.handleEventsWith(commandHandlerInvokers).then(publisherRouter);
+            publisherRouter.start();
+        } else {
+            disruptor.handleEventsWith(commandHandlerInvokers).then(publishers);
+        }
 
         coolingDownPeriod = configuration.getCoolingDownPeriod();
         disruptor.start();
@@ -178,7 +190,9 @@ private EventPublisher[] initializePublisherThreads(DisruptorConfiguration confi
         EventPublisher[] publishers = new EventPublisher[configuration.getPublisherThreadCount()];
         for (int t = 0; t < publishers.length; t++) {
             publishers[t] = new EventPublisher(executor, transactionManager,
-                                               configuration.getRollbackConfiguration(), t);
+                                               configuration.getRollbackConfiguration(), t,
+                                               configuration.getGroupCommitSize(),
+                                               configuration.getGroupCommitTimeout());
         }
         return publishers;
     }
@@ -321,8 +335,31 @@ public <T> Repository<T> createRepository(AggregateFactory<T> aggregateFactory,
     public <T> Repository<T> createRepository(AggregateFactory<T> aggregateFactory,
                                               SnapshotTriggerDefinition snapshotTriggerDefinition,
                                               ParameterResolverFactory parameterResolverFactory) {
+        return createRepository(aggregateFactory, snapshotTriggerDefinition, parameterResolverFactory,
+                                NoOpAggregateLoadMonitor.INSTANCE);
+    }
+
+    /**
+     * Creates a repository instance for an Event Sourced aggregate that is created by the given
+     * {@code aggregateFactory}. Parameters of the annotated methods are resolved using the given
+     * {@code parameterResolverFactory}. The given {@code aggregateLoadMonitor} is notified each time an aggregate is
+     * served from the cache or loaded from the event store.
+     *
+     * @param aggregateFactory          The factory creating uninitialized instances of the Aggregate
+     * @param snapshotTriggerDefinition The trigger definition for snapshots
+     * @param parameterResolverFactory  The ParameterResolverFactory to resolve parameter values of annotated handler
+     *                                  with
+     * @param aggregateLoadMonitor      The monitor to notify of aggregate loads
+     * @param <T>                       The type of aggregate managed by this repository
+     * @return the repository that provides access to stored aggregates
+     */
+    public <T> Repository<T> createRepository(AggregateFactory<T> aggregateFactory,
+                                              SnapshotTriggerDefinition snapshotTriggerDefinition,
+                                              ParameterResolverFactory parameterResolverFactory,
+                                              AggregateLoadMonitor aggregateLoadMonitor) {
         for (CommandHandlerInvoker invoker : commandHandlerInvokers) {
-            invoker.createRepository(aggregateFactory, snapshotTriggerDefinition, parameterResolverFactory);
+            invoker.createRepository(aggregateFactory, snapshotTriggerDefinition, parameterResolverFactory,
+                                     aggregateLoadMonitor);
         }
         return new DisruptorRepository<>(aggregateFactory.getAggregateType());
 
@@ -68,6 +68,8 @@ public class DisruptorConfiguration {
     private CommandTargetResolver commandTargetResolver;
     private int invokerThreadCount = 1;
     private int publisherThreadCount = 1;
+    private int groupCommitSize = 1;
+    private long groupCommitTimeout = 100;
     private Serializer serializer;
     private MessageMonitor<? super CommandMessage<?>> messageMonitor = NoOpMessageMonitor.INSTANCE;
 
@@ -389,6 +391,10 @@ public int getPublisherThreadCount() {
      * <p/>
      * A good value for this setting mainly depends on the number of cores your machine has, as well as the amount of
      * I/O that the process requires. If no I/O is involved, a good starting value is {@code [processors / 2]}.
+     * <p/>
+     * When more than one publisher Thread is used, an additional Thread routes each command to the publisher
+     * responsible for its aggregate. Commands for the same aggregate are always published by the same Thread, in the
+     * order in which they were handled.
      *
      * @param count The number of Threads to use for publishing
      * @return {@code this} for method chaining
@@ -399,6 +405,56 @@ public DisruptorConfiguration setPublisherThreadCount(int count) {
         return this;
     }
 
+    /**
+     * Returns the maximum number of commands a publisher thread commits in a single transaction.
+     *
+     * @return the maximum number of commands committed in a single transaction
+     */
+    public int getGroupCommitSize() {
+        return groupCommitSize;
+    }
+
+    /**
+     * Sets the maximum number of consecutive commands a publisher thread commits in a single transaction. Defaults to
+     * 1, meaning each command is committed in its own transaction.
+     * <p>
+     * Committing commands in groups reduces the number of transactions when many commands are handled, at the cost
+     * of failing all commands in a group when its transaction fails. Results are reported to the callbacks of the
+     * commands when the transaction of their group has been committed. Groups are only used when a
+     * {@link #setTransactionManager(TransactionManager) transaction manager} is configured.
+     *
+     * @param groupCommitSize the maximum number of commands to commit in a single transaction
+     * @return {@code this} for method chaining
+     */
+    public DisruptorConfiguration setGroupCommitSize(int groupCommitSize) { //NOSONAR (setter may hide field)
+        Assert.isTrue(groupCommitSize > 0, () -> "groupCommitSize must be greater than 0");
+        this.groupCommitSize = groupCommitSize;
+        return this;
+    }
+
+    /**
+     * Returns the time, in milliseconds, after which a group of commands is committed.
+     *
+     * @return the group commit timeout in milliseconds
+     */
+    public long getGroupCommitTimeout() {
+        return groupCommitTimeout;
+    }
+
+    /**
+     * Sets the time, in milliseconds, after which a publisher thread commits a group of commands even if more commands
+     * are available. Defaults to 100 milliseconds. Only applies if the {@link #setGroupCommitSize(int) group commit
+     * size} is larger than 1.
+     *
+     * @param groupCommitTimeout the time in milliseconds after which a group of commands is committed
+     * @return {@code this} for method chaining
+     */
+    public DisruptorConfiguration setGroupCommitTimeout(long groupCommitTimeout) { //NOSONAR (setter may hide field)
+        Assert.isTrue(groupCommitTimeout >= 0, () -> "groupCommitTimeout may not be negative");
+        this.groupCommitTimeout = groupCommitTimeout;
+        return this;
+    }
+
     /**
      * Returns the serializer to perform pre-serialization with, or {@code null} if no pre-serialization should be
      * done.
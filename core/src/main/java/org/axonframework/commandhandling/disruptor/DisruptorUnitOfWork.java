@@ -16,6 +16,7 @@
 
 package org.axonframework.commandhandling.disruptor;
 
+import org.axonframework.common.Assert;
 import org.axonframework.messaging.Message;
 import org.axonframework.messaging.unitofwork.*;
 
@@ -68,6 +69,62 @@ public void resume() {
         CurrentUnitOfWork.set(this);
     }
 
+    /**
+     * Starts the commit of this Unit of Work, but only runs the {@link Phase#PREPARE_COMMIT} phase. The commit is
+     * finished using {@link #completeCommit()}, or aborted using {@link #rollback(Throwable)} after {@link #resume()
+     * resuming} the Unit of Work. This allows the changes of a number of Units of Work to be prepared in a transaction
+     * they share, while their commit and after commit handlers are only invoked once that transaction has been
+     * committed. The Unit of Work is paused when this method returns.
+     * <p>
+     * If a handler fails, the Unit of Work is rolled back and the exception is rethrown.
+     */
+    void prepareCommit() {
+        Assert.state(phase() == Phase.STARTED,
+                     () -> String.format("The UnitOfWork is in an incompatible phase: %s", phase()));
+        Assert.state(isCurrent(), () -> "The UnitOfWork is not the current Unit of Work");
+        try {
+            changePhase(Phase.PREPARE_COMMIT);
+        } catch (Exception e) {
+            try {
+                setRollbackCause(e);
+                changePhase(Phase.ROLLBACK);
+            } finally {
+                changePhase(Phase.CLEANUP, Phase.CLOSED);
+            }
+            throw e;
+        } finally {
+            pause();
+        }
+    }
+
+    /**
+     * Finishes the commit of a Unit of Work of which the commit was started using {@link #prepareCommit()}, running
+     * the {@link Phase#COMMIT}, {@link Phase#AFTER_COMMIT} and {@link Phase#CLEANUP} phases.
+     * <p>
+     * If a commit handler fails, the Unit of Work is rolled back and the exception is rethrown.
+     */
+    void completeCommit() {
+        Assert.state(phase() == Phase.PREPARE_COMMIT,
+                     () -> String.format("The UnitOfWork is in an incompatible phase: %s", phase()));
+        resume();
+        try {
+            try {
+                changePhase(Phase.COMMIT);
+            } catch (Exception e) {
+                setRollbackCause(e);
+                changePhase(Phase.ROLLBACK);
+                throw e;
+            }
+            changePhase(Phase.AFTER_COMMIT);
+        } finally {
+            try {
+                changePhase(Phase.CLEANUP, Phase.CLOSED);
+            } finally {
+                pause();
+            }
+        }
+    }
+
     @Override
     public Optional<UnitOfWork<?>> parent() {
         return Optional.empty();
@@ -25,7 +25,9 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Executor;
 
@@ -33,6 +35,14 @@
 
 /**
  * Component of the DisruptorCommandBus that stores and publishes events generated by the command's execution.
+ * <p>
+ * By default each command is committed in its own transaction. When a group commit size larger than 1 is configured,
+ * the publisher commits consecutive commands in a single transaction: up to the end of the batch of commands made
+ * available by the Disruptor, the configured group size, or until the group commit timeout has passed. Only the prepare
+ * commit phase of the Unit of Work of each command runs as part of the shared transaction. Their commit and after
+ * commit phases, and the reporting of their results, are deferred until the shared transaction has been committed. If
+ * it fails, the Units of Work of all commands of the group are rolled back, the commands fail and their aggregates are
+ * blacklisted.
  *
  * @author Allard Buijze
  * @since 2.0
@@ -46,6 +56,11 @@ public class EventPublisher implements EventHandler<CommandHandlingEntry> {
     private final int segmentId;
     private final Set<Object> blackListedAggregates = new HashSet<>();
     private final TransactionManager transactionManager;
+    private final int groupCommitSize;
+    private final long groupCommitTimeout;
+    private final List<GroupedCommand> group = new ArrayList<>();
+    private Transaction groupTransaction;
+    private long groupStartTime;
 
     /**
      * Initializes the EventPublisher to publish Events to the given {@code eventStore} and {@code eventBus}
@@ -59,14 +74,49 @@ public class EventPublisher implements EventHandler<CommandHandlingEntry> {
      */
     public EventPublisher(Executor executor, TransactionManager transactionManager,
                           RollbackConfiguration rollbackConfiguration, int segmentId) {
+        this(executor, transactionManager, rollbackConfiguration, segmentId, 1, 0);
+    }
+
+    /**
+     * Initializes the EventPublisher to publish Events to the given {@code eventStore} and {@code eventBus}
+     * for aggregate of given {@code aggregateType}, committing up to {@code groupCommitSize} consecutive commands in
+     * a single transaction. Commands are only committed as a group if a {@code transactionManager} is given.
+     *
+     * @param executor              The executor which schedules response reporting
+     * @param transactionManager    The transaction manager that manages the transaction around event storage and
+     *                              publication
+     * @param rollbackConfiguration The configuration that indicates which exceptions should result in a UnitOfWork
+     * @param segmentId             The ID of the segment this publisher should handle
+     * @param groupCommitSize       The maximum number of commands to commit in a single transaction
+     * @param groupCommitTimeout    The time in milliseconds after which a group of commands is committed, even if the
+     *                              group could contain more commands
+     */
+    public EventPublisher(Executor executor, TransactionManager transactionManager,
+                          RollbackConfiguration rollbackConfiguration, int segmentId, int groupCommitSize,
+                          long groupCommitTimeout) {
         this.executor = executor;
         this.transactionManager = transactionManager;
         this.rollbackConfiguration = rollbackConfiguration;
         this.segmentId = segmentId;
+        this.groupCommitSize = transactionManager == null ? 1 : groupCommitSize;
+        this.groupCommitTimeout = groupCommitTimeout;
     }
 
     @Override
     public void onEvent(CommandHandlingEntry entry, long sequence, boolean endOfBatch) throws Exception {
+        handle(entry);
+        if (endOfBatch) {
+            onEndOfBatch();
+        }
+    }
+
+    /**
+     * Handles the given {@code entry}, publishing its events if it belongs to the segment of this publisher. If a
+     * group of commands is full or its timeout has passed, the group is committed.
+     *
+     * @param entry The entry to handle
+     */
+    void handle(CommandHandlingEntry entry) {
         if (entry.isRecoverEntry()) {
             recoverAggregate(entry);
         } else if (entry.getPublisherId() == segmentId) {
@@ -78,6 +128,20 @@ public void onEvent(CommandHandlingEntry entry, long sequence, boolean endOfBatc
                 processPublication(entry, entry, aggregateIdentifier);
             }
         }
+        if (groupTransaction != null && (group.size() >= groupCommitSize
+                || System.currentTimeMillis() - groupStartTime >= groupCommitTimeout)) {
+            commitGroup();
+        }
+    }
+
+    /**
+     * Commits the current group of commands, if any. Entries may be reused by the Disruptor after the end of the
+     * batch they were made available in, so a group never extends beyond it.
+     */
+    void onEndOfBatch() {
+        if (groupTransaction != null) {
+            commitGroup();
+        }
     }
 
     private void recoverAggregate(CommandHandlingEntry entry) {
@@ -108,7 +172,10 @@ private void processPublication(CommandHandlingEntry entry, DisruptorUnitOfWork
         } else {
             exceptionResult = performCommit(unitOfWork, entry.getExceptionResult(), aggregateIdentifier);
         }
-        if (exceptionResult != null || entry.getCallback().hasDelegate()) {
+        if (groupTransaction != null && !unitOfWork.isRolledBack() && exceptionResult == entry.getExceptionResult()) {
+            // prepared as part of a group. The commit is completed when the group's transaction is committed
+            group.add(new GroupedCommand(entry, aggregateIdentifier, exceptionResult));
+        } else if (exceptionResult != null || entry.getCallback().hasDelegate()) {
             executor.execute(new ReportResultTask(entry.getMessage(), entry.getCallback(),
                                                   entry.getResult(), exceptionResult));
         }
@@ -137,6 +204,12 @@ private Throwable performCommit(DisruptorUnitOfWork unitOfWork,
         try {
             if (exceptionResult != null && rollbackConfiguration.rollBackOn(exceptionResult)) {
                 unitOfWork.rollback(exceptionResult);
+            } else if (groupCommitSize > 1) {
+                if (groupTransaction == null) {
+                    groupTransaction = transactionManager.startTransaction();
+                    groupStartTime = System.currentTimeMillis();
+                }
+                unitOfWork.prepareCommit();
             } else {
                 if (transactionManager != null) {
                     Transaction transaction = transactionManager.startTransaction();
@@ -150,6 +223,10 @@ private Throwable performCommit(DisruptorUnitOfWork unitOfWork,
                 // probably the transaction failed. Unit of Work needs to be rolled back.
                 unitOfWork.rollback(e);
             }
+            if (groupTransaction != null) {
+                // the shared transaction can no longer be committed, failing the other commands in the group
+                rollbackGroup(e);
+            }
             if (aggregateIdentifier != null) {
                 return notifyBlacklisted(unitOfWork, aggregateIdentifier, e);
             } else {
@@ -159,18 +236,94 @@ private Throwable performCommit(DisruptorUnitOfWork unitOfWork,
         return exceptionResult;
     }
 
+    private void commitGroup() {
+        Transaction transaction = groupTransaction;
+        groupTransaction = null;
+        try {
+            transaction.commit();
+        } catch (Exception e) {
+            failGroup(e);
+            return;
+        }
+        for (GroupedCommand command : group) {
+            completeCommit(command);
+        }
+        group.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void completeCommit(GroupedCommand command) {
+        CommandHandlingEntry entry = command.entry;
+        Throwable exceptionResult = command.exceptionResult;
+        try {
+            entry.completeCommit();
+        } catch (Exception e) {
+            exceptionResult = command.aggregateIdentifier == null ? e : blacklist(command.aggregateIdentifier, e);
+        }
+        if (exceptionResult != null || entry.getCallback().hasDelegate()) {
+            executor.execute(new ReportResultTask(entry.getMessage(), entry.getCallback(), entry.getResult(),
+                                                  exceptionResult));
+        }
+    }
+
+    private void rollbackGroup(Exception cause) {
+        Transaction transaction = groupTransaction;
+        groupTransaction = null;
+        try {
+            transaction.rollback();
+        } catch (Exception e) {
+            logger.warn("Failed to roll back the transaction of a group of commands", e);
+        }
+        failGroup(cause);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void failGroup(Exception cause) {
+        // the changes of the group have not been stored, so the state of their aggregates is no longer valid
+        for (GroupedCommand command : group) {
+            CommandHandlingEntry entry = command.entry;
+            Throwable exceptionResult = command.aggregateIdentifier == null
+                    ? cause : blacklist(command.aggregateIdentifier, cause);
+            try {
+                entry.resume();
+                entry.rollback(exceptionResult);
+            } catch (Exception e) {
+                logger.warn("Failed to roll back the Unit of Work of a command in a group", e);
+            }
+            executor.execute(new ReportResultTask(entry.getMessage(), entry.getCallback(), null, exceptionResult));
+        }
+        group.clear();
+    }
+
     private Throwable notifyBlacklisted(DisruptorUnitOfWork unitOfWork, String aggregateIdentifier,
                                         Throwable cause) {
+        Throwable exceptionResult = blacklist(aggregateIdentifier, cause);
+        if (unitOfWork.isActive()) {
+            unitOfWork.rollback(exceptionResult);
+        }
+        return exceptionResult;
+    }
+
+    private Throwable blacklist(String aggregateIdentifier, Throwable cause) {
         blackListedAggregates.add(aggregateIdentifier);
-        Throwable exceptionResult = new AggregateBlacklistedException(
+        return new AggregateBlacklistedException(
                 aggregateIdentifier,
                 format("Aggregate %s state corrupted. "
                                + "Blacklisting the aggregate until a reset message has been received",
                        aggregateIdentifier), cause);
-        if (unitOfWork.isActive()) {
-            unitOfWork.rollback(exceptionResult);
+    }
+
+    private static class GroupedCommand {
+
+        private final CommandHandlingEntry entry;
+        private final String aggregateIdentifier;
+        private final Throwable exceptionResult;
+
+        private GroupedCommand(CommandHandlingEntry entry, String aggregateIdentifier, Throwable exceptionResult) {
+            this.entry = entry;
+            this.aggregateIdentifier = aggregateIdentifier;
+            this.exceptionResult = exceptionResult;
         }
-        return exceptionResult;
     }
 
     private static class ReportResultTask<C, R> implements Runnable {
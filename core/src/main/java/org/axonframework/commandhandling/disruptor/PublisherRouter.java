@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2010-2017. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.disruptor;
+
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.LifecycleAware;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Component of the DisruptorCommandBus that routes entries to the {@link EventPublisher} of their segment. Each
+ * publisher runs in its own thread and is only handed the entries of its own segment, instead of reading every entry
+ * of the ring buffer and skipping the ones belonging to other segments. Entries of an aggregate are always routed to
+ * the same publisher, in the order in which they appear in the ring buffer.
+ * <p>
+ * The Disruptor may reuse entries once this router has processed them. Therefore, at the end of each batch, the
+ * router waits until all publishers have processed the entries they have been handed. While waiting, the router
+ * periodically checks the publishers that haven't finished yet. A publisher that takes long is reported in the log,
+ * and a publisher whose thread has stopped or was never started causes the batch to fail.
+ * <p>
+ * Exceptions thrown by a publisher while handling an entry are collected by its thread and reported to the
+ * router's {@link ExceptionHandler} once the batch has been published, on the thread of the router, with the entry
+ * and sequence that caused them.
+ *
+ * @since 3.1
+ */
+class PublisherRouter implements EventHandler<CommandHandlingEntry>, LifecycleAware {
+
+    private static final Logger logger = LoggerFactory.getLogger(PublisherRouter.class);
+    private static final Object STOP = new Object();
+    private static final long PUBLICATION_CHECK_INTERVAL_MILLIS = 5000;
+
+    private final Executor executor;
+    private final ExceptionHandler exceptionHandler;
+    private final PublisherWorker[] workers;
+    private final boolean[] pending;
+    private final long checkIntervalMillis;
+
+    /**
+     * Initializes a router that hands entries to the given {@code publishers}, based on the publisher identifier of
+     * the entry. The threads of the publishers are requested from the given {@code executor} when the router is
+     * {@link #start() started}.
+     *
+     * @param publishers       The publishers to route entries to, indexed by their segment identifier
+     * @param executor         The executor providing the threads for the publishers
+     * @param exceptionHandler The handler to report exceptions thrown by the publishers to
+     * @param bufferSize       The size of the ring buffer, which limits the number of entries in a batch
+     */
+    PublisherRouter(EventPublisher[] publishers, Executor executor, ExceptionHandler exceptionHandler,
+                    int bufferSize) {
+        this(publishers, executor, exceptionHandler, bufferSize, PUBLICATION_CHECK_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Initializes a router that hands entries to the given {@code publishers}, checking the publishers that haven't
+     * finished their batch every {@code checkIntervalMillis} milliseconds.
+     *
+     * @param publishers          The publishers to route entries to, indexed by their segment identifier
+     * @param executor            The executor providing the threads for the publishers
+     * @param exceptionHandler    The handler to report exceptions thrown by the publishers to
+     * @param bufferSize          The size of the ring buffer, which limits the number of entries in a batch
+     * @param checkIntervalMillis The time between two checks of the publishers while waiting for a batch
+     */
+    PublisherRouter(EventPublisher[] publishers, Executor executor, ExceptionHandler exceptionHandler,
+                    int bufferSize, long checkIntervalMillis) {
+        this.executor = executor;
+        this.exceptionHandler = exceptionHandler;
+        this.checkIntervalMillis = checkIntervalMillis;
+        this.workers = new PublisherWorker[publishers.length];
+        this.pending = new boolean[publishers.length];
+        for (int i = 0; i < publishers.length; i++) {
+            // a batch never holds more entries than the ring buffer, plus room for the end-of-batch and stop signals
+            workers[i] = new PublisherWorker(publishers[i], bufferSize + 2);
+        }
+    }
+
+    @Override
+    public void onEvent(CommandHandlingEntry entry, long sequence, boolean endOfBatch) throws Exception {
+        if (entry.isRecoverEntry()) {
+            for (int i = 0; i < workers.length; i++) {
+                route(i, entry, sequence);
+            }
+        } else {
+            route(entry.getPublisherId(), entry, sequence);
+        }
+        if (endOfBatch) {
+            awaitPublication();
+        }
+    }
+
+    private void route(int segment, CommandHandlingEntry entry, long sequence) throws InterruptedException {
+        PublisherWorker worker = workers[segment];
+        // the sequences are only read by this thread, to report the entries that the publisher failed to handle
+        worker.sequences[worker.routedCount++] = sequence;
+        worker.queue.put(entry);
+        pending[segment] = true;
+    }
+
+    private void awaitPublication() throws InterruptedException {
+        int pendingCount = 0;
+        for (boolean workerPending : pending) {
+            if (workerPending) {
+                pendingCount++;
+            }
+        }
+        CountDownLatch published = new CountDownLatch(pendingCount);
+        int[] pendingSegments = new int[pendingCount];
+        for (int i = 0, p = 0; i < workers.length; i++) {
+            if (pending[i]) {
+                workers[i].queue.put(published);
+                pending[i] = false;
+                pendingSegments[p++] = i;
+            }
+        }
+        try {
+            long waitedMillis = 0;
+            while (!published.await(checkIntervalMillis, TimeUnit.MILLISECONDS)) {
+                waitedMillis += checkIntervalMillis;
+                checkWorkers(pendingSegments, published, waitedMillis);
+            }
+            for (int i : pendingSegments) {
+                reportFailures(workers[i]);
+            }
+        } finally {
+            for (int i : pendingSegments) {
+                workers[i].routedCount = 0;
+            }
+        }
+    }
+
+    private void reportFailures(PublisherWorker worker) {
+        // the publisher has counted down the latch after its last failure, making them visible to this thread
+        for (Failure failure : worker.failures) {
+            exceptionHandler.handleEventException(failure.exception, worker.sequences[failure.index],
+                                                  failure.entry);
+        }
+        worker.failures.clear();
+    }
+
+    private void checkWorkers(int[] pendingSegments, CountDownLatch published, long waitedMillis) {
+        for (int i : pendingSegments) {
+            PublisherWorker worker = workers[i];
+            if (worker.lastPublished == published) {
+                continue;
+            }
+            if (worker.thread == null) {
+                throw new IllegalStateException(String.format(
+                        "The publisher of segment %d has not been started after %d ms. Make sure the Executor "
+                                + "provides a thread for each publisher.", i, waitedMillis));
+            }
+            if (worker.stopped) {
+                throw new IllegalStateException(String.format(
+                        "The thread of the publisher of segment %d has stopped before it finished its batch", i));
+            }
+            logger.warn("The publisher of segment {} has not finished its batch after {} ms", i, waitedMillis);
+        }
+    }
+
+    /**
+     * Starts the threads of the publishers. This method must be invoked before the Disruptor is started.
+     */
+    void start() {
+        for (PublisherWorker worker : workers) {
+            executor.execute(worker);
+        }
+    }
+
+    @Override
+    public void onStart() {
+        // the publisher threads are started together with the Disruptor's own threads, see start()
+    }
+
+    @Override
+    public void onShutdown() {
+        for (PublisherWorker worker : workers) {
+            worker.queue.offer(STOP);
+        }
+    }
+
+    private static class PublisherWorker implements Runnable {
+
+        private final EventPublisher publisher;
+        private final BlockingQueue<Object> queue;
+        private final long[] sequences;
+        private final List<Failure> failures = new ArrayList<>();
+        private int routedCount;
+        private int publishedCount;
+        private volatile Thread thread;
+        private volatile boolean stopped;
+        private volatile CountDownLatch lastPublished;
+
+        private PublisherWorker(EventPublisher publisher, int capacity) {
+            this.publisher = publisher;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.sequences = new long[capacity];
+        }
+
+        @Override
+        public void run() {
+            thread = Thread.currentThread();
+            try {
+                Object item;
+                while ((item = queue.take()) != STOP) {
+                    if (item instanceof CountDownLatch) {
+                        endBatch((CountDownLatch) item);
+                    } else {
+                        publish((CommandHandlingEntry) item);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                stopped = true;
+            }
+        }
+
+        private void publish(CommandHandlingEntry entry) {
+            try {
+                publisher.handle(entry);
+            } catch (Exception e) {
+                failures.add(new Failure(publishedCount, entry, e));
+            }
+            publishedCount++;
+        }
+
+        private void endBatch(CountDownLatch published) {
+            try {
+                publisher.onEndOfBatch();
+            } finally {
+                publishedCount = 0;
+                lastPublished = published;
+                published.countDown();
+            }
+        }
+    }
+
+    private static class Failure {
+
+        private final int index;
+        private final CommandHandlingEntry entry;
+        private final Exception exception;
+
+        private Failure(int index, CommandHandlingEntry entry, Exception exception) {
+            this.index = index;
+            this.entry = entry;
+            this.exception = exception;
+        }
+    }
+}
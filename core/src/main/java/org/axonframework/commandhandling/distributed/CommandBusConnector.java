@@ -21,6 +21,8 @@
 import org.axonframework.common.Registration;
 import org.axonframework.messaging.MessageHandler;
 
+import java.util.List;
+
 /**
  * Interface describing the component that remotely connects multiple CommandBus instances.
  *
@@ -72,6 +74,43 @@ public interface CommandBusConnector {
      */
     <C, R> void send(Member destination, CommandMessage<C> command, CommandCallback<? super C, R> callback) throws Exception;
 
+    /**
+     * Sends the given batch of {@code commands} to the given {@code destination}. The sender expects a reply for each
+     * of the commands, and will be notified of the results in the given {@code callback}.
+     * <p/>
+     * If this method throws an exception, the sender is guaranteed that the destination did not receive any of the
+     * commands. If the method returns normally, the callback <em>should</em> be invoked with an outcome for each of the
+     * commands.
+     * <p/>
+     * Connectors may override this method to send the commands in a single round-trip. By default, the commands are
+     * sent one by one using {@link #send(Member, CommandMessage, CommandCallback)}. If sending one of the commands
+     * fails, the failure is reported to the callback for that command and the commands following it, unless it
+     * concerns the first command, in which case the exception is thrown.
+     *
+     * @param destination The member of the network to send the messages to
+     * @param commands    The commands to send to the (remote) member
+     * @param callback    The callback to invoke for each of the commands
+     * @param <R>         The type of object expected as result of the commands
+     * @throws Exception when an error occurs before or during the sending of the first message
+     */
+    default <R> void sendAll(Member destination, List<? extends CommandMessage<?>> commands,
+                             CommandCallback<Object, R> callback) throws Exception {
+        for (int i = 0; i < commands.size(); i++) {
+            try {
+                send(destination, commands.get(i), callback);
+            } catch (Exception e) {
+                if (i == 0) {
+                    throw e;
+                }
+                for (CommandMessage<?> command : commands.subList(i, commands.size())) {
+                    callback.onFailure(command, new CommandDispatchException(
+                            "An error occurred while sending a batch of commands: " + e.getMessage(), e));
+                }
+                return;
+            }
+        }
+    }
+
     /**
      * Subscribes a command message handler for commands with given {@code commandName}.
      *
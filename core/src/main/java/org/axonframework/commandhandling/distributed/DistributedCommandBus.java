@@ -30,7 +30,11 @@
 import org.axonframework.monitoring.MessageMonitor;
 import org.axonframework.monitoring.NoOpMessageMonitor;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
@@ -131,6 +135,60 @@ public <C, R> void dispatch(CommandMessage<C> command, CommandCallback<? super C
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The commands are grouped per destination, and each group is sent to its destination using {@link
+     * CommandBusConnector#sendAll(Member, List, CommandCallback)}, allowing the connector to send the group in a single
+     * round-trip. A failure to send the commands to one of the destinations is reported to the callback for each of
+     * the commands in that group, and does not affect the commands sent to other destinations.
+     *
+     * @throws CommandDispatchException when no destination is known for one of the commands. In that case, none of the
+     *                                  commands is dispatched
+     */
+    @Override
+    public <R> void dispatchAll(List<? extends CommandMessage<?>> commands, CommandCallback<Object, R> callback) {
+        Map<Member, List<CommandMessage<?>>> commandsPerDestination = new LinkedHashMap<>();
+        for (CommandMessage<?> command : commands) {
+            CommandMessage<?> interceptedCommand = intercept(command);
+            Member destination = commandRouter.findDestination(command)
+                    .orElseThrow(() -> new CommandDispatchException("No node known to accept " + command.getCommandName()));
+            commandsPerDestination.computeIfAbsent(destination, m -> new ArrayList<>()).add(interceptedCommand);
+        }
+        Map<String, MessageMonitor.MonitorCallback> monitorCallbacks = new ConcurrentHashMap<>();
+        commandsPerDestination.values().forEach(group -> group.forEach(
+                command -> monitorCallbacks.put(command.getIdentifier(), messageMonitor.onMessageIngested(command))));
+        CommandCallback<Object, R> monitorAwareCallback = new CommandCallback<Object, R>() {
+            @Override
+            public void onSuccess(CommandMessage<?> commandMessage, R result) {
+                MessageMonitor.MonitorCallback monitorCallback = monitorCallbacks.remove(commandMessage.getIdentifier());
+                if (monitorCallback != null) {
+                    monitorCallback.reportSuccess();
+                }
+                callback.onSuccess(commandMessage, result);
+            }
+
+            @Override
+            public void onFailure(CommandMessage<?> commandMessage, Throwable cause) {
+                MessageMonitor.MonitorCallback monitorCallback = monitorCallbacks.remove(commandMessage.getIdentifier());
+                if (monitorCallback != null) {
+                    monitorCallback.reportFailure(cause);
+                }
+                callback.onFailure(commandMessage, cause);
+            }
+        };
+        commandsPerDestination.forEach((destination, group) -> {
+            try {
+                connector.sendAll(destination, group, monitorAwareCallback);
+            } catch (Exception e) {
+                destination.suspect();
+                CommandDispatchException exception =
+                        new CommandDispatchException(DISPATCH_ERROR_MESSAGE + ": " + e.getMessage(), e);
+                group.forEach(command -> monitorAwareCallback.onFailure(command, exception));
+            }
+        });
+    }
+
     @SuppressWarnings("unchecked")
     private <C> CommandMessage<? extends C> intercept(CommandMessage<C> command) {
         CommandMessage<? extends C> interceptedCommand = command;
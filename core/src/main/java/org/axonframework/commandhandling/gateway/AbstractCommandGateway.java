@@ -22,10 +22,14 @@
 import org.axonframework.commandhandling.callbacks.LoggingCallback;
 import org.axonframework.common.Assert;
 import org.axonframework.messaging.MessageDispatchInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.axonframework.commandhandling.GenericCommandMessage.asCommandMessage;
 
@@ -38,6 +42,8 @@
  */
 public abstract class AbstractCommandGateway {
 
+    private static final Logger logger = LoggerFactory.getLogger(AbstractCommandGateway.class);
+
     private final CommandBus commandBus;
     private final RetryScheduler retryScheduler;
     private final List<MessageDispatchInterceptor<? super CommandMessage<?>>> dispatchInterceptors;
@@ -79,6 +85,55 @@ protected <C, R> void send(C command, CommandCallback<? super C, R> callback) {
         commandBus.dispatch(commandMessage, commandCallback);
     }
 
+    /**
+     * Sends the given batch of {@code commands}, and invokes the callback at the same position in the given list of
+     * {@code callbacks} when a command is processed.
+     * <p/>
+     * The results reported by the Command Bus are matched with the commands based on the message identifier. Dispatch
+     * interceptors registered with the Command Bus must therefore not change the identifier of the commands.
+     *
+     * @param commands  The commands to dispatch
+     * @param callbacks The callbacks to notify with the processing result of each of the commands
+     * @param <R>       The type of response expected from the commands
+     */
+    protected <R> void sendAll(List<?> commands, List<? extends CommandCallback<Object, R>> callbacks) {
+        Assert.isTrue(commands.size() == callbacks.size(), () -> "A callback must be provided for each command");
+        List<CommandMessage<?>> commandMessages = new ArrayList<>(commands.size());
+        Map<String, CommandCallback<Object, R>> callbacksByIdentifier = new ConcurrentHashMap<>();
+        for (int i = 0; i < commands.size(); i++) {
+            CommandMessage<?> commandMessage = processInterceptors(asCommandMessage(commands.get(i)));
+            CommandCallback<Object, R> commandCallback = callbacks.get(i);
+            if (retryScheduler != null) {
+                commandCallback = new RetryingCallback<>(commandCallback, retryScheduler, commandBus);
+            }
+            commandMessages.add(commandMessage);
+            callbacksByIdentifier.put(commandMessage.getIdentifier(), commandCallback);
+        }
+        commandBus.dispatchAll(commandMessages, new CommandCallback<Object, R>() {
+            @Override
+            public void onSuccess(CommandMessage<?> commandMessage, R result) {
+                CommandCallback<Object, R> callback = callbacksByIdentifier.remove(commandMessage.getIdentifier());
+                if (callback != null) {
+                    callback.onSuccess(commandMessage, result);
+                } else {
+                    logger.warn("Unable to report the result of command [{}], as its identifier was changed",
+                                commandMessage.getCommandName());
+                }
+            }
+
+            @Override
+            public void onFailure(CommandMessage<?> commandMessage, Throwable cause) {
+                CommandCallback<Object, R> callback = callbacksByIdentifier.remove(commandMessage.getIdentifier());
+                if (callback != null) {
+                    callback.onFailure(commandMessage, cause);
+                } else {
+                    logger.warn("Unable to report the failure of command [{}], as its identifier was changed",
+                                commandMessage.getCommandName(), cause);
+                }
+            }
+        });
+    }
+
     /**
      * Dispatches a command without callback. When dispatching fails, since there is no callback, the command will
      * <em>not</em> be retried.
@@ -20,6 +20,8 @@
 import org.axonframework.commandhandling.CommandExecutionException;
 import org.axonframework.messaging.Message;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -104,4 +106,31 @@ public interface CommandGateway {
      * @return a {@link CompletableFuture} which is resolved when the command is executed
      */
     <R> CompletableFuture<R> send(Object command);
+
+    /**
+     * Sends the given batch of {@code commands} and returns immediately, without waiting for the commands to execute.
+     * The returned list contains a {@link CompletableFuture} for each of the given commands, in the same order, which
+     * is resolved when that command is executed. To wait for all commands to execute, combine the futures using {@link
+     * CompletableFuture#allOf(CompletableFuture[])}.
+     * <p/>
+     * The commands are dispatched using {@link org.axonframework.commandhandling.CommandBus#dispatchAll(List,
+     * CommandCallback)}, allowing the Command Bus to reduce the overhead of processing them. Callers are responsible
+     * for limiting the size of each batch.
+     * <p/>
+     * Each of the given {@code commands} is wrapped as the payload of a CommandMessage, unless it already implements
+     * {@link Message}. In that case, a CommandMessage is constructed from that message's payload and MetaData.
+     * <p/>
+     * By default, each of the commands is sent separately using {@link #send(Object)}.
+     *
+     * @param commands The commands to dispatch
+     * @param <R>      The type of result expected from command execution
+     * @return a list of {@link CompletableFuture CompletableFutures}, one for each of the given commands
+     */
+    default <R> List<CompletableFuture<R>> sendAll(List<?> commands) {
+        List<CompletableFuture<R>> futures = new ArrayList<>(commands.size());
+        for (Object command : commands) {
+            futures.add(send(command));
+        }
+        return futures;
+    }
 }
@@ -25,6 +25,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
@@ -143,4 +144,17 @@ public <R> CompletableFuture<R> send(Object command) {
         send(command, new FailureLoggingCallback<>(logger, callback));
         return callback;
     }
+
+    @Override
+    public <R> List<CompletableFuture<R>> sendAll(List<?> commands) {
+        List<CompletableFuture<R>> futures = new ArrayList<>(commands.size());
+        List<CommandCallback<Object, R>> callbacks = new ArrayList<>(commands.size());
+        for (int i = 0; i < commands.size(); i++) {
+            FutureCallback<Object, R> callback = new FutureCallback<>();
+            futures.add(callback);
+            callbacks.add(new FailureLoggingCallback<>(logger, callback));
+        }
+        sendAll(commands, callbacks);
+        return futures;
+    }
 }
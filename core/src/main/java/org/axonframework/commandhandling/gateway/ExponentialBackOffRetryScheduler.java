@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2010-2017. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.gateway;
+
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.common.Assert;
+import org.axonframework.common.AxonNonTransientException;
+import org.axonframework.monitoring.MessageMonitor;
+import org.axonframework.monitoring.NoOpMessageMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RetryScheduler implementation that retries commands with an exponentially increasing, randomized delay when they
+ * fail because of an exception that is not explicitly non-transient, see {@link #isExplicitlyNonTransient(Throwable)}.
+ * <p/>
+ * The delay before the n-th retry is chosen randomly between the initial back-off and the initial back-off multiplied
+ * by 3<sup>n</sup>, limited by the maximum back-off. The randomization spreads the retries of commands that failed at
+ * the same time, so that they do not all hit the failing resource again at the same moment.
+ * <p/>
+ * Optionally, retries are limited by a retry budget that is shared by all commands retried by this scheduler. The
+ * budget is a bucket of tokens that is refilled at a fixed rate. Each retry takes a token, and when the bucket is
+ * empty, commands fail without being retried. This prevents retries from multiplying the load on a resource that is
+ * failing for a longer period of time.
+ * <p/>
+ * Each decision of the scheduler is reported to the configured {@link MessageMonitor}: a scheduled retry is reported
+ * as a success, a command that is not retried because its failure is non-transient is reported as ignored, and a
+ * command that is not retried because it has reached the maximum number of retries, or because the retry budget is
+ * exhausted, is reported as a failure.
+ *
+ * @since 3.1
+ */
+public class ExponentialBackOffRetryScheduler implements RetryScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExponentialBackOffRetryScheduler.class);
+
+    private final ScheduledExecutorService retryExecutor;
+    private final long initialBackOff;
+    private final long maxBackOff;
+    private final int maxRetryCount;
+    private final RetryBudget retryBudget;
+    private final MessageMonitor<? super CommandMessage<?>> messageMonitor;
+
+    /**
+     * Initializes a retry scheduler with the settings of the given {@code builder}.
+     *
+     * @param builder The builder containing the settings of the retry scheduler
+     */
+    protected ExponentialBackOffRetryScheduler(Builder builder) {
+        Assert.notNull(builder.retryExecutor, () -> "The executor to schedule retries on must be configured");
+        this.retryExecutor = builder.retryExecutor;
+        this.initialBackOff = builder.initialBackOff;
+        this.maxBackOff = Math.max(builder.initialBackOff, builder.maxBackOff);
+        this.maxRetryCount = builder.maxRetryCount;
+        this.retryBudget = builder.budgetCapacity > 0
+                ? new RetryBudget(builder.budgetCapacity, builder.budgetRefillPerSecond, builder.clock) : null;
+        this.messageMonitor = builder.messageMonitor;
+    }
+
+    /**
+     * Returns a new {@link Builder} to configure an ExponentialBackOffRetryScheduler.
+     *
+     * @return a builder for an ExponentialBackOffRetryScheduler
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean scheduleRetry(CommandMessage commandMessage, RuntimeException lastFailure,
+                                 List<Class<? extends Throwable>[]> failures, Runnable dispatchTask) {
+        MessageMonitor.MonitorCallback monitorCallback =
+                messageMonitor.onMessageIngested((CommandMessage<?>) commandMessage);
+        int failureCount = failures.size();
+        String commandName = commandMessage.getPayloadType().getSimpleName();
+        if (isExplicitlyNonTransient(lastFailure)) {
+            logger.info("Processing of Command [{}] resulted in an exception and will not be retried. ",
+                        commandName, lastFailure);
+            monitorCallback.reportIgnored();
+            return false;
+        }
+        if (failureCount > maxRetryCount) {
+            logger.info("Processing of Command [{}] resulted in an exception {} times. Giving up permanently. ",
+                        commandName, failureCount, lastFailure);
+            monitorCallback.reportFailure(lastFailure);
+            return false;
+        }
+        if (retryBudget != null && !retryBudget.tryAcquire()) {
+            logger.info("Processing of Command [{}] resulted in an exception. The retry budget is exhausted, so it "
+                                + "will not be retried. ", commandName, lastFailure);
+            monitorCallback.reportFailure(lastFailure);
+            return false;
+        }
+        long delay = computeDelay(failureCount);
+        if (logger.isInfoEnabled()) {
+            logger.info("Processing of Command [{}] resulted in an exception. Will retry in {} ms, {} more time(s) at "
+                                + "most... Exception was {}, {}",
+                        commandName, delay, maxRetryCount - failureCount, lastFailure.getClass().getName(),
+                        lastFailure.getMessage());
+        }
+        try {
+            retryExecutor.schedule(dispatchTask, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            monitorCallback.reportFailure(lastFailure);
+            return false;
+        }
+        monitorCallback.reportSuccess();
+        return true;
+    }
+
+    /**
+     * Computes the delay, in milliseconds, before the retry that follows the given number of failures. The delay is
+     * chosen randomly between the initial back-off and the initial back-off multiplied by 3 to the power of the number
+     * of failures, and is limited by the maximum back-off.
+     *
+     * @param failureCount The number of times the command has failed
+     * @return the delay in milliseconds
+     */
+    protected long computeDelay(int failureCount) {
+        double upperBound = initialBackOff * Math.pow(3, failureCount);
+        long limit = upperBound >= maxBackOff ? maxBackOff : (long) upperBound;
+        return limit > initialBackOff ? ThreadLocalRandom.current().nextLong(initialBackOff, limit + 1) : limit;
+    }
+
+    /**
+     * Indicates whether the given {@code failure} is clearly non-transient. That means, whether the {@code failure}
+     * explicitly states that a retry of the same Command would result in the same failure to occur again.
+     *
+     * @param failure The exception that occurred while processing a command
+     * @return {@code true} if the exception is clearly non-transient and the command should <em>not</em> be
+     * retried, or {@code false} when the command has a chance of succeeding if it retried.
+     */
+    protected boolean isExplicitlyNonTransient(Throwable failure) {
+        return failure instanceof AxonNonTransientException
+                || (failure.getCause() != null && isExplicitlyNonTransient(failure.getCause()));
+    }
+
+    private static final class RetryBudget {
+
+        private final double capacity;
+        private final double refillPerMillisecond;
+        private final Clock clock;
+        private double tokens;
+        private long lastRefill;
+
+        private RetryBudget(int capacity, double refillPerSecond, Clock clock) {
+            this.capacity = capacity;
+            this.refillPerMillisecond = refillPerSecond / 1000;
+            this.clock = clock;
+            this.tokens = capacity;
+            this.lastRefill = clock.millis();
+        }
+
+        private synchronized boolean tryAcquire() {
+            long now = clock.millis();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerMillisecond);
+            lastRefill = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+
+    /**
+     * Builder for an {@link ExponentialBackOffRetryScheduler}. The executor on which retries are scheduled must be
+     * configured.
+     */
+    public static class Builder {
+
+        private ScheduledExecutorService retryExecutor;
+        private long initialBackOff = 100;
+        private long maxBackOff = 10000;
+        private int maxRetryCount = 5;
+        private int budgetCapacity;
+        private double budgetRefillPerSecond;
+        private Clock clock = Clock.systemUTC();
+        private MessageMonitor<? super CommandMessage<?>> messageMonitor = NoOpMessageMonitor.INSTANCE;
+
+        /**
+         * Sets the executor on which retries are scheduled.
+         *
+         * @param retryExecutor the executor on which to schedule retries
+         * @return the modified Builder instance
+         */
+        public Builder withExecutor(ScheduledExecutorService retryExecutor) {
+            Assert.notNull(retryExecutor, () -> "The executor may not be null");
+            this.retryExecutor = retryExecutor;
+            return this;
+        }
+
+        /**
+         * Sets the initial back-off, which is the minimum delay before a retry. Defaults to 100 milliseconds.
+         *
+         * @param initialBackOff the minimum delay before a retry
+         * @param unit           the unit of the given delay
+         * @return the modified Builder instance
+         */
+        public Builder withInitialBackOff(long initialBackOff, TimeUnit unit) {
+            Assert.isTrue(initialBackOff >= 0, () -> "The initial back-off may not be negative");
+            this.initialBackOff = unit.toMillis(initialBackOff);
+            return this;
+        }
+
+        /**
+         * Sets the maximum delay before a retry. Defaults to 10 seconds.
+         *
+         * @param maxBackOff the maximum delay before a retry
+         * @param unit       the unit of the given delay
+         * @return the modified Builder instance
+         */
+        public Builder withMaxBackOff(long maxBackOff, TimeUnit unit) {
+            Assert.isTrue(maxBackOff >= 0, () -> "The maximum back-off may not be negative");
+            this.maxBackOff = unit.toMillis(maxBackOff);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of retries of a single command. Defaults to 5.
+         *
+         * @param maxRetryCount the maximum number of retries of a command
+         * @return the modified Builder instance
+         */
+        public Builder withMaxRetryCount(int maxRetryCount) {
+            Assert.isTrue(maxRetryCount >= 0, () -> "The maximum number of retries may not be negative");
+            this.maxRetryCount = maxRetryCount;
+            return this;
+        }
+
+        /**
+         * Limits the retries of all commands to a budget of at most {@code capacity} retries, which is replenished
+         * with {@code refillPerSecond} retries per second. By default, retries are not limited by a budget.
+         *
+         * @param capacity        the maximum number of retries that can be scheduled in a burst
+         * @param refillPerSecond the number of retries per second added to the budget
+         * @return the modified Builder instance
+         */
+        public Builder withRetryBudget(int capacity, double refillPerSecond) {
+            Assert.isTrue(capacity > 0, () -> "The capacity of the retry budget must be positive");
+            Assert.isTrue(refillPerSecond >= 0, () -> "The refill rate of the retry budget may not be negative");
+            this.budgetCapacity = capacity;
+            this.budgetRefillPerSecond = refillPerSecond;
+            return this;
+        }
+
+        /**
+         * Sets the clock used to replenish the retry budget. Defaults to the system UTC clock.
+         *
+         * @param clock the clock to use
+         * @return the modified Builder instance
+         */
+        public Builder withClock(Clock clock) {
+            Assert.notNull(clock, () -> "The clock may not be null");
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * Sets the monitor to report the decisions of the scheduler to. Defaults to no monitoring.
+         *
+         * @param messageMonitor the message monitor to report to
+         * @return the modified Builder instance
+         */
+        public Builder withMessageMonitor(MessageMonitor<? super CommandMessage<?>> messageMonitor) {
+            Assert.notNull(messageMonitor, () -> "The message monitor may not be null");
+            this.messageMonitor = messageMonitor;
+            return this;
+        }
+
+        /**
+         * Initializes an {@link ExponentialBackOffRetryScheduler} with the settings of this builder.
+         *
+         * @return a retry scheduler with the settings of this builder
+         */
+        public ExponentialBackOffRetryScheduler build() {
+            return new ExponentialBackOffRetryScheduler(this);
+        }
+    }
+}
@@ -19,6 +19,7 @@
 import org.axonframework.common.Assert;
 import org.axonframework.common.lock.Lock;
 import org.axonframework.common.lock.LockFactory;
+import org.axonframework.common.lock.NullLockFactory;
 import org.axonframework.common.lock.PessimisticLockFactory;
 import org.axonframework.messaging.annotation.ParameterResolverFactory;
 import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
@@ -103,7 +104,7 @@ protected LockAwareAggregate<T, A> doCreateNew(Callable<T> factoryMethod) throws
         final String aggregateIdentifier = aggregate.identifierAsString();
         Lock lock = lockFactory.obtainLock(aggregateIdentifier);
         try {
-            CurrentUnitOfWork.get().onCleanup(u -> lock.release());
+            releaseOnCleanup(lock);
         } catch (Throwable ex) {
             if (lock != null) {
                 logger.debug("Exception occurred while trying to add an aggregate. Releasing lock.", ex);
@@ -137,7 +138,7 @@ protected LockAwareAggregate<T, A> doLoad(String aggregateIdentifier, Long expec
         Lock lock = lockFactory.obtainLock(aggregateIdentifier);
         try {
             final A aggregate = doLoadWithLock(aggregateIdentifier, expectedVersion);
-            CurrentUnitOfWork.get().onCleanup(u -> lock.release());
+            releaseOnCleanup(lock);
             return new LockAwareAggregate<>(aggregate, lock);
         } catch (Throwable ex) {
             logger.debug("Exception occurred while trying to load an aggregate. Releasing lock.", ex);
@@ -146,6 +147,13 @@ protected LockAwareAggregate<T, A> doLoad(String aggregateIdentifier, Long expec
         }
     }
 
+    private void releaseOnCleanup(Lock lock) {
+        // locks of the NullLockFactory don't need to be released, so optimistic repositories skip the bookkeeping
+        if (lockFactory != NullLockFactory.INSTANCE) {
+            CurrentUnitOfWork.get().onCleanup(u -> lock.release());
+        }
+    }
+
     @Override
     protected void prepareForCommit(LockAwareAggregate<T, A> aggregate) {
         Assert.state(aggregate.isLockHeld(), () -> "An aggregate is being used for which a lock is no longer held");
@@ -44,7 +44,6 @@
     private final List<ChildEntity<T>> children;
     private final AnnotatedHandlerInspector<T> handlerInspector;
     private final Map<String, MessageHandlingMember<? super T>> commandHandlers;
-    private final List<MessageHandlingMember<? super T>> eventHandlers;
 
     private String aggregateType;
     private Field identifierField;
@@ -56,7 +55,6 @@ private ModelInspector(Class<? extends T> inspectedType, Map<Class<?>, ModelInsp
         this.inspectedType = inspectedType;
         this.registry = registry;
         this.commandHandlers = new HashMap<>();
-        this.eventHandlers = new ArrayList<>();
         this.children = new ArrayList<>();
         this.handlerInspector = handlerInspector;
     }
@@ -114,11 +112,7 @@ private void initialize() {
     private void prepareHandlers() {
         for (MessageHandlingMember<? super T> handler : handlerInspector.getHandlers()) {
             Optional<CommandMessageHandlingMember> commandHandler = handler.unwrap(CommandMessageHandlingMember.class);
-            if (commandHandler.isPresent()) {
-                commandHandlers.putIfAbsent(commandHandler.get().commandName(), handler);
-            } else {
-                eventHandlers.add(handler);
-            }
+            commandHandler.ifPresent(h -> commandHandlers.putIfAbsent(h.commandName(), handler));
         }
     }
 
@@ -220,7 +214,8 @@ public Long getVersion(T target) {
      */
     @SuppressWarnings("unchecked")
     protected Optional<MessageHandlingMember<? super T>> getHandler(Message<?> message) {
-        for (MessageHandlingMember<? super T> handler : eventHandlers) {
+        // command handlers are among the candidates, but they never handle events
+        for (MessageHandlingMember<? super T> handler : handlerInspector.getHandlers(message.getPayloadType())) {
             if (handler.canHandle(message)) {
                 return Optional.of(handler);
             }
@@ -0,0 +1,553 @@
+/*
+ * Copyright (c) 2010-2017. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common.caching;
+
+import org.axonframework.common.Assert;
+import org.axonframework.common.Registration;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache implementation that holds a bounded number of entries in memory, without depending on a third party caching
+ * provider. The bound is either a maximum number of entries, or a maximum total weight of the entries, as determined
+ * by a {@link Weigher}. When the bound is exceeded, entries are evicted following a segmented LRU policy: new entries
+ * are admitted in a probationary segment, and are moved to a protected segment when they are read again. Entries are
+ * evicted from the probationary segment first, so that entries that are read only once do not push frequently read
+ * entries out of the cache. Optionally, entries expire when they have not been accessed for a given time.
+ * <p/>
+ * To reduce contention, the cache is divided in a number of independent segments, based on the hash code of the key.
+ * Each segment holds an equal share of the maximum size or weight, so entries may be evicted before the cache as a
+ * whole reaches its bound.
+ * <p/>
+ * Entry listeners are notified with {@link EntryListener#onEntryExpired(Object)} for entries that are evicted or
+ * expire. Expired entries are removed when they are accessed, or when they are found at the end of the eviction order
+ * while an entry is being added. The number of hits, misses and evictions is available through {@link #getHitCount()},
+ * {@link #getMissCount()} and {@link #getEvictionCount()}.
+ *
+ * @since 3.1
+ */
+public class BoundedCache implements Cache {
+
+    private static final int MIN_SEGMENT_WEIGHT = 64;
+    private static final int PROTECTED_PERCENTAGE = 80;
+
+    private final Segment[] segments;
+    private final Weigher weigher;
+    private final long timeToIdle;
+    private final Clock clock;
+    private final Set<EntryListener> listeners = new CopyOnWriteArraySet<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Initializes a cache that holds at most the given {@code maximumSize} number of entries.
+     *
+     * @param maximumSize The maximum number of entries in the cache
+     */
+    public BoundedCache(int maximumSize) {
+        this(builder().withMaximumSize(maximumSize));
+    }
+
+    /**
+     * Initializes a cache with the settings of the given {@code builder}.
+     *
+     * @param builder The builder containing the settings of the cache
+     */
+    protected BoundedCache(Builder builder) {
+        Assert.isTrue(builder.maximumWeight > 0, () -> "A maximum size or weight must be configured");
+        this.weigher = builder.weigher;
+        this.timeToIdle = builder.timeToIdle;
+        this.clock = builder.clock;
+        int segmentCount = 1;
+        while (segmentCount < builder.concurrencyLevel
+                && builder.maximumWeight / (segmentCount * 2) >= MIN_SEGMENT_WEIGHT) {
+            segmentCount *= 2;
+        }
+        long segmentWeight = (builder.maximumWeight + segmentCount - 1) / segmentCount;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentWeight);
+        }
+    }
+
+    /**
+     * Returns a new {@link Builder} to configure a BoundedCache.
+     *
+     * @return a new builder for a bounded cache
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> V get(K key) {
+        Segment segment = segmentFor(key);
+        Object value;
+        List<Object> expired;
+        synchronized (segment) {
+            long now = now();
+            expired = segment.expireIfIdle(key, now);
+            value = segment.read(key, now);
+        }
+        notifyExpired(expired);
+        if (value == null) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        for (EntryListener listener : listeners) {
+            listener.onEntryRead(key, value);
+        }
+        return (V) value;
+    }
+
+    @Override
+    public <K, V> void put(K key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values not supported");
+        }
+        int weight = weigh(key, value);
+        Segment segment = segmentFor(key);
+        boolean updated;
+        List<Object> evicted;
+        synchronized (segment) {
+            long now = now();
+            updated = segment.update(key, value, weight, now);
+            if (!updated) {
+                segment.add(key, value, weight, now);
+            }
+            evicted = segment.evict(key, now);
+        }
+        for (EntryListener listener : listeners) {
+            if (updated) {
+                listener.onEntryUpdated(key, value);
+            } else {
+                listener.onEntryCreated(key, value);
+            }
+        }
+        notifyExpired(evicted);
+    }
+
+    @Override
+    public <K, V> boolean putIfAbsent(K key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values not supported");
+        }
+        int weight = weigh(key, value);
+        Segment segment = segmentFor(key);
+        List<Object> expired;
+        List<Object> evicted = Collections.emptyList();
+        boolean added;
+        synchronized (segment) {
+            long now = now();
+            expired = segment.expireIfIdle(key, now);
+            added = !segment.contains(key);
+            if (added) {
+                segment.add(key, value, weight, now);
+                evicted = segment.evict(key, now);
+            }
+        }
+        notifyExpired(expired);
+        if (added) {
+            for (EntryListener listener : listeners) {
+                listener.onEntryCreated(key, value);
+            }
+        }
+        notifyExpired(evicted);
+        return added;
+    }
+
+    @Override
+    public <K> boolean remove(K key) {
+        Segment segment = segmentFor(key);
+        boolean removed;
+        synchronized (segment) {
+            removed = segment.remove(key) != null;
+        }
+        if (removed) {
+            for (EntryListener listener : listeners) {
+                listener.onEntryRemoved(key);
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public <K> boolean containsKey(K key) {
+        Segment segment = segmentFor(key);
+        List<Object> expired;
+        boolean contained;
+        synchronized (segment) {
+            expired = segment.expireIfIdle(key, now());
+            contained = segment.contains(key);
+        }
+        notifyExpired(expired);
+        return contained;
+    }
+
+    @Override
+    public Registration registerCacheEntryListener(EntryListener cacheEntryListener) {
+        listeners.add(cacheEntryListener);
+        return () -> listeners.remove(cacheEntryListener);
+    }
+
+    /**
+     * Returns the number of times an entry was found when reading from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of times no entry was found when reading from the cache.
+     *
+     * @return the number of cache misses
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Returns the number of entries that have been evicted from the cache, because the cache exceeded its bound or
+     * because the entries expired.
+     *
+     * @return the number of evicted entries
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    private Segment segmentFor(Object key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    private int weigh(Object key, Object value) {
+        int weight = weigher.weigh(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("The weight of an entry may not be negative");
+        }
+        return weight;
+    }
+
+    private long now() {
+        return timeToIdle > 0 ? clock.millis() : 0;
+    }
+
+    private void notifyExpired(List<Object> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        evictionCount.add(keys.size());
+        for (Object key : keys) {
+            for (EntryListener listener : listeners) {
+                listener.onEntryExpired(key);
+            }
+        }
+    }
+
+    /**
+     * Part of the cache that evicts its entries independently of other segments. Entries are kept in two
+     * doubly-linked lists, ordered from most to least recently used: the probationary entries and the protected
+     * entries. All methods must be invoked while holding the segment's monitor.
+     */
+    private final class Segment {
+
+        private final Map<Object, Node> nodes = new HashMap<>();
+        private final Node probation = new Node(null, null, 0, 0);
+        private final Node protectedEntries = new Node(null, null, 0, 0);
+        private final long maximumWeight;
+        private final long maximumProtectedWeight;
+        private long weight;
+        private long protectedWeight;
+
+        private Segment(long maximumWeight) {
+            this.maximumWeight = maximumWeight;
+            this.maximumProtectedWeight = maximumWeight * PROTECTED_PERCENTAGE / 100;
+        }
+
+        private Object read(Object key, long now) {
+            Node node = nodes.get(key);
+            if (node == null) {
+                return null;
+            }
+            node.lastAccessTime = now;
+            if (node.isProtected) {
+                node.unlink();
+                node.linkAfter(protectedEntries);
+            } else {
+                // an entry that is read again is promoted, demoting the least recently used protected entries
+                node.unlink();
+                weight -= node.weight;
+                linkProtected(node);
+                while (protectedWeight > maximumProtectedWeight && protectedEntries.previous != node) {
+                    Node demoted = protectedEntries.previous;
+                    demoted.unlink();
+                    protectedWeight -= demoted.weight;
+                    weight -= demoted.weight;
+                    linkProbationary(demoted);
+                }
+            }
+            return node.value;
+        }
+
+        private boolean contains(Object key) {
+            return nodes.containsKey(key);
+        }
+
+        private boolean update(Object key, Object value, int newWeight, long now) {
+            Node node = nodes.get(key);
+            if (node == null) {
+                return false;
+            }
+            node.value = value;
+            node.lastAccessTime = now;
+            node.unlink();
+            node.linkAfter(node.isProtected ? protectedEntries : probation);
+            weight += newWeight - node.weight;
+            if (node.isProtected) {
+                protectedWeight += newWeight - node.weight;
+            }
+            node.weight = newWeight;
+            return true;
+        }
+
+        private void add(Object key, Object value, int entryWeight, long now) {
+            Node node = new Node(key, value, entryWeight, now);
+            nodes.put(key, node);
+            linkProbationary(node);
+        }
+
+        private Node remove(Object key) {
+            Node node = nodes.remove(key);
+            if (node != null) {
+                node.unlink();
+                weight -= node.weight;
+                if (node.isProtected) {
+                    protectedWeight -= node.weight;
+                }
+            }
+            return node;
+        }
+
+        private List<Object> expireIfIdle(Object key, long now) {
+            Node node = nodes.get(key);
+            if (node != null && isIdle(node, now)) {
+                remove(key);
+                return Collections.singletonList(key);
+            }
+            return Collections.emptyList();
+        }
+
+        private List<Object> evict(Object addedKey, long now) {
+            List<Object> evicted = Collections.emptyList();
+            Node added = nodes.get(addedKey);
+            if (added != null && added.weight > maximumWeight) {
+                // an entry that doesn't fit in the segment by itself should not evict all other entries
+                evicted = append(evicted, remove(addedKey).key);
+            }
+            if (timeToIdle > 0) {
+                evicted = evictIdle(probation, now, evicted);
+                evicted = evictIdle(protectedEntries, now, evicted);
+            }
+            while (weight > maximumWeight) {
+                Node victim = probation.previous != probation ? probation.previous : protectedEntries.previous;
+                evicted = append(evicted, remove(victim.key).key);
+            }
+            return evicted;
+        }
+
+        private List<Object> evictIdle(Node list, long now, List<Object> evicted) {
+            while (list.previous != list && isIdle(list.previous, now)) {
+                evicted = append(evicted, remove(list.previous.key).key);
+            }
+            return evicted;
+        }
+
+        private List<Object> append(List<Object> keys, Object key) {
+            List<Object> result = keys.isEmpty() ? new ArrayList<>() : keys;
+            result.add(key);
+            return result;
+        }
+
+        private boolean isIdle(Node node, long now) {
+            return timeToIdle > 0 && now - node.lastAccessTime >= timeToIdle;
+        }
+
+        private void linkProbationary(Node node) {
+            node.isProtected = false;
+            node.linkAfter(probation);
+            weight += node.weight;
+        }
+
+        private void linkProtected(Node node) {
+            node.isProtected = true;
+            node.linkAfter(protectedEntries);
+            weight += node.weight;
+            protectedWeight += node.weight;
+        }
+    }
+
+    private static final class Node {
+
+        private final Object key;
+        private Object value;
+        private int weight;
+        private long lastAccessTime;
+        private boolean isProtected;
+        private Node previous = this;
+        private Node next = this;
+
+        private Node(Object key, Object value, int weight, long lastAccessTime) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.lastAccessTime = lastAccessTime;
+        }
+
+        private void linkAfter(Node head) {
+            previous = head;
+            next = head.next;
+            head.next.previous = this;
+            head.next = this;
+        }
+
+        private void unlink() {
+            previous.next = next;
+            next.previous = previous;
+            previous = this;
+            next = this;
+        }
+    }
+
+    /**
+     * Functional interface to determine the weight of a cache entry.
+     */
+    @FunctionalInterface
+    public interface Weigher {
+
+        /**
+         * Returns the weight of the entry with given {@code key} and {@code value}. The weight may not be negative.
+         *
+         * @param key   The key of the entry
+         * @param value The value of the entry
+         * @return the weight of the entry
+         */
+        int weigh(Object key, Object value);
+    }
+
+    /**
+     * Builder for a {@link BoundedCache}. Either a maximum size or a maximum weight must be configured.
+     */
+    public static class Builder {
+
+        private long maximumWeight;
+        private Weigher weigher = (key, value) -> 1;
+        private long timeToIdle;
+        private int concurrencyLevel = 16;
+        private Clock clock = Clock.systemUTC();
+
+        /**
+         * Sets the maximum number of entries in the cache.
+         *
+         * @param maximumSize the maximum number of entries
+         * @return the modified Builder instance
+         */
+        public Builder withMaximumSize(int maximumSize) {
+            Assert.isTrue(maximumSize > 0, () -> "The maximum size must be positive");
+            this.maximumWeight = maximumSize;
+            this.weigher = (key, value) -> 1;
+            return this;
+        }
+
+        /**
+         * Sets the maximum total weight of the entries in the cache, where the weight of each entry is determined by
+         * the given {@code weigher}.
+         *
+         * @param maximumWeight the maximum total weight of the entries
+         * @param weigher       the weigher that determines the weight of an entry
+         * @return the modified Builder instance
+         */
+        public Builder withMaximumWeight(long maximumWeight, Weigher weigher) {
+            Assert.isTrue(maximumWeight > 0, () -> "The maximum weight must be positive");
+            Assert.notNull(weigher, () -> "The weigher may not be null");
+            this.maximumWeight = maximumWeight;
+            this.weigher = weigher;
+            return this;
+        }
+
+        /**
+         * Sets the time after which an entry expires if it has not been accessed. Defaults to no expiry.
+         *
+         * @param timeToIdle the time after which an idle entry expires
+         * @param unit       the unit of the given time
+         * @return the modified Builder instance
+         */
+        public Builder withTimeToIdle(long timeToIdle, TimeUnit unit) {
+            this.timeToIdle = unit.toMillis(timeToIdle);
+            return this;
+        }
+
+        /**
+         * Sets the number of threads expected to access the cache concurrently, which determines the maximum number
+         * of segments the cache is divided in. Defaults to 16.
+         *
+         * @param concurrencyLevel the expected number of concurrently accessing threads
+         * @return the modified Builder instance
+         */
+        public Builder withConcurrencyLevel(int concurrencyLevel) {
+            Assert.isTrue(concurrencyLevel > 0, () -> "The concurrency level must be positive");
+            this.concurrencyLevel = concurrencyLevel;
+            return this;
+        }
+
+        /**
+         * Sets the clock used to determine whether entries have been idle for too long. Defaults to the system UTC
+         * clock.
+         *
+         * @param clock the clock to use
+         * @return the modified Builder instance
+         */
+        public Builder withClock(Clock clock) {
+            Assert.notNull(clock, () -> "The clock may not be null");
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * Initializes a {@link BoundedCache} with the settings of this builder.
+         *
+         * @return a bounded cache with the settings of this builder
+         */
+        public BoundedCache build() {
+            return new BoundedCache(this);
+        }
+    }
+}
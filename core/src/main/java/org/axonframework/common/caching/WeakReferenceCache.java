@@ -123,7 +123,8 @@ public <K> boolean containsKey(K key) {
     private void purgeItems() {
         Entry purgedEntry;
         while ((purgedEntry = (Entry) referenceQueue.poll()) != null) {
-            if (cache.remove(purgedEntry.getKey()) != null) {
+            // the key may have been mapped to a new value after the purged one was collected
+            if (cache.remove(purgedEntry.getKey(), purgedEntry)) {
                 for (EntryListener adapter : adapters) {
                     adapter.onEntryExpired(purgedEntry.getKey());
                 }
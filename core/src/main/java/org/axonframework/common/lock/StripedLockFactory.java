@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2010-2017. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common.lock;
+
+import org.axonframework.common.Assert;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Implementation of a {@link LockFactory} that uses a pessimistic locking strategy based on a fixed number of locks,
+ * called stripes. The identifier of a resource is mapped to a stripe based on its hash code. Unlike the {@link
+ * PessimisticLockFactory}, this factory does not create (and dispose) a lock for each identifier, which makes it
+ * suitable for applications that access a large number of distinct resources.
+ * <p/>
+ * Calls to {@link #obtainLock} will block until a lock could be obtained. Since several identifiers share the same
+ * stripe, a thread may also have to wait for the lock of a different identifier. Increasing the number of stripes
+ * reduces the chance of this happening. Each thread can hold the same lock multiple times. The lock will only be
+ * released for other threads when the lock has been released as many times as it was obtained.
+ * <p/>
+ * By default, no deadlock detection is performed. When a deadlock detection delay is configured, a thread that has
+ * been waiting for a lock for that amount of time registers the lock it is waiting for, and checks whether the owner
+ * of that lock is (indirectly) waiting for a lock held by the waiting thread itself. If so, a {@link
+ * DeadlockException} is thrown. Deadlocks are detected across instances of the StripedLockFactory. Note that due to
+ * the sharing of stripes, a deadlock may occur between threads that lock distinct sets of identifiers.
+ *
+ * @since 3.1
+ */
+public class StripedLockFactory implements LockFactory {
+
+    /**
+     * The number of stripes used by a StripedLockFactory created with the default constructor.
+     */
+    public static final int DEFAULT_STRIPE_COUNT = 1024;
+
+    private static final long MAX_RECHECK_INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final ConcurrentMap<Thread, Stripe> WAITING_THREADS = new ConcurrentHashMap<>();
+
+    private final Stripe[] stripes;
+    private final long deadlockDetectionDelay;
+
+    /**
+     * Initializes a StripedLockFactory with {@link #DEFAULT_STRIPE_COUNT} stripes, which does not detect deadlocks.
+     */
+    public StripedLockFactory() {
+        this(DEFAULT_STRIPE_COUNT);
+    }
+
+    /**
+     * Initializes a StripedLockFactory with (at least) the given number of stripes, which does not detect deadlocks.
+     * The number of stripes is rounded up to the nearest power of two.
+     *
+     * @param stripeCount The minimum number of stripes to use
+     */
+    public StripedLockFactory(int stripeCount) {
+        this(stripeCount, -1, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Initializes a StripedLockFactory with (at least) the given number of stripes, which checks for deadlocks once a
+     * thread has been waiting for a lock for the given {@code deadlockDetectionDelay}. A negative delay disables
+     * deadlock detection. The number of stripes is rounded up to the nearest power of two.
+     *
+     * @param stripeCount            The minimum number of stripes to use
+     * @param deadlockDetectionDelay The time a thread waits for a lock before checking for deadlocks
+     * @param timeUnit               The unit of the given delay
+     */
+    public StripedLockFactory(int stripeCount, long deadlockDetectionDelay, TimeUnit timeUnit) {
+        Assert.isTrue(stripeCount > 0 && stripeCount <= 1 << 30,
+                      () -> "The number of stripes must be between 1 and 2^30");
+        this.stripes = new Stripe[stripeCount == 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.deadlockDetectionDelay = deadlockDetectionDelay < 0 ? -1 : timeUnit.toNanos(deadlockDetectionDelay);
+    }
+
+    /**
+     * Obtain a lock for a resource identified by the given {@code identifier}. This method will block until the lock
+     * of the stripe of the given identifier was successfully obtained.
+     * <p/>
+     * The returned lock is shared by all identifiers of the same stripe, so obtaining locks does not allocate any
+     * objects.
+     *
+     * @param identifier the identifier of the lock to obtain.
+     * @return a handle to release the lock. If the thread that releases the lock does not hold the lock
+     * {@link IllegalMonitorStateException} is thrown
+     * @throws DeadlockException              if deadlock detection is enabled and an imminent deadlock is detected
+     * @throws LockAcquisitionFailedException if the thread is interrupted while waiting for the lock
+     */
+    @Override
+    public Lock obtainLock(String identifier) {
+        int hash = identifier.hashCode();
+        Stripe stripe = stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+        stripe.acquire();
+        return stripe;
+    }
+
+    private final class Stripe extends ReentrantLock implements Lock {
+
+        private static final long serialVersionUID = 6096400520958367425L;
+
+        private void acquire() {
+            try {
+                if (deadlockDetectionDelay < 0) {
+                    lockInterruptibly();
+                } else if (!tryLock(deadlockDetectionDelay, TimeUnit.NANOSECONDS)) {
+                    awaitWithDeadlockDetection();
+                }
+            } catch (InterruptedException e) {
+                throw new LockAcquisitionFailedException("Thread was interrupted", e);
+            }
+        }
+
+        private void awaitWithDeadlockDetection() throws InterruptedException {
+            Thread currentThread = Thread.currentThread();
+            WAITING_THREADS.put(currentThread, this);
+            try {
+                long recheckInterval = deadlockDetectionDelay > 0
+                        ? Math.min(deadlockDetectionDelay, MAX_RECHECK_INTERVAL) : MAX_RECHECK_INTERVAL;
+                do {
+                    checkForDeadlock(currentThread);
+                } while (!tryLock(recheckInterval, TimeUnit.NANOSECONDS));
+            } finally {
+                WAITING_THREADS.remove(currentThread);
+            }
+        }
+
+        private void checkForDeadlock(Thread currentThread) {
+            // follow the chain of owners and the locks they are waiting for, looking for the current thread
+            Stripe awaitedLock = this;
+            for (int i = 0; awaitedLock != null && i <= WAITING_THREADS.size(); i++) {
+                Thread owner = awaitedLock.getOwner();
+                if (owner == null) {
+                    return;
+                }
+                if (owner == currentThread) {
+                    throw new DeadlockException("An imminent deadlock was detected while attempting to acquire a lock");
+                }
+                awaitedLock = WAITING_THREADS.get(owner);
+            }
+        }
+
+        @Override
+        public void release() {
+            unlock();
+        }
+
+        @Override
+        public boolean isHeld() {
+            return isHeldByCurrentThread();
+        }
+    }
+}
@@ -25,6 +25,7 @@
 import org.axonframework.messaging.StreamableMessageSource;
 import org.axonframework.messaging.SubscribableMessageSource;
 import org.axonframework.messaging.interceptors.CorrelationDataInterceptor;
+import org.axonframework.messaging.unitofwork.RollbackConfigurationType;
 
 import java.util.*;
 import java.util.function.BiFunction;
@@ -119,6 +120,10 @@ public List<MessageHandlerInterceptor<? super EventMessage<?>>> interceptorsFor(
      * The processor will use the {@link TokenStore} implementation provided in the global Configuration, and will
      * default to an {@link InMemoryTokenStore} when no Token Store was defined. Note that it is not recommended to use
      * the in-memory TokenStore in a production environment.
+     * <p>
+     * The number of threads and segments used by each processor is defined by the
+     * {@link TrackingEventProcessorConfiguration} provided in the global Configuration, and defaults to single threaded
+     * processing when none was defined.
      *
      * @return this EventHandlingConfiguration instance for further configuration
      */
@@ -160,10 +165,14 @@ private EventProcessor buildTrackingEventProcessor(Configuration conf, String na
                                                                               conf.getComponent(
                                                                                       ListenerInvocationErrorHandler.class,
                                                                                       LoggingErrorHandler::new)),
+                                          RollbackConfigurationType.ANY_THROWABLE,
+                                          PropagatingErrorHandler.INSTANCE,
                                           source.apply(conf),
                                           conf.getComponent(TokenStore.class, InMemoryTokenStore::new),
                                           conf.getComponent(TransactionManager.class, NoTransactionManager::instance),
-                                          conf.messageMonitor(EventProcessor.class, name));
+                                          conf.messageMonitor(EventProcessor.class, name),
+                                          conf.getComponent(TrackingEventProcessorConfiguration.class,
+                                                            TrackingEventProcessorConfiguration::forSingleThreadedProcessing));
     }
 
     /**
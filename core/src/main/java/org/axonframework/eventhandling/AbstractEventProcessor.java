@@ -17,6 +17,7 @@
 package org.axonframework.eventhandling;
 
 import org.axonframework.common.Registration;
+import org.axonframework.eventsourcing.eventstore.SkippedEvents;
 import org.axonframework.messaging.DefaultInterceptorChain;
 import org.axonframework.messaging.MessageHandlerInterceptor;
 import org.axonframework.messaging.unitofwork.BatchingUnitOfWork;
@@ -27,6 +28,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -95,6 +97,18 @@ public Registration registerInterceptor(MessageHandlerInterceptor<? super EventM
         return () -> interceptors.remove(interceptor);
     }
 
+    /**
+     * Indicates whether the processor can or should handle the given {@code eventMessage} for the given
+     * {@code segment}. Messages that only report {@link SkippedEvents skipped events} are never handled.
+     *
+     * @param eventMessage The message to verify
+     * @param segment      The segment for which the event should be processed
+     * @return {@code true} if the event message should be handled, otherwise {@code false}
+     */
+    protected boolean canHandle(EventMessage<?> eventMessage, Segment segment) {
+        return !SkippedEvents.isSkippedEvents(eventMessage) && eventHandlerInvoker.canHandle(eventMessage, segment);
+    }
+
     @Override
     public String toString() {
         return getName();
@@ -104,14 +118,42 @@ public String toString() {
      * Process a batch of events. The messages are processed in a new {@link UnitOfWork}. Before each message is handled
      * the event processor creates an interceptor chain containing all registered {@link MessageHandlerInterceptor
      * interceptors}.
+     * <p>
+     * Messages that this processor {@link #canHandle(EventMessage, Segment) cannot handle} are reported as ignored to
+     * the message monitor and left out of the Unit of Work. No Unit of Work is started if none of the messages can be
+     * handled.
      *
      * @param eventMessages The batch of messages that is to be processed
      * @throws Exception when an exception occurred during processing of the batch
      */
     protected void process(List<? extends EventMessage<?>> eventMessages) throws Exception {
+        List<EventMessage<?>> handledMessages = new ArrayList<>(eventMessages.size());
+        for (EventMessage<?> eventMessage : eventMessages) {
+            if (canHandle(eventMessage, Segment.ROOT_SEGMENT)) {
+                handledMessages.add(eventMessage);
+            } else {
+                messageMonitor.onMessageIngested(eventMessage).reportIgnored();
+            }
+        }
+        if (!handledMessages.isEmpty()) {
+            processInUnitOfWork(handledMessages, new BatchingUnitOfWork<>(handledMessages));
+        }
+    }
+
+    /**
+     * Process a batch of events in the given {@code unitOfWork}. The Unit of Work is expected to have been created for
+     * the given {@code eventMessages}, but not yet started. This allows subclasses to register handlers with the Unit of
+     * Work before processing starts. Before each message is handled the event processor creates an interceptor chain
+     * containing all registered {@link MessageHandlerInterceptor interceptors}.
+     *
+     * @param eventMessages The batch of messages that is to be processed
+     * @param unitOfWork    The Unit of Work that has been prepared to process the messages
+     * @throws Exception when an exception occurred during processing of the batch
+     */
+    protected void processInUnitOfWork(List<? extends EventMessage<?>> eventMessages,
+                                       UnitOfWork<? extends EventMessage<?>> unitOfWork) throws Exception {
         Map<? extends EventMessage<?>, MessageMonitor.MonitorCallback> monitorCallbacks =
                 eventMessages.stream().collect(toMap(Function.identity(), messageMonitor::onMessageIngested));
-        UnitOfWork<? extends EventMessage<?>> unitOfWork = new BatchingUnitOfWork<>(eventMessages);
         try {
             unitOfWork.executeWithResult(() -> {
                 unitOfWork.resources().put("messageMonitor", monitorCallbacks.get(unitOfWork.getMessage()));
@@ -59,7 +59,7 @@ public AnnotationEventListenerAdapter(Object annotatedEventListener,
 
     @Override
     public void handle(EventMessage event) throws Exception {
-        for (MessageHandlingMember<? super Object> handler : inspector.getHandlers()) {
+        for (MessageHandlingMember<? super Object> handler : inspector.getHandlers(event.getPayloadType())) {
             if (handler.canHandle(event)) {
                 handler.handle(event, annotatedEventListener);
                 break;
@@ -67,6 +67,11 @@ public void handle(EventMessage event) throws Exception {
         }
     }
 
+    @Override
+    public boolean canHandle(EventMessage<?> event) {
+        return !inspector.getHandlers(event.getPayloadType()).isEmpty();
+    }
+
     @Override
     public Class<?> getTargetType() {
         return listenerType;
@@ -34,4 +34,20 @@ public interface EventHandlerInvoker extends MessageHandler<EventMessage<?>> {
      */
     boolean hasHandler(EventMessage<?> eventMessage);
 
+    /**
+     * Check whether or not this invoker has handlers that can handle the given {@code eventMessage} for a given
+     * {@code segment}. Event processors that split their work in multiple segments use this method to decide which
+     * segment should process a message.
+     *
+     * @param eventMessage The message to be processed
+     * @param segment      The segment for which the event should be processed
+     * @return {@code true} if the invoker has one or more handlers that can handle the given message in the given
+     * segment, {@code false} otherwise
+     * @implSpec By default, invokers are not aware of segmentation and process all messages in the segment that
+     * matches a hash of {@code 0}, which is always the segment with identifier {@code 0}.
+     */
+    default boolean canHandle(EventMessage<?> eventMessage, Segment segment) {
+        return hasHandler(eventMessage) && segment.matches(0);
+    }
+
 }
@@ -38,4 +38,21 @@ public interface EventListener {
      * @throws Exception when an exception is raised during event handling
      */
     void handle(EventMessage<?> event) throws Exception;
+
+    /**
+     * Indicates whether this listener may be interested in the given {@code event}. Event processors use this method to
+     * skip events that none of their listeners is interested in, without starting a Unit of Work for them. When the
+     * event was read from an event store, implementations should avoid deserializing its payload or meta data, for
+     * instance by only checking the {@link EventMessage#getPayloadType() payload type}.
+     * <p>
+     * When this method returns {@code false}, the listener would ignore the event if it were passed to {@link
+     * #handle(EventMessage)}.
+     *
+     * @param event the event to check
+     * @return {@code true} if this listener may handle the event, {@code false} if it certainly will not
+     * @implSpec By default, listeners are assumed to be interested in all events.
+     */
+    default boolean canHandle(EventMessage<?> event) {
+        return true;
+    }
 }
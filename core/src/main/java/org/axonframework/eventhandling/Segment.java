@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2010-2017. Axon Framework
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * A representation of a segment of an event processor. Each segment is identified by a {@code segmentId} and a
+ * {@code mask}. A value (typically the hash of a sequence identifier, e.g. the aggregate identifier) belongs to a
+ * segment if the bitwise AND of the value and the segment's mask equals the segment's identifier.
+ * <p>
+ * Segments are created by splitting the {@link #ROOT_SEGMENT}, which matches all values. Splitting a segment results
+ * in two segments that each match half of the values matched by the original segment. As a result, a set of segment
+ * identifiers obtained from a TokenStore always describes the full range of possible values.
+ *
+ * @since 3.1
+ */
+public class Segment implements Comparable<Segment> {
+
+    /**
+     * Represents a single segment that matches all values.
+     */
+    public static final Segment ROOT_SEGMENT = new Segment(0, 0);
+
+    private static final Segment[] EMPTY_SEGMENTS = new Segment[0];
+
+    private final int segmentId;
+    private final int mask;
+
+    /**
+     * Initializes a segment with given {@code segmentId} and {@code mask}.
+     *
+     * @param segmentId The identifier of the segment
+     * @param mask      The mask applied to values before comparing them to the segment identifier
+     */
+    public Segment(int segmentId, int mask) {
+        this.segmentId = segmentId;
+        this.mask = mask;
+    }
+
+    /**
+     * Compute the {@link Segment}s from the given array of segment identifiers. The identifiers are expected to be the
+     * result of (repeatedly) splitting the {@link #ROOT_SEGMENT}, as is the case for the segments initialized in a
+     * TokenStore.
+     *
+     * @param segments The identifiers of the known segments
+     * @return the segments described by the given identifiers, ordered by identifier
+     */
+    public static Segment[] computeSegments(int... segments) {
+        if (segments == null || segments.length == 0) {
+            return EMPTY_SEGMENTS;
+        }
+        Set<Integer> segmentIds = Arrays.stream(segments).boxed().collect(toSet());
+        Set<Segment> resolvedSegments = new TreeSet<>();
+        computeSegments(ROOT_SEGMENT, segmentIds, resolvedSegments);
+        return resolvedSegments.toArray(EMPTY_SEGMENTS);
+    }
+
+    /**
+     * Returns the {@link Segment} with given {@code segmentId}, computing its mask based on the given
+     * {@code availableSegmentIds}.
+     *
+     * @param segmentId           The identifier of the segment to compute
+     * @param availableSegmentIds The identifiers of all known segments
+     * @return the segment with given identifier
+     * @throws IllegalArgumentException if the given {@code segmentId} is not one of the available segments
+     */
+    public static Segment computeSegment(int segmentId, int... availableSegmentIds) {
+        for (Segment segment : computeSegments(availableSegmentIds)) {
+            if (segment.getSegmentId() == segmentId) {
+                return segment;
+            }
+        }
+        throw new IllegalArgumentException("Segment [" + segmentId + "] is not one of the available segments "
+                                                   + Arrays.toString(availableSegmentIds));
+    }
+
+    private static void computeSegments(Segment segment, Set<Integer> segmentIds, Set<Segment> resolvedSegments) {
+        Segment[] splitSegment = segment.split();
+        // the first half of a split keeps the original identifier, so only the second half tells us a split occurred
+        if (segmentIds.contains(splitSegment[1].getSegmentId())) {
+            for (Segment half : splitSegment) {
+                computeSegments(half, segmentIds, resolvedSegments);
+            }
+        } else {
+            resolvedSegments.add(segment);
+        }
+    }
+
+    /**
+     * Returns the identifier of this segment.
+     *
+     * @return the segment identifier
+     */
+    public int getSegmentId() {
+        return segmentId;
+    }
+
+    /**
+     * Returns the mask applied to values to determine whether they match this segment.
+     *
+     * @return the mask of this segment
+     */
+    public int getMask() {
+        return mask;
+    }
+
+    /**
+     * Indicates whether the given {@code value} matches this segment.
+     *
+     * @param value The value to match, typically the hash of a sequence identifier
+     * @return {@code true} if the value belongs to this segment, otherwise {@code false}
+     */
+    public boolean matches(int value) {
+        return mask == 0 || (mask & value) == segmentId;
+    }
+
+    /**
+     * Indicates whether the given {@code value} matches this segment, based on the value's {@link Object#hashCode()}.
+     * A {@code null} value is treated as having hash code {@code 0}.
+     *
+     * @param value The value to match
+     * @return {@code true} if the value belongs to this segment, otherwise {@code false}
+     */
+    public boolean matches(Object value) {
+        return mask == 0 || matches(Objects.hashCode(value));
+    }
+
+    /**
+     * Splits this segment in two segments that together match the same values as this segment. The first segment
+     * keeps the identifier of this segment.
+     *
+     * @return an array with the two segments resulting from the split
+     */
+    public Segment[] split() {
+        int newMask = (mask << 1) + 1;
+        return new Segment[]{new Segment(segmentId, newMask), new Segment(segmentId + (newMask ^ mask), newMask)};
+    }
+
+    /**
+     * Returns the identifier of the segment this segment can be merged with, i.e. the other half of the segment that
+     * was split to create this segment. Only if that segment has the same mask as this one, both can be merged. The
+     * {@link #ROOT_SEGMENT} cannot be merged and returns its own identifier.
+     *
+     * @return the identifier of the segment this segment can be merged with
+     */
+    public int mergeableSegmentId() {
+        return segmentId ^ Integer.highestOneBit(mask);
+    }
+
+    /**
+     * Returns the segment that results from merging this segment with the given {@code other} segment. The resulting
+     * segment matches all values matched by either segment, and has the lowest identifier of both.
+     *
+     * @param other The segment to merge with
+     * @return the merged segment
+     * @throws IllegalArgumentException if the given segment is not the counterpart of this segment
+     */
+    public Segment mergedWith(Segment other) {
+        if (mask == 0 || other.mask != mask || other.segmentId != mergeableSegmentId()) {
+            throw new IllegalArgumentException(this + " cannot be merged with " + other);
+        }
+        return new Segment(Math.min(segmentId, other.segmentId), mask >>> 1);
+    }
+
+    @Override
+    public int compareTo(Segment other) {
+        return Integer.compare(segmentId, other.segmentId);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Segment that = (Segment) o;
+        return segmentId == that.segmentId && mask == that.mask;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(segmentId, mask);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Segment[%d/%s]", segmentId, Integer.toBinaryString(mask));
+    }
+}
@@ -16,11 +16,14 @@
 
 package org.axonframework.eventhandling;
 
+import org.axonframework.eventhandling.async.SequencingPolicy;
+import org.axonframework.eventhandling.async.SequentialPerAggregatePolicy;
 import org.axonframework.messaging.annotation.ParameterResolverFactory;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 import static java.util.stream.Collectors.toList;
 
@@ -34,6 +37,7 @@ public class SimpleEventHandlerInvoker implements EventHandlerInvoker {
 
     private final List<EventListener> eventListeners;
     private final ListenerInvocationErrorHandler listenerInvocationErrorHandler;
+    private final SequencingPolicy<? super EventMessage> sequencingPolicy;
 
     /**
      * Checks if a List has been passed as first parameter. It is a common 'mistake', which is detected and fixed here.
@@ -79,6 +83,7 @@ public SimpleEventHandlerInvoker(List<?> eventListeners, ListenerInvocationError
                                                               new AnnotationEventListenerAdapter(listener))
                                                       .collect(toList()));
         this.listenerInvocationErrorHandler = listenerInvocationErrorHandler;
+        this.sequencingPolicy = new SequentialPerAggregatePolicy();
     }
 
 
@@ -97,6 +102,30 @@ public SimpleEventHandlerInvoker(List<?> eventListeners, ListenerInvocationError
     public SimpleEventHandlerInvoker(List<?> eventListeners,
                                      ParameterResolverFactory parameterResolverFactory,
                                      ListenerInvocationErrorHandler listenerInvocationErrorHandler) {
+        this(eventListeners, parameterResolverFactory, listenerInvocationErrorHandler,
+             new SequentialPerAggregatePolicy());
+    }
+
+    /**
+     * Initializes a {@link SimpleEventHandlerInvoker} containing the given list of {@code eventListeners}. If an event
+     * listener is assignable to {@link EventListener} it will registered as is. If not, it will be wrapped by a new
+     * {@link AnnotationEventListenerAdapter}.
+     * <p>
+     * Events handled by the invoker will be passed to all the given {@code eventListeners}. If an exception is
+     * triggered during event handling it will be handled by the given {@code listenerErrorHandler}. When the invoker is
+     * used by a processor that splits its work in segments, the given {@code sequencingPolicy} decides which segment
+     * handles an event. Events for which the policy returns {@code null} may be handled in any segment.
+     *
+     * @param eventListeners                 list of event listeners to register with this invoker
+     * @param parameterResolverFactory       The parameter resolver factory to resolve parameters of the Event Handler methods with
+     * @param listenerInvocationErrorHandler error handler that handles exceptions during processing
+     * @param sequencingPolicy               The policy describing which events must be handled sequentially
+     */
+    public SimpleEventHandlerInvoker(List<?> eventListeners,
+                                     ParameterResolverFactory parameterResolverFactory,
+                                     ListenerInvocationErrorHandler listenerInvocationErrorHandler,
+                                     SequencingPolicy<? super EventMessage> sequencingPolicy) {
+        this.sequencingPolicy = sequencingPolicy;
         this.eventListeners = new ArrayList<>(eventListeners.stream()
                                                       .map(listener -> listener instanceof EventListener ?
                                                               (EventListener) listener :
@@ -119,6 +148,21 @@ public Object handle(EventMessage<?> message) throws Exception {
 
     @Override
     public boolean hasHandler(EventMessage<?> eventMessage) {
-        return true;
+        for (EventListener listener : eventListeners) {
+            if (listener.canHandle(eventMessage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean canHandle(EventMessage<?> eventMessage, Segment segment) {
+        if (!hasHandler(eventMessage)) {
+            return false;
+        }
+        Object sequenceIdentifier = sequencingPolicy.getSequenceIdentifierFor(eventMessage);
+        return segment.matches(Objects.hashCode(sequenceIdentifier == null ? eventMessage.getIdentifier() :
+                                                        sequenceIdentifier));
     }
 }
@@ -15,8 +15,6 @@
 
 package org.axonframework.eventhandling;
 
-import org.axonframework.common.Assert;
-import org.axonframework.common.AxonThreadFactory;
 import org.axonframework.common.transaction.TransactionManager;
 import org.axonframework.eventhandling.tokenstore.TokenStore;
 import org.axonframework.eventhandling.tokenstore.UnableToClaimTokenException;
@@ -24,18 +22,28 @@
 import org.axonframework.messaging.MessageStream;
 import org.axonframework.messaging.StreamableMessageSource;
 import org.axonframework.messaging.interceptors.TransactionManagingInterceptor;
+import org.axonframework.messaging.unitofwork.BatchingUnitOfWork;
 import org.axonframework.messaging.unitofwork.RollbackConfiguration;
 import org.axonframework.messaging.unitofwork.RollbackConfigurationType;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
 import org.axonframework.monitoring.MessageMonitor;
 import org.axonframework.monitoring.NoOpMessageMonitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.SynchronousQueue;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static java.util.Objects.requireNonNull;
@@ -45,13 +53,21 @@
  * EventProcessor implementation that tracks events from a {@link StreamableMessageSource}.
  * <p>
  * A supplied {@link TokenStore} allows the EventProcessor to keep track of its position in the event log. After
- * processing an event batch the EventProcessor updates its tracking token in the TokenStore.
+ * processing an event batch the EventProcessor updates its tracking token in the TokenStore. For idempotent event
+ * handlers the processor can be configured to store its token less often, see
+ * {@link TrackingEventProcessorConfiguration#andTokenStoreThreshold(int, long, TimeUnit)}.
  * <p>
  * A TrackingEventProcessor is able to continue processing from the last stored token when it is restarted. It is also
  * capable of replaying events from any starting token. To replay the entire event log simply remove the tracking token
  * of this processor from the TokenStore. To replay from a given point first update the entry for this processor in the
  * TokenStore before starting this processor.
  * <p>
+ * The processor may split its work in a number of segments, each with its own token in the TokenStore. Each segment
+ * is processed by a separate thread, which only handles the events that the {@link EventHandlerInvoker} assigns to
+ * that segment. Segments are claimed through the TokenStore, allowing the segments of a single processor to be
+ * distributed over multiple threads and multiple processes sharing the same TokenStore. See
+ * {@link TrackingEventProcessorConfiguration} for the options to configure parallel processing.
+ * <p>
  * Note, the {@link #getName() name} of the EventProcessor is used to obtain the tracking token from the TokenStore, so
  * take care when renaming a TrackingEventProcessor.
  *
@@ -59,15 +75,27 @@
  */
 public class TrackingEventProcessor extends AbstractEventProcessor {
     private static final Logger logger = LoggerFactory.getLogger(TrackingEventProcessor.class);
+    private static final Segment RETRY = new Segment(-1, 0);
 
     private final StreamableMessageSource<TrackedEventMessage<?>> messageSource;
     private final TokenStore tokenStore;
     private final TransactionManager transactionManager;
     private final int batchSize;
-    private final String name;
-    private volatile ThreadPoolExecutor executorService;
-    private volatile TrackingToken lastToken;
-    private AtomicReference<State> state = new AtomicReference<>(State.NOT_STARTED);
+    private final int maxBatchSize;
+    private final long maxBatchTime;
+    private final int segmentsSize;
+    private final long tokenClaimInterval;
+    private final int tokenStoreEventThreshold;
+    private final long tokenStoreInterval;
+    private final long claimExtensionInterval;
+    private final ThreadFactory threadFactory;
+    private final AtomicInteger availableThreads;
+    private final ConcurrentMap<Integer, Segment> activeSegments = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<Integer, Queue<SegmentInstruction>> instructions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Long> releasedSegments = new ConcurrentHashMap<>();
+    private final AtomicBoolean workLauncherRunning = new AtomicBoolean(false);
+    private final Object workLauncherMonitor = new Object();
+    private final AtomicReference<State> state = new AtomicReference<>(State.NOT_STARTED);
 
     /**
      * Initializes an EventProcessor with given {@code name} that subscribes to the given {@code messageSource} for
@@ -134,6 +162,8 @@ public TrackingEventProcessor(String name, EventHandlerInvoker eventHandlerInvok
     /**
      * Initializes an EventProcessor with given {@code name} that subscribes to the given {@code messageSource} for
      * events. Actual handling of event messages is deferred to the given {@code eventHandlerInvoker}.
+     * <p>
+     * The EventProcessor processes a single segment in a single thread.
      *
      * @param name                  The name of the event processor
      * @param eventHandlerInvoker   The component that handles the individual events
@@ -151,84 +181,124 @@ public TrackingEventProcessor(String name, EventHandlerInvoker eventHandlerInvok
                                   StreamableMessageSource<TrackedEventMessage<?>> messageSource, TokenStore tokenStore,
                                   TransactionManager transactionManager, int batchSize,
                                   MessageMonitor<? super EventMessage<?>> messageMonitor) {
+        this(name, eventHandlerInvoker, rollbackConfiguration, errorHandler, messageSource, tokenStore,
+             transactionManager, messageMonitor,
+             TrackingEventProcessorConfiguration.forSingleThreadedProcessing().andBatchSize(batchSize));
+    }
+
+    /**
+     * Initializes an EventProcessor with given {@code name} that subscribes to the given {@code messageSource} for
+     * events. Actual handling of event messages is deferred to the given {@code eventHandlerInvoker}.
+     * <p>
+     * The given {@code config} defines the batch size, and the number of threads and segments used to process events.
+     *
+     * @param name                  The name of the event processor
+     * @param eventHandlerInvoker   The component that handles the individual events
+     * @param rollbackConfiguration Determines rollback behavior of the UnitOfWork while processing a batch of events
+     * @param errorHandler          Invoked when a UnitOfWork is rolled back during processing
+     * @param messageSource         The message source (e.g. Event Bus) which this event processor will track
+     * @param tokenStore            Used to store and fetch event tokens that enable the processor to track its
+     *                              progress
+     * @param transactionManager    The transaction manager used when processing messages
+     * @param messageMonitor        Monitor to be invoked before and after event processing
+     * @param config                The configuration for the event processor
+     */
+    public TrackingEventProcessor(String name, EventHandlerInvoker eventHandlerInvoker,
+                                  RollbackConfiguration rollbackConfiguration, ErrorHandler errorHandler,
+                                  StreamableMessageSource<TrackedEventMessage<?>> messageSource, TokenStore tokenStore,
+                                  TransactionManager transactionManager,
+                                  MessageMonitor<? super EventMessage<?>> messageMonitor,
+                                  TrackingEventProcessorConfiguration config) {
         super(name, eventHandlerInvoker, rollbackConfiguration, errorHandler, messageMonitor);
-        Assert.isTrue(batchSize > 0, () -> "batchSize needs to be greater than 0");
         this.messageSource = requireNonNull(messageSource);
         this.tokenStore = requireNonNull(tokenStore);
         this.transactionManager = transactionManager;
-        this.name = name;
-        this.batchSize = batchSize;
+        this.batchSize = config.getBatchSize();
+        this.maxBatchSize = config.getMaxBatchSize();
+        this.maxBatchTime = config.getMaxBatchTime();
+        this.segmentsSize = config.getInitialSegmentsCount();
+        this.tokenClaimInterval = config.getTokenClaimInterval();
+        this.tokenStoreEventThreshold = config.getTokenStoreEventThreshold();
+        this.tokenStoreInterval = config.getTokenStoreInterval();
+        this.claimExtensionInterval = config.getClaimExtensionInterval();
+        this.threadFactory = config.getThreadFactory(name);
+        this.availableThreads = new AtomicInteger(config.getMaxThreadCount());
         registerInterceptor(new TransactionManagingInterceptor<>(transactionManager));
-        registerInterceptor((unitOfWork, interceptorChain) -> {
-            unitOfWork.onPrepareCommit(uow -> {
-                EventMessage<?> event = uow.getMessage();
-                if (event instanceof TrackedEventMessage<?> &&
-                        lastToken != null &&
-                        lastToken.equals(((TrackedEventMessage) event).trackingToken())) {
-                    tokenStore.storeToken(lastToken, getName(), 0);
-                }
-            });
-            return interceptorChain.proceed();
-        });
     }
 
     /**
-     * Start this processor. The processor will open an event stream on its message source in a new thread using {@link
-     * StreamableMessageSource#openStream(TrackingToken)}. The {@link TrackingToken} used to open the stream will be
-     * fetched from the {@link TokenStore}.
+     * Start this processor. The processor will open an event stream on its message source for each segment it
+     * manages to claim, using {@link StreamableMessageSource#openStream(TrackingToken)}. The {@link TrackingToken}
+     * used to open each stream will be fetched from the {@link TokenStore}.
+     * <p>
+     * When the TokenStore doesn't contain any tokens for this processor yet, it is initialized with the configured
+     * number of segments.
      */
     @Override
     public void start() {
         State previousState = state.getAndSet(State.STARTED);
         if (!previousState.isRunning()) {
-            ensureRunningExecutor();
-            executorService.submit(() -> {
-                try {
-                    this.processingLoop();
-                } catch (Throwable e) {
-                    logger.error("Processing loop ended due to uncaught exception. Processor pausing.", e);
-                    state.set(State.PAUSED_ERROR);
-                }
-            });
-        }
-    }
-
-    private void ensureRunningExecutor() {
-        if (this.executorService == null || this.executorService.isShutdown()) {
-            this.executorService = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
-                                                          new AxonThreadFactory("TrackingEventProcessor - " + name));
+            if (workLauncherRunning.compareAndSet(false, true)) {
+                threadFactory.newThread(new WorkerLauncher()).start();
+            } else {
+                wakeUpWorkLauncher();
+            }
         }
     }
 
     /**
-     * Fetch and process event batches continuously for as long as the processor is not shutting down. The processor
-     * will process events in batches. The maximum size of size of each event batch is configurable.
+     * Fetch and process event batches continuously for as long as the processor is not shutting down and the given
+     * {@code segment} remains claimed by this processor. The processor will process events in batches. The maximum
+     * size of size of each event batch is configurable, and may be adapted to the rate at which events are read, see
+     * {@link TrackingEventProcessorConfiguration#andAdaptiveBatchSize(int, long, TimeUnit)}.
      * <p>
      * Events with the same tracking token (which is possible as result of upcasting) should always be processed in
      * the same batch. In those cases the batch size may be larger than the one configured.
+     *
+     * @param segment The segment to process events for
      */
-    protected void processingLoop() {
+    protected void processingLoop(Segment segment) {
         MessageStream<TrackedEventMessage<?>> eventStream = null;
+        TokenWriter tokenWriter = new TokenWriter();
+        BatchSizer batchSizer = new BatchSizer();
         long errorWaitTime = 1;
         try {
             while (state.get().isRunning()) {
                 try {
-                    eventStream = ensureEventStreamOpened(eventStream);
-                    processBatch(eventStream);
+                    Queue<SegmentInstruction> pending = instructions.get(segment.getSegmentId());
+                    if (pending != null && !pending.isEmpty()) {
+                        // instructions read the token from the TokenStore
+                        tokenWriter.flush(segment);
+                    }
+                    Segment updatedSegment = executeInstructions(segment);
+                    if (updatedSegment == null) {
+                        break;
+                    } else if (!updatedSegment.equals(segment)) {
+                        if (updatedSegment.getMask() < segment.getMask()) {
+                            // merged segments continue from the lower bound of both tokens
+                            closeQuietly(eventStream);
+                            eventStream = null;
+                        }
+                        segment = updatedSegment;
+                    }
+                    eventStream = ensureEventStreamOpened(eventStream, segment);
+                    if (eventStream != null) {
+                        processBatch(segment, eventStream, tokenWriter, batchSizer);
+                    }
+                    tokenWriter.extendClaimIfDue(segment);
                     errorWaitTime = 1;
                 } catch (UnableToClaimTokenException e) {
-                    if (errorWaitTime == 1) {
-                        logger.info("Token is owned by another node. Waiting for it to become available...");
-                    }
-                    errorWaitTime = 5;
-                    waitFor(errorWaitTime);
+                    logger.info("Segment {} is owned by another node. Releasing thread to process another segment...",
+                                segment.getSegmentId());
+                    break;
                 } catch (Exception e) {
                     // make sure to start with a clean event stream. The exception may have cause an illegal state
                     if (errorWaitTime == 1) {
                         logger.warn("Error occurred. Starting retry mode.", e);
                     }
                     logger.warn("Releasing claim on token and preparing for retry in {}s", errorWaitTime);
-                    releaseToken();
+                    tokenWriter.flushQuietly(segment);
+                    releaseToken(segment);
                     closeQuietly(eventStream);
                     eventStream = null;
                     waitFor(errorWaitTime);
@@ -237,7 +307,13 @@ protected void processingLoop() {
             }
         } finally {
             closeQuietly(eventStream);
-            releaseToken();
+            tokenWriter.flushQuietly(segment);
+            releaseToken(segment);
+            Queue<SegmentInstruction> pending = instructions.remove(segment.getSegmentId());
+            if (pending != null) {
+                pending.forEach(instruction -> instruction.result.complete(false));
+            }
+            activeSegments.remove(segment.getSegmentId(), segment);
         }
     }
 
@@ -251,37 +327,74 @@ private void waitFor(long errorWaitTime) {
         }
     }
 
-    private void releaseToken() {
+    private void releaseToken(Segment segment) {
         try {
-            transactionManager.executeInTransaction(() -> tokenStore.releaseClaim(getName(), 0));
+            transactionManager.executeInTransaction(() -> tokenStore.releaseClaim(getName(), segment.getSegmentId()));
         } catch (Exception e) {
             // whatever.
         }
     }
 
-    private void processBatch(MessageStream<TrackedEventMessage<?>> eventStream) throws Exception {
+    private void processBatch(Segment segment, MessageStream<TrackedEventMessage<?>> eventStream,
+                              TokenWriter tokenWriter, BatchSizer batchSizer) throws Exception {
         List<TrackedEventMessage<?>> batch = new ArrayList<>();
         try {
+            TrackingToken lastToken = null;
+            long eventsRead = 0;
+            int currentBatchSize = batchSizer.current();
+            boolean batchFull = false;
             if (eventStream.hasNextAvailable(1, TimeUnit.SECONDS)) {
-                while (batch.size() < batchSize && eventStream.hasNextAvailable()) {
-                    batch.add(eventStream.nextAvailable());
+                // a segment only handles part of the events. Read proportionally more to fill a batch, but not more
+                // than that, to make sure the token advances regularly even if none of the events match the segment
+                long maxEventsToRead = (long) currentBatchSize * (segment.getMask() + 1L);
+                while (!(batchFull = batch.size() >= currentBatchSize || eventsRead >= maxEventsToRead)
+                        && eventStream.hasNextAvailable()) {
+                    TrackedEventMessage<?> event = eventStream.nextAvailable();
+                    eventsRead++;
+                    lastToken = event.trackingToken();
+                    if (canHandle(event, segment)) {
+                        batch.add(event);
+                    }
                 }
             }
-            if (batch.isEmpty()) {
-                // refresh claim on token
-                transactionManager.executeInTransaction(() -> tokenStore.extendClaim(getName(), 0));
+            if (eventsRead == 0) {
+                tokenWriter.idle(segment);
                 return;
             }
 
             // make sure all subsequent events with the same token (if non-null) as the last are added as well.
             // These are the result of upcasting and should always be processed in the same batch.
-            lastToken = batch.get(batch.size() - 1).trackingToken();
-            while (lastToken != null && eventStream.peek().filter(event -> lastToken.equals(event.trackingToken())).isPresent()) {
-                batch.add(eventStream.nextAvailable());
+            TrackingToken finalLastToken = lastToken;
+            while (finalLastToken != null && eventStream.peek()
+                    .filter(event -> finalLastToken.equals(event.trackingToken())).isPresent()) {
+                TrackedEventMessage<?> event = eventStream.nextAvailable();
+                if (canHandle(event, segment)) {
+                    batch.add(event);
+                }
             }
 
-            process(batch);
+            long finalEventsRead = eventsRead;
+            boolean storeToken = tokenWriter.isStoreDue(finalEventsRead);
+            if (batch.isEmpty()) {
+                batchSizer.update(batchFull, 0);
+                // none of the events belong to this segment. Only the token needs to advance.
+                if (storeToken) {
+                    transactionManager.executeInTransaction(
+                            () -> tokenStore.storeToken(finalLastToken, getName(), segment.getSegmentId()));
+                }
+                tokenWriter.advancedTo(finalLastToken, finalEventsRead, storeToken);
+                return;
+            }
 
+            UnitOfWork<? extends EventMessage<?>> unitOfWork = new BatchingUnitOfWork<>(batch);
+            if (storeToken) {
+                unitOfWork.onPrepareCommit(uow -> tokenStore.storeToken(finalLastToken, getName(),
+                                                                        segment.getSegmentId()));
+            }
+            unitOfWork.afterCommit(uow -> tokenWriter.advancedTo(finalLastToken, finalEventsRead, storeToken));
+            long start = System.currentTimeMillis();
+            processInUnitOfWork(batch, unitOfWork);
+            batchSizer.update(batchFull, System.currentTimeMillis() - start);
         } catch (InterruptedException e) {
             logger.error(String.format("Event processor [%s] was interrupted. Shutting down.", getName()), e);
             Thread.currentThread().interrupt();
@@ -290,11 +403,11 @@ private void processBatch(MessageStream<TrackedEventMessage<?>> eventStream) thr
     }
 
     private MessageStream<TrackedEventMessage<?>> ensureEventStreamOpened(
-            MessageStream<TrackedEventMessage<?>> eventStreamIn) {
+            MessageStream<TrackedEventMessage<?>> eventStreamIn, Segment segment) {
         MessageStream<TrackedEventMessage<?>> eventStream = eventStreamIn;
         if (eventStream == null && state.get().isRunning()) {
             eventStream = transactionManager.fetchInTransaction(
-                    () -> messageSource.openStream(tokenStore.fetchToken(getName(), 0)));
+                    () -> messageSource.openStream(tokenStore.claimToken(getName(), segment.getSegmentId())));
         }
         return eventStream;
     }
@@ -305,6 +418,7 @@ private MessageStream<TrackedEventMessage<?>> ensureEventStreamOpened(
      */
     public void pause() {
         this.state.updateAndGet(s -> s.isRunning() ? State.PAUSED : s);
+        wakeUpWorkLauncher();
     }
 
     /**
@@ -334,7 +448,7 @@ public boolean isError() {
     @Override
     public void shutDown() {
         if (state.getAndUpdate(s -> State.SHUT_DOWN) != State.SHUT_DOWN) {
-            executorService.shutdown();
+            wakeUpWorkLauncher();
         }
     }
 
@@ -344,8 +458,119 @@ public void shutDown() {
      * @return an approximation of the number of threads currently processing events
      */
     public int activeProcessorThreads() {
-        ThreadPoolExecutor currentService = this.executorService;
-        return currentService == null ? 0 : currentService.getActiveCount();
+        return activeSegments.size();
+    }
+
+    /**
+     * Returns the segments currently being processed by this processor. The returned array is a snapshot and is
+     * ordered by segment identifier.
+     *
+     * @return the segments currently claimed and processed by this processor
+     */
+    public Segment[] activeSegments() {
+        return activeSegments.values().toArray(new Segment[0]);
+    }
+
+    /**
+     * Instructs the processor to split the segment with given {@code segmentId} in two segments. The existing segment
+     * keeps its identifier and continues processing half of its events. A new segment, starting at the position of
+     * the existing segment, is created in the TokenStore for the other half. The new segment is claimed by any
+     * processor instance sharing the TokenStore that has a thread available, including this one.
+     * <p>
+     * The segment must be processed by this processor instance, and the split is executed by the thread processing
+     * it, between batches.
+     *
+     * @param segmentId The identifier of the segment to split
+     * @return a CompletableFuture that completes with {@code true} when the segment was split, or {@code false} if
+     * the segment is not processed by this instance
+     * @throws UnsupportedOperationException if the TokenStore of this processor does not support segment changes
+     */
+    public CompletableFuture<Boolean> splitSegment(int segmentId) {
+        assertSegmentChangesSupported("split");
+        return submitInstruction(segmentId, new SplitInstruction());
+    }
+
+    /**
+     * Instructs the processor to merge the segment with given {@code segmentId} with its counterpart, the segment it
+     * was split from or that was split from it. The merged segment has the lowest identifier of both, and continues
+     * processing from the lower bound of the positions of both segments, meaning that events already handled by the
+     * segment that was ahead are handled again.
+     * <p>
+     * The segment must be processed by this processor instance. If its counterpart is processed by another thread of
+     * this instance, that thread releases it. Merging fails if the counterpart is claimed by another process or has
+     * itself been split.
+     *
+     * @param segmentId The identifier of the segment to merge
+     * @return a CompletableFuture that completes with {@code true} when the segments were merged, or {@code false} if
+     * they could not be merged. The future completes exceptionally if the tokens of both segments cannot be merged.
+     * @throws UnsupportedOperationException if the TokenStore of this processor does not support segment changes
+     */
+    public CompletableFuture<Boolean> mergeSegment(int segmentId) {
+        assertSegmentChangesSupported("merge");
+        return submitInstruction(segmentId, new MergeInstruction());
+    }
+
+    private void assertSegmentChangesSupported(String operation) {
+        if (!tokenStore.supportsSegmentChanges()) {
+            throw new UnsupportedOperationException(String.format(
+                    "Cannot %s segments of processor '%s'. Its TokenStore (%s) does not support segment changes.",
+                    operation, getName(), tokenStore.getClass().getSimpleName()));
+        }
+    }
+
+    private CompletableFuture<Boolean> submitInstruction(int segmentId, SegmentInstruction instruction) {
+        if (activeSegments.containsKey(segmentId)) {
+            instructions.computeIfAbsent(segmentId, id -> new ConcurrentLinkedQueue<>()).add(instruction);
+            if (!activeSegments.containsKey(segmentId)) {
+                // the worker stopped in the meantime
+                instruction.result.complete(false);
+            }
+        } else {
+            instruction.result.complete(false);
+        }
+        return instruction.result;
+    }
+
+    private Segment executeInstructions(Segment segment) {
+        Queue<SegmentInstruction> pending = instructions.get(segment.getSegmentId());
+        if (pending == null) {
+            return segment;
+        }
+        Segment current = segment;
+        List<SegmentInstruction> retries = new ArrayList<>();
+        SegmentInstruction instruction;
+        while (current != null && current.getSegmentId() == segment.getSegmentId()
+                && (instruction = pending.poll()) != null) {
+            if (instruction.result.isDone()) {
+                // submitted while the previous worker for this segment was stopping
+                continue;
+            }
+            try {
+                Segment result = instruction.execute(current);
+                if (result == RETRY) {
+                    retries.add(instruction);
+                } else {
+                    current = result;
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to apply instruction to segment {} of processor '{}'",
+                            segment.getSegmentId(), getName(), e);
+                instruction.result.complete(false);
+            }
+        }
+        pending.addAll(retries);
+        if (current != null && current.getSegmentId() != segment.getSegmentId()) {
+            activeSegments.put(current.getSegmentId(), current);
+            activeSegments.remove(segment.getSegmentId());
+            Queue<SegmentInstruction> remaining = instructions.remove(segment.getSegmentId());
+            if (remaining != null) {
+                instructions.computeIfAbsent(current.getSegmentId(), id -> new ConcurrentLinkedQueue<>())
+                        .addAll(remaining);
+            }
+        } else if (current != null) {
+            activeSegments.put(current.getSegmentId(), current);
+        }
+        return current;
     }
 
     /**
@@ -358,6 +583,12 @@ protected State getState() {
         return state.get();
     }
 
+    private void wakeUpWorkLauncher() {
+        synchronized (workLauncherMonitor) {
+            workLauncherMonitor.notifyAll();
+        }
+    }
+
     protected enum State {
 
         NOT_STARTED(false), STARTED(true), PAUSED(false), SHUT_DOWN(false), PAUSED_ERROR(false);
@@ -372,4 +603,323 @@ boolean isRunning() {
             return allowProcessing;
         }
     }
+
+    /**
+     * Claims the segments of this processor and launches a worker thread for each claimed segment, for as long as
+     * threads are available. Segments are initialized in the TokenStore if none exist yet. Segments that could not
+     * be claimed are retried periodically, as other processes may release them.
+     */
+    private class WorkerLauncher implements Runnable {
+
+        @Override
+        public void run() {
+            do {
+                try {
+                    launchWorkers();
+                } finally {
+                    workLauncherRunning.set(false);
+                }
+            } while (state.get().isRunning() && workLauncherRunning.compareAndSet(false, true));
+        }
+
+        private void launchWorkers() {
+            long waitTime = 1;
+            while (state.get().isRunning()) {
+                try {
+                    claimAvailableSegments();
+                    waitTime = 1;
+                    waitForNextAttempt(tokenClaimInterval);
+                } catch (Exception e) {
+                    logger.warn("Fetching segments for processor '{}' failed. Preparing for retry in {}s",
+                                getName(), waitTime, e);
+                    waitForNextAttempt(waitTime * 1000);
+                    waitTime = Math.min(waitTime * 2, 60);
+                }
+            }
+        }
+
+        private void claimAvailableSegments() {
+            int[] segmentIds = transactionManager.fetchInTransaction(() -> {
+                int[] segments = tokenStore.fetchSegments(getName());
+                if (segments.length == 0) {
+                    tokenStore.initializeTokenSegments(getName(), segmentsSize);
+                    segments = tokenStore.fetchSegments(getName());
+                }
+                return segments;
+            });
+            for (Segment segment : Segment.computeSegments(segmentIds)) {
+                if (availableThreads.get() <= 0 || !state.get().isRunning()) {
+                    return;
+                }
+                Long releaseDeadline = releasedSegments.get(segment.getSegmentId());
+                if (releaseDeadline != null) {
+                    if (releaseDeadline > System.currentTimeMillis()) {
+                        continue;
+                    }
+                    releasedSegments.remove(segment.getSegmentId(), releaseDeadline);
+                }
+                if (activeSegments.putIfAbsent(segment.getSegmentId(), segment) == null) {
+                    try {
+                        transactionManager.executeInTransaction(
+                                () -> tokenStore.claimToken(getName(), segment.getSegmentId()));
+                    } catch (UnableToClaimTokenException e) {
+                        activeSegments.remove(segment.getSegmentId());
+                        logger.debug("Unable to claim segment {} of processor '{}'. It is owned by another node " +
+                                             "or no longer exists.",
+                                     segment.getSegmentId(), getName());
+                        continue;
+                    }
+                    availableThreads.decrementAndGet();
+                    logger.info("Worker assigned to segment {} of processor '{}'", segment.getSegmentId(),
+                                getName());
+                    threadFactory.newThread(new SegmentWorker(segment)).start();
+                }
+            }
+        }
+
+        private void waitForNextAttempt(long millis) {
+            synchronized (workLauncherMonitor) {
+                if (state.get().isRunning()) {
+                    try {
+                        workLauncherMonitor.wait(millis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        logger.warn("Thread interrupted. Preparing to shut down event processor");
+                        shutDown();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Processes the events of a single segment until the processor stops or the segment's claim is lost.
+     */
+    private class SegmentWorker implements Runnable {
+
+        private final Segment segment;
+
+        private SegmentWorker(Segment segment) {
+            this.segment = segment;
+        }
+
+        @Override
+        public void run() {
+            try {
+                processingLoop(segment);
+            } catch (Throwable e) {
+                logger.error("Processing loop ended due to uncaught exception. Processor pausing.", e);
+                state.set(State.PAUSED_ERROR);
+            } finally {
+                availableThreads.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Keeps track of the token of the segment processed by a worker thread, deciding when to store it in the
+     * TokenStore and when to extend the claim on it. Tokens of processed events that are not stored yet are kept as
+     * pending token. The claim is extended independently of storing the token, so that a segment that processes
+     * events without storing its token keeps its claim.
+     */
+    private class TokenWriter {
+
+        private TrackingToken pendingToken;
+        private long eventsSinceStore;
+        private long lastStoreTime = System.currentTimeMillis();
+        private long lastClaimTime = lastStoreTime;
+
+        private boolean isStoreDue(long eventCount) {
+            return eventsSinceStore + eventCount >= tokenStoreEventThreshold
+                    || (tokenStoreInterval > 0 && System.currentTimeMillis() - lastStoreTime >= tokenStoreInterval);
+        }
+
+        private void advancedTo(TrackingToken token, long eventCount, boolean stored) {
+            if (stored) {
+                stored();
+            } else {
+                pendingToken = token;
+                eventsSinceStore += eventCount;
+            }
+        }
+
+        private void idle(Segment segment) {
+            if (pendingToken != null) {
+                flush(segment);
+            }
+        }
+
+        private void extendClaimIfDue(Segment segment) {
+            if (System.currentTimeMillis() - lastClaimTime >= claimExtensionInterval) {
+                transactionManager.executeInTransaction(() -> tokenStore.extendClaim(getName(),
+                                                                                     segment.getSegmentId()));
+                lastClaimTime = System.currentTimeMillis();
+            }
+        }
+
+        private void flush(Segment segment) {
+            TrackingToken token = pendingToken;
+            if (token != null) {
+                transactionManager.executeInTransaction(
+                        () -> tokenStore.storeToken(token, getName(), segment.getSegmentId()));
+                stored();
+            }
+        }
+
+        private void flushQuietly(Segment segment) {
+            try {
+                flush(segment);
+            } catch (Exception e) {
+                logger.warn("Failed to store the token of segment {} of processor '{}'", segment.getSegmentId(),
+                            getName(), e);
+            } finally {
+                pendingToken = null;
+                eventsSinceStore = 0;
+            }
+        }
+
+        private void stored() {
+            pendingToken = null;
+            eventsSinceStore = 0;
+            // storing a token also extends the claim on it
+            lastStoreTime = System.currentTimeMillis();
+            lastClaimTime = lastStoreTime;
+        }
+    }
+
+    /**
+     * Keeps track of the batch size of a worker thread, which adapts to the number of available events and the time
+     * needed to handle them if the processor is configured with an adaptive batch size.
+     */
+    private class BatchSizer {
+
+        private int current = batchSize;
+
+        private int current() {
+            return current;
+        }
+
+        private void update(boolean batchFull, long handlingTime) {
+            if (handlingTime > maxBatchTime || !batchFull) {
+                current = Math.max(batchSize, current / 2);
+            } else {
+                current = (int) Math.min(maxBatchSize, current * 2L);
+            }
+        }
+    }
+
+    /**
+     * An instruction to change a segment, executed by the thread processing that segment between batches.
+     */
+    private abstract class SegmentInstruction {
+
+        protected final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        /**
+         * Executes the instruction on the given {@code segment}, returning the segment to continue processing, {@code
+         * null} to stop processing, or {@link #RETRY} to execute this instruction again after the next batch.
+         */
+        abstract Segment execute(Segment segment);
+    }
+
+    private class SplitInstruction extends SegmentInstruction {
+
+        @Override
+        Segment execute(Segment segment) {
+            Segment[] split = transactionManager.fetchInTransaction(() -> {
+                TrackingToken token = tokenStore.claimToken(getName(), segment.getSegmentId());
+                Segment current = Segment.computeSegment(segment.getSegmentId(),
+                                                         tokenStore.fetchSegments(getName()));
+                Segment[] halves = current.split();
+                tokenStore.initializeSegment(token, getName(), halves[1].getSegmentId());
+                return halves;
+            });
+            logger.info("Segment {} of processor '{}' has been split. Created segment {}", segment.getSegmentId(),
+                        getName(), split[1].getSegmentId());
+            activeSegments.put(split[0].getSegmentId(), split[0]);
+            result.complete(true);
+            wakeUpWorkLauncher();
+            return split[0];
+        }
+    }
+
+    private class MergeInstruction extends SegmentInstruction {
+
+        private static final int MAX_ATTEMPTS = 20;
+        private int attempts;
+
+        @Override
+        Segment execute(Segment segment) {
+            int counterpartId = segment.mergeableSegmentId();
+            Segment current = transactionManager.fetchInTransaction(
+                    () -> Segment.computeSegment(segment.getSegmentId(), tokenStore.fetchSegments(getName())));
+            Segment counterpart = new Segment(counterpartId, current.getMask());
+            if (current.getMask() == 0) {
+                logger.info("Segment {} of processor '{}' cannot be merged. It is the only segment.",
+                            segment.getSegmentId(), getName());
+                result.complete(false);
+                return current;
+            }
+            if (!Arrays.asList(transactionManager.fetchInTransaction(
+                    () -> Segment.computeSegments(tokenStore.fetchSegments(getName())))).contains(counterpart)) {
+                logger.info("Segment {} of processor '{}' cannot be merged. Its counterpart has been split.",
+                            segment.getSegmentId(), getName());
+                result.complete(false);
+                return current;
+            }
+            if (activeSegments.containsKey(counterpartId)) {
+                if (++attempts > MAX_ATTEMPTS) {
+                    result.complete(false);
+                    return current;
+                }
+                // ask the thread processing the counterpart to release it, and try again after the next batch
+                releasedSegments.put(counterpartId, System.currentTimeMillis() + tokenClaimInterval);
+                submitInstruction(counterpartId, new ReleaseInstruction());
+                return RETRY;
+            }
+            Segment merged = current.mergedWith(counterpart);
+            try {
+                transactionManager.executeInTransaction(() -> {
+                    TrackingToken token = tokenStore.claimToken(getName(), current.getSegmentId());
+                    TrackingToken counterpartToken = tokenStore.claimToken(getName(), counterpartId);
+                    TrackingToken mergedToken =
+                            token == null || counterpartToken == null ? null : token.lowerBound(counterpartToken);
+                    int obsoleteSegmentId = Math.max(current.getSegmentId(), counterpartId);
+                    // token stores may not make these operations atomic. Storing the merged token first means a
+                    // failure leaves both segments in place, at worst with one of them continuing from a lower token
+                    tokenStore.storeToken(mergedToken, getName(), merged.getSegmentId());
+                    tokenStore.deleteToken(getName(), obsoleteSegmentId);
+                });
+            } catch (UnableToClaimTokenException e) {
+                logger.info("Segment {} of processor '{}' cannot be merged. Segment {} is claimed by another node " +
+                                    "or no longer exists.",
+                            segment.getSegmentId(), getName(), counterpartId);
+                result.complete(false);
+                return current;
+            } catch (UnsupportedOperationException e) {
+                // thrown by TrackingToken.lowerBound before any change was made to the segments
+                logger.warn("Segment {} of processor '{}' cannot be merged with segment {}. Their tokens cannot be " +
+                                    "merged.", segment.getSegmentId(), getName(), counterpartId, e);
+                result.completeExceptionally(e);
+                return current;
+            }
+            logger.info("Segments {} and {} of processor '{}' have been merged", current.getSegmentId(),
+                        counterpartId, getName());
+            activeSegments.put(merged.getSegmentId(), merged);
+            if (merged.getSegmentId() != current.getSegmentId()) {
+                activeSegments.remove(current.getSegmentId());
+            }
+            result.complete(true);
+            return merged;
+        }
+    }
+
+    private class ReleaseInstruction extends SegmentInstruction {
+
+        @Override
+        Segment execute(Segment segment) {
+            result.complete(true);
+            return null;
+        }
+    }
 }
@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2010-2017. Axon Framework
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling;
+
+import org.axonframework.common.Assert;
+import org.axonframework.common.AxonThreadFactory;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Configuration object for the {@link TrackingEventProcessor}. The TrackingEventProcessorConfiguration provides access
+ * to the options to tweak various settings. Instances are not thread-safe and should not be altered after they have
+ * been used to initialize a TrackingEventProcessor.
+ *
+ * @since 3.1
+ */
+public class TrackingEventProcessorConfiguration {
+
+    private static final int DEFAULT_BATCH_SIZE = 1;
+    private static final long DEFAULT_TOKEN_CLAIM_INTERVAL = 5000;
+    private static final long DEFAULT_CLAIM_EXTENSION_INTERVAL = 1000;
+
+    private final int maxThreadCount;
+    private int batchSize;
+    private int maxBatchSize;
+    private long maxBatchTime;
+    private int initialSegmentCount;
+    private long tokenClaimInterval;
+    private int tokenStoreEventThreshold;
+    private long tokenStoreInterval;
+    private long claimExtensionInterval;
+    private Function<String, ThreadFactory> threadFactory;
+
+    private TrackingEventProcessorConfiguration(int numberOfSegments) {
+        this.batchSize = DEFAULT_BATCH_SIZE;
+        this.maxBatchSize = DEFAULT_BATCH_SIZE;
+        this.maxBatchTime = Long.MAX_VALUE;
+        this.initialSegmentCount = numberOfSegments;
+        this.maxThreadCount = numberOfSegments;
+        this.tokenClaimInterval = DEFAULT_TOKEN_CLAIM_INTERVAL;
+        this.tokenStoreEventThreshold = 1;
+        this.tokenStoreInterval = 0;
+        this.claimExtensionInterval = DEFAULT_CLAIM_EXTENSION_INTERVAL;
+        this.threadFactory = pn -> new AxonThreadFactory("TrackingEventProcessor - " + pn);
+    }
+
+    /**
+     * Initialize a configuration with single threaded processing. The processor will track a single segment.
+     *
+     * @return a Configuration prepared for single threaded processing
+     */
+    public static TrackingEventProcessorConfiguration forSingleThreadedProcessing() {
+        return new TrackingEventProcessorConfiguration(1);
+    }
+
+    /**
+     * Initialize a configuration instance with the given {@code threadCount}. This is both the number of threads that
+     * a processor will start for processing, as well as the initial number of segments that will be created when the
+     * processor is first started.
+     *
+     * @param threadCount the number of segments to process in parallel
+     * @return a newly created configuration
+     */
+    public static TrackingEventProcessorConfiguration forParallelProcessing(int threadCount) {
+        Assert.isTrue(threadCount > 0, () -> "threadCount needs to be greater than 0");
+        return new TrackingEventProcessorConfiguration(threadCount);
+    }
+
+    /**
+     * Set the maximum number of events that may be processed in a single transaction.
+     *
+     * @param batchSize The maximum number of events to process in a single batch
+     * @return {@code this} for method chaining
+     */
+    public TrackingEventProcessorConfiguration andBatchSize(int batchSize) {
+        Assert.isTrue(batchSize > 0, () -> "batchSize needs to be greater than 0");
+        this.batchSize = batchSize;
+        this.maxBatchSize = Math.max(maxBatchSize, batchSize);
+        return this;
+    }
+
+    /**
+     * Makes the processor adapt the size of its batches, between the batch size set using {@link #andBatchSize(int)}
+     * and the given {@code maxBatchSize}. Each segment starts with the configured batch size. The batch size is
+     * doubled after each full batch, i.e. while the processor is catching up, and halved after each batch that was not
+     * full, i.e. when the processor has reached the head of the stream. The batch size is also halved when handling a
+     * batch took longer than the given {@code maxBatchTime}, to keep transactions short.
+     * <p>
+     * By default the batch size is fixed.
+     *
+     * @param maxBatchSize The maximum number of events to process in a single batch
+     * @param maxBatchTime The time after which the batch size is reduced if handling a batch takes longer
+     * @param timeUnit     The unit of the given {@code maxBatchTime}
+     * @return {@code this} for method chaining
+     */
+    public TrackingEventProcessorConfiguration andAdaptiveBatchSize(int maxBatchSize, long maxBatchTime,
+                                                                    TimeUnit timeUnit) {
+        Assert.isTrue(maxBatchSize >= batchSize, () -> "maxBatchSize may not be smaller than the batchSize");
+        Assert.isTrue(maxBatchTime > 0, () -> "maxBatchTime needs to be greater than 0");
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchTime = timeUnit.toMillis(maxBatchTime);
+        return this;
+    }
+
+    /**
+     * Sets the number of segments to create when the processor is started for the first time, i.e. when no tokens
+     * have been stored for it yet. Defaults to the number of threads the processor was configured with.
+     *
+     * @param segmentsCount The number of segments to create initially
+     * @return {@code this} for method chaining
+     */
+    public TrackingEventProcessorConfiguration andInitialSegmentsCount(int segmentsCount) {
+        Assert.isTrue(segmentsCount > 0, () -> "segmentsCount needs to be greater than 0");
+        this.initialSegmentCount = segmentsCount;
+        return this;
+    }
+
+    /**
+     * Sets the ThreadFactory to use to create the threads to process events on. Each Segment will be processed by a
+     * separate thread, and one additional thread is used to claim segments.
+     *
+     * @param threadFactory The function providing the ThreadFactory for a processor with a given name
+     * @return {@code this} for method chaining
+     */
+    public TrackingEventProcessorConfiguration andThreadFactory(Function<String, ThreadFactory> threadFactory) {
+        this.threadFactory = threadFactory;
+        return this;
+    }
+
+    /**
+     * Sets the time to wait between attempts to claim segments that are not yet processed by this processor.
+     * Defaults to 5 seconds.
+     *
+     * @param tokenClaimInterval The time to wait between attempts to claim unclaimed segments
+     * @param timeUnit           The unit of the given {@code tokenClaimInterval}
+     * @return {@code this} for method chaining
+     */
+    public TrackingEventProcessorConfiguration andTokenClaimInterval(long tokenClaimInterval, TimeUnit timeUnit) {
+        this.tokenClaimInterval = timeUnit.toMillis(tokenClaimInterval);
+        return this;
+    }
+
+    /**
+     * Defers storing the token of a segment until at least {@code eventCount} events have been processed since the
+     * token was last stored, or until the token was last stored at least {@code interval} ago, whichever comes first.
+     * An {@code interval} of 0 stores the token based on the number of events only. By default the token is stored in
+     * the same transaction as each batch of events.
+     * <p>
+     * When the token is stored less often, fewer round trips to the TokenStore are needed for workloads with many
+     * small batches. However, after a restart or a failure the processor continues from the last stored token, so
+     * events processed after that are handled again. Only use this option when event handlers are idempotent. The
+     * claim on a segment is extended separately while its token is not stored, see {@link
+     * #andClaimExtensionInterval(long, TimeUnit)}.
+     * <p>
+     * Tokens that are deferred are always stored when the processor is idle, before it splits or merges a segment,
+     * and before it releases its claim.
+     *
+     * @param eventCount The number of events after which the token is stored
+     * @param interval   The maximum time between storing the token while processing events, or 0 for no maximum
+     * @param timeUnit   The unit of the given {@code interval}
+     * @return {@code this} for method chaining
+     */
+    public TrackingEventProcessorConfiguration andTokenStoreThreshold(int eventCount, long interval,
+                                                                     TimeUnit timeUnit) {
+        Assert.isTrue(eventCount > 0, () -> "eventCount needs to be greater than 0");
+        Assert.isTrue(interval >= 0, () -> "interval may not be negative");
+        this.tokenStoreEventThreshold = eventCount;
+        this.tokenStoreInterval = timeUnit.toMillis(interval);
+        return this;
+    }
+
+    /**
+     * Sets the time between two extensions of the claim on a segment. The claim is extended when the token of the
+     * segment has not been stored for this long, regardless of whether the segment is idle or processing events.
+     * Storing the token also extends the claim. The interval should be shorter than the time after which the
+     * TokenStore considers a claim to be abandoned. Defaults to 1 second.
+     *
+     * @param claimExtensionInterval The time between extensions of the claim on a segment
+     * @param timeUnit               The unit of the given {@code claimExtensionInterval}
+     * @return {@code this} for method chaining
+     */
+    public TrackingEventProcessorConfiguration andClaimExtensionInterval(long claimExtensionInterval,
+                                                                         TimeUnit timeUnit) {
+        Assert.isTrue(claimExtensionInterval >= 0, () -> "claimExtensionInterval may not be negative");
+        this.claimExtensionInterval = timeUnit.toMillis(claimExtensionInterval);
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of events to process in a single batch.
+     *
+     * @return the maximum number of events to process in a single batch
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Returns the maximum number of events to process in a single batch when the batch size is adaptive. Equals the
+     * {@link #getBatchSize() batch size} if the batch size is fixed.
+     *
+     * @return the maximum size of an adaptive batch
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Returns the time, in milliseconds, after which the size of an adaptive batch is reduced if handling a batch
+     * takes longer.
+     *
+     * @return the maximum time to handle a batch in milliseconds
+     */
+    public long getMaxBatchTime() {
+        return maxBatchTime;
+    }
+
+    /**
+     * Returns the number of segments to create when the processor is started for the first time.
+     *
+     * @return the number of segments to create initially
+     */
+    public int getInitialSegmentsCount() {
+        return initialSegmentCount;
+    }
+
+    /**
+     * Returns the maximum number of threads, and thus segments, a processor processes in parallel.
+     *
+     * @return the maximum number of processing threads
+     */
+    public int getMaxThreadCount() {
+        return maxThreadCount;
+    }
+
+    /**
+     * Returns the time, in milliseconds, to wait between attempts to claim unclaimed segments.
+     *
+     * @return the token claim interval in milliseconds
+     */
+    public long getTokenClaimInterval() {
+        return tokenClaimInterval;
+    }
+
+    /**
+     * Returns the number of events after which the token of a segment is stored.
+     *
+     * @return the number of events after which the token is stored
+     */
+    public int getTokenStoreEventThreshold() {
+        return tokenStoreEventThreshold;
+    }
+
+    /**
+     * Returns the maximum time, in milliseconds, between storing the token of a segment while processing events.
+     *
+     * @return the maximum time between storing the token in milliseconds
+     */
+    public long getTokenStoreInterval() {
+        return tokenStoreInterval;
+    }
+
+    /**
+     * Returns the time, in milliseconds, between extensions of the claim on a segment.
+     *
+     * @return the claim extension interval in milliseconds
+     */
+    public long getClaimExtensionInterval() {
+        return claimExtensionInterval;
+    }
+
+    /**
+     * Provides the ThreadFactory to use to construct Threads for the processor with given {@code processorName}.
+     *
+     * @param processorName The name of the processor for which to return the ThreadFactory
+     * @return the thread factory configured
+     */
+    public ThreadFactory getThreadFactory(String processorName) {
+        return threadFactory.apply(processorName);
+    }
+}
@@ -67,20 +67,21 @@ private <T> SagaModel<T> doCreateModel(Class<T> sagaType) {
         AnnotatedHandlerInspector<T> handlerInspector =
                 AnnotatedHandlerInspector.inspectType(sagaType, parameterResolverFactory);
 
-        return new InspectedSagaModel<>(handlerInspector.getHandlers());
+        return new InspectedSagaModel<>(handlerInspector);
     }
 
     private class InspectedSagaModel<T> implements SagaModel<T> {
-        private final List<MessageHandlingMember<? super T>> handlers;
+        private final AnnotatedHandlerInspector<T> handlerInspector;
 
-        public InspectedSagaModel(List<MessageHandlingMember<? super T>> handlers) {
-            this.handlers = handlers;
+        public InspectedSagaModel(AnnotatedHandlerInspector<T> handlerInspector) {
+            this.handlerInspector = handlerInspector;
         }
 
         @Override
         @SuppressWarnings("unchecked")
         public Optional<AssociationValue> resolveAssociation(EventMessage<?> eventMessage) {
-            for (MessageHandlingMember<? super T> handler : handlers) {
+            Class<?> payloadType = eventMessage.getPayloadType();
+            for (MessageHandlingMember<? super T> handler : handlerInspector.getHandlers(payloadType)) {
                 if (handler.canHandle(eventMessage)) {
                     return handler.unwrap(SagaMethodMessageHandlingMember.class)
                             .map(mh -> mh.getAssociationValue(eventMessage));
@@ -92,7 +93,8 @@ public Optional<AssociationValue> resolveAssociation(EventMessage<?> eventMessag
         @Override
         @SuppressWarnings("unchecked")
         public List<SagaMethodMessageHandlingMember<T>> findHandlerMethods(EventMessage<?> eventMessage) {
-            return handlers.stream().filter(h -> h.canHandle(eventMessage))
+            return handlerInspector.getHandlers(eventMessage.getPayloadType()).stream()
+                    .filter(h -> h.canHandle(eventMessage))
                     .map(h -> (SagaMethodMessageHandlingMember<T>) h.unwrap(SagaMethodMessageHandlingMember.class)
                             .orElse(null)).filter(h -> h != null).collect(Collectors.toCollection(ArrayList::new));
         }
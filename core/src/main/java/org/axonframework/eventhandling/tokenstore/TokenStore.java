@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2010-2016. Axon Framework
+ * Copyright (c) 2010-2017. Axon Framework
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
  * You may obtain a copy of the License at
@@ -16,6 +16,8 @@
 import org.axonframework.eventhandling.EventProcessor;
 import org.axonframework.eventsourcing.eventstore.TrackingToken;
 
+import java.util.Arrays;
+
 /**
  * Describes a component capable of storing and retrieving event tracking tokens. An {@link EventProcessor} that is
  * tracking an event stream can use the store to keep track of its position in the event stream. Tokens are stored by
@@ -55,6 +57,30 @@ public interface TokenStore {
      */
     TrackingToken fetchToken(String processorName, int segment) throws UnableToClaimTokenException;
 
+    /**
+     * Returns the last stored {@link TrackingToken token} for the given {@code processorName} and {@code segment}, and
+     * claims it for the current process. Unlike {@link #fetchToken(String, int)}, this method never creates a token
+     * entry. If the segment does not exist, for instance because it has been merged with another segment since its
+     * identifier was obtained from {@link #fetchSegments(String)}, an {@link UnableToClaimTokenException} is thrown.
+     *
+     * @param processorName The process name for which to claim the token
+     * @param segment       The segment index for which to claim the token
+     * @return The last stored TrackingToken, which may be {@code null}
+     * @throws UnableToClaimTokenException if there is no token entry for given {@code processorName} and {@code
+     *                                     segment}, or if it is claimed by another process
+     * @implSpec By default, this method checks that {@link #fetchSegments(String)} contains the given {@code segment}
+     * and then invokes {@link #fetchToken(String, int)}. TokenStore implementations that support deleting segments
+     * must override this method to check for the token entry and claim it atomically.
+     */
+    default TrackingToken claimToken(String processorName, int segment) throws UnableToClaimTokenException {
+        int[] segments = fetchSegments(processorName);
+        if (Arrays.stream(segments).noneMatch(s -> s == segment)) {
+            throw new UnableToClaimTokenException(
+                    "Unable to claim token '" + processorName + "[" + segment + "]'. It does not exist.");
+        }
+        return fetchToken(processorName, segment);
+    }
+
     /**
      * Extends the claim on the current token held by the this node for the given {@code processorName} and
      * {@code segment}.
@@ -81,4 +107,103 @@ default void extendClaim(String processorName, int segment) throws UnableToClaim
      * @param segment       the segment for which a token was obtained
      */
     void releaseClaim(String processorName, int segment);
+
+    /**
+     * Initializes the given {@code segmentCount} number of segments for the given {@code processorName} to track its
+     * tokens. Each segment will start with a {@code null} token. The segments will not be claimed by the current
+     * process.
+     * <p>
+     * This method should only be invoked when no tokens have been stored for the given processor yet.
+     *
+     * @param processorName The name of the processor for which to initialize the segments
+     * @param segmentCount  The number of segments to initialize
+     * @throws UnableToClaimTokenException when a segment has already been created for the given processor
+     */
+    default void initializeTokenSegments(String processorName, int segmentCount) throws UnableToClaimTokenException {
+        initializeTokenSegments(processorName, segmentCount, null);
+    }
+
+    /**
+     * Initializes the given {@code segmentCount} number of segments for the given {@code processorName} to track its
+     * tokens. Each segment will start with the given {@code initialToken}, which may be {@code null}. The segments
+     * will not be claimed by the current process.
+     * <p>
+     * This method should only be invoked when no tokens have been stored for the given processor yet.
+     *
+     * @param processorName The name of the processor for which to initialize the segments
+     * @param segmentCount  The number of segments to initialize
+     * @param initialToken  The token to initialize each segment with. May be {@code null}.
+     * @throws UnableToClaimTokenException when a segment has already been created for the given processor
+     * @implSpec By default, this method stores the given {@code initialToken} for each segment using {@link
+     * #storeToken(TrackingToken, String, int)} and releases the claim that may have been obtained doing so. It does
+     * not verify that no segments exist yet. TokenStore implementations should override this method if they can
+     * perform this check, or create the segments more efficiently.
+     */
+    default void initializeTokenSegments(String processorName, int segmentCount,
+                                         TrackingToken initialToken) throws UnableToClaimTokenException {
+        for (int segment = 0; segment < segmentCount; segment++) {
+            storeToken(initialToken, processorName, segment);
+            releaseClaim(processorName, segment);
+        }
+    }
+
+    /**
+     * Returns an array of the identifiers of the segments for which tokens have been stored for the given
+     * {@code processorName}. The array is ordered by segment identifier, and is empty if no segments have been stored
+     * yet. Segments are returned regardless of the process currently holding a claim on them.
+     *
+     * @param processorName The name of the processor for which to fetch the segments
+     * @return an array of segment identifiers
+     * @implSpec By default, this method returns a single segment with identifier {@code 0}, which is the segment any
+     * processor used before segments could be configured. TokenStore implementations that support multiple segments
+     * must override this method.
+     */
+    default int[] fetchSegments(String processorName) {
+        return new int[]{0};
+    }
+
+    /**
+     * Indicates whether this TokenStore supports changing the segments of a processor that is running, using {@link
+     * #initializeSegment(TrackingToken, String, int)} and {@link #deleteToken(String, int)}. Processors will refuse to
+     * split or merge segments if it does not.
+     *
+     * @return {@code true} if segments can be created and deleted, otherwise {@code false}
+     * @implSpec By default, this method returns {@code false}. TokenStore implementations that override {@link
+     * #initializeSegment(TrackingToken, String, int)}, {@link #deleteToken(String, int)}, {@link
+     * #fetchSegments(String)} and {@link #claimToken(String, int)} should return {@code true}.
+     */
+    default boolean supportsSegmentChanges() {
+        return false;
+    }
+
+    /**
+     * Initializes a segment with given {@code segment} for the processor with given {@code processorName} to contain
+     * the given {@code token}. The segment will not be claimed by the current process. This method is used when
+     * splitting a segment of a running processor.
+     *
+     * @param token         The token to initialize the segment with. May be {@code null}.
+     * @param processorName The name of the processor for which to create the segment
+     * @param segment       The identifier of the segment to create
+     * @throws UnableToClaimTokenException when a segment with given identifier already exists
+     * @throws UnsupportedOperationException if this TokenStore does not {@link #supportsSegmentChanges() support
+     *                                       segment changes}
+     */
+    default void initializeSegment(TrackingToken token, String processorName,
+                                   int segment) throws UnableToClaimTokenException {
+        throw new UnsupportedOperationException("TokenStore does not support creating segments");
+    }
+
+    /**
+     * Deletes the token for the processor with given {@code processorName} and {@code segment}. The token must be
+     * claimed by the current process. This method is used when merging two segments of a running processor.
+     *
+     * @param processorName The name of the processor to remove the token for
+     * @param segment       The segment to delete
+     * @throws UnableToClaimTokenException if the token is not currently claimed by this process
+     * @throws UnsupportedOperationException if this TokenStore does not {@link #supportsSegmentChanges() support
+     *                                       segment changes}
+     */
+    default void deleteToken(String processorName, int segment) throws UnableToClaimTokenException {
+        throw new UnsupportedOperationException("TokenStore does not support deleting segments");
+    }
 }
@@ -14,11 +14,14 @@
 package org.axonframework.eventhandling.tokenstore.inmemory;
 
 import org.axonframework.eventhandling.tokenstore.TokenStore;
+import org.axonframework.eventhandling.tokenstore.UnableToClaimTokenException;
 import org.axonframework.eventsourcing.eventstore.TrackingToken;
 import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
 
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -27,25 +30,96 @@
  * @author Rene de Waele
  */
 public class InMemoryTokenStore implements TokenStore {
-    private final Map<ProcessAndSegment, TrackingToken> tokens = new ConcurrentHashMap<>();
+    // the map doesn't accept null values, so segments holding a null token map to an empty Optional
+    private final Map<ProcessAndSegment, Optional<TrackingToken>> tokens = new ConcurrentHashMap<>();
+    private final Set<ProcessAndSegment> claims = ConcurrentHashMap.newKeySet();
 
     @Override
     public void storeToken(TrackingToken token, String processorName, int segment) {
         if (CurrentUnitOfWork.isStarted()) {
-            CurrentUnitOfWork.get().afterCommit(uow -> tokens.put(new ProcessAndSegment(processorName, segment), token));
+            CurrentUnitOfWork.get()
+                    .afterCommit(uow -> tokens.put(new ProcessAndSegment(processorName, segment),
+                                                   Optional.ofNullable(token)));
         } else {
-            tokens.put(new ProcessAndSegment(processorName, segment), token);
+            tokens.put(new ProcessAndSegment(processorName, segment), Optional.ofNullable(token));
         }
     }
 
     @Override
     public TrackingToken fetchToken(String processorName, int segment) {
-        return tokens.get(new ProcessAndSegment(processorName, segment));
+        ProcessAndSegment key = new ProcessAndSegment(processorName, segment);
+        Optional<TrackingToken> token = tokens.get(key);
+        if (token == null) {
+            return null;
+        }
+        claims.add(key);
+        return token.orElse(null);
+    }
+
+    @Override
+    public TrackingToken claimToken(String processorName, int segment) throws UnableToClaimTokenException {
+        ProcessAndSegment key = new ProcessAndSegment(processorName, segment);
+        Optional<TrackingToken> token = tokens.get(key);
+        if (token == null) {
+            throw new UnableToClaimTokenException(
+                    "Unable to claim token '" + processorName + "[" + segment + "]'. It does not exist.");
+        }
+        claims.add(key);
+        return token.orElse(null);
+    }
+
+    @Override
+    public void initializeTokenSegments(String processorName, int segmentCount,
+                                        TrackingToken initialToken) throws UnableToClaimTokenException {
+        if (fetchSegments(processorName).length > 0) {
+            throw new UnableToClaimTokenException(
+                    "Could not initialize segments. Some segments were already present for processor " + processorName);
+        }
+        for (int segment = 0; segment < segmentCount; segment++) {
+            tokens.put(new ProcessAndSegment(processorName, segment), Optional.ofNullable(initialToken));
+        }
+    }
+
+    @Override
+    public boolean supportsSegmentChanges() {
+        return true;
+    }
+
+    @Override
+    public void initializeSegment(TrackingToken token, String processorName,
+                                  int segment) throws UnableToClaimTokenException {
+        Optional<TrackingToken> previous =
+                tokens.putIfAbsent(new ProcessAndSegment(processorName, segment), Optional.ofNullable(token));
+        if (previous != null) {
+            throw new UnableToClaimTokenException(
+                    "Could not initialize segment " + segment + " for processor " + processorName +
+                            ". It already exists.");
+        }
+    }
+
+    @Override
+    public void deleteToken(String processorName, int segment) throws UnableToClaimTokenException {
+        ProcessAndSegment key = new ProcessAndSegment(processorName, segment);
+        if (!claims.remove(key)) {
+            throw new UnableToClaimTokenException(
+                    "Unable to delete token '" + processorName + "[" + segment + "]'. It is not claimed by the current process.");
+        }
+        tokens.remove(key);
+    }
+
+    @Override
+    public int[] fetchSegments(String processorName) {
+        return tokens.keySet().stream()
+                .filter(key -> key.processorName.equals(processorName))
+                .mapToInt(key -> key.segment)
+                .sorted()
+                .toArray();
     }
 
     @Override
     public void releaseClaim(String processorName, int segment) {
-        // no-op, the in-memory implementation isn't accessible by multiple processes
+        // the in-memory implementation isn't accessible by multiple processes, claims only guard deleting tokens
+        claims.remove(new ProcessAndSegment(processorName, segment));
     }
 
     private static class ProcessAndSegment {
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2010-2016. Axon Framework
+ * Copyright (c) 2010-2017. Axon Framework
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
  * You may obtain a copy of the License at
@@ -34,6 +34,7 @@
 import java.sql.SQLException;
 import java.time.Duration;
 import java.time.temporal.TemporalAmount;
+import java.util.List;
 
 import static java.lang.String.format;
 import static org.axonframework.common.jdbc.JdbcUtils.*;
@@ -142,6 +143,32 @@ public TrackingToken fetchToken(String processorName, int segment) throws Unable
         }
     }
 
+    @Override
+    public TrackingToken claimToken(String processorName, int segment) throws UnableToClaimTokenException {
+        Connection connection = getConnection();
+        try {
+            return executeQuery(connection, c -> selectForUpdate(c, processorName, segment), resultSet -> {
+                if (!resultSet.next()) {
+                    throw new UnableToClaimTokenException(format(
+                            "Unable to claim token '%s[%s]'. It does not exist.", processorName, segment));
+                }
+                TrackingToken result = claimToken(resultSet, readTokenEntry(resultSet));
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                }
+                return result;
+            }, e -> new JdbcException(
+                    format("Could not claim token for processor [%s] and segment [%d]", processorName, segment), e));
+        } finally {
+            closeQuietly(connection);
+        }
+    }
+
+    @Override
+    public void extendClaim(String processorName, int segment) throws UnableToClaimTokenException {
+        claimToken(processorName, segment);
+    }
+
     @Override
     public void releaseClaim(String processorName, int segment) {
         Connection connection = getConnection();
@@ -167,6 +194,136 @@ public void releaseClaim(String processorName, int segment) {
         }
     }
 
+    @Override
+    public void initializeTokenSegments(String processorName, int segmentCount,
+                                        TrackingToken initialToken) throws UnableToClaimTokenException {
+        Connection connection = getConnection();
+        try {
+            executeQuery(connection, c -> selectForUpdate(c, processorName, 0), resultSet -> {
+                if (resultSet.next()) {
+                    throw new UnableToClaimTokenException(
+                            "Could not initialize segments. Some segments were already present for processor "
+                                    + processorName);
+                }
+                for (int segment = 0; segment < segmentCount; segment++) {
+                    insertUnclaimedTokenEntry(resultSet, initialToken, processorName, segment);
+                }
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                }
+                return null;
+            }, e -> new JdbcException(
+                    format("Could not initialize %d segments for processor [%s]", segmentCount, processorName), e));
+        } finally {
+            closeQuietly(connection);
+        }
+    }
+
+    @Override
+    public boolean supportsSegmentChanges() {
+        return true;
+    }
+
+    @Override
+    public void initializeSegment(TrackingToken token, String processorName,
+                                  int segment) throws UnableToClaimTokenException {
+        Connection connection = getConnection();
+        try {
+            executeQuery(connection, c -> selectForUpdate(c, processorName, segment), resultSet -> {
+                if (resultSet.next()) {
+                    throw new UnableToClaimTokenException(format(
+                            "Could not initialize segment '%s[%s]'. It already exists.", processorName, segment));
+                }
+                insertUnclaimedTokenEntry(resultSet, token, processorName, segment);
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                }
+                return null;
+            }, e -> new JdbcException(
+                    format("Could not initialize segment [%d] for processor [%s]", segment, processorName), e));
+        } finally {
+            closeQuietly(connection);
+        }
+    }
+
+    @Override
+    public void deleteToken(String processorName, int segment) throws UnableToClaimTokenException {
+        Connection connection = getConnection();
+        try {
+            int[] result = executeUpdates(connection, e -> {
+                throw new JdbcException(
+                        format("Could not delete token for processor [%s] and segment [%d]", processorName, segment),
+                        e);
+            }, c -> deleteToken(c, processorName, segment));
+            try {
+                if (!connection.isClosed() && !connection.getAutoCommit()) {
+                    connection.commit();
+                }
+            } catch (SQLException e) {
+                // ignore
+            }
+            if (result[0] < 1) {
+                throw new UnableToClaimTokenException(format(
+                        "Unable to delete token '%s[%s]'. It is not owned by '%s'", processorName, segment, nodeId));
+            }
+        } finally {
+            closeQuietly(connection);
+        }
+    }
+
+    /**
+     * Returns a {@link PreparedStatement} to delete the token of the processor with given {@code processorName} and
+     * {@code segment}, provided it is owned by this node.
+     *
+     * @param connection    the connection to the underlying database
+     * @param processorName the name of the processor to delete the token for
+     * @param segment       the segment of the processor to delete the token for
+     * @return a {@link PreparedStatement} that will delete the token entry when executed
+     * @throws SQLException when an exception occurs while creating the prepared statement
+     */
+    protected PreparedStatement deleteToken(Connection connection, String processorName,
+                                            int segment) throws SQLException {
+        final String sql = "DELETE FROM " + schema.tokenTable() + " WHERE " + schema.processorNameColumn() +
+                " = ? AND " + schema.segmentColumn() + " = ? AND " + schema.ownerColum() + " = ?";
+        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        preparedStatement.setString(1, processorName);
+        preparedStatement.setInt(2, segment);
+        preparedStatement.setString(3, nodeId);
+        return preparedStatement;
+    }
+
+    @Override
+    public int[] fetchSegments(String processorName) {
+        Connection connection = getConnection();
+        try {
+            List<Integer> segments = executeQuery(connection, c -> selectSegments(c, processorName),
+                                                  listResults(rs -> rs.getInt(schema.segmentColumn())),
+                                                  e -> new JdbcException(format(
+                                                          "Could not load segments for processor [%s]", processorName),
+                                                                         e));
+            return segments.stream().mapToInt(Integer::intValue).toArray();
+        } finally {
+            closeQuietly(connection);
+        }
+    }
+
+    /**
+     * Returns a {@link PreparedStatement} to select the segments of the processor with given {@code processorName},
+     * ordered by segment identifier.
+     *
+     * @param connection    the connection to the underlying database
+     * @param processorName the name of the processor to fetch the segments for
+     * @return a {@link PreparedStatement} that will fetch the segments of the processor when executed
+     * @throws SQLException when an exception occurs while creating the prepared statement
+     */
+    protected PreparedStatement selectSegments(Connection connection, String processorName) throws SQLException {
+        final String sql = "SELECT " + schema.segmentColumn() + " FROM " + schema.tokenTable() + " WHERE " +
+                schema.processorNameColumn() + " = ? ORDER BY " + schema.segmentColumn() + " ASC";
+        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        preparedStatement.setString(1, processorName);
+        return preparedStatement;
+    }
+
     /**
      * Returns a {@link PreparedStatement} to select a token entry from the underlying storage. The {@link ResultSet}
      * that is returned when this statement is executed should be updatable.
@@ -287,6 +444,20 @@ protected TrackingToken insertTokenEntry(ResultSet resultSet, TrackingToken toke
         return token;
     }
 
+    private void insertUnclaimedTokenEntry(ResultSet resultSet, TrackingToken token, String processorName,
+                                           int segment) throws SQLException {
+        AbstractTokenEntry<?> entry = new GenericTokenEntry<>(token, serializer, contentType, processorName, segment);
+        resultSet.moveToInsertRow();
+        resultSet.updateObject(schema.tokenColumn(), token == null ? null : entry.getSerializedToken().getData());
+        resultSet.updateString(schema.tokenTypeColumn(),
+                               token == null ? null : entry.getSerializedToken().getType().getName());
+        resultSet.updateString(schema.timestampColumn(), entry.timestampAsString());
+        resultSet.updateString(schema.ownerColum(), null);
+        resultSet.updateString(schema.processorNameColumn(), processorName);
+        resultSet.updateInt(schema.segmentColumn(), segment);
+        resultSet.insertRow();
+    }
+
     /**
      * Convert given {@code resultSet} to an {@link AbstractTokenEntry}. The result set contains a single token entry.
      *
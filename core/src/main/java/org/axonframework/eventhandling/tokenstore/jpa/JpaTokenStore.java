@@ -100,6 +100,19 @@ public TrackingToken fetchToken(String processorName, int segment) {
         return loadOrCreateToken(processorName, segment, entityManager).getToken(serializer);
     }
 
+    @Override
+    public TrackingToken claimToken(String processorName, int segment) throws UnableToClaimTokenException {
+        EntityManager entityManager = entityManagerProvider.getEntityManager();
+        TokenEntry token = entityManager
+                .find(TokenEntry.class, new TokenEntry.PK(processorName, segment), LockModeType.PESSIMISTIC_WRITE);
+        if (token == null) {
+            throw new UnableToClaimTokenException(
+                    format("Unable to claim token '%s[%s]'. It does not exist.", processorName, segment));
+        }
+        claim(token);
+        return token.getToken(serializer);
+    }
+
     @Override
     public void extendClaim(String processorName, int segment) throws UnableToClaimTokenException {
         EntityManager entityManager = entityManagerProvider.getEntityManager();
@@ -117,6 +130,62 @@ public void extendClaim(String processorName, int segment) throws UnableToClaimT
         }
     }
 
+    @Override
+    public void initializeTokenSegments(String processorName, int segmentCount,
+                                        TrackingToken initialToken) throws UnableToClaimTokenException {
+        EntityManager entityManager = entityManagerProvider.getEntityManager();
+        if (fetchSegments(processorName).length > 0) {
+            throw new UnableToClaimTokenException(
+                    "Could not initialize segments. Some segments were already present for processor " + processorName);
+        }
+        for (int segment = 0; segment < segmentCount; segment++) {
+            entityManager.persist(new TokenEntry(processorName, segment, initialToken, serializer));
+        }
+        entityManager.flush();
+    }
+
+    @Override
+    public boolean supportsSegmentChanges() {
+        return true;
+    }
+
+    @Override
+    public void initializeSegment(TrackingToken token, String processorName,
+                                  int segment) throws UnableToClaimTokenException {
+        EntityManager entityManager = entityManagerProvider.getEntityManager();
+        if (entityManager.find(TokenEntry.class, new TokenEntry.PK(processorName, segment)) != null) {
+            throw new UnableToClaimTokenException(format("Could not initialize segment '%s[%s]'. It already exists.",
+                                                         processorName, segment));
+        }
+        entityManager.persist(new TokenEntry(processorName, segment, token, serializer));
+        entityManager.flush();
+    }
+
+    @Override
+    public void deleteToken(String processorName, int segment) throws UnableToClaimTokenException {
+        EntityManager entityManager = entityManagerProvider.getEntityManager();
+        TokenEntry token = entityManager.find(TokenEntry.class, new TokenEntry.PK(processorName, segment),
+                                              LockModeType.PESSIMISTIC_WRITE);
+        if (token == null || !nodeId.equals(token.getOwner())) {
+            throw new UnableToClaimTokenException(format("Unable to delete token '%s[%s]'. It is not owned by '%s'",
+                                                         processorName, segment, nodeId));
+        }
+        entityManager.remove(token);
+    }
+
+    @Override
+    public int[] fetchSegments(String processorName) {
+        EntityManager entityManager = entityManagerProvider.getEntityManager();
+        return entityManager.createQuery("SELECT te.segment FROM TokenEntry te " +
+                                                 "WHERE te.processorName = :processorName ORDER BY te.segment ASC",
+                                         Integer.class)
+                .setParameter("processorName", processorName)
+                .getResultList()
+                .stream()
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
     /**
      * Loads an existing {@link TokenEntry} or creates a new one using the given {@code entityManager} for given {@code
      * processorName} and {@code segment}.
@@ -138,12 +207,18 @@ protected TokenEntry loadOrCreateToken(String processorName, int segment, Entity
             entityManager.persist(token);
             // hibernate complains about updates in different transactions if this isn't flushed
             entityManager.flush();
-        } else if (!token.claim(nodeId, claimTimeout)) {
+        } else {
+            claim(token);
+        }
+        return token;
+    }
+
+    private void claim(TokenEntry token) {
+        if (!token.claim(nodeId, claimTimeout)) {
             throw new UnableToClaimTokenException(
                     format("Unable to claim token '%s[%s]'. It is owned by '%s'", token.getProcessorName(),
                            token.getSegment(), token.getOwner()));
         }
-        return token;
     }
 
 }
@@ -19,8 +19,10 @@
 import org.axonframework.commandhandling.model.LockAwareAggregate;
 import org.axonframework.commandhandling.model.LockingRepository;
 import org.axonframework.commandhandling.model.inspection.AggregateModel;
+import org.axonframework.common.Assert;
 import org.axonframework.common.caching.Cache;
 import org.axonframework.common.lock.LockFactory;
+import org.axonframework.common.lock.NullLockFactory;
 import org.axonframework.common.lock.PessimisticLockFactory;
 import org.axonframework.eventsourcing.eventstore.EventStore;
 import org.axonframework.messaging.annotation.ParameterResolverFactory;
@@ -79,7 +81,8 @@ public CachingEventSourcingRepository(AggregateFactory<T> aggregateFactory, Even
     /**
      * Initializes a repository with a the given {@code aggregateFactory} and a pessimistic locking strategy.
      * <p>
-     * Note that an optimistic locking strategy is not compatible with caching.
+     * Note that an optimistic locking strategy is not compatible with caching. Providing the {@link NullLockFactory}
+     * results in an {@link IllegalArgumentException}.
      *
      * @param aggregateFactory          The factory for new aggregate instances
      * @param eventStore                The event store that holds the event streams for this repository
@@ -92,6 +95,7 @@ public CachingEventSourcingRepository(AggregateFactory<T> aggregateFactory, Even
                                           LockFactory lockFactory, Cache cache,
                                           SnapshotTriggerDefinition snapshotTriggerDefinition) {
         super(aggregateFactory, eventStore, lockFactory, snapshotTriggerDefinition);
+        assertNotOptimistic(lockFactory);
         this.cache = cache;
         this.eventStore = eventStore;
         this.snapshotTriggerDefinition = snapshotTriggerDefinition;
@@ -100,7 +104,8 @@ public CachingEventSourcingRepository(AggregateFactory<T> aggregateFactory, Even
     /**
      * Initializes a repository with a the given {@code aggregateFactory} and a pessimistic locking strategy.
      * <p>
-     * Note that an optimistic locking strategy is not compatible with caching.
+     * Note that an optimistic locking strategy is not compatible with caching. Providing the {@link NullLockFactory}
+     * results in an {@link IllegalArgumentException}.
      *
      * @param aggregateFactory          The factory for new aggregate instances
      * @param eventStore                The event store that holds the event streams for this repository
@@ -115,11 +120,18 @@ public CachingEventSourcingRepository(AggregateFactory<T> aggregateFactory, Even
                                           ParameterResolverFactory parameterResolverFactory,
                                           SnapshotTriggerDefinition snapshotTriggerDefinition) {
         super(aggregateFactory, eventStore, lockFactory, parameterResolverFactory, snapshotTriggerDefinition);
+        assertNotOptimistic(lockFactory);
         this.cache = cache;
         this.eventStore = eventStore;
         this.snapshotTriggerDefinition = snapshotTriggerDefinition;
     }
 
+    private static void assertNotOptimistic(LockFactory lockFactory) {
+        Assert.isTrue(lockFactory != NullLockFactory.INSTANCE,
+                      () -> "Aggregates loaded without a lock must not be cached. Use a pessimistic lock factory or "
+                              + "an EventSourcingRepository without cache.");
+    }
+
     @Override
     protected void prepareForCommit(LockAwareAggregate<T, EventSourcedAggregate<T>> aggregate) {
         super.prepareForCommit(aggregate);
@@ -158,6 +170,7 @@ protected void doDeleteWithLock(EventSourcedAggregate<T> aggregate) {
     @Override
     protected EventSourcedAggregate<T> doLoadWithLock(String aggregateIdentifier, Long expectedVersion) {
         EventSourcedAggregate<T> aggregate = null;
+        long startTime = System.nanoTime();
         CacheEntry<T> cacheEntry = cache.get(aggregateIdentifier);
         if (cacheEntry != null) {
             aggregate = cacheEntry.recreateAggregate(aggregateModel(), eventStore, snapshotTriggerDefinition);
@@ -166,6 +179,8 @@ protected EventSourcedAggregate<T> doLoadWithLock(String aggregateIdentifier, Lo
             aggregate = super.doLoadWithLock(aggregateIdentifier, expectedVersion);
         } else if (aggregate.isDeleted()) {
             throw new AggregateDeletedException(aggregateIdentifier);
+        } else {
+            getAggregateLoadMonitor().onLoadedFromCache(System.nanoTime() - startTime);
         }
         CurrentUnitOfWork.get().onRollback(u -> cache.remove(aggregateIdentifier));
         return aggregate;
@@ -28,6 +28,8 @@
 import org.axonframework.eventsourcing.eventstore.EventStore;
 import org.axonframework.messaging.annotation.ParameterResolverFactory;
 import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.monitoring.AggregateLoadMonitor;
+import org.axonframework.monitoring.NoOpAggregateLoadMonitor;
 
 import java.util.concurrent.Callable;
 
@@ -35,6 +37,18 @@
  * Abstract repository implementation that allows easy implementation of an Event Sourcing mechanism. It will
  * automatically publish new events to the given {@link org.axonframework.eventhandling.EventBus} and delegate event
  * storage to the provided {@link org.axonframework.eventsourcing.eventstore.EventStore}.
+ * <p>
+ * By default, the repository obtains a pessimistic lock for each aggregate it loads. Aggregates that are rarely
+ * modified concurrently may be loaded optimistically instead, by initializing the repository with the {@link
+ * org.axonframework.common.lock.NullLockFactory}. No lock is obtained or released in that case. The events applied by
+ * the aggregate carry the sequence numbers following the loaded version, so a concurrent modification is detected by
+ * the storage engine's unique key on aggregate identifier and sequence number, and results in a {@link
+ * org.axonframework.commandhandling.model.ConcurrencyException} when the Unit of Work is committed. As this exception
+ * is transient, a command gateway configured with a {@link org.axonframework.commandhandling.gateway.RetryScheduler}
+ * will retry the command up to the scheduler's maximum number of retries before reporting the exception. Note that
+ * the {@link org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine} does not detect
+ * concurrent modifications, and that optimistic loading can't be combined with a cache of aggregate instances. The
+ * {@link CachingEventSourcingRepository} rejects the NullLockFactory for that reason.
  *
  * @param <T> The type of aggregate this repository stores
  * @author Allard Buijze
@@ -46,6 +60,7 @@
     private final EventStore eventStore;
     private final SnapshotTriggerDefinition snapshotTriggerDefinition;
     private final AggregateFactory<T> aggregateFactory;
+    private AggregateLoadMonitor aggregateLoadMonitor = NoOpAggregateLoadMonitor.INSTANCE;
 
     /**
      * Initializes a repository with the default locking strategy, using a GenericAggregateFactory to create new
@@ -171,15 +186,20 @@ public EventSourcingRepository(AggregateFactory<T> aggregateFactory, EventStore
      */
     @Override
     protected EventSourcedAggregate<T> doLoadWithLock(String aggregateIdentifier, Long expectedVersion) {
+        long startTime = System.nanoTime();
         DomainEventStream eventStream = eventStore.readEvents(aggregateIdentifier);
         SnapshotTrigger trigger = snapshotTriggerDefinition.prepareTrigger(aggregateFactory.getAggregateType());
         if (!eventStream.hasNext()) {
             throw new AggregateNotFoundException(aggregateIdentifier, "The aggregate was not found in the event store");
         }
+        long firstSequenceNumber = eventStream.peek().getSequenceNumber();
         EventSourcedAggregate<T> aggregate = EventSourcedAggregate
                 .initialize(aggregateFactory.createAggregateRoot(aggregateIdentifier, eventStream.peek()),
                             aggregateModel(), eventStore, trigger);
         aggregate.initializeState(eventStream);
+        Long lastSequenceNumber = eventStream.getLastSequenceNumber();
+        aggregateLoadMonitor.onLoadedFromEventStore(System.nanoTime() - startTime, lastSequenceNumber == null ? 0 :
+                lastSequenceNumber - firstSequenceNumber + 1);
         if (aggregate.isDeleted()) {
             throw new AggregateDeletedException(aggregateIdentifier);
         }
@@ -218,6 +238,26 @@ protected void doSaveWithLock(EventSourcedAggregate<T> aggregate) {
     protected void doDeleteWithLock(EventSourcedAggregate<T> aggregate) {
     }
 
+    /**
+     * Sets the monitor to notify each time an aggregate is loaded by this repository. Defaults to a monitor that
+     * ignores all notifications.
+     *
+     * @param aggregateLoadMonitor The monitor to notify of aggregate loads
+     */
+    public void setAggregateLoadMonitor(AggregateLoadMonitor aggregateLoadMonitor) {
+        Assert.notNull(aggregateLoadMonitor, () -> "aggregateLoadMonitor may not be null");
+        this.aggregateLoadMonitor = aggregateLoadMonitor;
+    }
+
+    /**
+     * Returns the monitor notified each time an aggregate is loaded by this repository.
+     *
+     * @return the monitor notified of aggregate loads
+     */
+    protected AggregateLoadMonitor getAggregateLoadMonitor() {
+        return aggregateLoadMonitor;
+    }
+
     /**
      * Returns the factory used by this repository.
      *
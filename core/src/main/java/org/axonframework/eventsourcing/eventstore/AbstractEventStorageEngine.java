@@ -25,6 +25,7 @@
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static java.lang.String.format;
@@ -65,6 +66,19 @@ public Stream<? extends TrackedEventMessage<?>> readEvents(TrackingToken trackin
         return EventUtils.upcastAndDeserializeTrackedEvents(input, serializer, upcasterChain, true);
     }
 
+    @Override
+    public Stream<? extends TrackedEventMessage<?>> readEvents(TrackingToken trackingToken, boolean mayBlock,
+                                                               Set<String> payloadTypes) {
+        if (payloadTypes == null) {
+            return readEvents(trackingToken, mayBlock);
+        }
+        Stream<? extends TrackedEventData<?>> input = readEventData(trackingToken, mayBlock, payloadTypes);
+        // entries reporting skipped events contain no data that can be deserialized
+        return EventUtils.upcastAndDeserializeTrackedEvents(input, serializer, upcasterChain, true)
+                .map(event -> SkippedEvents.isSkippedEvents(event)
+                        ? SkippedEvents.asTrackedEventMessage(event.trackingToken()) : event);
+    }
+
     @Override
     public DomainEventStream readEvents(String aggregateIdentifier, long firstSequenceNumber) {
         Stream<? extends DomainEventData<?>> input = readEventData(aggregateIdentifier, firstSequenceNumber);
@@ -160,6 +174,33 @@ protected void handlePersistenceException(Exception exception, EventMessage<?> f
     protected abstract Stream<? extends TrackedEventData<?>> readEventData(TrackingToken trackingToken,
                                                                            boolean mayBlock);
 
+    /**
+     * Returns a stream of serialized event entries with given {@code payloadTypes} for given {@code trackingToken}.
+     * Event entries in the stream should be ordered by tracking token. The tracking token of an entry should account
+     * for the entries with other payload types that were skipped before it.
+     * <p>
+     * Implementations may report the position of skipped entries using entries with a serialized payload type of
+     * {@link SkippedEvents}. These entries are passed through the upcaster chain, but are never deserialized. Instead,
+     * they are returned to the reader as a message created using {@link SkippedEvents#asTrackedEventMessage}.
+     * <p>
+     * By default this method filters the entries returned by {@link #readEventData(TrackingToken, boolean)} on the
+     * name of their serialized payload type, so that skipped entries are not upcast or deserialized. Implementations
+     * are encouraged to skip the entries in the backing database instead.
+     *
+     * @param trackingToken Object describing the global index of the last processed event or {@code null} to create a
+     *                      stream of all events in the store
+     * @param mayBlock      If {@code true} the storage engine may optionally choose to block to wait for new event
+     *                      messages if the end of the stream is reached.
+     * @param payloadTypes  The names of the serialized payload types of the entries to return
+     * @return A stream containing the tracked event entries with given payload types stored since the given tracking
+     * token
+     */
+    protected Stream<? extends TrackedEventData<?>> readEventData(TrackingToken trackingToken, boolean mayBlock,
+                                                                  Set<String> payloadTypes) {
+        return readEventData(trackingToken, mayBlock)
+                .filter(entry -> payloadTypes.contains(entry.getPayload().getType().getName()));
+    }
+
     /**
      * Returns an optional serialized event entry for given {@code aggregateIdentifier} if the backing database
      * contains a snapshot of the aggregate.
@@ -16,16 +16,30 @@
 
 package org.axonframework.eventsourcing.eventstore;
 
+import org.axonframework.common.Assert;
+import org.axonframework.common.IdentifierFactory;
 import org.axonframework.common.jdbc.PersistenceExceptionResolver;
+import org.axonframework.messaging.MetaData;
+import org.axonframework.serialization.SerializedObject;
 import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.SimpleSerializedObject;
 import org.axonframework.serialization.upcasting.event.EventUpcaster;
 import org.axonframework.serialization.upcasting.event.NoOpEventUpcaster;
 import org.axonframework.serialization.xml.XStreamSerializer;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
 import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -41,7 +55,10 @@
 public abstract class BatchingEventStorageEngine extends AbstractEventStorageEngine {
 
     private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final int DEFAULT_MAX_PREFETCHED_BATCHES = 2;
     private final int batchSize;
+    private volatile Executor prefetchExecutor;
+    private volatile int maxPrefetchedBatches = DEFAULT_MAX_PREFETCHED_BATCHES;
 
     /**
      * Initializes an EventStorageEngine with given {@code serializer}, {@code upcasterChain} and {@code
@@ -81,6 +98,54 @@ public BatchingEventStorageEngine(Serializer serializer, EventUpcaster upcasterC
      */
     protected abstract List<? extends TrackedEventData<?>> fetchTrackedEvents(TrackingToken lastToken, int batchSize);
 
+    /**
+     * Returns a batch of serialized event data entries with given {@code payloadTypes} that have a {@link
+     * TrackingToken} greater than the given {@code lastToken}. Event entries should be ordered by tracking token. If
+     * the {@code lastToken} is {@code null} the entries are read from the start of the event storage.
+     * <p>
+     * The returned batch may also contain entries with other payload types, or entries created using {@link
+     * #skippedEntries(TrackingToken)} that report the tracking token of a number of skipped entries. Entries with other
+     * payload types are not returned to the reader of the event stream, but the next batch is fetched from the tracking
+     * token of the last entry. This makes sure that a stream doesn't read the same skipped entries again. When a batch doesn't end with an entry
+     * with one of the given payload types, the stream reports the token of its last entry to the reader as {@link
+     * SkippedEvents}, so that the reader doesn't read them again either. Implementations should fetch a bounded
+     * number of entries per invocation, returning the position they reached when none of those entries match.
+     * <p>
+     * Only if the returned List is empty the event storage assumes that the backing database holds no further
+     * applicable entries.
+     * <p>
+     * By default this method returns the next batch fetched using {@link #fetchTrackedEvents(TrackingToken, int)},
+     * leaving the filtering to the caller. Implementations are encouraged to skip entries with other payload types in
+     * the backing database instead.
+     *
+     * @param lastToken    Object describing the global index of the last processed event or {@code null} to read
+     *                     from the start of the event storage
+     * @param batchSize    The maximum number of events that should be returned
+     * @param payloadTypes The names of the serialized payload types of the entries to return
+     * @return A batch of tracked event entries stored since the given tracking token, including at least the entries
+     * with given payload types
+     */
+    protected List<? extends TrackedEventData<?>> fetchTrackedEvents(TrackingToken lastToken, int batchSize,
+                                                                     Set<String> payloadTypes) {
+        return fetchTrackedEvents(lastToken, batchSize);
+    }
+
+    /**
+     * Returns an entry reporting that the entries up to the given {@code trackingToken} have been skipped, which
+     * implementations of {@link #fetchTrackedEvents(TrackingToken, int, Set)} may add to a batch. The entry has an
+     * empty payload of serialized type {@link SkippedEvents} and empty metadata. It is returned to the reader of an
+     * event stream as a {@link SkippedEvents} message if it is the last entry of a batch.
+     *
+     * @param trackingToken the tracking token of the last skipped entry
+     * @return an entry reporting the entries skipped up to the given tracking token
+     */
+    protected TrackedEventData<?> skippedEntries(TrackingToken trackingToken) {
+        Serializer serializer = getSerializer();
+        return new SkippedEventsEntry(trackingToken, new SimpleSerializedObject<>(
+                new byte[0], byte[].class, serializer.typeForClass(SkippedEvents.class)),
+                                      serializer.serialize(MetaData.emptyInstance(), byte[].class));
+    }
+
     /**
      * Returns a batch of events published by an aggregate with given {@code aggregateIdentifier}.
      * <p/>
@@ -115,12 +180,112 @@ protected Stream<? extends DomainEventData<?>> readEventData(String identifier,
      */
     @Override
     protected Stream<? extends TrackedEventData<?>> readEventData(TrackingToken trackingToken, boolean mayBlock) {
+        return readTrackedEventData(trackingToken, trackedEventFetcher(null));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation produces non-blocking event streams, which fetch their batches using {@link
+     * #fetchTrackedEvents(TrackingToken, int, Set)}. Of each batch, only the entries with one of the given payload
+     * types are returned. If a batch doesn't end with such an entry, an entry created using {@link
+     * #skippedEntries(TrackingToken)} is added to it to report the position of the skipped entries.
+     */
+    @Override
+    protected Stream<? extends TrackedEventData<?>> readEventData(TrackingToken trackingToken, boolean mayBlock,
+                                                                  Set<String> payloadTypes) {
+        Function<TrackingToken, List<? extends TrackedEventData<?>>> fetcher = trackedEventFetcher(payloadTypes);
+        return readTrackedEventData(trackingToken, token -> filterBatch(fetcher.apply(token), payloadTypes));
+    }
+
+    private List<? extends TrackedEventData<?>> filterBatch(List<? extends TrackedEventData<?>> batch,
+                                                           Set<String> payloadTypes) {
+        List<TrackedEventData<?>> result = new ArrayList<>(batch.size());
+        for (TrackedEventData<?> entry : batch) {
+            if (hasPayloadType(entry, payloadTypes)) {
+                result.add(entry);
+            }
+        }
+        if (!batch.isEmpty()) {
+            // the next batch is fetched from the last entry, and the reader needs to know how far the stream got
+            TrackedEventData<?> lastEntry = batch.get(batch.size() - 1);
+            if (lastEntry instanceof SkippedEventsEntry) {
+                result.add(lastEntry);
+            } else if (!hasPayloadType(lastEntry, payloadTypes)) {
+                result.add(skippedEntries(lastEntry.trackingToken()));
+            }
+        }
+        return result;
+    }
+
+    private static boolean hasPayloadType(TrackedEventData<?> entry, Set<String> payloadTypes) {
+        return !(entry instanceof SkippedEventsEntry) && payloadTypes.contains(entry.getPayload().getType().getName());
+    }
+
+    /**
+     * Returns the function that a new stream of tracked events uses to fetch its batches. The function is given the
+     * tracking token of the last entry of the previous batch, or the token the stream was opened with, and returns
+     * the next batch. This method is invoked once for each stream that is opened, so the returned function may keep
+     * state for the lifetime of that stream. Batches of a single stream are never fetched concurrently.
+     * <p>
+     * By default the function fetches batches using {@link #fetchTrackedEvents(TrackingToken, int)}, or {@link
+     * #fetchTrackedEvents(TrackingToken, int, Set)} if {@code payloadTypes} are given.
+     *
+     * @param payloadTypes The names of the serialized payload types of the entries to return, or {@code null} to
+     *                     return entries of any payload type
+     * @return the function that fetches the batches of a single stream of tracked events
+     */
+    protected Function<TrackingToken, List<? extends TrackedEventData<?>>> trackedEventFetcher(
+            Set<String> payloadTypes) {
+        if (payloadTypes == null) {
+            return token -> fetchTrackedEvents(token, batchSize);
+        }
+        return token -> fetchTrackedEvents(token, batchSize, payloadTypes);
+    }
+
+    private Stream<? extends TrackedEventData<?>> readTrackedEventData(
+            TrackingToken trackingToken, Function<TrackingToken, List<? extends TrackedEventData<?>>> fetchFunction) {
+        Executor executor = prefetchExecutor;
+        if (executor != null) {
+            PrefetchingEventStreamSpliterator<? extends TrackedEventData<?>> spliterator =
+                    new PrefetchingEventStreamSpliterator<>(fetchFunction, trackingToken, executor,
+                                                            maxPrefetchedBatches);
+            return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+        }
         EventStreamSpliterator<? extends TrackedEventData<?>> spliterator = new EventStreamSpliterator<>(
-                lastItem -> fetchTrackedEvents(lastItem == null ? trackingToken : lastItem.trackingToken(), batchSize),
+                lastItem -> fetchFunction.apply(lastItem == null ? trackingToken : lastItem.trackingToken()),
                 batchSize, true);
         return StreamSupport.stream(spliterator, false);
     }
 
+    /**
+     * Sets the Executor used to fetch batches of tracked events ahead of time. When set, streams of tracked events
+     * fetch the next batches on the given {@code executor} while the current batch is being processed, up to the
+     * configured {@link #setMaxPrefetchedBatches(int) maximum number of batches}. Streams obtained before invoking
+     * this method are not affected. Pass {@code null} to disable prefetching, which is the default.
+     * <p>
+     * Note that batches are fetched on the threads of the given Executor. Make sure that the resources used to fetch
+     * events, such as the connection provider or entity manager, may be used from those threads.
+     *
+     * @param prefetchExecutor The executor to fetch batches of tracked events on, or {@code null} to disable
+     *                         prefetching
+     */
+    public void setPrefetchExecutor(Executor prefetchExecutor) {
+        this.prefetchExecutor = prefetchExecutor;
+    }
+
+    /**
+     * Sets the maximum number of batches of tracked events that are fetched ahead of the batch that is being
+     * processed, when prefetching is enabled using {@link #setPrefetchExecutor(Executor)}. When this number of batches
+     * is waiting to be processed, no further batches are fetched until the oldest one is taken. Defaults to 2.
+     *
+     * @param maxPrefetchedBatches The maximum number of batches to fetch ahead
+     */
+    public void setMaxPrefetchedBatches(int maxPrefetchedBatches) {
+        Assert.isTrue(maxPrefetchedBatches > 0, () -> "maxPrefetchedBatches needs to be greater than 0");
+        this.maxPrefetchedBatches = maxPrefetchedBatches;
+    }
+
     /**
      * Returns the maximum number of event entries to be fetched per batch.
      *
@@ -164,4 +329,124 @@ public boolean tryAdvance(Consumer<? super T> action) {
             return true;
         }
     }
+
+    private static class PrefetchingEventStreamSpliterator<T extends TrackedEventData<?>>
+            extends Spliterators.AbstractSpliterator<T> {
+
+        private final Function<TrackingToken, List<? extends T>> fetchFunction;
+        private final Executor executor;
+        private final int maxPrefetchedBatches;
+        private final Queue<CompletableFuture<List<? extends T>>> batches = new ConcurrentLinkedQueue<>();
+        private final TrackingToken initialToken;
+        private CompletableFuture<List<? extends T>> lastScheduled;
+        private Iterator<? extends T> iterator = Collections.emptyIterator();
+        private volatile boolean closed;
+
+        private PrefetchingEventStreamSpliterator(Function<TrackingToken, List<? extends T>> fetchFunction,
+                                                  TrackingToken initialToken, Executor executor,
+                                                  int maxPrefetchedBatches) {
+            super(Long.MAX_VALUE, NONNULL | ORDERED | DISTINCT | CONCURRENT);
+            this.fetchFunction = fetchFunction;
+            this.initialToken = initialToken;
+            this.executor = executor;
+            this.maxPrefetchedBatches = maxPrefetchedBatches;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            if (!iterator.hasNext()) {
+                scheduleFetches();
+                List<? extends T> items = awaitNextBatch();
+                if (items.isEmpty()) {
+                    return false;
+                }
+                iterator = items.iterator();
+                scheduleFetches();
+            }
+            action.accept(iterator.next());
+            return true;
+        }
+
+        private void scheduleFetches() {
+            while (!closed && batches.size() < maxPrefetchedBatches) {
+                if (lastScheduled == null) {
+                    lastScheduled = CompletableFuture.supplyAsync(() -> fetch(initialToken), executor);
+                } else {
+                    // each batch continues from the last token of the previous one. Once a batch is empty, so are
+                    // all batches after it, and there is no need to query the storage again
+                    lastScheduled = lastScheduled.thenApplyAsync(
+                            previous -> previous.isEmpty() ? previous
+                                    : fetch(previous.get(previous.size() - 1).trackingToken()), executor);
+                }
+                batches.add(lastScheduled);
+            }
+        }
+
+        private List<? extends T> fetch(TrackingToken lastToken) {
+            return closed ? Collections.emptyList() : fetchFunction.apply(lastToken);
+        }
+
+        private List<? extends T> awaitNextBatch() {
+            CompletableFuture<List<? extends T>> next = batches.poll();
+            if (next == null) {
+                return Collections.emptyList();
+            }
+            try {
+                return next.join();
+            } catch (CompletionException e) {
+                close();
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        private void close() {
+            closed = true;
+            batches.forEach(batch -> batch.cancel(false));
+        }
+    }
+
+    private static class SkippedEventsEntry implements TrackedEventData<byte[]> {
+
+        private final TrackingToken trackingToken;
+        private final SerializedObject<byte[]> payload;
+        private final SerializedObject<byte[]> metaData;
+        private final String eventIdentifier = IdentifierFactory.getInstance().generateIdentifier();
+        private final Instant timestamp = Instant.now();
+
+        private SkippedEventsEntry(TrackingToken trackingToken, SerializedObject<byte[]> payload,
+                                   SerializedObject<byte[]> metaData) {
+            this.trackingToken = trackingToken;
+            this.payload = payload;
+            this.metaData = metaData;
+        }
+
+        @Override
+        public TrackingToken trackingToken() {
+            return trackingToken;
+        }
+
+        @Override
+        public String getEventIdentifier() {
+            return eventIdentifier;
+        }
+
+        @Override
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public SerializedObject<byte[]> getMetaData() {
+            return metaData;
+        }
+
+        @Override
+        public SerializedObject<byte[]> getPayload() {
+            return payload;
+        }
+    }
 }
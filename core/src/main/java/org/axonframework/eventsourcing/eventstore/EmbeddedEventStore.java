@@ -31,6 +31,7 @@
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Stream;
 
@@ -49,6 +50,13 @@
  * The embedded event store automatically fetches new events from the store if there is at least one registered tracking
  * event processor present. It will do so after new events are committed to the store, as well as periodically as
  * events may have been committed by other nodes or applications. This periodic fetch delay is configurable.
+ * <p>
+ * Event processors that are not reading from the cache, for instance because they are replaying the event store or
+ * fell behind the cache, read their events from a catch-up stream. Processors that do so from positions that are close
+ * together share a single catch-up stream. Each catch-up stream only keeps the events between the positions of its
+ * slowest and fastest processor, up to a bounded number of events, and a processor can join it if its position is
+ * within that range. A processor that falls behind the buffer of its catch-up stream continues on another one. Once a
+ * processor reaches the end of its catch-up stream it continues reading from the cache.
  *
  * @author Rene de Waele
  * @since 3.0
@@ -56,16 +64,22 @@
 public class EmbeddedEventStore extends AbstractEventStore {
     private static final Logger logger = LoggerFactory.getLogger(EmbeddedEventStore.class);
     private static final ThreadGroup THREAD_GROUP = new ThreadGroup(EmbeddedEventStore.class.getSimpleName());
+    private static final int MAX_EVENTS_PER_NOTIFICATION = 100;
+    private static final int MAX_CATCH_UP_BUFFER_SIZE = 1000;
 
-    private final Lock consumerLock = new ReentrantLock();
-    private final Condition consumableEventsCondition = consumerLock.newCondition();
+    // threads of tailing consumers that are parked, waiting for the producer to add events to the cache
+    private final Set<Thread> waitingConsumers = ConcurrentHashMap.newKeySet();
     private final Set<EventConsumer> tailingConsumers = new CopyOnWriteArraySet<>();
+    private final Set<CatchUpReader> catchUpReaders = new CopyOnWriteArraySet<>();
     private final EventProducer producer;
     private final long cleanupDelayMillis;
+    private final int cachedEvents;
     private final ThreadFactory threadFactory;
     private final ScheduledExecutorService cleanupService;
 
     private volatile Node oldest;
+    // index of the cached nodes by the token of their event, to find the position of a consumer without a scan
+    private final ConcurrentMap<TrackingToken, Node> nodesByToken = new ConcurrentHashMap<>();
     private final AtomicBoolean producerStarted = new AtomicBoolean();
 
     /**
@@ -115,6 +129,7 @@ public EmbeddedEventStore(EventStorageEngine storageEngine, MessageMonitor<? sup
         cleanupService = Executors.newScheduledThreadPool(1, threadFactory);
         producer = new EventProducer(timeUnit.toNanos(fetchDelay), cachedEvents);
         cleanupDelayMillis = timeUnit.toMillis(cleanupDelay);
+        this.cachedEvents = cachedEvents;
     }
 
     /**
@@ -123,6 +138,7 @@ public EmbeddedEventStore(EventStorageEngine storageEngine, MessageMonitor<? sup
     @PreDestroy
     public void shutDown() {
         tailingConsumers.forEach(IOUtils::closeQuietly);
+        catchUpReaders.forEach(CatchUpReader::close);
         IOUtils.closeQuietly(producer);
         cleanupService.shutdownNow();
     }
@@ -161,11 +177,7 @@ public TrackingEventStream openStream(TrackingToken trackingToken) {
     }
 
     private Node findNode(TrackingToken trackingToken) {
-        Node node = oldest;
-        while (node != null && !node.event.trackingToken().equals(trackingToken)) {
-            node = node.next;
-        }
-        return node;
+        return trackingToken == null ? null : nodesByToken.get(trackingToken);
     }
 
     private static class Node {
@@ -186,13 +198,17 @@ private class EventProducer implements AutoCloseable {
         private final Condition dataAvailableCondition = lock.newCondition();
         private final long fetchDelayNanos;
         private final int cachedEvents;
+        private final int notificationInterval;
         private volatile boolean shouldFetch, closed;
         private Stream<? extends TrackedEventMessage<?>> eventStream;
         private Node newest;
+        private int eventsSinceNotification;
 
         private EventProducer(long fetchDelayNanos, int cachedEvents) {
             this.fetchDelayNanos = fetchDelayNanos;
             this.cachedEvents = cachedEvents;
+            // wake up waiting consumers well before the events they wait for are trimmed from the cache
+            this.notificationInterval = Math.max(1, Math.min(MAX_EVENTS_PER_NOTIFICATION, cachedEvents / 2));
         }
 
         private void run() throws InterruptedException {
@@ -238,6 +254,7 @@ private boolean fetchData() {
                     eventStream = storageEngine().readEvents(lastToken(), true);
                     eventStream.forEach(event -> {
                         Node node = new Node(nextIndex(), lastToken(), event);
+                        nodesByToken.putIfAbsent(event.trackingToken(), node);
                         if (newest != null) {
                             newest.next = node;
                         }
@@ -245,13 +262,19 @@ private boolean fetchData() {
                         if (oldest == null) {
                             oldest = node;
                         }
-                        notifyConsumers();
                         trimCache();
+                        // waiting consumers are woken up once per number of events, rather than once per event
+                        if (++eventsSinceNotification >= notificationInterval) {
+                            notifyConsumers();
+                        }
                     });
                 } catch (Exception e) {
                     logger.error("Failed to read events from the underlying event storage", e);
                 }
             }
+            if (eventsSinceNotification > 0) {
+                notifyConsumers();
+            }
             return !Objects.equals(newest, currentNewest);
         }
 
@@ -269,17 +292,22 @@ private long nextIndex() {
         }
 
         private void notifyConsumers() {
-            consumerLock.lock();
-            try {
-                consumableEventsCondition.signalAll();
-            } finally {
-                consumerLock.unlock();
+            eventsSinceNotification = 0;
+            // consumers that are not waiting will find the new events when they are done with their current ones
+            if (!waitingConsumers.isEmpty()) {
+                waitingConsumers.forEach(LockSupport::unpark);
             }
         }
 
         private void trimCache() {
             Node last = oldest;
             while (newest != null && last != null && newest.index - last.index >= cachedEvents) {
+                TrackingToken token = last.event.trackingToken();
+                if (nodesByToken.remove(token, last) && last.next != null
+                        && token.equals(last.next.event.trackingToken())) {
+                    // events with the same token (e.g. after upcasting) are indexed by the first of them
+                    nodesByToken.put(token, last.next);
+                }
                 last = last.next;
             }
             oldest = last;
@@ -295,8 +323,8 @@ public void close() {
     }
 
     private class EventConsumer implements TrackingEventStream {
-        private Stream<? extends TrackedEventMessage<?>> privateStream;
-        private Iterator<? extends TrackedEventMessage<?>> privateIterator;
+        private CatchUpReader catchUpReader;
+        private Node catchUpPosition;
         private volatile TrackingToken lastToken;
         private volatile Node lastNode;
         private TrackedEventMessage<?> peekedEvent;
@@ -352,13 +380,7 @@ private void stopTailingGlobalStream() {
         private TrackedEventMessage<?> peekGlobalStream(int timeout, TimeUnit timeUnit) throws InterruptedException {
             Node nextNode;
             if ((nextNode = nextNode()) == null && timeout > 0) {
-                consumerLock.lock();
-                try {
-                    consumableEventsCondition.await(timeout, timeUnit);
-                    nextNode = nextNode();
-                } finally {
-                    consumerLock.unlock();
-                }
+                nextNode = awaitNextNode(timeUnit.toNanos(timeout));
             }
             if (nextNode != null) {
                 if (tailingConsumers.contains(this)) {
@@ -371,17 +393,45 @@ private TrackedEventMessage<?> peekGlobalStream(int timeout, TimeUnit timeUnit)
             }
         }
 
+        private Node awaitNextNode(long timeoutNanos) throws InterruptedException {
+            Thread currentThread = Thread.currentThread();
+            long deadline = System.nanoTime() + timeoutNanos;
+            waitingConsumers.add(currentThread);
+            try {
+                // the producer adds events before it unparks waiting consumers, so after registering as waiting
+                // consumer we either find the next node or will be unparked when it is added. Stop waiting when the
+                // cache has moved past this consumer, so it can continue using a private stream
+                Node nextNode;
+                long remainingNanos;
+                while ((nextNode = nextNode()) == null && !behindGlobalCache()
+                        && (remainingNanos = deadline - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(this, remainingNanos);
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                }
+                return nextNode;
+            } finally {
+                waitingConsumers.remove(currentThread);
+            }
+        }
+
         private TrackedEventMessage<?> peekPrivateStream(int timeout, TimeUnit timeUnit) throws InterruptedException {
-            if (privateIterator == null) {
-                privateStream = storageEngine().readEvents(lastToken, false);
-                privateIterator = privateStream.iterator();
+            if (catchUpReader == null) {
+                joinCatchUpReader();
             }
-            if (privateIterator.hasNext()) {
-                TrackedEventMessage<?> nextEvent = privateIterator.next();
-                lastToken = nextEvent.trackingToken();
-                return nextEvent;
+            Node nextNode = catchUpReader.next(this, catchUpPosition);
+            if (nextNode != null) {
+                catchUpPosition = nextNode;
+                lastToken = nextNode.event.trackingToken();
+                return nextNode.event;
             } else {
-                closePrivateStream();
+                boolean caughtUp = catchUpReader.isExhaustedAt(catchUpPosition);
+                leaveCatchUpReader();
+                if (!caughtUp) {
+                    // this consumer fell behind the other consumers of the catch-up stream
+                    return peekPrivateStream(timeout, timeUnit);
+                }
                 lastNode = findNode(lastToken);
                 tailingConsumers.add(this);
                 ensureProducerStarted();
@@ -394,27 +444,171 @@ private Node nextNode() {
             if (node != null) {
                 return node.next;
             }
-            node = oldest;
-            while (node != null && !Objects.equals(node.previousToken, lastToken)) {
-                node = node.next;
+            node = findNode(lastToken);
+            if (node != null) {
+                return node.next;
             }
-            return node;
+            // the token of the event before the oldest node is no longer in the cache
+            node = oldest;
+            return node != null && Objects.equals(node.previousToken, lastToken) ? node : null;
         }
 
         private TrackingToken lastToken() {
             return lastToken;
         }
 
+        private void joinCatchUpReader() {
+            for (CatchUpReader reader : catchUpReaders) {
+                Node position = reader.join(this, lastToken);
+                if (position != null) {
+                    catchUpReader = reader;
+                    catchUpPosition = position;
+                    return;
+                }
+            }
+            catchUpReader = new CatchUpReader(lastToken, this);
+            catchUpPosition = catchUpReader.head;
+            catchUpReaders.add(catchUpReader);
+        }
+
+        private void leaveCatchUpReader() {
+            Optional.ofNullable(catchUpReader).ifPresent(reader -> {
+                catchUpReader = null;
+                catchUpPosition = null;
+                reader.leave(this);
+            });
+        }
+
         @Override
         public void close() {
-            closePrivateStream();
+            leaveCatchUpReader();
             stopTailingGlobalStream();
         }
+    }
+
+    /**
+     * Reads events from the storage engine on behalf of one or more consumers that are not tailing the cache. The
+     * reader keeps a buffer of the events between its slowest and its fastest consumer, linked the same way as the
+     * nodes in the cache. Consumers can join the reader if their position is in that buffer. The reader reads the next
+     * event from the storage engine when the consumer that is ahead of the others asks for it.
+     */
+    private class CatchUpReader {
+        private final TrackingToken startToken;
+        private final Node head = new Node(-1, null, null);
+        private final ConcurrentMap<TrackingToken, Node> positions = new ConcurrentHashMap<>();
+        private final ConcurrentMap<EventConsumer, Node> consumerPositions = new ConcurrentHashMap<>();
+        private final int maxBufferSize = Math.min(cachedEvents, MAX_CATCH_UP_BUFFER_SIZE);
+        private Stream<? extends TrackedEventMessage<?>> stream;
+        private Iterator<? extends TrackedEventMessage<?>> iterator;
+        private volatile Node newest = head;
+        private Node oldestPosition = head;
+        private boolean exhausted, closed;
+
+        private CatchUpReader(TrackingToken startToken, EventConsumer consumer) {
+            this.startToken = startToken;
+            if (startToken != null) {
+                positions.put(startToken, head);
+            }
+            consumerPositions.put(consumer, head);
+        }
+
+        private synchronized Node join(EventConsumer consumer, TrackingToken token) {
+            // consumers only join readers that have not reached the end of the event store yet
+            if (closed || exhausted) {
+                return null;
+            }
+            Node position = token == null ? (startToken == null && oldestPosition == head ? head : null)
+                    : positions.get(token);
+            if (position != null) {
+                consumerPositions.put(consumer, position);
+            }
+            return position;
+        }
+
+        private synchronized void leave(EventConsumer consumer) {
+            consumerPositions.remove(consumer);
+            if (consumerPositions.isEmpty()) {
+                close();
+            }
+        }
+
+        private Node next(EventConsumer consumer, Node position) {
+            Node next = position.next;
+            if (next == null) {
+                synchronized (this) {
+                    if (position == newest && !exhausted && !closed) {
+                        readNext();
+                    }
+                    next = position.next;
+                }
+            }
+            if (next != null) {
+                // positions only move forward, so the buffer never loses a node a consumer still needs
+                consumerPositions.replace(consumer, next);
+            }
+            return next;
+        }
+
+        private synchronized boolean isExhaustedAt(Node position) {
+            return exhausted && position == newest;
+        }
+
+        private void readNext() {
+            try {
+                if (iterator == null) {
+                    stream = storageEngine().readEvents(startToken, false);
+                    iterator = stream.iterator();
+                }
+                if (iterator.hasNext()) {
+                    TrackedEventMessage<?> event = iterator.next();
+                    Node node = new Node(newest.index + 1, token(newest), event);
+                    positions.putIfAbsent(event.trackingToken(), node);
+                    newest.next = node;
+                    newest = node;
+                    trimBuffer();
+                } else {
+                    exhausted = true;
+                    closeStream();
+                }
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        private void trimBuffer() {
+            long oldestIndex = oldestPosition.index;
+            long slowestIndex = consumerPositions.values().stream().mapToLong(node -> node.index)
+                                                 .filter(index -> index >= oldestIndex).min().orElse(newest.index);
+            // nodes before the slowest consumer are not needed. Consumers that are too far behind the fastest one
+            // lose their position and continue on another reader
+            while (oldestPosition.index < slowestIndex || newest.index - oldestPosition.index > maxBufferSize) {
+                Node trimmed = oldestPosition;
+                TrackingToken token = token(trimmed);
+                if (token != null && positions.remove(token, trimmed)
+                        && token.equals(trimmed.next.event.trackingToken())) {
+                    positions.put(token, trimmed.next);
+                }
+                oldestPosition = trimmed.next;
+                // unlink the buffer from consumers that are still at this position, so they notice they fell behind
+                trimmed.next = null;
+            }
+        }
+
+        private TrackingToken token(Node node) {
+            return node == head ? startToken : node.event.trackingToken();
+        }
+
+        private synchronized void close() {
+            closed = true;
+            catchUpReaders.remove(this);
+            closeStream();
+        }
 
-        private void closePrivateStream() {
-            Optional.ofNullable(privateStream).ifPresent(stream -> {
-                privateStream = null;
-                privateIterator = null;
+        private void closeStream() {
+            Optional.ofNullable(stream).ifPresent(stream -> {
+                this.stream = null;
+                this.iterator = null;
                 stream.close();
             });
         }
@@ -19,6 +19,7 @@
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static java.util.Arrays.asList;
@@ -79,6 +80,44 @@ default void appendEvents(EventMessage<?>... events) {
      */
     Stream<? extends TrackedEventMessage<?>> readEvents(TrackingToken trackingToken, boolean mayBlock);
 
+    /**
+     * Open an event stream containing the events stored since given tracking token that have one of the given {@code
+     * payloadTypes}. Pass a {@code trackingToken} of {@code null} to open a stream containing all available events
+     * with those payload types.
+     * <p>
+     * The payload types are the names of the serialized types of the payloads as they are stored, i.e. before any
+     * upcasting takes place. When upcasters change the type of a payload, the stored type should be passed. Storage
+     * engines may skip events with other payload types in the underlying database, reducing the amount of data that
+     * needs to be transferred. The tracking tokens of the returned events still account for the skipped events, so
+     * that skipped events are not mistaken for gaps.
+     * <p>
+     * The stream may also contain messages with a {@link SkippedEvents} payload. These only carry the tracking token
+     * of the last event skipped by the filter, allowing readers to advance past skipped events when no matching event
+     * follows. Use {@link SkippedEvents#isSkippedEvents(EventMessage)} to recognize them.
+     * <p>
+     * By default this method filters the events of {@link #readEvents(TrackingToken, boolean)} in memory, on the name
+     * of their payload type. Each event with another payload type is replaced by a message reporting it as skipped.
+     * Storage engines that serialize events should override this method to filter on the stored payload type.
+     *
+     * @param trackingToken Object describing the global index of the last processed event or {@code null} to create a
+     *                      stream of all events in the store
+     * @param mayBlock      If {@code true} the storage engine may optionally choose to block to wait for new event
+     *                      messages if the end of the stream is reached.
+     * @param payloadTypes  The names of the serialized payload types of the events to return, or {@code null} to
+     *                      return events of any payload type
+     * @return A stream containing the tracked event messages with given payload types stored since the given tracking
+     * token
+     */
+    default Stream<? extends TrackedEventMessage<?>> readEvents(TrackingToken trackingToken, boolean mayBlock,
+                                                                Set<String> payloadTypes) {
+        Stream<? extends TrackedEventMessage<?>> events = readEvents(trackingToken, mayBlock);
+        if (payloadTypes == null) {
+            return events;
+        }
+        return events.map(event -> payloadTypes.contains(event.getPayloadType().getName())
+                ? event : SkippedEvents.asTrackedEventMessage(event.trackingToken()));
+    }
+
     /**
      * Get a {@link DomainEventStream} containing all events published by the aggregate with given {@code
      * aggregateIdentifier}. By default calling this method is shorthand for an invocation of
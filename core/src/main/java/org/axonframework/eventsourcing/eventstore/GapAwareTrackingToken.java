@@ -18,8 +18,11 @@
 import org.axonframework.common.Assert;
 
 import java.io.Serializable;
-import java.util.*;
-import java.util.stream.LongStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.SortedSet;
+import java.util.TreeSet;
 
 /**
  * Implementation of a {@link TrackingToken} that uses the global insertion sequence number of the event to determine
@@ -30,12 +33,20 @@
  * been committed to the store, consumers are able to track the event store uninterruptedly even when there are gaps
  * in the sequence numbers of events. If a gap is detected the event store can check if meanwhile this gap has been
  * filled each time a new batch of events is fetched.
+ * <p>
+ * The gaps are kept in a sorted array of primitive longs. The serialized form of the token still contains the gaps
+ * as a set of numbers, so tokens serialized by earlier versions can be read and vice versa.
  *
  * @author Rene de Waele
  */
 public class GapAwareTrackingToken implements TrackingToken, Serializable {
 
+    private static final long serialVersionUID = -2387086672189136800L;
+    private static final long[] NO_GAPS = new long[0];
+
     private final long index;
+    private final transient long[] gapIndices;
+    // only used in the serialized form of the token, see writeReplace() and readResolve()
     private final SortedSet<Long> gaps;
 
     /**
@@ -52,16 +63,47 @@ public class GapAwareTrackingToken implements TrackingToken, Serializable {
     public static GapAwareTrackingToken newInstance(@JsonProperty("index") long index,
                                                     @JsonProperty("gaps") Collection<Long> gaps) {
         if (gaps.isEmpty()) {
-            return new GapAwareTrackingToken(index, Collections.emptySortedSet());
+            return new GapAwareTrackingToken(index, NO_GAPS);
+        }
+        return newInstance(index, gaps.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    /**
+     * Returns a new {@link GapAwareTrackingToken} instance based on the given {@code index} and array of {@code gaps}.
+     * The given array is not modified.
+     *
+     * @param index the highest global sequence number of events up until (and including) this tracking token
+     * @param gaps  global sequence numbers of events that have not been seen yet even though these sequence numbers are
+     *              smaller than the current index
+     * @return a new tracking token from given index and gaps
+     */
+    public static GapAwareTrackingToken newInstance(long index, long[] gaps) {
+        if (gaps.length == 0) {
+            return new GapAwareTrackingToken(index, NO_GAPS);
         }
-        SortedSet<Long> gapSet = new TreeSet<>(gaps);
-        Assert.isTrue(gapSet.last() < index,
-                      () -> String.format("Gap indices [%s] should all be smaller than head index [%d]", gaps, index));
-        return new GapAwareTrackingToken(index, gapSet);
+        long[] sortedGaps = gaps.clone();
+        Arrays.sort(sortedGaps);
+        int size = 1;
+        for (int i = 1; i < sortedGaps.length; i++) {
+            if (sortedGaps[i] != sortedGaps[size - 1]) {
+                sortedGaps[size++] = sortedGaps[i];
+            }
+        }
+        long[] gapIndices = size == sortedGaps.length ? sortedGaps : Arrays.copyOf(sortedGaps, size);
+        Assert.isTrue(gapIndices[size - 1] < index, () -> String.format(
+                "Gap indices [%s] should all be smaller than head index [%d]", Arrays.toString(gapIndices), index));
+        return new GapAwareTrackingToken(index, gapIndices);
+    }
+
+    private GapAwareTrackingToken(long index, long[] gapIndices) {
+        this.index = index;
+        this.gapIndices = gapIndices;
+        this.gaps = null;
     }
 
     private GapAwareTrackingToken(long index, SortedSet<Long> gaps) {
         this.index = index;
+        this.gapIndices = null;
         this.gaps = gaps;
     }
 
@@ -79,19 +121,49 @@ private GapAwareTrackingToken(long index, SortedSet<Long> gaps) {
      */
     public GapAwareTrackingToken advanceTo(long index, int maxGapOffset) {
         long newIndex;
-        SortedSet<Long> gaps = new TreeSet<>(this.gaps);
-        if (gaps.remove(index)) {
-            newIndex = this.index;
-        } else if (index > this.index) {
+        int removed;
+        long newGapsStart;
+        if (index > this.index) {
             newIndex = index;
-            LongStream.range(this.index + 1L, index).forEach(gaps::add);
+            removed = -1;
+            // new gaps that would immediately fall behind the max gap offset are never created
+            newGapsStart = Math.max(this.index + 1L, newIndex - maxGapOffset);
         } else {
-            throw new IllegalArgumentException(String.format(
-                    "The given index [%d] should be larger than the token index [%d] or be one of the token's gaps [%s]",
-                    index, this.index, gaps));
+            removed = Arrays.binarySearch(gapIndices, index);
+            if (removed < 0) {
+                throw new IllegalArgumentException(String.format(
+                        "The given index [%d] should be larger than the token index [%d] or be one of the token's gaps [%s]",
+                        index, this.index, Arrays.toString(gapIndices)));
+            }
+            newIndex = this.index;
+            newGapsStart = newIndex;
+        }
+        int retainedStart = lowerBoundIndex(gapIndices, newIndex - maxGapOffset);
+        int retainedCount = gapIndices.length - retainedStart - (removed >= retainedStart ? 1 : 0);
+        int newGapCount = (int) Math.max(0L, newIndex - newGapsStart);
+        if (retainedCount + newGapCount == 0) {
+            return new GapAwareTrackingToken(newIndex, NO_GAPS);
         }
-        gaps = gaps.tailSet(newIndex - maxGapOffset);
-        return new GapAwareTrackingToken(newIndex, gaps);
+        long[] newGaps = new long[retainedCount + newGapCount];
+        int position = 0;
+        for (int i = retainedStart; i < gapIndices.length; i++) {
+            if (i != removed) {
+                newGaps[position++] = gapIndices[i];
+            }
+        }
+        for (long gap = newGapsStart; gap < newIndex; gap++) {
+            newGaps[position++] = gap;
+        }
+        return new GapAwareTrackingToken(newIndex, newGaps);
+    }
+
+    /**
+     * Returns the position of the first element in the given sorted {@code array} that is equal to or larger than the
+     * given {@code value}.
+     */
+    private static int lowerBoundIndex(long[] array, long value) {
+        int position = Arrays.binarySearch(array, value);
+        return position < 0 ? -position - 1 : position;
     }
 
     /**
@@ -104,12 +176,40 @@ public long getIndex() {
     }
 
     /**
-     * Get a {@link SortedSet} of this token's gaps.
+     * Get a {@link SortedSet} of this token's gaps. The returned set is created each time this method is invoked. Use
+     * {@link #gapCount()} and {@link #gapAt(int)} to inspect the gaps without creating a set.
      *
      * @return the gaps of this token
      */
     public SortedSet<Long> getGaps() {
-        return Collections.unmodifiableSortedSet(gaps);
+        return Collections.unmodifiableSortedSet(gapSet());
+    }
+
+    private SortedSet<Long> gapSet() {
+        SortedSet<Long> result = new TreeSet<>();
+        for (long gap : gapIndices) {
+            result.add(gap);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of gaps in this token.
+     *
+     * @return the number of gaps in this token
+     */
+    public int gapCount() {
+        return gapIndices.length;
+    }
+
+    /**
+     * Returns the gap at given {@code position}. Gaps are ordered from low to high.
+     *
+     * @param position the position of the gap, from {@code 0} to {@link #gapCount()} (exclusive)
+     * @return the global sequence number of the gap at given position
+     */
+    public long gapAt(int position) {
+        return gapIndices[position];
     }
 
     /**
@@ -118,7 +218,46 @@ public SortedSet<Long> getGaps() {
      * @return {@code true} if this token contains gaps, {@code false} otherwise
      */
     public boolean hasGaps() {
-        return !gaps.isEmpty();
+        return gapIndices.length > 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The lower bound of two GapAwareTrackingTokens has the lowest index of both tokens. Its gaps are the gaps of
+     * both tokens that are smaller than that index.
+     */
+    @Override
+    public TrackingToken lowerBound(TrackingToken other) {
+        Assert.isTrue(other instanceof GapAwareTrackingToken,
+                      () -> "Incompatible token type provided: " + other.getClass().getSimpleName());
+        GapAwareTrackingToken otherToken = (GapAwareTrackingToken) other;
+        long mergedIndex = Math.min(this.index, otherToken.index);
+        int thisCount = lowerBoundIndex(this.gapIndices, mergedIndex);
+        int otherCount = lowerBoundIndex(otherToken.gapIndices, mergedIndex);
+        long[] mergedGaps = new long[thisCount + otherCount];
+        System.arraycopy(this.gapIndices, 0, mergedGaps, 0, thisCount);
+        System.arraycopy(otherToken.gapIndices, 0, mergedGaps, thisCount, otherCount);
+        return newInstance(mergedIndex, mergedGaps);
+    }
+
+    /**
+     * Replaces this token by its serialized form, which stores the gaps as a set of numbers, like earlier versions of
+     * this class did.
+     *
+     * @return the token to serialize
+     */
+    private Object writeReplace() {
+        return gaps != null ? this : new GapAwareTrackingToken(index, gapSet());
+    }
+
+    /**
+     * Replaces a token deserialized from its serialized form by one that stores its gaps in an array.
+     *
+     * @return the deserialized token
+     */
+    private Object readResolve() {
+        return gapIndices != null ? this : newInstance(index, gaps == null ? Collections.emptySet() : gaps);
     }
 
     @Override
@@ -130,16 +269,16 @@ public boolean equals(Object o) {
             return false;
         }
         GapAwareTrackingToken that = (GapAwareTrackingToken) o;
-        return index == that.index && Objects.equals(gaps, that.gaps);
+        return index == that.index && Arrays.equals(gapIndices, that.gapIndices);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(index, gaps);
+        return 31 * Long.hashCode(index) + Arrays.hashCode(gapIndices);
     }
 
     @Override
     public String toString() {
-        return "GapAwareTrackingToken{" + "index=" + index + ", gaps=" + gaps + '}';
+        return "GapAwareTrackingToken{" + "index=" + index + ", gaps=" + Arrays.toString(gapIndices) + '}';
     }
 }
@@ -15,6 +15,7 @@
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.axonframework.common.Assert;
 
 import java.io.Serializable;
 import java.util.Objects;
@@ -68,6 +69,14 @@ public GlobalSequenceTrackingToken next() {
         return offsetBy(1);
     }
 
+    @Override
+    public TrackingToken lowerBound(TrackingToken other) {
+        Assert.isTrue(other instanceof GlobalSequenceTrackingToken,
+                      () -> "Incompatible token type provided: " + other.getClass().getSimpleName());
+        GlobalSequenceTrackingToken otherToken = (GlobalSequenceTrackingToken) other;
+        return otherToken.globalIndex < this.globalIndex ? otherToken : this;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2010-2017. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventsourcing.eventstore;
+
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.GenericTrackedEventMessage;
+import org.axonframework.eventhandling.TrackedEventMessage;
+
+import java.util.Set;
+
+/**
+ * Payload of the messages that a stream of events filtered on payload type contains to report the position of events
+ * that were skipped by the filter, see {@link EventStorageEngine#readEvents(TrackingToken, boolean, Set)}. The
+ * tracking token of such a message is the token of the last skipped event. Readers of the stream can use it to
+ * advance past the skipped events, even if no event with one of the requested payload types follows.
+ * <p>
+ * Messages with this payload are never stored. They are ignored by event handlers that don't accept all payload
+ * types.
+ *
+ * @since 3.1
+ */
+public final class SkippedEvents {
+
+    /**
+     * The payload of all messages reporting skipped events.
+     */
+    public static final SkippedEvents INSTANCE = new SkippedEvents();
+
+    private SkippedEvents() {
+    }
+
+    /**
+     * Returns a message reporting that the events up to and including the event with given {@code trackingToken}
+     * have been skipped.
+     *
+     * @param trackingToken the tracking token of the last skipped event
+     * @return a message reporting the skipped events
+     */
+    public static TrackedEventMessage<SkippedEvents> asTrackedEventMessage(TrackingToken trackingToken) {
+        return new GenericTrackedEventMessage<>(trackingToken, new GenericEventMessage<>(INSTANCE));
+    }
+
+    /**
+     * Indicates whether given {@code event} only reports skipped events. This check does not deserialize the payload
+     * of the event.
+     *
+     * @param event the event to check
+     * @return {@code true} if the event reports skipped events, {@code false} if it is an actual event
+     */
+    public static boolean isSkippedEvents(EventMessage<?> event) {
+        return SkippedEvents.class.equals(event.getPayloadType());
+    }
+
+    @Override
+    public String toString() {
+        return "SkippedEvents";
+    }
+}
@@ -21,4 +21,21 @@
  */
 public interface TrackingToken {
 
+    /**
+     * Returns a token that represents the lower bound of this and the given {@code other} token. Opening a stream at
+     * the returned token will provide all events that have not been seen by at least one of both tokens. This is used
+     * to merge the positions of two segments of an event processor.
+     *
+     * @param other The token to compare this token to
+     * @return a token describing the position from which neither of both tokens would miss an event
+     * @implSpec By default, this method returns this token if it equals the given {@code other} token, and throws an
+     * {@link UnsupportedOperationException} otherwise.
+     */
+    default TrackingToken lowerBound(TrackingToken other) {
+        if (this.equals(other)) {
+            return this;
+        }
+        throw new UnsupportedOperationException(
+                "Tokens of type " + getClass().getSimpleName() + " do not support computing a lower bound");
+    }
 }
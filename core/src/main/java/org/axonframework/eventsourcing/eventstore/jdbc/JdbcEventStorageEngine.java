@@ -16,6 +16,7 @@
 import org.axonframework.commandhandling.model.ConcurrencyException;
 import org.axonframework.common.Assert;
 import org.axonframework.common.jdbc.ConnectionProvider;
+import org.axonframework.common.jdbc.JdbcUtils.SqlFunction;
 import org.axonframework.common.jdbc.PersistenceExceptionResolver;
 import org.axonframework.common.transaction.Transaction;
 import org.axonframework.common.transaction.TransactionManager;
@@ -33,14 +34,16 @@
 import java.sql.SQLException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.LongStream;
 
 import static java.lang.String.format;
-import static java.util.stream.Collectors.toSet;
 import static org.axonframework.common.ObjectUtils.getOrDefault;
 import static org.axonframework.common.jdbc.JdbcUtils.*;
 import static org.axonframework.eventsourcing.eventstore.EventUtils.asDomainEventMessage;
@@ -59,6 +62,11 @@ public class JdbcEventStorageEngine extends BatchingEventStorageEngine {
 
     private static final long DEFAULT_LOWEST_GLOBAL_SEQUENCE = 1;
     private static final int DEFAULT_MAX_GAP_OFFSET = 10000;
+    /**
+     * The number of global indices that is passed to the query reading the events of filled gaps.
+     */
+    protected static final int GAP_QUERY_SIZE = 25;
+    private static final long DEFAULT_GAP_CHECK_INTERVAL = 1000;
 
     private final ConnectionProvider connectionProvider;
     private final TransactionManager transactionManager;
@@ -66,6 +74,7 @@ public class JdbcEventStorageEngine extends BatchingEventStorageEngine {
     private final EventSchema schema;
     private final int maxGapOffset;
     private final long lowestGlobalSequence;
+    private volatile long gapCheckInterval = DEFAULT_GAP_CHECK_INTERVAL;
 
     /**
      * Initializes an EventStorageEngine that uses JDBC to store and load events using the default {@link EventSchema}.
@@ -142,6 +151,22 @@ public JdbcEventStorageEngine(Serializer serializer, EventUpcaster upcasterChain
         this.maxGapOffset = getOrDefault(maxGapOffset, DEFAULT_MAX_GAP_OFFSET);
     }
 
+    /**
+     * Sets the minimum amount of time between two checks for filled gaps in a tracking token. Checking for filled gaps
+     * scans the global indices between the first gap and the index of the token, which can be up to {@code
+     * maxGapOffset} entries. While the token of an event stream contains gaps, the check is therefore only repeated
+     * after this interval. Each stream keeps its own schedule. A token whose lowest gap changed is checked right away,
+     * and so is a token whose gaps would otherwise be dropped for exceeding the {@code maxGapOffset}. Defaults to 1
+     * second. Pass 0 to check for filled gaps on every fetch.
+     *
+     * @param interval The minimum amount of time between two checks for filled gaps
+     * @param unit     The unit of the given {@code interval}
+     */
+    public void setGapCheckInterval(long interval, TimeUnit unit) {
+        Assert.isTrue(interval >= 0, () -> "The gap check interval may not be negative");
+        this.gapCheckInterval = unit.toMillis(interval);
+    }
+
     /**
      * Performs the DDL queries to create the schema necessary for this storage engine implementation.
      *
@@ -268,27 +293,183 @@ protected List<? extends DomainEventData<?>> fetchDomainEvents(String aggregateI
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Streams of this storage engine keep track of the checks for filled gaps they did, so that the gaps of a stream
+     * are checked at most once per {@link #setGapCheckInterval(long, TimeUnit) gap check interval}. See {@link
+     * #fetchTrackedEvents(TrackingToken, int)}.
+     */
+    @Override
+    protected Function<TrackingToken, List<? extends TrackedEventData<?>>> trackedEventFetcher(
+            Set<String> payloadTypes) {
+        GapCheckSchedule gapCheckSchedule = new GapCheckSchedule();
+        return token -> fetchTrackedEvents(token, batchSize(), payloadTypes, gapCheckSchedule);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Events are read using a query of which the statement text never changes, so it can be cached by the driver and
+     * the database. When the given {@code lastToken} contains gaps, the gaps that have been filled in the meantime are
+     * looked up first using a separate query that only reads global indices. Within a stream of events, this check
+     * is done at most once per {@link #setGapCheckInterval(long, TimeUnit) gap check interval} for the same gaps,
+     * unless the batch would advance the token so far that gaps are dropped for exceeding the {@code maxGapOffset}.
+     * In that case the gaps are always checked first. Invoking this method directly always checks for filled gaps.
+     * The events for filled gaps are then read in chunks of fixed size.
+     */
     @Override
     protected List<? extends TrackedEventData<?>> fetchTrackedEvents(TrackingToken lastToken, int batchSize) {
+        return fetchTrackedEvents(lastToken, batchSize, null, new GapCheckSchedule());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation only reads the payload and meta data of entries with given payload types. To make sure the
+     * tracking tokens account for skipped entries, it reads the global indices of all entries in the range of a batch
+     * and advances the token past the indices of skipped entries. A single range is read per invocation. When the
+     * range ends with skipped entries, an entry carrying the token of the last skipped entry is added to the batch.
+     * Filled gaps are checked for in the same way as in {@link #fetchTrackedEvents(TrackingToken, int)}.
+     */
+    @Override
+    protected List<? extends TrackedEventData<?>> fetchTrackedEvents(TrackingToken lastToken, int batchSize,
+                                                                     Set<String> payloadTypes) {
+        return fetchTrackedEvents(lastToken, batchSize, payloadTypes, new GapCheckSchedule());
+    }
+
+    private List<? extends TrackedEventData<?>> fetchTrackedEvents(TrackingToken lastToken, int batchSize,
+                                                                   Set<String> payloadTypes,
+                                                                   GapCheckSchedule gapCheckSchedule) {
+        Assert.isTrue(lastToken == null || lastToken instanceof GapAwareTrackingToken,
+                      () -> format("Token [%s] is of the wrong type", lastToken));
+        if (payloadTypes != null && payloadTypes.isEmpty()) {
+            return Collections.emptyList();
+        }
+        GapAwareTrackingToken previousToken = (GapAwareTrackingToken) lastToken;
+        boolean hasGaps = previousToken != null && previousToken.hasGaps();
+        boolean checkGaps = hasGaps && gapCheckSchedule.isDue(previousToken);
         Transaction tx = transactionManager.startTransaction();
         try {
-            return executeQuery(getConnection(),
-                                connection -> readEventData(connection, lastToken, batchSize),
-                                resultSet -> {
-                                    TrackingToken previousToken = lastToken;
-                                    List<TrackedEventData<?>> results = new ArrayList<>();
-                                    while (resultSet.next()) {
-                                        TrackedEventData<?> next = getTrackedEventData(resultSet, previousToken);
-                                        results.add(next);
-                                        previousToken = next.trackingToken();
-                                    }
-                                    return results;
-                                }, e -> new EventStoreException(format("Failed to read events from token [%s]", lastToken), e));
+            List<TrackedEventData<?>> results = readBatch(previousToken, batchSize, payloadTypes, checkGaps);
+            if (hasGaps && !checkGaps && dropsGaps(previousToken, results)) {
+                // the gaps would be dropped without checking whether they have been filled in the meantime
+                gapCheckSchedule.checked(previousToken);
+                results = readBatch(previousToken, batchSize, payloadTypes, true);
+            }
+            return results;
         } finally {
             tx.commit();
         }
     }
 
+    private List<TrackedEventData<?>> readBatch(GapAwareTrackingToken previousToken, int batchSize,
+                                                Set<String> payloadTypes, boolean checkGaps) {
+        List<TrackedEventData<?>> results = new ArrayList<>();
+        TrackingToken token = previousToken;
+        if (checkGaps) {
+            // filled gaps are returned regardless of their payload type, so that the token no longer contains them
+            long[] filledGaps = findFilledGaps(previousToken);
+            for (int i = 0; i < filledGaps.length; i += GAP_QUERY_SIZE) {
+                long[] chunk = Arrays.copyOfRange(filledGaps, i, Math.min(i + GAP_QUERY_SIZE, filledGaps.length));
+                token = readTrackedEvents(connection -> readEventData(connection, chunk), token, results);
+            }
+        }
+        if (payloadTypes == null) {
+            readTrackedEvents(connection -> readEventData(connection, previousToken, batchSize), token, results);
+            return results;
+        }
+        long fromIndex = previousToken == null ? -1 : previousToken.getIndex();
+        long[] globalIndices = findGlobalIndices(fromIndex + 1, fromIndex + batchSize + 1);
+        if (globalIndices.length > 0) {
+            TrackingToken rangeStartToken = token;
+            token = readMatchingTrackedEvents(
+                    connection -> readEventData(connection, rangeStartToken, batchSize, payloadTypes),
+                    globalIndices, token, results);
+            if (results.isEmpty() || !token.equals(results.get(results.size() - 1).trackingToken())) {
+                results.add(skippedEntries(token));
+            }
+        }
+        return results;
+    }
+
+    private boolean dropsGaps(GapAwareTrackingToken previousToken, List<TrackedEventData<?>> results) {
+        if (results.isEmpty()) {
+            return false;
+        }
+        GapAwareTrackingToken lastToken = (GapAwareTrackingToken) results.get(results.size() - 1).trackingToken();
+        return previousToken.gapAt(0) < lastToken.getIndex() - maxGapOffset;
+    }
+
+    private long[] findGlobalIndices(long fromIndex, long toIndex) {
+        return executeQuery(getConnection(), connection -> readGlobalIndices(connection, fromIndex, toIndex),
+                            resultSet -> {
+                                List<Long> globalIndices = new ArrayList<>();
+                                while (resultSet.next()) {
+                                    globalIndices.add(resultSet.getLong(1));
+                                }
+                                return globalIndices.stream().mapToLong(Long::longValue).toArray();
+                            }, e -> new EventStoreException(
+                        format("Failed to read global indices between [%d] and [%d]", fromIndex, toIndex), e));
+    }
+
+    private TrackingToken readMatchingTrackedEvents(SqlFunction sqlFunction, long[] globalIndices,
+                                                    TrackingToken lastToken, List<TrackedEventData<?>> results) {
+        return executeQuery(getConnection(), sqlFunction, resultSet -> {
+            TrackingToken previousToken = lastToken;
+            int position = 0;
+            while (resultSet.next()) {
+                long globalIndex = resultSet.getLong(schema.globalIndexColumn());
+                // advance past the entries with other payload types that precede this entry
+                for (; position < globalIndices.length && globalIndices[position] <= globalIndex; position++) {
+                    if (globalIndices[position] < globalIndex) {
+                        previousToken = advanceToken(previousToken, globalIndices[position]);
+                    }
+                }
+                TrackedEventData<?> next = getTrackedEventData(resultSet, previousToken);
+                results.add(next);
+                previousToken = next.trackingToken();
+            }
+            for (; position < globalIndices.length; position++) {
+                previousToken = advanceToken(previousToken, globalIndices[position]);
+            }
+            return previousToken;
+        }, e -> new EventStoreException(format("Failed to read events from token [%s]", lastToken), e));
+    }
+
+    private long[] findFilledGaps(GapAwareTrackingToken token) {
+        return executeQuery(getConnection(),
+                            connection -> readGlobalIndices(connection, token.gapAt(0), token.getIndex()),
+                            resultSet -> {
+                                long[] filledGaps = new long[token.gapCount()];
+                                int count = 0;
+                                int position = 0;
+                                while (resultSet.next() && position < token.gapCount()) {
+                                    long globalIndex = resultSet.getLong(1);
+                                    while (position < token.gapCount() && token.gapAt(position) < globalIndex) {
+                                        position++;
+                                    }
+                                    if (position < token.gapCount() && token.gapAt(position) == globalIndex) {
+                                        filledGaps[count++] = globalIndex;
+                                    }
+                                }
+                                return Arrays.copyOf(filledGaps, count);
+                            }, e -> new EventStoreException(format("Failed to read gaps of token [%s]", token), e));
+    }
+
+    private TrackingToken readTrackedEvents(SqlFunction sqlFunction, TrackingToken lastToken,
+                                            List<TrackedEventData<?>> results) {
+        return executeQuery(getConnection(), sqlFunction, resultSet -> {
+            TrackingToken previousToken = lastToken;
+            while (resultSet.next()) {
+                TrackedEventData<?> next = getTrackedEventData(resultSet, previousToken);
+                results.add(next);
+                previousToken = next.trackingToken();
+            }
+            return previousToken;
+        }, e -> new EventStoreException(format("Failed to read events from token [%s]", lastToken), e));
+    }
+
     @Override
     protected Optional<? extends DomainEventData<?>> readSnapshotData(String aggregateIdentifier) {
         Transaction tx = transactionManager.startTransaction();
@@ -334,6 +515,10 @@ protected PreparedStatement readEventData(Connection connection, String identifi
     /**
      * Creates a statement to read tracked event entries stored since given tracking token. Pass a {@code trackingToken}
      * of {@code null} to create a statement for all entries in the storage.
+     * <p>
+     * The statement only reads events with a global index higher than the index of the token. Events for gaps in
+     * the token are read using {@link #readEventData(Connection, long[])}, so the text of this statement is always the
+     * same.
      *
      * @param connection The connection to the database
      * @param lastToken  Object describing the global index of the last processed event or {@code null} to return all
@@ -347,24 +532,94 @@ protected PreparedStatement readEventData(Connection connection, TrackingToken l
                       () -> format("Token [%s] is of the wrong type", lastToken));
         GapAwareTrackingToken previousToken = (GapAwareTrackingToken) lastToken;
         String sql = "SELECT " + trackedEventFields() + " FROM " + schema.domainEventTable() +
-                " WHERE (" + schema.globalIndexColumn() + " > ? AND " + schema.globalIndexColumn() + " <= ?) ";
-        List<Long> gaps;
-        if (previousToken != null) {
-            gaps = previousToken.getGaps().stream().collect(Collectors.toList());
-            if (!gaps.isEmpty()) {
-                sql += " OR " + schema.globalIndexColumn() + " IN (" +
-                        String.join(",", Collections.nCopies(gaps.size(), "?")) + ") ";
-            }
-        } else {
-            gaps = Collections.emptyList();
-        }
-        sql += "ORDER BY " + schema.globalIndexColumn() + " ASC";
+                " WHERE " + schema.globalIndexColumn() + " > ? AND " + schema.globalIndexColumn() + " <= ? " +
+                "ORDER BY " + schema.globalIndexColumn() + " ASC";
         PreparedStatement preparedStatement = connection.prepareStatement(sql);
         long globalIndex = previousToken == null ? -1 : previousToken.getIndex();
         preparedStatement.setLong(1, globalIndex);
         preparedStatement.setLong(2, globalIndex + batchSize);
-        for (int i = 0; i < gaps.size(); i++) {
-            preparedStatement.setLong(i + 3, gaps.get(i));
+        return preparedStatement;
+    }
+
+    /**
+     * Creates a statement to read tracked event entries with given {@code payloadTypes} stored since given tracking
+     * token. Pass a {@code trackingToken} of {@code null} to create a statement for all entries in the storage with
+     * given payload types.
+     * <p>
+     * Like {@link #readEventData(Connection, TrackingToken, int)}, the statement only reads events with a global index
+     * higher than the index of the token, up to the index of the token plus the given {@code batchSize}.
+     *
+     * @param connection   The connection to the database
+     * @param lastToken    Object describing the global index of the last processed event or {@code null} to return
+     *                     all entries in the store with given payload types
+     * @param batchSize    The size of the range of global indices to read
+     * @param payloadTypes The names of the payload types of the entries to read. May not be empty
+     * @return A {@link PreparedStatement} that returns event entries for the given query when executed
+     * @throws SQLException when an exception occurs while creating the prepared statement
+     */
+    protected PreparedStatement readEventData(Connection connection, TrackingToken lastToken, int batchSize,
+                                              Set<String> payloadTypes) throws SQLException {
+        Assert.isTrue(lastToken == null || lastToken instanceof GapAwareTrackingToken,
+                      () -> format("Token [%s] is of the wrong type", lastToken));
+        GapAwareTrackingToken previousToken = (GapAwareTrackingToken) lastToken;
+        String sql = "SELECT " + trackedEventFields() + " FROM " + schema.domainEventTable() +
+                " WHERE " + schema.globalIndexColumn() + " > ? AND " + schema.globalIndexColumn() + " <= ? " +
+                "AND " + schema.payloadTypeColumn() + " IN (" +
+                String.join(",", Collections.nCopies(payloadTypes.size(), "?")) + ") " +
+                "ORDER BY " + schema.globalIndexColumn() + " ASC";
+        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        long globalIndex = previousToken == null ? -1 : previousToken.getIndex();
+        preparedStatement.setLong(1, globalIndex);
+        preparedStatement.setLong(2, globalIndex + batchSize);
+        int parameterIndex = 3;
+        for (String payloadType : payloadTypes) {
+            preparedStatement.setString(parameterIndex++, payloadType);
+        }
+        return preparedStatement;
+    }
+
+    /**
+     * Creates a statement to read the global indices of all event entries with a global index between {@code
+     * fromIndex} (inclusive) and {@code toIndex} (exclusive). Only the index column is read, allowing the database to
+     * answer the query from the index alone.
+     *
+     * @param connection The connection to the database
+     * @param fromIndex  The lowest global index to return
+     * @param toIndex    The global index up to which (exclusive) to return global indices
+     * @return A {@link PreparedStatement} that returns the global indices of event entries in the given range
+     * @throws SQLException when an exception occurs while creating the prepared statement
+     */
+    protected PreparedStatement readGlobalIndices(Connection connection, long fromIndex,
+                                                  long toIndex) throws SQLException {
+        String sql = "SELECT " + schema.globalIndexColumn() + " FROM " + schema.domainEventTable() +
+                " WHERE " + schema.globalIndexColumn() + " >= ? AND " + schema.globalIndexColumn() + " < ? " +
+                "ORDER BY " + schema.globalIndexColumn() + " ASC";
+        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        preparedStatement.setLong(1, fromIndex);
+        preparedStatement.setLong(2, toIndex);
+        return preparedStatement;
+    }
+
+    /**
+     * Creates a statement to read the tracked event entries with given {@code globalIndices}, which are typically
+     * gaps in a tracking token that have been filled. At most {@value #GAP_QUERY_SIZE} indices are given. The
+     * statement always has {@value #GAP_QUERY_SIZE} parameters, unused parameters are bound to the last given index.
+     *
+     * @param connection    The connection to the database
+     * @param globalIndices The sorted global indices of the entries to read
+     * @return A {@link PreparedStatement} that returns the event entries with given global indices when executed
+     * @throws SQLException when an exception occurs while creating the prepared statement
+     */
+    protected PreparedStatement readEventData(Connection connection, long[] globalIndices) throws SQLException {
+        Assert.isTrue(globalIndices.length > 0 && globalIndices.length <= GAP_QUERY_SIZE,
+                      () -> format("Expected between 1 and %d global indices", GAP_QUERY_SIZE));
+        String sql = "SELECT " + trackedEventFields() + " FROM " + schema.domainEventTable() +
+                " WHERE " + schema.globalIndexColumn() + " IN (" +
+                String.join(",", Collections.nCopies(GAP_QUERY_SIZE, "?")) + ") " +
+                "ORDER BY " + schema.globalIndexColumn() + " ASC";
+        PreparedStatement preparedStatement = connection.prepareStatement(sql);
+        for (int i = 0; i < GAP_QUERY_SIZE; i++) {
+            preparedStatement.setLong(i + 1, globalIndices[Math.min(i, globalIndices.length - 1)]);
         }
         return preparedStatement;
     }
@@ -396,14 +651,7 @@ protected PreparedStatement readSnapshotData(Connection connection, String ident
     protected TrackedEventData<?> getTrackedEventData(ResultSet resultSet,
                                                       TrackingToken previousToken) throws SQLException {
         long globalSequence = resultSet.getLong(schema.globalIndexColumn());
-        TrackingToken trackingToken;
-        if (previousToken == null) {
-            trackingToken = GapAwareTrackingToken.newInstance(globalSequence, LongStream
-                    .range(Math.min(lowestGlobalSequence, globalSequence), globalSequence).mapToObj(Long::valueOf)
-                    .collect(toSet()));
-        } else {
-            trackingToken = ((GapAwareTrackingToken) previousToken).advanceTo(globalSequence, maxGapOffset);
-        }
+        TrackingToken trackingToken = advanceToken(previousToken, globalSequence);
         return new GenericTrackedDomainEventEntry<>(trackingToken, resultSet.getString(schema.typeColumn()),
                                                     resultSet.getString(schema.aggregateIdentifierColumn()),
                                                     resultSet.getLong(schema.sequenceNumberColumn()),
@@ -415,6 +663,14 @@ protected TrackedEventData<?> getTrackedEventData(ResultSet resultSet,
                                                     readPayload(resultSet, schema.metaDataColumn()));
     }
 
+    private TrackingToken advanceToken(TrackingToken previousToken, long globalSequence) {
+        if (previousToken == null) {
+            return GapAwareTrackingToken.newInstance(globalSequence, LongStream
+                    .range(Math.min(lowestGlobalSequence, globalSequence), globalSequence).toArray());
+        }
+        return ((GapAwareTrackingToken) previousToken).advanceTo(globalSequence, maxGapOffset);
+    }
+
     /**
      * Extracts the next domain event entry from the given {@code resultSet}.
      *
@@ -537,4 +793,30 @@ protected Connection getConnection() {
             throw new EventStoreException("Failed to obtain a database connection", e);
         }
     }
+
+    /**
+     * Keeps track of the checks for filled gaps done by a single stream of events.
+     */
+    private class GapCheckSchedule {
+
+        private boolean checked;
+        private long lowestGap;
+        private long lastCheck;
+
+        private boolean isDue(GapAwareTrackingToken token) {
+            // the lowest gap identifies the gaps of a token, until it is filled or the offset to the index grows too big
+            if (checked && lowestGap == token.gapAt(0)
+                    && System.currentTimeMillis() - lastCheck < gapCheckInterval) {
+                return false;
+            }
+            checked(token);
+            return true;
+        }
+
+        private void checked(GapAwareTrackingToken token) {
+            checked = true;
+            lowestGap = token.gapAt(0);
+            lastCheck = System.currentTimeMillis();
+        }
+    }
 }
@@ -31,7 +31,6 @@
 import java.util.*;
 import java.util.stream.LongStream;
 
-import static java.util.stream.Collectors.toSet;
 import static org.axonframework.common.ObjectUtils.getOrDefault;
 import static org.axonframework.eventsourcing.eventstore.EventUtils.asDomainEventMessage;
 
@@ -166,7 +165,7 @@ protected List<? extends TrackedEventData<?>> fetchTrackedEvents(TrackingToken l
                                 "FROM " + domainEventEntryEntityName() + " e " +
                                 "WHERE e.globalIndex > :token OR e.globalIndex IN :gaps ORDER BY e.globalIndex ASC",
                         Object[].class)
-                        .setParameter("gaps", previousToken.getGaps());
+                        .setParameter("gaps", gaps);
             }
             return query
                     .setParameter("token", previousToken == null ? -1L : previousToken.getIndex())
@@ -176,21 +175,98 @@ protected List<? extends TrackedEventData<?>> fetchTrackedEvents(TrackingToken l
         List<TrackedEventData<?>> result = new ArrayList<>();
         GapAwareTrackingToken token = previousToken;
         for (Object[] entry : entries) {
-            long globalSequence = (Long) entry[0];
-            if (token == null) {
-                token = GapAwareTrackingToken.newInstance(globalSequence, LongStream
-                        .range(Math.min(lowestGlobalSequence, globalSequence), globalSequence).mapToObj(Long::valueOf)
-                        .collect(toSet()));
-            } else {
-                token = token.advanceTo(globalSequence, maxGapOffset);
+            token = advanceToken(token, (Long) entry[0]);
+            result.add(createTrackedEventEntry(token, entry));
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation first reads the global indices of the entries of a batch, which includes the entries with
+     * other payload types. It then only reads the entries of the batch that have one of the given payload types, and
+     * advances the tracking token past the indices of the skipped entries. When the batch ends with skipped entries,
+     * an entry carrying the token of the last skipped entry is added to the batch.
+     */
+    @Override
+    protected List<? extends TrackedEventData<?>> fetchTrackedEvents(TrackingToken lastToken, int batchSize,
+                                                                     Set<String> payloadTypes) {
+        Assert.isTrue(lastToken == null || lastToken instanceof GapAwareTrackingToken, () -> String
+                .format("Token [%s] is of the wrong type. Expected [%s]", lastToken,
+                        GapAwareTrackingToken.class.getSimpleName()));
+        if (payloadTypes.isEmpty()) {
+            return Collections.emptyList();
+        }
+        GapAwareTrackingToken token = (GapAwareTrackingToken) lastToken;
+        List<Long> globalIndices = fetchGlobalIndices(token, batchSize);
+        if (globalIndices.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Object[]> entries = transactionManager.fetchInTransaction(
+                () -> entityManager().createQuery(
+                        "SELECT e.globalIndex, e.type, e.aggregateIdentifier, e.sequenceNumber, " +
+                                "e.eventIdentifier, e.timeStamp, e.payloadType, e.payloadRevision, e.payload, " +
+                                "e.metaData FROM " + domainEventEntryEntityName() + " e " +
+                                "WHERE e.globalIndex IN :indices AND e.payloadType IN :payloadTypes " +
+                                "ORDER BY e.globalIndex ASC", Object[].class)
+                        .setParameter("indices", globalIndices)
+                        .setParameter("payloadTypes", payloadTypes)
+                        .getResultList());
+        List<TrackedEventData<?>> result = new ArrayList<>();
+        Iterator<Object[]> matchingEntries = entries.iterator();
+        Object[] nextEntry = matchingEntries.hasNext() ? matchingEntries.next() : null;
+        boolean skipped = false;
+        for (Long globalIndex : globalIndices) {
+            token = advanceToken(token, globalIndex);
+            skipped = nextEntry == null || !globalIndex.equals(nextEntry[0]);
+            if (!skipped) {
+                result.add(createTrackedEventEntry(token, nextEntry));
+                nextEntry = matchingEntries.hasNext() ? matchingEntries.next() : null;
             }
-            result.add(new GenericTrackedDomainEventEntry<>(token, (String) entry[1], (String) entry[2],
-                                                            (Long) entry[3], (String) entry[4], entry[5],
-                                                            (String) entry[6], (String) entry[7], entry[8], entry[9]));
+        }
+        if (skipped) {
+            result.add(skippedEntries(token));
         }
         return result;
     }
 
+    private List<Long> fetchGlobalIndices(GapAwareTrackingToken previousToken, int batchSize) {
+        Collection<Long> gaps = previousToken == null ? Collections.emptySet() : previousToken.getGaps();
+        return transactionManager.fetchInTransaction(() -> {
+            TypedQuery<Long> query;
+            if (gaps.isEmpty()) {
+                query = entityManager().createQuery(
+                        "SELECT e.globalIndex FROM " + domainEventEntryEntityName() + " e " +
+                                "WHERE e.globalIndex > :token ORDER BY e.globalIndex ASC", Long.class);
+            } else {
+                query = entityManager().createQuery(
+                        "SELECT e.globalIndex FROM " + domainEventEntryEntityName() + " e " +
+                                "WHERE e.globalIndex > :token OR e.globalIndex IN :gaps ORDER BY e.globalIndex ASC",
+                        Long.class)
+                        .setParameter("gaps", gaps);
+            }
+            return query
+                    .setParameter("token", previousToken == null ? -1L : previousToken.getIndex())
+                    .setMaxResults(batchSize)
+                    .getResultList();
+        });
+    }
+
+    private GapAwareTrackingToken advanceToken(GapAwareTrackingToken previousToken, long globalSequence) {
+        if (previousToken == null) {
+            return GapAwareTrackingToken.newInstance(globalSequence, LongStream
+                    .range(Math.min(lowestGlobalSequence, globalSequence), globalSequence).toArray());
+        }
+        return previousToken.advanceTo(globalSequence, maxGapOffset);
+    }
+
+    private TrackedEventData<?> createTrackedEventEntry(TrackingToken token, Object[] entry) {
+        return new GenericTrackedDomainEventEntry<>(token, (String) entry[1], (String) entry[2], (Long) entry[3],
+                                                    (String) entry[4], entry[5], (String) entry[6],
+                                                    (String) entry[7], entry[8], entry[9]);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     protected List<? extends DomainEventData<?>> fetchDomainEvents(String aggregateIdentifier, long firstSequenceNumber,
@@ -16,42 +16,59 @@
 
 package org.axonframework.messaging.annotation;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Inspector for a message handling target of type {@code T} that uses annotations on the target to inspect the
  * capabilities of the target.
+ * <p>
+ * Inspectors are cached process-wide per context class loader and {@link ParameterResolverFactory}, so that the same
+ * type is only inspected once for each combination. The context class loader determines which {@link
+ * HandlerDefinition HandlerDefinitions} and {@link HandlerEnhancerDefinition HandlerEnhancerDefinitions} are used. The
+ * cache only holds weak references to the class loaders, factories, inspected types and inspectors, so inspectors are
+ * only cached for as long as they are in use, and never prevent a class loader from being garbage collected.
  *
  * @param <T> the target type
  */
 public class AnnotatedHandlerInspector<T> {
 
+    private static final Object monitor = new Object();
+    private static final Map<ClassLoader, Map<ParameterResolverFactory, WeakReference<Registry>>> REGISTRIES =
+            new WeakHashMap<>();
+    private static final Map<ClassLoader, WeakReference<HandlerDefinitions>> DEFINITIONS = new WeakHashMap<>();
+
     private final Class<T> inspectedType;
     private final ParameterResolverFactory parameterResolverFactory;
-    private final Map<Class<?>, AnnotatedHandlerInspector> registry;
+    private final Registry registry;
     private final List<AnnotatedHandlerInspector<? super T>> superClassInspectors;
     private final List<MessageHandlingMember<? super T>> handlers;
+    private final ConcurrentMap<Class<?>, List<MessageHandlingMember<? super T>>> handlersPerPayloadType;
 
     private AnnotatedHandlerInspector(Class<T> inspectedType,
                                       List<AnnotatedHandlerInspector<? super T>> superClassInspectors,
                                       ParameterResolverFactory parameterResolverFactory,
-                                      Map<Class<?>, AnnotatedHandlerInspector> registry) {
+                                      Registry registry) {
         this.inspectedType = inspectedType;
         this.parameterResolverFactory = parameterResolverFactory;
         this.registry = registry;
         this.superClassInspectors = new ArrayList<>(superClassInspectors);
         this.handlers = new ArrayList<>();
+        this.handlersPerPayloadType = new ConcurrentHashMap<>();
     }
 
     /**
      * Create an inspector for given {@code handlerType} that uses a {@link ClasspathParameterResolverFactory} to
-     * resolve method parameters.
+     * resolve method parameters. An inspector created earlier for the same type and factory is returned if it is
+     * still cached.
      *
      * @param handlerType the target handler type
      * @param <T>         the handler's type
-     * @return a new inspector instance for the inspected class
+     * @return an inspector instance for the inspected class
      */
     public static <T> AnnotatedHandlerInspector<T> inspectType(Class<T> handlerType) {
         return inspectType(handlerType, ClasspathParameterResolverFactory.forClass(handlerType));
@@ -59,30 +76,65 @@ public static <T> AnnotatedHandlerInspector<T> inspectType(Class<T> handlerType)
 
     /**
      * Create an inspector for given {@code handlerType} that uses given {@code parameterResolverFactory} to resolve
-     * method parameters.
+     * method parameters. An inspector created earlier for the same type and factory is returned if it is still
+     * cached.
      *
      * @param handlerType              the target handler type
      * @param parameterResolverFactory the resolver factory to use during detection
      * @param <T>                      the handler's type
-     * @return a new inspector instance for the inspected class
+     * @return an inspector instance for the inspected class
      */
     public static <T> AnnotatedHandlerInspector<T> inspectType(Class<T> handlerType,
                                                                ParameterResolverFactory parameterResolverFactory) {
-        return createInspector(handlerType, parameterResolverFactory, new HashMap<>());
+        return createInspector(handlerType, parameterResolverFactory, registryFor(parameterResolverFactory));
+    }
+
+    private static Registry registryFor(ParameterResolverFactory parameterResolverFactory) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        synchronized (monitor) {
+            // registries are only weakly referenced, as they refer to the factory and the class loader via their
+            // inspectors and handler definitions. The inspectors keep their registry alive while they are in use.
+            Map<ParameterResolverFactory, WeakReference<Registry>> registries =
+                    REGISTRIES.computeIfAbsent(classLoader, cl -> new WeakHashMap<>());
+            WeakReference<Registry> reference = registries.get(parameterResolverFactory);
+            Registry registry = reference == null ? null : reference.get();
+            if (registry == null) {
+                registry = new Registry(handlerDefinitions(classLoader));
+                registries.put(parameterResolverFactory, new WeakReference<>(registry));
+            }
+            return registry;
+        }
     }
 
+    private static HandlerDefinitions handlerDefinitions(ClassLoader classLoader) {
+        WeakReference<HandlerDefinitions> reference = DEFINITIONS.get(classLoader);
+        HandlerDefinitions definitions = reference == null ? null : reference.get();
+        if (definitions == null) {
+            definitions = new HandlerDefinitions(classLoader);
+            DEFINITIONS.put(classLoader, new WeakReference<>(definitions));
+        }
+        return definitions;
+    }
 
     private static <T> AnnotatedHandlerInspector<T> createInspector(Class<? extends T> inspectedType,
                                                                     ParameterResolverFactory parameterResolverFactory,
-                                                                    Map<Class<?>, AnnotatedHandlerInspector> registry) {
-        //noinspection unchecked
-        return registry.computeIfAbsent(inspectedType, k -> AnnotatedHandlerInspector
-                .initialize(inspectedType, parameterResolverFactory, registry));
+                                                                    Registry registry) {
+        // the registry may be shared between threads, and inspecting a type recursively inspects its parents
+        synchronized (registry) {
+            WeakReference<AnnotatedHandlerInspector> reference = registry.inspectors.get(inspectedType);
+            AnnotatedHandlerInspector inspector = reference == null ? null : reference.get();
+            if (inspector == null) {
+                inspector = initialize(inspectedType, parameterResolverFactory, registry);
+                registry.inspectors.put(inspectedType, new WeakReference<>(inspector));
+            }
+            //noinspection unchecked
+            return inspector;
+        }
     }
 
     private static <T> AnnotatedHandlerInspector<T> initialize(Class<T> inspectedType,
                                                                ParameterResolverFactory parameterResolverFactory,
-                                                               Map<Class<?>, AnnotatedHandlerInspector> registry) {
+                                                               Registry registry) {
         List<AnnotatedHandlerInspector<? super T>> parents = new ArrayList<>();
         for (Class<?> iFace : inspectedType.getInterfaces()) {
             //noinspection unchecked
@@ -91,17 +143,15 @@ private static <T> AnnotatedHandlerInspector<T> initialize(Class<T> inspectedTyp
         if (inspectedType.getSuperclass() != null && !Object.class.equals(inspectedType.getSuperclass())) {
             parents.add(createInspector(inspectedType.getSuperclass(), parameterResolverFactory, registry));
         }
-        AnnotatedHandlerInspector<T> inspector =
-                new AnnotatedHandlerInspector<>(inspectedType, parents, parameterResolverFactory, registry);
+        AnnotatedHandlerInspector<T> inspector = new AnnotatedHandlerInspector<>(
+                inspectedType, parents, parameterResolverFactory, registry);
         inspector.initializeMessageHandlers(parameterResolverFactory);
         return inspector;
     }
 
     private void initializeMessageHandlers(ParameterResolverFactory parameterResolverFactory) {
-        List<HandlerDefinition> definitions = new ArrayList<>();
-        ServiceLoader.load(HandlerDefinition.class).forEach(definitions::add);
-        List<HandlerEnhancerDefinition> wrapperDefinitions = new ArrayList<>();
-        ServiceLoader.load(HandlerEnhancerDefinition.class).forEach(wrapperDefinitions::add);
+        List<HandlerDefinition> definitions = registry.handlerDefinitions.definitions;
+        List<HandlerEnhancerDefinition> wrapperDefinitions = registry.handlerDefinitions.wrapperDefinitions;
         for (Method method : inspectedType.getDeclaredMethods()) {
             definitions.forEach(definition -> definition.createHandler(inspectedType, method, parameterResolverFactory)
                     .ifPresent(handler -> registerHandler(wrapped(handler, wrapperDefinitions))));
@@ -143,11 +193,64 @@ public <C> AnnotatedHandlerInspector<C> inspect(Class<? extends C> entityType) {
     }
 
     /**
-     * Returns a list of detected members of the inspected entity that are capable of handling certain messages.
+     * Returns a list of detected members of the inspected entity that are capable of handling certain messages. The
+     * returned list is unmodifiable, as inspectors are shared.
      *
-     * @return a list of detected message handlers
+     * @return an unmodifiable list of detected message handlers
      */
     public List<MessageHandlingMember<? super T>> getHandlers() {
-        return handlers;
+        return Collections.unmodifiableList(handlers);
+    }
+
+    /**
+     * Returns the detected members of the inspected entity that may be capable of handling messages with given {@code
+     * payloadType}. Members are selected based on their {@link MessageHandlingMember#payloadType() payload type} only,
+     * so callers still need to check whether a member {@link MessageHandlingMember#canHandle can handle} a message.
+     * The members are returned in the same order as in {@link #getHandlers()}.
+     * <p>
+     * The members for a payload type are looked up when the payload type is first requested, after which they are
+     * cached.
+     *
+     * @param payloadType the payload type of the messages to find handlers for
+     * @return an unmodifiable list of the detected message handlers that accept messages with given payload type
+     */
+    public List<MessageHandlingMember<? super T>> getHandlers(Class<?> payloadType) {
+        List<MessageHandlingMember<? super T>> candidates = handlersPerPayloadType.get(payloadType);
+        if (candidates == null) {
+            candidates = handlersPerPayloadType.computeIfAbsent(payloadType, t -> filterByPayloadType(handlers, t));
+        }
+        return candidates;
+    }
+
+    private static <T> List<MessageHandlingMember<? super T>> filterByPayloadType(
+            List<MessageHandlingMember<? super T>> handlers, Class<?> payloadType) {
+        List<MessageHandlingMember<? super T>> candidates = new ArrayList<>();
+        for (MessageHandlingMember<? super T> handler : handlers) {
+            if (handler.payloadType().isAssignableFrom(payloadType)) {
+                candidates.add(handler);
+            }
+        }
+        return candidates.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(candidates);
+    }
+
+    private static class Registry {
+
+        private final HandlerDefinitions handlerDefinitions;
+        private final Map<Class<?>, WeakReference<AnnotatedHandlerInspector>> inspectors = new WeakHashMap<>();
+
+        private Registry(HandlerDefinitions handlerDefinitions) {
+            this.handlerDefinitions = handlerDefinitions;
+        }
+    }
+
+    private static class HandlerDefinitions {
+
+        private final List<HandlerDefinition> definitions = new ArrayList<>();
+        private final List<HandlerEnhancerDefinition> wrapperDefinitions = new ArrayList<>();
+
+        private HandlerDefinitions(ClassLoader classLoader) {
+            ServiceLoader.load(HandlerDefinition.class, classLoader).forEach(definitions::add);
+            ServiceLoader.load(HandlerEnhancerDefinition.class, classLoader).forEach(wrapperDefinitions::add);
+        }
     }
 }
@@ -21,12 +21,19 @@
 import org.axonframework.messaging.Message;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
 import java.util.Map;
 import java.util.Optional;
 
 /**
  * Implementation of a {@link MessageHandlingMember} that is used to invoke message handler methods on the target type.
+ * <p>
+ * When possible, the handler is bound to a {@link MethodHandle} when this member is created, so that handlers with up to
+ * three parameters are invoked without allocating an array of parameter values. Handlers that cannot be bound to a
+ * MethodHandle are invoked using reflection.
  *
  * @param <T> the target type
  */
@@ -35,8 +42,11 @@
     private final Class<?> payloadType;
     private final int parameterCount;
     private final ParameterResolver<?>[] parameterResolvers;
+    private final Class<?>[] parameterTypes;
+    private final boolean[] primitiveParameters;
     private final Executable executable;
     private final Class<? extends Message> messageType;
+    private final MethodHandle methodHandle;
 
     /**
      * Initializes a new instance that will invoke the given {@code executable} (method) on a target to handle a message
@@ -56,8 +66,14 @@ public AnnotatedMessageHandlingMember(Executable executable, Class<? extends Mes
         Parameter[] parameters = executable.getParameters();
         this.parameterCount = executable.getParameterCount();
         parameterResolvers = new ParameterResolver[parameterCount];
+        parameterTypes = new Class<?>[parameterCount];
+        primitiveParameters = new boolean[parameterCount];
         Class<?> supportedPayloadType = explicitPayloadType;
         for (int i = 0; i < parameterCount; i++) {
+            Class<?> parameterType = parameters[i].getType();
+            primitiveParameters[i] = parameterType.isPrimitive();
+            parameterTypes[i] = primitiveParameters[i]
+                    ? ReflectionUtils.resolvePrimitiveWrapperType(parameterType) : parameterType;
             parameterResolvers[i] = parameterResolverFactory.createInstance(executable, parameters, i);
             if (parameterResolvers[i] == null) {
                 throw new UnsupportedHandlerException(
@@ -74,6 +90,35 @@ public AnnotatedMessageHandlingMember(Executable executable, Class<? extends Mes
             }
         }
         this.payloadType = supportedPayloadType;
+        this.methodHandle = createMethodHandle(executable, parameterCount);
+    }
+
+    /**
+     * Creates a MethodHandle that invokes the given {@code executable}, taking the target instance followed by the
+     * parameter values, all typed as {@link Object}. Handles for executables with more than three parameters take the
+     * parameter values as an array. The values of a varargs parameter are expected to be passed as an array. Returns
+     * {@code null} if the executable cannot be bound to a MethodHandle.
+     */
+    private static MethodHandle createMethodHandle(Executable executable, int parameterCount) {
+        MethodHandle handle;
+        try {
+            if (executable instanceof Method) {
+                handle = MethodHandles.lookup().unreflect((Method) executable);
+                if (Modifier.isStatic(executable.getModifiers())) {
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                }
+            } else if (executable instanceof Constructor) {
+                handle = MethodHandles.lookup().unreflectConstructor((Constructor<?>) executable);
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            } else {
+                return null;
+            }
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+        // a varargs handle would wrap the resolved array in another array when its parameter is typed as Object
+        handle = handle.asFixedArity().asType(MethodType.genericMethodType(parameterCount + 1));
+        return parameterCount > 3 ? handle.asSpreader(Object[].class, parameterCount) : handle;
     }
 
     @Override
@@ -122,6 +167,9 @@ protected boolean parametersMatch(Message<?> message) {
 
     @Override
     public Object handle(Message<?> message, T target) throws Exception {
+        if (methodHandle != null) {
+            return invokeMethodHandle(message, target);
+        }
         try {
             if (executable instanceof Method) {
                 return ((Method) executable).invoke(target, resolveParameterValues(message));
@@ -137,6 +185,45 @@ public Object handle(Message<?> message, T target) throws Exception {
         }
     }
 
+    private Object invokeMethodHandle(Message<?> message, Object target) throws Exception {
+        try {
+            switch (parameterCount) {
+                case 0:
+                    return (Object) methodHandle.invokeExact(target);
+                case 1:
+                    return (Object) methodHandle.invokeExact(target, resolveParameterValue(0, message));
+                case 2:
+                    return (Object) methodHandle.invokeExact(target, resolveParameterValue(0, message),
+                                                             resolveParameterValue(1, message));
+                case 3:
+                    return (Object) methodHandle.invokeExact(target, resolveParameterValue(0, message),
+                                                             resolveParameterValue(1, message),
+                                                             resolveParameterValue(2, message));
+                default:
+                    return (Object) methodHandle.invokeExact(target, resolveParameterValues(message));
+            }
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new MessageHandlerInvocationException(
+                    String.format("Error handling an object of type [%s]", message.getPayloadType()), e);
+        }
+    }
+
+    private Object resolveParameterValue(int index, Message<?> message) {
+        Object value = parameterResolvers[index].resolveParameterValue(message);
+        // the method handle would throw a ClassCastException or NullPointerException for these, which can't be told
+        // apart from the ones thrown by the handler itself
+        if (value == null ? primitiveParameters[index] : !parameterTypes[index].isInstance(value)) {
+            throw new MessageHandlerInvocationException(
+                    String.format("Error handling an object of type [%s]", message.getPayloadType()),
+                    new IllegalArgumentException(String.format(
+                            "Parameter %d of %s cannot be assigned the resolved value [%s]", index,
+                            executable.toGenericString(), value)));
+        }
+        return value;
+    }
+
     private void checkAndRethrowForExceptionOrError(ReflectiveOperationException e) throws Exception {
         if (e.getCause() instanceof Exception) {
             throw (Exception) e.getCause();
@@ -148,7 +235,7 @@ private void checkAndRethrowForExceptionOrError(ReflectiveOperationException e)
     private Object[] resolveParameterValues(Message<?> message) {
         Object[] params = new Object[parameterCount];
         for (int i = 0; i < parameterCount; i++) {
-            params[i] = parameterResolvers[i].resolveParameterValue(message);
+            params[i] = resolveParameterValue(i, message);
         }
         return params;
     }
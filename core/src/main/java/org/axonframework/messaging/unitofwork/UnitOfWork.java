@@ -16,6 +16,8 @@
 
 package org.axonframework.messaging.unitofwork;
 
+import org.axonframework.common.transaction.Transaction;
+import org.axonframework.common.transaction.TransactionManager;
 import org.axonframework.messaging.Message;
 import org.axonframework.messaging.MetaData;
 import org.axonframework.messaging.correlation.CorrelationDataProvider;
@@ -140,6 +142,24 @@ default boolean isActive() {
      */
     void onCleanup(Consumer<UnitOfWork<T>> handler);
 
+    /**
+     * Attach a transaction to this Unit of Work, using the given {@code transactionManager}. The transaction is
+     * committed when this Unit of Work commits and rolled back when it rolls back. If the transaction cannot be
+     * started, this Unit of Work is rolled back and the exception is rethrown.
+     *
+     * @param transactionManager The Transaction Manager to start, commit and roll back the transaction with
+     */
+    default void attachTransaction(TransactionManager transactionManager) {
+        try {
+            Transaction transaction = transactionManager.startTransaction();
+            onCommit(u -> transaction.commit());
+            onRollback(u -> transaction.rollback());
+        } catch (Throwable t) {
+            rollback(t);
+            throw t;
+        }
+    }
+
     /**
      * Returns an optional for the parent of this Unit of Work. The optional holds the Unit of Work that was active when
      * this Unit of Work was started. In case no other Unit of Work was active when this Unit of Work was started the
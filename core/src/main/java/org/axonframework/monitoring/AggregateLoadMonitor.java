@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2010-2017. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.monitoring;
+
+/**
+ * Monitor that is notified each time a repository loads an aggregate, either from a cache or by replaying its events
+ * from the event store. Implementations may use this information to report the effectiveness of caches, and the cost
+ * of loading aggregates that are not cached.
+ * <p>
+ * A monitor is typically installed on the repository of a single aggregate type. Implementations must be thread-safe.
+ *
+ * @since 3.1
+ */
+public interface AggregateLoadMonitor {
+
+    /**
+     * Invoked when an aggregate was served from a cache.
+     *
+     * @param loadTimeNanos The time, in nanoseconds, it took to retrieve the aggregate from the cache
+     */
+    void onLoadedFromCache(long loadTimeNanos);
+
+    /**
+     * Invoked when an aggregate was reconstructed from the events in the event store. For repositories that use a
+     * cache, this indicates a cache miss.
+     *
+     * @param loadTimeNanos  The time, in nanoseconds, it took to read the events and initialize the aggregate
+     * @param eventsReplayed The number of events (including a snapshot event, if any) applied to the aggregate
+     */
+    void onLoadedFromEventStore(long loadTimeNanos, long eventsReplayed);
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2010-2017. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling;
+
+import org.axonframework.commandhandling.callbacks.FutureCallback;
+import org.hamcrest.CustomTypeSafeMatcher;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.axonframework.commandhandling.GenericCommandMessage.asCommandMessage;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class BoundedAsynchronousCommandBusTest {
+
+    private BoundedAsynchronousCommandBus testSubject;
+
+    @After
+    public void tearDown() {
+        if (testSubject != null) {
+            testSubject.shutdown();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testCommandsWithSameRoutingKeyProcessedInOrderByOneWorker() throws Exception {
+        testSubject = BoundedAsynchronousCommandBus.builder().withWorkerCount(4).withQueueCapacity(10)
+                                                   .withRoutingStrategy(command -> ((String) command.getPayload())
+                                                           .split(":")[0])
+                                                   .build();
+        Map<String, List<String>> handledCommands = new ConcurrentHashMap<>();
+        Map<String, Thread> handlingThreads = new ConcurrentHashMap<>();
+        CountDownLatch handled = new CountDownLatch(200);
+        testSubject.subscribe(String.class.getName(), command -> {
+            String[] payload = ((String) command.getPayload()).split(":");
+            handledCommands.computeIfAbsent(payload[0], k -> Collections.synchronizedList(new ArrayList<>()))
+                           .add(payload[1]);
+            assertSame(handlingThreads.computeIfAbsent(payload[0], k -> Thread.currentThread()),
+                       Thread.currentThread());
+            handled.countDown();
+            return null;
+        });
+
+        for (int i = 0; i < 20; i++) {
+            for (int aggregate = 0; aggregate < 10; aggregate++) {
+                testSubject.dispatch(asCommandMessage("aggregate" + aggregate + ":" + i));
+            }
+        }
+
+        assertTrue(handled.await(5, TimeUnit.SECONDS));
+        assertEquals(10, handledCommands.size());
+        for (List<String> commands : handledCommands.values()) {
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                expected.add(Integer.toString(i));
+            }
+            assertEquals(expected, commands);
+        }
+    }
+
+    @Test(timeout = 10000)
+    @SuppressWarnings("unchecked")
+    public void testCommandsRejectedWhenQueueIsFull() throws Exception {
+        testSubject = BoundedAsynchronousCommandBus.builder().withWorkerCount(1).withQueueCapacity(1)
+                                                   .withRejectionPolicy(
+                                                           BoundedAsynchronousCommandBus.RejectionPolicy.REJECT)
+                                                   .build();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        testSubject.subscribe(String.class.getName(), command -> {
+            started.countDown();
+            release.await();
+            return command.getPayload();
+        });
+        CommandCallback<Object, Object> callback = mock(CommandCallback.class);
+
+        testSubject.dispatch(asCommandMessage("first"), callback);
+        started.await();
+        testSubject.dispatch(asCommandMessage("second"), callback);
+        testSubject.dispatch(asCommandMessage("third"), callback);
+
+        verify(callback).onFailure(argThat(new CustomTypeSafeMatcher<CommandMessage<?>>("third") {
+            @Override
+            protected boolean matchesSafely(CommandMessage<?> item) {
+                return "third".equals(item.getPayload());
+            }
+        }), isA(RejectedExecutionException.class));
+        release.countDown();
+        testSubject.shutdown();
+        verify(callback).onSuccess(any(), eq("first"));
+        verify(callback).onSuccess(any(), eq("second"));
+    }
+
+    @Test(timeout = 10000)
+    @SuppressWarnings("unchecked")
+    public void testCommandsRejectedAfterShutdown() throws Exception {
+        testSubject = new BoundedAsynchronousCommandBus(2, 10);
+        testSubject.subscribe(String.class.getName(), CommandMessage::getPayload);
+        CommandCallback<Object, Object> callback = mock(CommandCallback.class);
+
+        testSubject.dispatch(asCommandMessage("before"), callback);
+        testSubject.shutdown();
+        testSubject.dispatch(asCommandMessage("after"), callback);
+
+        verify(callback).onSuccess(any(), eq("before"));
+        verify(callback).onFailure(any(), isA(RejectedExecutionException.class));
+    }
+
+    @Test(timeout = 10000)
+    public void testCommandDispatchedByHandlerIsProcessedOnWorkerThread() throws Exception {
+        testSubject = BoundedAsynchronousCommandBus.builder().withWorkerCount(1).withQueueCapacity(1).build();
+        testSubject.subscribe(String.class.getName(), command -> {
+            if ("outer".equals(command.getPayload())) {
+                FutureCallback<Object, Object> inner = new FutureCallback<>();
+                testSubject.dispatch(asCommandMessage("inner"), inner);
+                return "outer:" + inner.get();
+            }
+            return Thread.currentThread().getName();
+        });
+        FutureCallback<Object, Object> outer = new FutureCallback<>();
+
+        testSubject.dispatch(asCommandMessage("outer"), outer);
+
+        assertTrue(((String) outer.get()).startsWith("outer:BoundedAsynchronousCommandBus"));
+    }
+
+    @Test(timeout = 10000)
+    public void testCommandDispatchedByHandlerIsProcessedByWorkerOfItsRoutingKey() throws Exception {
+        // routing key "0" is assigned to the first worker, routing key "1" to the second
+        testSubject = BoundedAsynchronousCommandBus.builder().withWorkerCount(2).withQueueCapacity(1)
+                                                   .withRoutingStrategy(
+                                                           command -> "outer".equals(command.getPayload()) ? "0" : "1")
+                                                   .build();
+        testSubject.subscribe(String.class.getName(), command -> {
+            if ("outer".equals(command.getPayload())) {
+                FutureCallback<Object, Object> inner = new FutureCallback<>();
+                testSubject.dispatch(asCommandMessage("inner"), inner);
+                return Thread.currentThread() != inner.get();
+            }
+            return Thread.currentThread();
+        });
+        FutureCallback<Object, Object> outer = new FutureCallback<>();
+
+        testSubject.dispatch(asCommandMessage("outer"), outer);
+
+        assertEquals(Boolean.TRUE, outer.get());
+    }
+
+    @Test(timeout = 10000)
+    public void testEveryCommandCompletedWhenShutdownRacesWithDispatch() throws Exception {
+        testSubject = new BoundedAsynchronousCommandBus(2, 10);
+        testSubject.subscribe(String.class.getName(), CommandMessage::getPayload);
+        List<FutureCallback<Object, Object>> callbacks = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> dispatchers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread dispatcher = new Thread(() -> {
+                for (int i = 0; i < 100; i++) {
+                    FutureCallback<Object, Object> callback = new FutureCallback<>();
+                    callbacks.add(callback);
+                    testSubject.dispatch(asCommandMessage("command" + i), callback);
+                }
+            });
+            dispatchers.add(dispatcher);
+            dispatcher.start();
+        }
+
+        testSubject.shutdown();
+        for (Thread dispatcher : dispatchers) {
+            dispatcher.join();
+        }
+
+        for (FutureCallback<Object, Object> callback : callbacks) {
+            assertTrue(callback.awaitCompletion(1, TimeUnit.SECONDS));
+        }
+    }
+}
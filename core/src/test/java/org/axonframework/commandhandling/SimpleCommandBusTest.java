@@ -16,20 +16,30 @@
 
 package org.axonframework.commandhandling;
 
+import org.axonframework.common.MockException;
 import org.axonframework.common.Registration;
+import org.axonframework.common.transaction.Transaction;
+import org.axonframework.common.transaction.TransactionManager;
 import org.axonframework.messaging.InterceptorChain;
 import org.axonframework.messaging.MessageHandler;
 import org.axonframework.messaging.MessageHandlerInterceptor;
 import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
 import org.axonframework.messaging.unitofwork.RollbackConfigurationType;
 import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.axonframework.monitoring.NoOpMessageMonitor;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InOrder;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static java.util.Arrays.asList;
+import static org.axonframework.commandhandling.GenericCommandMessage.asCommandMessage;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
@@ -274,6 +284,68 @@ public void onFailure(CommandMessage<?> commandMessage, Throwable cause) {
         inOrder.verify(commandHandler, never()).handle(isA(CommandMessage.class));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDispatchAll_CommandsProcessedInSingleTransaction() throws Exception {
+        TransactionManager transactionManager = mock(TransactionManager.class);
+        Transaction transaction = mock(Transaction.class);
+        when(transactionManager.startTransaction()).thenReturn(transaction);
+        testSubject = new SimpleCommandBus(transactionManager, NoOpMessageMonitor.INSTANCE);
+        Set<UnitOfWork<?>> unitsOfWork = new HashSet<>();
+        testSubject.subscribe(String.class.getName(), command -> {
+            unitsOfWork.add(CurrentUnitOfWork.get());
+            return command.getPayload();
+        });
+        CommandCallback<Object, Object> callback = mock(CommandCallback.class);
+
+        testSubject.dispatchAll(asList(asCommandMessage("first"), asCommandMessage("second")), callback);
+
+        assertEquals(1, unitsOfWork.size());
+        verify(transactionManager).startTransaction();
+        verify(transaction).commit();
+        verify(callback).onSuccess(any(), eq("first"));
+        verify(callback).onSuccess(any(), eq("second"));
+        assertFalse(CurrentUnitOfWork.isStarted());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDispatchAll_CommandsProcessedSeparatelyWhenBatchIsRolledBack() throws Exception {
+        List<Object> handledCommands = new ArrayList<>();
+        testSubject.subscribe(String.class.getName(), command -> {
+            handledCommands.add(command.getPayload());
+            if ("fail".equals(command.getPayload())) {
+                throw new MockException();
+            }
+            return command.getPayload();
+        });
+        CommandCallback<Object, Object> callback = mock(CommandCallback.class);
+
+        testSubject.dispatchAll(asList(asCommandMessage("first"), asCommandMessage("fail"),
+                                       asCommandMessage("third")), callback);
+
+        assertEquals(asList("first", "fail", "first", "fail", "third"), handledCommands);
+        verify(callback).onSuccess(any(), eq("first"));
+        verify(callback).onFailure(any(), isA(MockException.class));
+        verify(callback).onSuccess(any(), eq("third"));
+        assertFalse(CurrentUnitOfWork.isStarted());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDispatchAll_NoHandlerSubscribed() {
+        MessageHandler<CommandMessage<?>> commandHandler = mock(MessageHandler.class);
+        testSubject.subscribe(String.class.getName(), commandHandler);
+        CommandCallback<Object, Object> callback = mock(CommandCallback.class);
+
+        try {
+            testSubject.dispatchAll(asList(asCommandMessage("Say hi!"), asCommandMessage(1)), callback);
+            fail("Expected exception");
+        } catch (NoHandlerForCommandException e) {
+            verifyZeroInteractions(commandHandler, callback);
+        }
+    }
+
     private static class MyStringCommandHandler implements MessageHandler<CommandMessage<?>> {
         @Override
         public Object handle(CommandMessage<?> message) throws Exception {
@@ -68,15 +68,19 @@ public void setUp() throws Exception {
         aggregateIdentifier = "mockAggregate";
         mockCommandMessage = mock(CommandMessage.class);
         mockCommandHandler = mock(MessageHandler.class);
-        commandHandlingEntry = new CommandHandlingEntry();
-        commandHandlingEntry.reset(mockCommandMessage, mockCommandHandler, 0, 0, null,
-                                   Collections.emptyList(),
-                                   Collections.emptyList());
+        commandHandlingEntry = newCommandHandlingEntry();
         mockTrigger = mock(SnapshotTrigger.class);
         snapshotTriggerDefinition = mock(SnapshotTriggerDefinition.class);
         when(snapshotTriggerDefinition.prepareTrigger(any())).thenReturn(mockTrigger);
     }
 
+    private CommandHandlingEntry newCommandHandlingEntry() {
+        CommandHandlingEntry entry = new CommandHandlingEntry();
+        entry.reset(mockCommandMessage, mockCommandHandler, 0, 0, null, Collections.emptyList(),
+                    Collections.emptyList());
+        return entry;
+    }
+
     @Test
     public void usesProvidedParameterResolverFactoryToResolveParameters() throws Exception {
         ParameterResolverFactory parameterResolverFactory = spy(ClasspathParameterResolverFactory.forClass(StubAggregate.class));
@@ -159,6 +163,43 @@ public void testAddToRepositoryAddsInCache() throws Exception {
         verify(mockEventStore).publish(Matchers.<DomainEventMessage<?>[]>anyVararg());
     }
 
+    @Test
+    public void testLoadFromRepositoryLoadsFromFirstLevelCacheOnSecondInvocation() throws Exception {
+        final Repository<StubAggregate> repository = testSubject
+                .createRepository(new GenericAggregateFactory<>(StubAggregate.class), snapshotTriggerDefinition,
+                                  ClasspathParameterResolverFactory.forClass(StubAggregate.class));
+        when(mockCommandHandler.handle(eq(mockCommandMessage)))
+                .thenAnswer(invocationOnMock -> repository.load(aggregateIdentifier));
+        when(mockEventStore.readEvents(anyObject())).thenAnswer(invocationOnMock -> DomainEventStream.of(
+                new GenericDomainEventMessage<>("type", aggregateIdentifier, 0, aggregateIdentifier)));
+
+        testSubject.onEvent(commandHandlingEntry, 0, true);
+        testSubject.onEvent(newCommandHandlingEntry(), 1, true);
+
+        verify(mockCache).get(aggregateIdentifier);
+        verify(mockEventStore).readEvents(eq(aggregateIdentifier));
+    }
+
+    @Test
+    public void testFirstLevelCacheEntryInvalidatedOnRecoveryEntry() throws Exception {
+        final Repository<StubAggregate> repository = testSubject
+                .createRepository(new GenericAggregateFactory<>(StubAggregate.class), snapshotTriggerDefinition,
+                                  ClasspathParameterResolverFactory.forClass(StubAggregate.class));
+        when(mockCommandHandler.handle(eq(mockCommandMessage)))
+                .thenAnswer(invocationOnMock -> repository.load(aggregateIdentifier));
+        when(mockEventStore.readEvents(anyObject())).thenAnswer(invocationOnMock -> DomainEventStream.of(
+                new GenericDomainEventMessage<>("type", aggregateIdentifier, 0, aggregateIdentifier)));
+        testSubject.onEvent(commandHandlingEntry, 0, true);
+
+        CommandHandlingEntry recoveryEntry = new CommandHandlingEntry();
+        recoveryEntry.resetAsRecoverEntry(aggregateIdentifier);
+        testSubject.onEvent(recoveryEntry, 1, true);
+        testSubject.onEvent(newCommandHandlingEntry(), 2, true);
+
+        verify(mockCache, times(2)).get(aggregateIdentifier);
+        verify(mockEventStore, times(2)).readEvents(eq(aggregateIdentifier));
+    }
+
     @Test
     public void testCacheEntryInvalidatedOnRecoveryEntry() throws Exception {
         commandHandlingEntry.resetAsRecoverEntry(aggregateIdentifier);
@@ -52,9 +52,12 @@
 import org.mockito.stubbing.Answer;
 
 import java.lang.reflect.Executable;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
@@ -282,6 +285,129 @@ private CommandCallback dispatchCommands(MessageHandlerInterceptor mockIntercept
         return mockCallback;
     }
 
+    @SuppressWarnings("unchecked")
+    @Test(timeout = 10000)
+    public void testConsecutiveCommandsCommittedInSingleTransaction() throws Exception {
+        Transaction mockTransaction = mock(Transaction.class);
+        AtomicLong commits = new AtomicLong();
+        doAnswer(invocation -> commits.incrementAndGet()).when(mockTransaction).commit();
+        List<Long> commitsBeforeAfterCommit = new CopyOnWriteArrayList<>();
+        CommandCallback mockCallback = dispatchGroupedCommands(mockTransaction, 100,
+                                                               uow -> commitsBeforeAfterCommit.add(commits.get()));
+
+        verify(mockCallback, times(100)).onSuccess(any(), any());
+        // the first group ends with the batch that was available when the publisher picked up the first command
+        verify(mockTransactionManager, atMost(2)).startTransaction();
+        verify(mockTransaction, atMost(2)).commit();
+        assertEquals(100, commitsBeforeAfterCommit.size());
+        assertFalse("After commit handlers ran before the group's transaction was committed",
+                    commitsBeforeAfterCommit.contains(0L));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test(timeout = 10000)
+    public void testAllCommandsOfGroupFailWhenTransactionFails() throws Exception {
+        Transaction mockTransaction = mock(Transaction.class);
+        doThrow(new MockException()).when(mockTransaction).commit();
+        AtomicLong afterCommitInvocations = new AtomicLong();
+        CommandCallback mockCallback = dispatchGroupedCommands(mockTransaction, 100,
+                                                               uow -> afterCommitInvocations.incrementAndGet());
+
+        verify(mockCallback, times(100)).onFailure(any(), isA(MockException.class));
+        verify(mockCallback, never()).onSuccess(any(), any());
+        assertEquals("After commit handlers ran for commands that were rolled back",
+                     0, afterCommitInvocations.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test(timeout = 10000)
+    public void testCommandsOfAggregatePublishedInOrderBySinglePublisherThread() throws Exception {
+        List<String> aggregateIdentifiers = new ArrayList<>();
+        for (int t = 0; t < 10; t++) {
+            String identifier = UUID.randomUUID().toString();
+            eventStore.storedEvents.put(identifier, new GenericDomainEventMessage<>("type", identifier, 0,
+                                                                                   new StubDomainEvent()));
+            aggregateIdentifiers.add(identifier);
+        }
+        Map<String, List<String>> dispatchedCommands = new ConcurrentHashMap<>();
+        Map<String, List<String>> publishedCommands = new ConcurrentHashMap<>();
+        Map<String, Set<Thread>> publisherThreads = new ConcurrentHashMap<>();
+        ExecutorService customExecutor = Executors.newCachedThreadPool();
+        testSubject = new DisruptorCommandBus(eventStore, new DisruptorConfiguration()
+                .setPublisherInterceptors(asList((unitOfWork, interceptorChain) -> {
+                    CommandMessage<?> command = (CommandMessage<?>) unitOfWork.getMessage();
+                    String identifier = ((StubCommand) command.getPayload()).getAggregateIdentifier();
+                    publishedCommands.computeIfAbsent(identifier, id -> new CopyOnWriteArrayList<>())
+                            .add(command.getIdentifier());
+                    publisherThreads.computeIfAbsent(identifier, id -> new CopyOnWriteArraySet<>())
+                            .add(Thread.currentThread());
+                    return interceptorChain.proceed();
+                }))
+                .setBufferSize(8).setExecutor(customExecutor).setInvokerThreadCount(2).setPublisherThreadCount(3));
+        testSubject.subscribe(StubCommand.class.getName(), stubHandler);
+        stubHandler.setRepository(testSubject.createRepository(new GenericAggregateFactory<>(StubAggregate.class)));
+        CommandCallback mockCallback = mock(CommandCallback.class);
+        for (int t = 0; t < 50; t++) {
+            for (String identifier : aggregateIdentifiers) {
+                CommandMessage<StubCommand> command = asCommandMessage(new StubCommand(identifier));
+                dispatchedCommands.computeIfAbsent(identifier, id -> new ArrayList<>()).add(command.getIdentifier());
+                testSubject.dispatch(command, mockCallback);
+            }
+        }
+
+        testSubject.stop();
+        customExecutor.shutdown();
+        assertTrue(customExecutor.awaitTermination(5, TimeUnit.SECONDS));
+        verify(mockCallback, times(500)).onSuccess(any(), any());
+        assertEquals(dispatchedCommands, publishedCommands);
+        Set<Thread> allPublisherThreads = new HashSet<>();
+        for (Set<Thread> threads : publisherThreads.values()) {
+            assertEquals(1, threads.size());
+            allPublisherThreads.addAll(threads);
+        }
+        assertTrue("Expected aggregates to be published by different threads", allPublisherThreads.size() > 1);
+    }
+
+    private CommandCallback dispatchGroupedCommands(Transaction transaction, int commandCount,
+                                                    Consumer<UnitOfWork<?>> afterCommitHandler) throws Exception {
+        List<String> aggregateIdentifiers = new ArrayList<>();
+        for (int t = 0; t < commandCount; t++) {
+            String identifier = UUID.randomUUID().toString();
+            eventStore.storedEvents.put(identifier, new GenericDomainEventMessage<>("type", identifier, 0,
+                                                                                   new StubDomainEvent()));
+            aggregateIdentifiers.add(identifier);
+        }
+        CountDownLatch handled = new CountDownLatch(commandCount);
+        mockTransactionManager = mock(TransactionManager.class);
+        // hold the publisher until all commands have been handled, so they are available to it as a single batch
+        when(mockTransactionManager.startTransaction()).thenAnswer(invocation -> {
+            handled.await();
+            return transaction;
+        });
+        ExecutorService customExecutor = Executors.newCachedThreadPool();
+        testSubject = new DisruptorCommandBus(eventStore, new DisruptorConfiguration()
+                .setInvokerInterceptors(asList((unitOfWork, interceptorChain) -> {
+                    unitOfWork.afterCommit(afterCommitHandler::accept);
+                    Object result = interceptorChain.proceed();
+                    handled.countDown();
+                    return result;
+                }))
+                .setBufferSize(1024).setExecutor(customExecutor).setTransactionManager(mockTransactionManager)
+                .setRescheduleCommandsOnCorruptState(false).setGroupCommitSize(commandCount)
+                .setGroupCommitTimeout(10000));
+        testSubject.subscribe(StubCommand.class.getName(), stubHandler);
+        stubHandler.setRepository(testSubject.createRepository(new GenericAggregateFactory<>(StubAggregate.class)));
+        CommandCallback mockCallback = mock(CommandCallback.class);
+        for (String identifier : aggregateIdentifiers) {
+            testSubject.dispatch(asCommandMessage(new StubCommand(identifier)), mockCallback);
+        }
+
+        testSubject.stop();
+        customExecutor.shutdown();
+        assertTrue(customExecutor.awaitTermination(5, TimeUnit.SECONDS));
+        return mockCallback;
+    }
+
     @Test
     public void testCreateAggregate() {
         eventStore.storedEvents.clear();
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2010-2017. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.disruptor;
+
+import com.lmax.disruptor.ExceptionHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class PublisherRouterTest {
+
+    private EventPublisher publisher;
+    private ExecutorService executor;
+    private ExceptionHandler exceptionHandler;
+
+    @Before
+    public void setUp() {
+        publisher = mock(EventPublisher.class);
+        exceptionHandler = mock(ExceptionHandler.class);
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test(timeout = 10000)
+    public void testBatchIsPublishedBeforeRouterContinues() throws Exception {
+        PublisherRouter testSubject = new PublisherRouter(new EventPublisher[]{publisher}, executor,
+                                                          exceptionHandler, 8, 10);
+        testSubject.start();
+        CommandHandlingEntry entry = new CommandHandlingEntry();
+
+        testSubject.onEvent(entry, 0, true);
+
+        verify(publisher).handle(entry);
+        verify(publisher).onEndOfBatch();
+        testSubject.onShutdown();
+    }
+
+    @Test(timeout = 10000)
+    public void testBatchFailsWhenPublisherIsNeverStarted() throws Exception {
+        PublisherRouter testSubject = new PublisherRouter(new EventPublisher[]{publisher}, task -> {
+        }, exceptionHandler, 8, 10);
+        testSubject.start();
+
+        try {
+            testSubject.onEvent(new CommandHandlingEntry(), 0, true);
+            fail("Expected the batch to fail");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("has not been started"));
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testBatchFailsWhenPublisherThreadHasStopped() throws Exception {
+        doThrow(new AssertionError("publisher failure")).when(publisher).handle(any());
+        PublisherRouter testSubject = new PublisherRouter(new EventPublisher[]{publisher}, executor,
+                                                          exceptionHandler, 8, 10);
+        testSubject.start();
+
+        try {
+            testSubject.onEvent(new CommandHandlingEntry(), 0, true);
+            fail("Expected the batch to fail");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("has stopped"));
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testPublisherExceptionIsReportedToExceptionHandler() throws Exception {
+        CommandHandlingEntry failingEntry = new CommandHandlingEntry();
+        CommandHandlingEntry otherEntry = new CommandHandlingEntry();
+        RuntimeException failure = new RuntimeException("publisher failure");
+        doThrow(failure).when(publisher).handle(failingEntry);
+        PublisherRouter testSubject = new PublisherRouter(new EventPublisher[]{publisher}, executor,
+                                                          exceptionHandler, 8, 10);
+        testSubject.start();
+
+        testSubject.onEvent(otherEntry, 4, false);
+        testSubject.onEvent(failingEntry, 5, true);
+
+        verify(exceptionHandler).handleEventException(failure, 5, failingEntry);
+        verifyNoMoreInteractions(exceptionHandler);
+        verify(publisher).onEndOfBatch();
+
+        testSubject.onEvent(otherEntry, 6, true);
+        verifyNoMoreInteractions(exceptionHandler);
+        testSubject.onShutdown();
+    }
+}
@@ -15,6 +15,8 @@
 
 import java.util.Optional;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isA;
@@ -111,6 +113,42 @@ public void testDispatchFailingCommandWithCallbackAndMessageMonitor() throws Exc
         verify(mockCallback).onFailure(eq(testCommandMessage), isA(Exception.class));
     }
 
+    @Test
+    public void testDispatchAllGroupsCommandsPerDestination() throws Exception {
+        Member otherMember = mock(Member.class);
+        CommandMessage<Object> firstCommand = GenericCommandMessage.asCommandMessage("first");
+        CommandMessage<Object> secondCommand = GenericCommandMessage.asCommandMessage("fail");
+        CommandMessage<Object> thirdCommand = GenericCommandMessage.asCommandMessage("third");
+        when(mockCommandRouter.findDestination(secondCommand)).thenReturn(Optional.of(otherMember));
+
+        CommandCallback mockCallback = mock(CommandCallback.class);
+        testSubject.dispatchAll(asList(firstCommand, secondCommand, thirdCommand), mockCallback);
+
+        verify(mockConnector).sendAll(eq(mockMember), eq(asList(firstCommand, thirdCommand)), any());
+        verify(mockConnector).sendAll(eq(otherMember), eq(singletonList(secondCommand)), any());
+        verify(mockMessageMonitor, times(3)).onMessageIngested(any());
+        verify(mockMonitorCallback, times(2)).reportSuccess();
+        verify(mockMonitorCallback).reportFailure(isA(Exception.class));
+        verify(mockCallback).onSuccess(firstCommand, null);
+        verify(mockCallback).onFailure(eq(secondCommand), isA(Exception.class));
+        verify(mockCallback).onSuccess(thirdCommand, null);
+    }
+
+    @Test
+    public void testDispatchAllReportsFailureToSendToDestination() throws Exception {
+        CommandMessage<Object> firstCommand = GenericCommandMessage.asCommandMessage("first");
+        CommandMessage<Object> secondCommand = GenericCommandMessage.asCommandMessage("second");
+        doThrow(new Exception("Unreachable")).when(mockConnector).send(eq(mockMember), eq(firstCommand), any());
+
+        CommandCallback mockCallback = mock(CommandCallback.class);
+        testSubject.dispatchAll(asList(firstCommand, secondCommand), mockCallback);
+
+        verify(mockMember).suspect();
+        verify(mockCallback).onFailure(eq(firstCommand), isA(CommandDispatchException.class));
+        verify(mockCallback).onFailure(eq(secondCommand), isA(CommandDispatchException.class));
+        verify(mockMonitorCallback, times(2)).reportFailure(isA(CommandDispatchException.class));
+    }
+
     private static class StubCommandBusConnector implements CommandBusConnector {
         @Override
         public <C> void send(Member destination, CommandMessage<? extends C> command) throws Exception {
@@ -40,6 +40,7 @@
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static java.util.Arrays.asList;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
@@ -274,6 +275,30 @@ protected boolean matchesSafely(CommandMessage<Object> item) {
         CurrentUnitOfWork.clear(unitOfWork);
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSendAllReturnsFuturePerCommand() throws Exception {
+        doAnswer(invocation -> {
+            List<CommandMessage<?>> commands = (List<CommandMessage<?>>) invocation.getArguments()[0];
+            CommandCallback<Object, Object> callback = (CommandCallback<Object, Object>) invocation.getArguments()[1];
+            // report the results in reverse order
+            callback.onFailure(commands.get(2), new RuntimeException("Faking failure"));
+            callback.onSuccess(commands.get(1), "result2");
+            callback.onSuccess(commands.get(0), "result1");
+            return null;
+        }).when(mockCommandBus).dispatchAll(anyList(), isA(CommandCallback.class));
+
+        List<CompletableFuture<Object>> futures = testSubject.sendAll(asList("Command1", "Command2", "Command3"));
+
+        assertEquals(3, futures.size());
+        assertEquals("result1", futures.get(0).get());
+        assertEquals("result2", futures.get(1).get());
+        assertTrue(futures.get(2).isCompletedExceptionally());
+        verify(mockCommandMessageTransformer, times(3)).handle(isA(CommandMessage.class));
+        verify(mockRetryScheduler).scheduleRetry(isA(CommandMessage.class), isA(RuntimeException.class),
+                                                 isA(List.class), isA(Runnable.class));
+    }
+
     private static class RescheduleCommand implements Answer<Boolean> {
 
         @Override
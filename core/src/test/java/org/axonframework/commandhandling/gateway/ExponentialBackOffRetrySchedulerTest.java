@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2010-2017. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.commandhandling.gateway;
+
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.common.AxonNonTransientException;
+import org.axonframework.monitoring.MessageMonitor;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.axonframework.commandhandling.GenericCommandMessage.asCommandMessage;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class ExponentialBackOffRetrySchedulerTest {
+
+    private ScheduledExecutorService mockExecutor;
+    private MessageMonitor<CommandMessage<?>> mockMonitor;
+    private MessageMonitor.MonitorCallback mockMonitorCallback;
+    private CommandMessage<?> command;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+        mockExecutor = mock(ScheduledExecutorService.class);
+        mockMonitor = mock(MessageMonitor.class);
+        mockMonitorCallback = mock(MessageMonitor.MonitorCallback.class);
+        when(mockMonitor.onMessageIngested(any())).thenReturn(mockMonitorCallback);
+        command = asCommandMessage("command");
+    }
+
+    @Test
+    public void testRetryDelayGrowsExponentiallyWithinBounds() {
+        ExponentialBackOffRetryScheduler testSubject =
+                ExponentialBackOffRetryScheduler.builder().withExecutor(mockExecutor)
+                                                .withInitialBackOff(100, TimeUnit.MILLISECONDS)
+                                                .withMaxBackOff(1, TimeUnit.SECONDS).build();
+
+        for (int i = 0; i < 100; i++) {
+            long first = testSubject.computeDelay(1);
+            assertTrue("Unexpected delay " + first, first >= 100 && first <= 300);
+            long second = testSubject.computeDelay(2);
+            assertTrue("Unexpected delay " + second, second >= 100 && second <= 900);
+            long capped = testSubject.computeDelay(30);
+            assertTrue("Unexpected delay " + capped, capped >= 100 && capped <= 1000);
+        }
+    }
+
+    @Test
+    public void testRetryScheduledUntilMaxRetryCountIsReached() {
+        ExponentialBackOffRetryScheduler testSubject =
+                ExponentialBackOffRetryScheduler.builder().withExecutor(mockExecutor).withMaxRetryCount(2)
+                                                .withMessageMonitor(mockMonitor).build();
+        Runnable dispatch = mock(Runnable.class);
+        RuntimeException failure = new IllegalStateException("Mock");
+
+        assertTrue(testSubject.scheduleRetry(command, failure, failures(1), dispatch));
+        assertTrue(testSubject.scheduleRetry(command, failure, failures(2), dispatch));
+        assertFalse(testSubject.scheduleRetry(command, failure, failures(3), dispatch));
+
+        verify(mockExecutor, times(2)).schedule(eq(dispatch), anyLong(), eq(TimeUnit.MILLISECONDS));
+        verify(mockMonitorCallback, times(2)).reportSuccess();
+        verify(mockMonitorCallback).reportFailure(failure);
+    }
+
+    @Test
+    public void testNonTransientFailureIsNotRetried() {
+        ExponentialBackOffRetryScheduler testSubject =
+                ExponentialBackOffRetryScheduler.builder().withExecutor(mockExecutor)
+                                                .withMessageMonitor(mockMonitor).build();
+        RuntimeException failure = new RuntimeException(new AxonNonTransientException("Mock") {
+        });
+
+        assertFalse(testSubject.scheduleRetry(command, failure, failures(1), mock(Runnable.class)));
+
+        verifyZeroInteractions(mockExecutor);
+        verify(mockMonitorCallback).reportIgnored();
+    }
+
+    @Test
+    public void testRetryBudgetIsSharedBetweenCommandsAndRefilledOverTime() {
+        MutableClock clock = new MutableClock();
+        ExponentialBackOffRetryScheduler testSubject =
+                ExponentialBackOffRetryScheduler.builder().withExecutor(mockExecutor).withRetryBudget(2, 1)
+                                                .withClock(clock).withMessageMonitor(mockMonitor).build();
+        RuntimeException failure = new IllegalStateException("Mock");
+
+        assertTrue(testSubject.scheduleRetry(command, failure, failures(1), mock(Runnable.class)));
+        assertTrue(testSubject.scheduleRetry(asCommandMessage("other"), failure, failures(1), mock(Runnable.class)));
+        assertFalse(testSubject.scheduleRetry(command, failure, failures(2), mock(Runnable.class)));
+        verify(mockMonitorCallback).reportFailure(failure);
+
+        clock.advance(1000);
+        assertTrue(testSubject.scheduleRetry(command, failure, failures(2), mock(Runnable.class)));
+        assertFalse(testSubject.scheduleRetry(command, failure, failures(3), mock(Runnable.class)));
+        verify(mockMonitorCallback, times(3)).reportSuccess();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Class<? extends Throwable>[]> failures(int count) {
+        List<Class<? extends Throwable>[]> failures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            failures.add(new Class[]{IllegalStateException.class});
+        }
+        return failures;
+    }
+
+    private static class MutableClock extends Clock {
+
+        private long millis;
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        private void advance(long duration) {
+            millis += duration;
+        }
+    }
+}
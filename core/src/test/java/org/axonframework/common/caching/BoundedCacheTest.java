@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2010-2017. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common.caching;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class BoundedCacheTest {
+
+    private Cache.EntryListener mockListener;
+
+    @Before
+    public void setUp() {
+        mockListener = mock(Cache.EntryListener.class);
+    }
+
+    @Test
+    public void testEntriesEvictedWhenMaximumSizeIsExceeded() {
+        BoundedCache testSubject = new BoundedCache(3);
+        testSubject.registerCacheEntryListener(mockListener);
+
+        testSubject.put("key1", "value1");
+        testSubject.put("key2", "value2");
+        testSubject.put("key3", "value3");
+        testSubject.put("key4", "value4");
+
+        assertFalse(testSubject.containsKey("key1"));
+        assertEquals("value4", testSubject.get("key4"));
+        assertEquals(1, testSubject.getEvictionCount());
+        verify(mockListener).onEntryCreated("key4", "value4");
+        verify(mockListener).onEntryExpired("key1");
+    }
+
+    @Test
+    public void testEntriesReadAgainAreProtectedFromEviction() {
+        BoundedCache testSubject = new BoundedCache(3);
+        testSubject.put("key1", "value1");
+        testSubject.put("key2", "value2");
+        testSubject.put("key3", "value3");
+        testSubject.get("key1");
+
+        // entries that are added but never read again are evicted first
+        for (int i = 0; i < 10; i++) {
+            testSubject.put("other" + i, "value");
+        }
+
+        assertTrue(testSubject.containsKey("key1"));
+        assertFalse(testSubject.containsKey("key2"));
+        assertFalse(testSubject.containsKey("key3"));
+    }
+
+    @Test
+    public void testEntriesEvictedWhenMaximumWeightIsExceeded() {
+        BoundedCache testSubject = BoundedCache.builder()
+                                              .withMaximumWeight(10, (key, value) -> ((String) value).length())
+                                              .build();
+
+        testSubject.put("key1", "12345");
+        testSubject.put("key2", "1234");
+        assertTrue(testSubject.containsKey("key1"));
+        testSubject.put("key3", "12");
+
+        assertFalse(testSubject.containsKey("key1"));
+        assertTrue(testSubject.containsKey("key2"));
+        assertTrue(testSubject.containsKey("key3"));
+    }
+
+    @Test
+    public void testEntryHeavierThanMaximumWeightIsNotRetained() {
+        BoundedCache testSubject = BoundedCache.builder()
+                                              .withMaximumWeight(10, (key, value) -> ((String) value).length())
+                                              .build();
+        testSubject.put("key1", "1234");
+
+        testSubject.put("key2", "12345678901");
+
+        assertFalse(testSubject.containsKey("key2"));
+        assertTrue(testSubject.containsKey("key1"));
+    }
+
+    @Test
+    public void testIdleEntriesExpire() {
+        MutableClock clock = new MutableClock();
+        BoundedCache testSubject = BoundedCache.builder().withMaximumSize(100)
+                                              .withTimeToIdle(10, TimeUnit.SECONDS).withClock(clock).build();
+        testSubject.registerCacheEntryListener(mockListener);
+        testSubject.put("key1", "value1");
+        testSubject.put("key2", "value2");
+
+        clock.advance(6000);
+        assertEquals("value1", testSubject.get("key1"));
+        clock.advance(6000);
+
+        assertEquals("value1", testSubject.get("key1"));
+        assertNull(testSubject.get("key2"));
+        verify(mockListener).onEntryExpired("key2");
+        assertEquals(1, testSubject.getEvictionCount());
+    }
+
+    @Test
+    public void testHitAndMissCounters() {
+        BoundedCache testSubject = new BoundedCache(10);
+        testSubject.registerCacheEntryListener(mockListener);
+        testSubject.put("key1", "value1");
+
+        assertEquals("value1", testSubject.get("key1"));
+        assertNull(testSubject.get("key2"));
+        assertNull(testSubject.get("key3"));
+
+        assertEquals(1, testSubject.getHitCount());
+        assertEquals(2, testSubject.getMissCount());
+        assertEquals(0, testSubject.getEvictionCount());
+        verify(mockListener).onEntryRead("key1", "value1");
+    }
+
+    @Test
+    public void testPutIfAbsentAndRemove() {
+        BoundedCache testSubject = new BoundedCache(10);
+        testSubject.registerCacheEntryListener(mockListener);
+
+        assertTrue(testSubject.putIfAbsent("key1", "value1"));
+        assertFalse(testSubject.putIfAbsent("key1", "value2"));
+        testSubject.put("key1", "value3");
+        assertTrue(testSubject.remove("key1"));
+        assertFalse(testSubject.remove("key1"));
+
+        verify(mockListener).onEntryCreated("key1", "value1");
+        verify(mockListener).onEntryUpdated("key1", "value3");
+        verify(mockListener).onEntryRemoved("key1");
+        verifyNoMoreInteractions(mockListener);
+    }
+
+    @Test
+    public void testMaximumSizeIsSharedBetweenSegments() {
+        BoundedCache testSubject = BoundedCache.builder().withMaximumSize(1024).withConcurrencyLevel(4).build();
+        for (int i = 0; i < 10000; i++) {
+            testSubject.put("key" + i, "value" + i);
+        }
+
+        int retained = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (testSubject.containsKey("key" + i)) {
+                retained++;
+            }
+        }
+        assertTrue("Expected cache not to exceed its maximum size", retained <= 1024);
+        assertEquals(10000 - retained, testSubject.getEvictionCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullValuesNotSupported() {
+        new BoundedCache(10).put("key", null);
+    }
+
+    private static class MutableClock extends Clock {
+
+        private long millis;
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        private void advance(long duration) {
+            millis += duration;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2010-2017. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.common.lock;
+
+import org.junit.Test;
+
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Collections.newSetFromMap;
+import static org.junit.Assert.*;
+
+public class StripedLockFactoryTest {
+
+    @Test
+    public void testLockIsReusedForSameIdentifier() {
+        StripedLockFactory testSubject = new StripedLockFactory();
+        Lock lock1 = testSubject.obtainLock("id1");
+        Lock lock2 = testSubject.obtainLock("id1");
+
+        assertSame(lock1, lock2);
+        lock1.release();
+        assertTrue(lock2.isHeld());
+        lock2.release();
+        assertFalse(lock2.isHeld());
+    }
+
+    @Test
+    public void testIdentifiersShareStripesWhenStripeCountIsExceeded() {
+        StripedLockFactory testSubject = new StripedLockFactory(3);
+        Set<Lock> locks = newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < 100; i++) {
+            Lock lock = testSubject.obtainLock("id" + i);
+            locks.add(lock);
+            lock.release();
+        }
+
+        assertEquals(4, locks.size());
+    }
+
+    @Test(timeout = 5000)
+    public void testLockBlocksOtherThreads() throws InterruptedException {
+        StripedLockFactory testSubject = new StripedLockFactory();
+        Lock lock = testSubject.obtainLock("id1");
+        AtomicBoolean obtained = new AtomicBoolean();
+        Thread thread = new Thread(() -> {
+            testSubject.obtainLock("id1").release();
+            obtained.set(true);
+        });
+        thread.start();
+
+        thread.join(100);
+        assertFalse(obtained.get());
+        lock.release();
+        thread.join();
+        assertTrue(obtained.get());
+    }
+
+    @Test(timeout = 5000)
+    public void testDeadlockDetected_TwoThreadsInVector() throws InterruptedException {
+        StripedLockFactory lock = new StripedLockFactory(16, 10, TimeUnit.MILLISECONDS);
+        String[] identifiers = identifiersOnDistinctStripes(lock, 2);
+        CountDownLatch starter = new CountDownLatch(1);
+        CountDownLatch cdl = new CountDownLatch(1);
+        AtomicBoolean deadlockInThread = new AtomicBoolean(false);
+        Thread t1 = createThread(starter, cdl, deadlockInThread, lock, identifiers[0], lock, identifiers[1]);
+        t1.start();
+        Lock held = lock.obtainLock(identifiers[1]);
+        starter.await();
+        cdl.countDown();
+        try {
+            lock.obtainLock(identifiers[0]);
+            assertTrue(deadlockInThread.get());
+        } catch (DeadlockException e) {
+            // this is ok!
+        } finally {
+            held.release();
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void testDeadlockDetected_TwoDifferentLockInstances() throws InterruptedException {
+        StripedLockFactory lock1 = new StripedLockFactory(16, 10, TimeUnit.MILLISECONDS);
+        StripedLockFactory lock2 = new StripedLockFactory(16, 10, TimeUnit.MILLISECONDS);
+        CountDownLatch starter = new CountDownLatch(1);
+        CountDownLatch cdl = new CountDownLatch(1);
+        AtomicBoolean deadlockInThread = new AtomicBoolean(false);
+        Thread t1 = createThread(starter, cdl, deadlockInThread, lock1, "id1", lock2, "id1");
+        t1.start();
+        Lock held = lock2.obtainLock("id1");
+        starter.await();
+        cdl.countDown();
+        try {
+            lock1.obtainLock("id1");
+            assertTrue(deadlockInThread.get());
+        } catch (DeadlockException e) {
+            // this is ok!
+        } finally {
+            held.release();
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void testDeadlockDetected_ThreeThreadsInVector() throws InterruptedException {
+        StripedLockFactory lock = new StripedLockFactory(16, 10, TimeUnit.MILLISECONDS);
+        String[] identifiers = identifiersOnDistinctStripes(lock, 4);
+        CountDownLatch starter = new CountDownLatch(3);
+        CountDownLatch cdl = new CountDownLatch(1);
+        AtomicBoolean deadlockInThread = new AtomicBoolean(false);
+        Thread t1 = createThread(starter, cdl, deadlockInThread, lock, identifiers[0], lock, identifiers[1]);
+        Thread t2 = createThread(starter, cdl, deadlockInThread, lock, identifiers[1], lock, identifiers[2]);
+        Thread t3 = createThread(starter, cdl, deadlockInThread, lock, identifiers[2], lock, identifiers[3]);
+        t1.start();
+        t2.start();
+        t3.start();
+        Lock held = lock.obtainLock(identifiers[3]);
+        starter.await();
+        cdl.countDown();
+        try {
+            lock.obtainLock(identifiers[0]);
+            assertTrue(deadlockInThread.get());
+        } catch (DeadlockException e) {
+            // this is ok!
+        } finally {
+            held.release();
+        }
+    }
+
+    private String[] identifiersOnDistinctStripes(StripedLockFactory lockFactory, int count) {
+        String[] identifiers = new String[count];
+        Set<Lock> stripes = newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0, found = 0; found < count; i++) {
+            Lock lock = lockFactory.obtainLock("id" + i);
+            lock.release();
+            if (stripes.add(lock)) {
+                identifiers[found++] = "id" + i;
+            }
+        }
+        return identifiers;
+    }
+
+    private Thread createThread(final CountDownLatch starter, final CountDownLatch cdl,
+                                final AtomicBoolean deadlockInThread, final LockFactory lockFactory1,
+                                final String firstId, final LockFactory lockFactory2, final String secondId) {
+        return new Thread(() -> {
+            Lock lock1 = lockFactory1.obtainLock(firstId);
+            starter.countDown();
+            try {
+                cdl.await();
+                Lock lock2 = lockFactory2.obtainLock(secondId);
+                lock2.release();
+            } catch (InterruptedException e) {
+                System.out.println("Thread 1 interrupted");
+            } catch (DeadlockException e) {
+                deadlockInThread.set(true);
+            } finally {
+                lock1.release();
+            }
+        });
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2010-2017. Axon Framework
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.eventhandling;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class SegmentTest {
+
+    @Test
+    public void testRootSegmentMatchesEverything() {
+        assertTrue(Segment.ROOT_SEGMENT.matches(0));
+        assertTrue(Segment.ROOT_SEGMENT.matches(-1));
+        assertTrue(Segment.ROOT_SEGMENT.matches("anything"));
+        assertTrue(Segment.ROOT_SEGMENT.matches((Object) null));
+    }
+
+    @Test
+    public void testSplitSegmentsDivideValues() {
+        Segment[] split = Segment.ROOT_SEGMENT.split();
+
+        assertEquals(new Segment(0, 1), split[0]);
+        assertEquals(new Segment(1, 1), split[1]);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(split[0].matches(i) ^ split[1].matches(i));
+        }
+    }
+
+    @Test
+    public void testComputeSegmentsForPowerOfTwo() {
+        Segment[] segments = Segment.computeSegments(0, 1, 2, 3);
+
+        assertArrayEquals(new Segment[]{new Segment(0, 3), new Segment(1, 3), new Segment(2, 3), new Segment(3, 3)},
+                          segments);
+    }
+
+    @Test
+    public void testComputeSegmentsForUnevenSegmentCount() {
+        Segment[] segments = Segment.computeSegments(0, 1, 2);
+
+        assertArrayEquals(new Segment[]{new Segment(0, 3), new Segment(1, 1), new Segment(2, 3)}, segments);
+        assertEachValueMatchesExactlyOneSegment(segments);
+    }
+
+    @Test
+    public void testComputeSegmentsForSingleSegmentReturnsRootSegment() {
+        assertArrayEquals(new Segment[]{Segment.ROOT_SEGMENT}, Segment.computeSegments(0));
+        assertEquals(0, Segment.computeSegments().length);
+    }
+
+    @Test
+    public void testComputeSegment() {
+        assertEquals(new Segment(1, 1), Segment.computeSegment(1, 0, 1, 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testComputeUnknownSegment() {
+        Segment.computeSegment(4, 0, 1, 2);
+    }
+
+    @Test
+    public void testMergeSplitSegments() {
+        Segment[] segments = Segment.computeSegments(0, 1, 2);
+
+        assertEquals(2, segments[0].mergeableSegmentId());
+        assertEquals(0, segments[2].mergeableSegmentId());
+        assertEquals(new Segment(0, 1), segments[0].mergedWith(segments[2]));
+        assertEquals(new Segment(0, 1), segments[2].mergedWith(segments[0]));
+        assertEquals(Segment.ROOT_SEGMENT, new Segment(1, 1).mergedWith(new Segment(0, 1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeSegmentsWithDifferentMaskFails() {
+        new Segment(0, 3).mergedWith(new Segment(1, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeRootSegmentFails() {
+        Segment.ROOT_SEGMENT.mergedWith(Segment.ROOT_SEGMENT);
+    }
+
+    private void assertEachValueMatchesExactlyOneSegment(Segment[] segments) {
+        for (int i = 0; i < 1000; i++) {
+            String value = UUID.randomUUID().toString();
+            long matches = Arrays.stream(segments).filter(s -> s.matches(value)).count();
+            assertEquals("Expected value to match exactly one segment", 1, matches);
+        }
+    }
+}
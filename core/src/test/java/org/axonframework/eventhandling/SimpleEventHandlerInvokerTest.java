@@ -20,8 +20,11 @@
 
 import static org.axonframework.eventsourcing.eventstore.EventStoreTestUtils.createEvent;
 import static org.axonframework.eventsourcing.eventstore.EventStoreTestUtils.createEvents;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * @author Rene de Waele
@@ -59,4 +62,28 @@ public void testRepeatedEventPublication() throws Exception {
         inOrder.verify(mockListener2).handle(events.get(1));
         inOrder.verifyNoMoreInteractions();
     }
+
+    @Test
+    public void testHasHandlerWhenAnyListenerCanHandleEvent() {
+        EventListener mockListener1 = mock(EventListener.class);
+        EventListener mockListener2 = mock(EventListener.class);
+        SimpleEventHandlerInvoker subject = new SimpleEventHandlerInvoker("test", mockListener1, mockListener2);
+        EventMessage<?> event = createEvent();
+
+        assertFalse(subject.hasHandler(event));
+        when(mockListener2.canHandle(event)).thenReturn(true);
+        assertTrue(subject.hasHandler(event));
+    }
+
+    @Test
+    public void testAnnotatedListenerOnlyHandlesEventsOfHandledPayloadTypes() {
+        SimpleEventHandlerInvoker subject = new SimpleEventHandlerInvoker(new Object() {
+            @EventHandler
+            public void handle(String event) {
+            }
+        });
+
+        assertTrue(subject.hasHandler(GenericEventMessage.asEventMessage("payload")));
+        assertFalse(subject.hasHandler(GenericEventMessage.asEventMessage(42)));
+    }
 }
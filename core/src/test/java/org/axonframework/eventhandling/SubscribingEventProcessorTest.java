@@ -15,15 +15,21 @@
 
 package org.axonframework.eventhandling;
 
+import org.axonframework.eventsourcing.DomainEventMessage;
 import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
 import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.axonframework.monitoring.MessageMonitor;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
+import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertTrue;
 import static org.axonframework.eventsourcing.eventstore.EventStoreTestUtils.createEvents;
 import static org.mockito.Mockito.*;
@@ -39,6 +45,7 @@ public class SubscribingEventProcessorTest {
     @Before
     public void setUp() throws Exception {
         mockListener = mock(EventListener.class);
+        when(mockListener.canHandle(any())).thenReturn(true);
         eventHandlerInvoker = new SimpleEventHandlerInvoker(mockListener);
         eventBus = new EmbeddedEventStore(new InMemoryEventStorageEngine());
         testSubject = new SubscribingEventProcessor("test", eventHandlerInvoker, eventBus);
@@ -65,4 +72,31 @@ public void testRestartSubscribingEventProcessor() throws Exception {
         eventBus.publish(createEvents(2));
         assertTrue("Expected listener to have received 2 published events", countDownLatch.await(5, TimeUnit.SECONDS));
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testEventsWithoutInterestedListenerAreReportedAsIgnored() throws Exception {
+        MessageMonitor<EventMessage<?>> messageMonitor = mock(MessageMonitor.class);
+        MessageMonitor.MonitorCallback monitorCallback = mock(MessageMonitor.MonitorCallback.class);
+        when(messageMonitor.onMessageIngested(any())).thenReturn(monitorCallback);
+        List<DomainEventMessage<?>> events = createEvents(2);
+        when(mockListener.canHandle(events.get(0))).thenReturn(false);
+        List<UnitOfWork<?>> unitsOfWork = new ArrayList<>();
+        testSubject = new SubscribingEventProcessor("test", eventHandlerInvoker, eventBus,
+                                                    DirectEventProcessingStrategy.INSTANCE,
+                                                    PropagatingErrorHandler.INSTANCE, messageMonitor);
+        testSubject.registerInterceptor((unitOfWork, interceptorChain) -> {
+            unitsOfWork.add(unitOfWork);
+            return interceptorChain.proceed();
+        });
+        testSubject.start();
+
+        eventBus.publish(events);
+
+        verify(mockListener, never()).handle(events.get(0));
+        verify(mockListener).handle(events.get(1));
+        assertEquals(1, unitsOfWork.size());
+        verify(monitorCallback).reportIgnored();
+        verify(monitorCallback).reportSuccess();
+    }
 }
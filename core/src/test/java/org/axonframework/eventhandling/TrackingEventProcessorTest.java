@@ -19,25 +19,39 @@
 import org.axonframework.common.transaction.NoTransactionManager;
 import org.axonframework.eventhandling.tokenstore.TokenStore;
 import org.axonframework.eventhandling.tokenstore.inmemory.InMemoryTokenStore;
+import org.axonframework.eventsourcing.DomainEventMessage;
 import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
 import org.axonframework.eventsourcing.eventstore.GlobalSequenceTrackingToken;
+import org.axonframework.eventsourcing.eventstore.SkippedEvents;
 import org.axonframework.eventsourcing.eventstore.TrackingEventStream;
 import org.axonframework.eventsourcing.eventstore.TrackingToken;
 import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.axonframework.messaging.unitofwork.RollbackConfigurationType;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.axonframework.monitoring.NoOpMessageMonitor;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.springframework.test.annotation.DirtiesContext;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
 
 import static java.util.stream.Collectors.toList;
 import static junit.framework.TestCase.*;
+import static org.junit.Assert.assertArrayEquals;
 import static org.axonframework.eventsourcing.eventstore.EventStoreTestUtils.createEvent;
 import static org.axonframework.eventsourcing.eventstore.EventStoreTestUtils.createEvents;
 import static org.axonframework.eventsourcing.eventstore.EventUtils.asTrackedEventMessage;
@@ -98,6 +112,7 @@ public void close() {
     public void setUp() throws Exception {
         tokenStore = spy(new InMemoryTokenStore());
         mockListener = mock(EventListener.class);
+        when(mockListener.canHandle(any())).thenReturn(true);
         eventHandlerInvoker = new SimpleEventHandlerInvoker(mockListener);
         eventBus = new EmbeddedEventStore(new InMemoryEventStorageEngine());
         testSubject = new TrackingEventProcessor("test", eventHandlerInvoker, eventBus, tokenStore, NoTransactionManager.INSTANCE);
@@ -136,6 +151,33 @@ public void testTokenIsStoredWhenEventIsRead() throws Exception {
         assertNotNull(tokenStore.fetchToken(testSubject.getName(), 0));
     }
 
+    @Test
+    public void testEventsWithoutInterestedListenerOnlyAdvanceToken() throws Exception {
+        when(mockListener.canHandle(any())).thenReturn(false);
+        List<UnitOfWork<?>> unitsOfWork = new CopyOnWriteArrayList<>();
+        testSubject.registerInterceptor(((unitOfWork, interceptorChain) -> {
+            unitsOfWork.add(unitOfWork);
+            return interceptorChain.proceed();
+        }));
+        testSubject.start();
+        eventBus.publish(createEvents(3));
+
+        waitForCondition(() -> new GlobalSequenceTrackingToken(2)
+                .equals(tokenStore.fetchToken(testSubject.getName(), 0)));
+        verify(mockListener, never()).handle(any());
+        assertTrue(unitsOfWork.isEmpty());
+    }
+
+    @Test
+    public void testSkippedEventsOnlyAdvanceToken() throws Exception {
+        testSubject.start();
+        eventBus.publish(new GenericEventMessage<>(SkippedEvents.INSTANCE));
+
+        waitForCondition(() -> new GlobalSequenceTrackingToken(0)
+                .equals(tokenStore.fetchToken(testSubject.getName(), 0)));
+        verify(mockListener, never()).handle(any());
+    }
+
     @Test
     public void testTokenIsNotStoredWhenUnitOfWorkIsRolledBack() throws Exception {
         CountDownLatch countDownLatch = new CountDownLatch(1);
@@ -218,6 +260,9 @@ public void testContinueAfterPause() throws Exception {
         assertTrue("Expected 4 invocations on event listener by now", countDownLatch2.await(5, TimeUnit.SECONDS));
         assertEquals(4, ackedEvents.size());
 
+        // the token is stored when the unit of work commits, after the listener returns
+        testSubject.pause();
+        waitForCondition(() -> testSubject.activeProcessorThreads() == 0);
         // batch size = 1
         verify(tokenStore, times(4)).storeToken(any(), anyString(), anyInt());
     }
@@ -320,4 +365,301 @@ public void testEventProcessorIsReEntrant() throws Exception {
 
     }
 
+    @Test
+    @DirtiesContext
+    public void testSegmentedProcessorHandlesEachAggregateInSingleThread() throws Exception {
+        Map<String, String> threadPerAggregate = new ConcurrentHashMap<>();
+        List<String> violations = new CopyOnWriteArrayList<>();
+        CountDownLatch countDownLatch = new CountDownLatch(40);
+        doAnswer(invocation -> {
+            String aggregateId = ((DomainEventMessage<?>) invocation.getArguments()[0]).getAggregateIdentifier();
+            String thread = Thread.currentThread().getName() + Thread.currentThread().getId();
+            if (!thread.equals(threadPerAggregate.computeIfAbsent(aggregateId, id -> thread))) {
+                violations.add(aggregateId);
+            }
+            countDownLatch.countDown();
+            return null;
+        }).when(mockListener).handle(any());
+
+        testSubject = new TrackingEventProcessor("test", eventHandlerInvoker, RollbackConfigurationType.ANY_THROWABLE,
+                                                 PropagatingErrorHandler.INSTANCE, eventBus, tokenStore,
+                                                 NoTransactionManager.INSTANCE, NoOpMessageMonitor.INSTANCE,
+                                                 TrackingEventProcessorConfiguration.forParallelProcessing(2));
+        testSubject.start();
+        eventBus.publish(IntStream.range(0, 40).mapToObj(i -> createEvent("aggregate" + (i % 8), i / 8))
+                                 .collect(toList()));
+
+        assertTrue("Expected all events to be handled", countDownLatch.await(5, TimeUnit.SECONDS));
+        assertTrue("Expected events of each aggregate to be handled by one thread", violations.isEmpty());
+        assertEquals(2, tokenStore.fetchSegments(testSubject.getName()).length);
+        assertEquals(2, testSubject.activeProcessorThreads());
+        verify(mockListener, times(40)).handle(any());
+    }
+
+    @Test
+    public void testSplitSegmentCreatesSegmentStartingAtSameToken() throws Exception {
+        CountDownLatch countDownLatch = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            countDownLatch.countDown();
+            return null;
+        }).when(mockListener).handle(any());
+        testSubject = new TrackingEventProcessor("test", eventHandlerInvoker, RollbackConfigurationType.ANY_THROWABLE,
+                                                 PropagatingErrorHandler.INSTANCE, eventBus, tokenStore,
+                                                 NoTransactionManager.INSTANCE, NoOpMessageMonitor.INSTANCE,
+                                                 TrackingEventProcessorConfiguration.forParallelProcessing(2)
+                                                                                    .andInitialSegmentsCount(1));
+        testSubject.start();
+        eventBus.publish(createEvents(2));
+        assertTrue("Expected listener to have received 2 published events", countDownLatch.await(5, TimeUnit.SECONDS));
+
+        assertTrue(testSubject.splitSegment(0).get(5, TimeUnit.SECONDS));
+
+        assertArrayEquals(new int[]{0, 1}, tokenStore.fetchSegments(testSubject.getName()));
+        assertEquals(tokenStore.fetchToken(testSubject.getName(), 0), tokenStore.fetchToken(testSubject.getName(), 1));
+        waitForCondition(() -> testSubject.activeProcessorThreads() == 2);
+        assertArrayEquals(new Segment[]{new Segment(0, 1), new Segment(1, 1)}, testSubject.activeSegments());
+    }
+
+    @Test
+    public void testMergeSegmentsContinuesFromLowestToken() throws Exception {
+        CountDownLatch countDownLatch = new CountDownLatch(4);
+        doAnswer(invocation -> {
+            countDownLatch.countDown();
+            return null;
+        }).when(mockListener).handle(any());
+        testSubject = new TrackingEventProcessor("test", eventHandlerInvoker, RollbackConfigurationType.ANY_THROWABLE,
+                                                 PropagatingErrorHandler.INSTANCE, eventBus, tokenStore,
+                                                 NoTransactionManager.INSTANCE, NoOpMessageMonitor.INSTANCE,
+                                                 TrackingEventProcessorConfiguration.forParallelProcessing(2));
+        testSubject.start();
+        waitForCondition(() -> testSubject.activeProcessorThreads() == 2);
+        eventBus.publish(createEvents(4));
+        assertTrue("Expected listener to have received 4 published events", countDownLatch.await(5, TimeUnit.SECONDS));
+
+        assertTrue(testSubject.mergeSegment(1).get(5, TimeUnit.SECONDS));
+
+        assertArrayEquals(new int[]{0}, tokenStore.fetchSegments(testSubject.getName()));
+        waitForCondition(() -> testSubject.activeProcessorThreads() == 1);
+        assertArrayEquals(new Segment[]{Segment.ROOT_SEGMENT}, testSubject.activeSegments());
+    }
+
+    @Test
+    public void testFailedMergeKeepsBothSegments() throws Exception {
+        CountDownLatch countDownLatch = new CountDownLatch(4);
+        doAnswer(invocation -> {
+            countDownLatch.countDown();
+            return null;
+        }).when(mockListener).handle(any());
+        testSubject = new TrackingEventProcessor("test", eventHandlerInvoker, RollbackConfigurationType.ANY_THROWABLE,
+                                                 PropagatingErrorHandler.INSTANCE, eventBus, tokenStore,
+                                                 NoTransactionManager.INSTANCE, NoOpMessageMonitor.INSTANCE,
+                                                 TrackingEventProcessorConfiguration.forParallelProcessing(2));
+        testSubject.start();
+        waitForCondition(() -> testSubject.activeProcessorThreads() == 2);
+        eventBus.publish(createEvents(4));
+        assertTrue("Expected listener to have received 4 published events", countDownLatch.await(5, TimeUnit.SECONDS));
+
+        doThrow(new MockException()).doCallRealMethod().when(tokenStore).deleteToken(anyString(), eq(1));
+        assertFalse(testSubject.mergeSegment(1).get(5, TimeUnit.SECONDS));
+
+        assertArrayEquals(new int[]{0, 1}, tokenStore.fetchSegments(testSubject.getName()));
+        assertTrue("Expected a retry of the merge to succeed", testSubject.mergeSegment(1).get(5, TimeUnit.SECONDS));
+        assertArrayEquals(new int[]{0}, tokenStore.fetchSegments(testSubject.getName()));
+    }
+
+    @Test
+    public void testSegmentMergedByAnotherNodeBeforeClaimIsNotRecreated() throws Exception {
+        tokenStore.initializeTokenSegments("test", 2);
+        AtomicBoolean merged = new AtomicBoolean();
+        doAnswer(invocation -> {
+            int[] segments = (int[]) invocation.callRealMethod();
+            if (segments.length == 2 && merged.compareAndSet(false, true)) {
+                // another node merges segment 1 into segment 0 after the segments have been fetched
+                tokenStore.claimToken("test", 1);
+                tokenStore.deleteToken("test", 1);
+            }
+            return segments;
+        }).when(tokenStore).fetchSegments("test");
+        testSubject = new TrackingEventProcessor("test", eventHandlerInvoker, RollbackConfigurationType.ANY_THROWABLE,
+                                                 PropagatingErrorHandler.INSTANCE, eventBus, tokenStore,
+                                                 NoTransactionManager.INSTANCE, NoOpMessageMonitor.INSTANCE,
+                                                 TrackingEventProcessorConfiguration.forParallelProcessing(2));
+        testSubject.start();
+
+        // the first claim is made by the merging node, the second by the processor
+        verify(tokenStore, timeout(5000).times(2)).claimToken("test", 1);
+        waitForCondition(() -> Arrays.equals(new Segment[]{new Segment(0, 1)}, testSubject.activeSegments()));
+        eventBus.publish(createEvents(4));
+        verify(tokenStore, timeout(5000).atLeastOnce()).storeToken(any(), eq("test"), eq(0));
+
+        assertArrayEquals(new int[]{0}, tokenStore.fetchSegments("test"));
+        verify(tokenStore, never()).storeToken(any(), anyString(), eq(1));
+    }
+
+    @Test
+    public void testSplitAndMergeRefusedWhenTokenStoreDoesNotSupportSegmentChanges() throws Exception {
+        doReturn(false).when(tokenStore).supportsSegmentChanges();
+        testSubject.start();
+        waitForCondition(() -> testSubject.activeProcessorThreads() == 1);
+
+        try {
+            testSubject.splitSegment(0);
+            fail("Expected split to be refused");
+        } catch (UnsupportedOperationException e) {
+            assertTrue(e.getMessage().contains("does not support segment changes"));
+        }
+        try {
+            testSubject.mergeSegment(0);
+            fail("Expected merge to be refused");
+        } catch (UnsupportedOperationException e) {
+            assertTrue(e.getMessage().contains("does not support segment changes"));
+        }
+        assertArrayEquals(new int[]{0}, tokenStore.fetchSegments(testSubject.getName()));
+    }
+
+    @Test
+    public void testTokenIsStoredAfterConfiguredNumberOfEvents() throws Exception {
+        List<TrackingToken> handledTokens = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            handledTokens.add(((TrackedEventMessage<?>) invocation.getArguments()[0]).trackingToken());
+            return null;
+        }).when(mockListener).handle(any());
+        testSubject = new TrackingEventProcessor("test", eventHandlerInvoker, RollbackConfigurationType.ANY_THROWABLE,
+                                                 PropagatingErrorHandler.INSTANCE, eventBus, tokenStore,
+                                                 NoTransactionManager.INSTANCE, NoOpMessageMonitor.INSTANCE,
+                                                 TrackingEventProcessorConfiguration.forSingleThreadedProcessing()
+                                                         .andTokenStoreThreshold(5, 1, TimeUnit.MINUTES));
+        eventBus.publish(createEvents(10));
+        testSubject.start();
+
+        verify(tokenStore, timeout(5000).times(2)).storeToken(any(), anyString(), anyInt());
+        assertEquals(10, handledTokens.size());
+        verify(tokenStore).storeToken(handledTokens.get(4), testSubject.getName(), 0);
+        verify(tokenStore).storeToken(handledTokens.get(9), testSubject.getName(), 0);
+    }
+
+    @Test
+    public void testTokenIsStoredAfterConfiguredNumberOfEventsOnlyWhenIntervalIsZero() throws Exception {
+        List<TrackingToken> handledTokens = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            handledTokens.add(((TrackedEventMessage<?>) invocation.getArguments()[0]).trackingToken());
+            return null;
+        }).when(mockListener).handle(any());
+        testSubject = new TrackingEventProcessor("test", eventHandlerInvoker, RollbackConfigurationType.ANY_THROWABLE,
+                                                 PropagatingErrorHandler.INSTANCE, eventBus, tokenStore,
+                                                 NoTransactionManager.INSTANCE, NoOpMessageMonitor.INSTANCE,
+                                                 TrackingEventProcessorConfiguration.forSingleThreadedProcessing()
+                                                         .andTokenStoreThreshold(5, 0, TimeUnit.MILLISECONDS));
+        eventBus.publish(createEvents(10));
+        testSubject.start();
+
+        verify(tokenStore, timeout(5000).times(2)).storeToken(any(), anyString(), anyInt());
+        assertEquals(10, handledTokens.size());
+        verify(tokenStore).storeToken(handledTokens.get(4), testSubject.getName(), 0);
+        verify(tokenStore).storeToken(handledTokens.get(9), testSubject.getName(), 0);
+    }
+
+    @Test
+    public void testClaimIsExtendedWhileDeferredTokenIsNotStored() throws Exception {
+        CountDownLatch countDownLatch = new CountDownLatch(10);
+        doAnswer(invocation -> {
+            countDownLatch.countDown();
+            return null;
+        }).when(mockListener).handle(any());
+        testSubject = new TrackingEventProcessor("test", eventHandlerInvoker, RollbackConfigurationType.ANY_THROWABLE,
+                                                 PropagatingErrorHandler.INSTANCE, eventBus, tokenStore,
+                                                 NoTransactionManager.INSTANCE, NoOpMessageMonitor.INSTANCE,
+                                                 TrackingEventProcessorConfiguration.forSingleThreadedProcessing()
+                                                         .andTokenStoreThreshold(100, 0, TimeUnit.MILLISECONDS)
+                                                         .andClaimExtensionInterval(0, TimeUnit.MILLISECONDS));
+        eventBus.publish(createEvents(10));
+        testSubject.start();
+        assertTrue("Expected listener to have received 10 events", countDownLatch.await(5, TimeUnit.SECONDS));
+
+        verify(tokenStore, timeout(5000)).storeToken(any(), eq(testSubject.getName()), eq(0));
+        InOrder inOrder = inOrder(tokenStore);
+        inOrder.verify(tokenStore, atLeastOnce()).extendClaim(testSubject.getName(), 0);
+        inOrder.verify(tokenStore).storeToken(any(), eq(testSubject.getName()), eq(0));
+    }
+
+    @Test
+    public void testPendingTokenIsStoredWhenProcessorIsIdle() throws Exception {
+        CountDownLatch countDownLatch = new CountDownLatch(3);
+        doAnswer(invocation -> {
+            countDownLatch.countDown();
+            return null;
+        }).when(mockListener).handle(any());
+        testSubject = new TrackingEventProcessor("test", eventHandlerInvoker, RollbackConfigurationType.ANY_THROWABLE,
+                                                 PropagatingErrorHandler.INSTANCE, eventBus, tokenStore,
+                                                 NoTransactionManager.INSTANCE, NoOpMessageMonitor.INSTANCE,
+                                                 TrackingEventProcessorConfiguration.forSingleThreadedProcessing()
+                                                         .andTokenStoreThreshold(100, 1, TimeUnit.MINUTES));
+        testSubject.start();
+        eventBus.publish(createEvents(3));
+        assertTrue("Expected listener to have received 3 published events", countDownLatch.await(5, TimeUnit.SECONDS));
+
+        verify(tokenStore, timeout(5000)).storeToken(any(), anyString(), anyInt());
+        TrackingToken storedToken = tokenStore.fetchToken(testSubject.getName(), 0);
+        assertEquals(storedToken, eventBus.openStream(null).asStream().skip(2).findFirst()
+                .map(TrackedEventMessage::trackingToken).orElse(null));
+    }
+
+    @Test
+    public void testAdaptiveBatchSizeGrowsWhileCatchingUp() throws Exception {
+        CountDownLatch countDownLatch = new CountDownLatch(30);
+        doAnswer(invocation -> {
+            countDownLatch.countDown();
+            return null;
+        }).when(mockListener).handle(any());
+        testSubject = new TrackingEventProcessor("test", eventHandlerInvoker, RollbackConfigurationType.ANY_THROWABLE,
+                                                 PropagatingErrorHandler.INSTANCE, eventBus, tokenStore,
+                                                 NoTransactionManager.INSTANCE, NoOpMessageMonitor.INSTANCE,
+                                                 TrackingEventProcessorConfiguration.forSingleThreadedProcessing()
+                                                         .andAdaptiveBatchSize(8, 1, TimeUnit.MINUTES));
+        eventBus.publish(createEvents(30));
+        testSubject.start();
+        assertTrue("Expected listener to have received 30 events", countDownLatch.await(5, TimeUnit.SECONDS));
+
+        // batches of 1, 2, 4, 8, 8 and 7 events
+        verify(tokenStore, timeout(1000).atLeastOnce()).storeToken(any(), anyString(), anyInt());
+        verify(tokenStore, atMost(6)).storeToken(any(), anyString(), anyInt());
+    }
+
+    @Test
+    public void testAdaptiveBatchSizeDoesNotGrowWhenHandlingIsSlow() throws Exception {
+        CountDownLatch countDownLatch = new CountDownLatch(5);
+        doAnswer(invocation -> {
+            Thread.sleep(20);
+            countDownLatch.countDown();
+            return null;
+        }).when(mockListener).handle(any());
+        testSubject = new TrackingEventProcessor("test", eventHandlerInvoker, RollbackConfigurationType.ANY_THROWABLE,
+                                                 PropagatingErrorHandler.INSTANCE, eventBus, tokenStore,
+                                                 NoTransactionManager.INSTANCE, NoOpMessageMonitor.INSTANCE,
+                                                 TrackingEventProcessorConfiguration.forSingleThreadedProcessing()
+                                                         .andAdaptiveBatchSize(8, 10, TimeUnit.MILLISECONDS));
+        eventBus.publish(createEvents(5));
+        testSubject.start();
+        assertTrue("Expected listener to have received 5 events", countDownLatch.await(5, TimeUnit.SECONDS));
+
+        verify(tokenStore, timeout(1000).times(5)).storeToken(any(), anyString(), anyInt());
+    }
+
+    @Test
+    public void testSplitAndMergeOfInactiveSegmentReturnsFalse() throws Exception {
+        testSubject.start();
+        waitForCondition(() -> testSubject.activeProcessorThreads() == 1);
+
+        assertFalse(testSubject.splitSegment(1).get(5, TimeUnit.SECONDS));
+        assertFalse(testSubject.mergeSegment(1).get(5, TimeUnit.SECONDS));
+        assertFalse("The root segment cannot be merged", testSubject.mergeSegment(0).get(5, TimeUnit.SECONDS));
+    }
+
+    private static void waitForCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Condition not met in time", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
 }
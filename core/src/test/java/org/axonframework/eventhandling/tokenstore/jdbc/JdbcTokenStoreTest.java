@@ -100,6 +100,62 @@ public void testClaimAndUpdateTokenWithoutTransaction() throws Exception {
         assertEquals(token, tokenStore.fetchToken("test", 0));
     }
 
+    @Test
+    public void testInitializeTokenSegmentsAndFetchSegments() {
+        transactionManager.executeInTransaction(() -> tokenStore.initializeTokenSegments("segmented", 3));
+        transactionManager.executeInTransaction(
+                () -> assertArrayEquals(new int[]{0, 1, 2}, tokenStore.fetchSegments("segmented")));
+        transactionManager.executeInTransaction(() -> assertNull(tokenStore.fetchToken("segmented", 1)));
+        // initialized segments are not claimed by the initializing node
+        transactionManager.executeInTransaction(() -> assertNull(concurrentTokenStore.fetchToken("segmented", 2)));
+    }
+
+    @Test(expected = UnableToClaimTokenException.class)
+    public void testInitializeTokenSegmentsFailsWhenSegmentsExist() {
+        transactionManager.executeInTransaction(() -> tokenStore.fetchToken("segmented", 0));
+        transactionManager.executeInTransaction(() -> tokenStore.initializeTokenSegments("segmented", 2));
+    }
+
+    @Test
+    public void testInitializeSegmentAndDeleteToken() {
+        GlobalSequenceTrackingToken token = new GlobalSequenceTrackingToken(5);
+        transactionManager.executeInTransaction(() -> tokenStore.initializeTokenSegments("split", 1));
+        transactionManager.executeInTransaction(() -> tokenStore.initializeSegment(token, "split", 1));
+
+        transactionManager.executeInTransaction(() -> {
+            assertArrayEquals(new int[]{0, 1}, tokenStore.fetchSegments("split"));
+            assertEquals(token, tokenStore.fetchToken("split", 1));
+            tokenStore.deleteToken("split", 1);
+            assertArrayEquals(new int[]{0}, tokenStore.fetchSegments("split"));
+        });
+    }
+
+    @Test(expected = UnableToClaimTokenException.class)
+    public void testDeleteUnclaimedTokenFails() {
+        transactionManager.executeInTransaction(() -> tokenStore.initializeTokenSegments("split", 2));
+        transactionManager.executeInTransaction(() -> tokenStore.deleteToken("split", 1));
+    }
+
+    @Test
+    public void testClaimTokenOfMergedSegmentFailsWithoutRecreatingIt() {
+        transactionManager.executeInTransaction(() -> tokenStore.initializeTokenSegments("merge", 2));
+        int[] segments = transactionManager.fetchInTransaction(() -> concurrentTokenStore.fetchSegments("merge"));
+        transactionManager.executeInTransaction(() -> {
+            tokenStore.claimToken("merge", 1);
+            tokenStore.deleteToken("merge", 1);
+        });
+
+        assertArrayEquals(new int[]{0, 1}, segments);
+        try {
+            transactionManager.executeInTransaction(() -> concurrentTokenStore.claimToken("merge", 1));
+            fail("Expected UnableToClaimTokenException");
+        } catch (UnableToClaimTokenException e) {
+            // expected
+        }
+        transactionManager.executeInTransaction(
+                () -> assertArrayEquals(new int[]{0}, concurrentTokenStore.fetchSegments("merge")));
+    }
+
     @Test
     public void testClaimTokenConcurrently() {
         transactionManager.executeInTransaction(() -> assertNull(tokenStore.fetchToken("concurrent", 0)));
@@ -87,6 +87,61 @@ public void testClaimAndUpdateToken() throws Exception {
         assertNull(token.getOwner());
     }
 
+    @Transactional
+    @Test
+    public void testInitializeTokenSegmentsAndFetchSegments() {
+        jpaTokenStore.initializeTokenSegments("segmented", 3, new GlobalSequenceTrackingToken(4L));
+
+        assertArrayEquals(new int[]{0, 1, 2}, jpaTokenStore.fetchSegments("segmented"));
+        assertEquals(new GlobalSequenceTrackingToken(4L), jpaTokenStore.fetchToken("segmented", 2));
+        assertEquals(new GlobalSequenceTrackingToken(4L), concurrentJpaTokenStore.fetchToken("segmented", 1));
+    }
+
+    @Transactional
+    @Test(expected = UnableToClaimTokenException.class)
+    public void testInitializeTokenSegmentsFailsWhenSegmentsExist() {
+        jpaTokenStore.fetchToken("segmented", 0);
+        jpaTokenStore.initializeTokenSegments("segmented", 2);
+    }
+
+    @Transactional
+    @Test
+    public void testInitializeSegmentAndDeleteToken() {
+        GlobalSequenceTrackingToken token = new GlobalSequenceTrackingToken(5);
+        jpaTokenStore.initializeTokenSegments("split", 1);
+        jpaTokenStore.initializeSegment(token, "split", 1);
+
+        assertArrayEquals(new int[]{0, 1}, jpaTokenStore.fetchSegments("split"));
+        assertEquals(token, jpaTokenStore.fetchToken("split", 1));
+        jpaTokenStore.deleteToken("split", 1);
+        assertArrayEquals(new int[]{0}, jpaTokenStore.fetchSegments("split"));
+    }
+
+    @Transactional
+    @Test(expected = UnableToClaimTokenException.class)
+    public void testDeleteUnclaimedTokenFails() {
+        jpaTokenStore.initializeTokenSegments("split", 2);
+        jpaTokenStore.deleteToken("split", 1);
+    }
+
+    @Transactional
+    @Test
+    public void testClaimTokenOfMergedSegmentFailsWithoutRecreatingIt() {
+        jpaTokenStore.initializeTokenSegments("merge", 2);
+        int[] segments = concurrentJpaTokenStore.fetchSegments("merge");
+        jpaTokenStore.claimToken("merge", 1);
+        jpaTokenStore.deleteToken("merge", 1);
+
+        assertArrayEquals(new int[]{0, 1}, segments);
+        try {
+            concurrentJpaTokenStore.claimToken("merge", 1);
+            fail("Expected UnableToClaimTokenException");
+        } catch (UnableToClaimTokenException e) {
+            // expected
+        }
+        assertArrayEquals(new int[]{0}, concurrentJpaTokenStore.fetchSegments("merge"));
+    }
+
     @Transactional
     @Test
     public void testClaimTokenConcurrently() throws Exception {
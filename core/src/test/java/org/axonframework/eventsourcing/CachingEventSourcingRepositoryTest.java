@@ -24,6 +24,7 @@
 import org.axonframework.common.MockException;
 import org.axonframework.common.caching.Cache;
 import org.axonframework.common.caching.EhCacheAdapter;
+import org.axonframework.common.lock.NullLockFactory;
 import org.axonframework.eventhandling.EventMessage;
 import org.axonframework.eventsourcing.eventstore.DomainEventStream;
 import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
@@ -32,6 +33,7 @@
 import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
 import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
 import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.axonframework.monitoring.AggregateLoadMonitor;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -70,6 +72,12 @@ public void tearDown() {
         }
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testOptimisticLockingIsRejected() {
+        new CachingEventSourcingRepository<>(new StubAggregateFactory(), mockEventStore, NullLockFactory.INSTANCE,
+                                             cache, NoSnapshotTriggerDefinition.INSTANCE);
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     public void testAggregatesRetrievedFromCache() throws Exception {
@@ -116,6 +124,29 @@ public void testAggregatesRetrievedFromCache() throws Exception {
                      reloadedAggregate1.version());
     }
 
+    @Test
+    public void testAggregateLoadMonitorNotifiedOfCacheHitsAndMisses() throws Exception {
+        AggregateLoadMonitor aggregateLoadMonitor = mock(AggregateLoadMonitor.class);
+        testSubject.setAggregateLoadMonitor(aggregateLoadMonitor);
+
+        startAndGetUnitOfWork();
+        Aggregate<StubAggregate> aggregate = testSubject.newInstance(() -> new StubAggregate("aggregateId"));
+        aggregate.execute(StubAggregate::doSomething);
+        CurrentUnitOfWork.commit();
+
+        startAndGetUnitOfWork();
+        testSubject.load("aggregateId").execute(StubAggregate::doSomething);
+        CurrentUnitOfWork.commit();
+        verify(aggregateLoadMonitor).onLoadedFromCache(anyLong());
+
+        ehCache.removeAll();
+        startAndGetUnitOfWork();
+        testSubject.load("aggregateId");
+        CurrentUnitOfWork.commit();
+        verify(aggregateLoadMonitor).onLoadedFromEventStore(anyLong(), eq(2L));
+        verifyNoMoreInteractions(aggregateLoadMonitor);
+    }
+
     @Test
     public void testLoadDeletedAggregate() throws Exception {
         String identifier = "aggregateId";
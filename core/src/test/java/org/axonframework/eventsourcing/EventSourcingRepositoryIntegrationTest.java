@@ -19,25 +19,47 @@
 import org.axonframework.commandhandling.model.Aggregate;
 import org.axonframework.commandhandling.model.AggregateIdentifier;
 import org.axonframework.commandhandling.model.AggregateLifecycle;
+import org.axonframework.commandhandling.SimpleCommandBus;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.commandhandling.gateway.DefaultCommandGateway;
+import org.axonframework.commandhandling.gateway.IntervalRetryScheduler;
 import org.axonframework.commandhandling.model.ConcurrencyException;
+import org.axonframework.common.jdbc.ConnectionProvider;
+import org.axonframework.common.jdbc.UnitOfWorkAwareConnectionProviderWrapper;
+import org.axonframework.common.lock.LockFactory;
+import org.axonframework.common.lock.NullLockFactory;
+import org.axonframework.common.lock.PessimisticLockFactory;
+import org.axonframework.common.transaction.NoTransactionManager;
 import org.axonframework.eventhandling.EventBus;
 import org.axonframework.eventhandling.EventMessage;
 import org.axonframework.eventsourcing.eventstore.DomainEventStream;
 import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
+import org.axonframework.eventsourcing.eventstore.EventStorageEngine;
 import org.axonframework.eventsourcing.eventstore.EventStore;
 import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.jdbc.HsqlEventTableFactory;
+import org.axonframework.eventsourcing.eventstore.jdbc.JdbcEventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.jpa.SQLErrorCodesResolver;
 import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
 import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.hsqldb.jdbc.JDBCDataSource;
 import org.junit.Test;
 
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
@@ -65,13 +87,59 @@ public void testPessimisticLocking() throws Throwable {
         assertEquals(CONCURRENT_MODIFIERS, getSuccessfulModifications());
     }
 
+    @Test(timeout = 60000)
+    public void testOptimisticLocking() throws Throwable {
+        initializeRepository(NullLockFactory.INSTANCE, createJdbcStorageEngine());
+        long lastSequenceNumber = executeConcurrentModifications(CONCURRENT_MODIFIERS);
+
+        // with optimistic locking, concurrent modifications are rejected by the storage engine
+        assertTrue(getSuccessfulModifications() > 0);
+        assertEquals(2 * getSuccessfulModifications(), lastSequenceNumber);
+    }
+
+    @Test(timeout = 60000)
+    public void testOptimisticLockingWithRetryingCommandGateway() throws Throwable {
+        initializeRepository(NullLockFactory.INSTANCE, createJdbcStorageEngine());
+        SimpleCommandBus commandBus = new SimpleCommandBus();
+        commandBus.subscribe(String.class.getName(), command -> {
+            Aggregate<SimpleAggregateRoot> aggregate = repository.load((String) command.getPayload(), null);
+            aggregate.execute(SimpleAggregateRoot::doOperation);
+            aggregate.execute(SimpleAggregateRoot::doOperation);
+            return null;
+        });
+        ScheduledExecutorService retryExecutor = Executors.newSingleThreadScheduledExecutor();
+        CommandGateway commandGateway = new DefaultCommandGateway(
+                commandBus, new IntervalRetryScheduler(retryExecutor, 10, 10 * CONCURRENT_MODIFIERS));
+        ExecutorService senders = Executors.newFixedThreadPool(CONCURRENT_MODIFIERS);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < CONCURRENT_MODIFIERS; t++) {
+                results.add(senders.submit(() -> commandGateway.sendAndWait(aggregateIdentifier)));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            senders.shutdownNow();
+            retryExecutor.shutdownNow();
+        }
+
+        // conflicting commands are retried until they succeed
+        assertEquals(2 * CONCURRENT_MODIFIERS, readLastSequenceNumber());
+    }
+
     private int getSuccessfulModifications() {
         return CONCURRENT_MODIFIERS - uncaughtExceptions.size();
     }
 
     private void initializeRepository() throws Exception {
-        eventStore = new EmbeddedEventStore(new InMemoryEventStorageEngine());
-        repository = new EventSourcingRepository<>(new SimpleAggregateFactory(), eventStore);
+        initializeRepository(new PessimisticLockFactory(), new InMemoryEventStorageEngine());
+    }
+
+    private void initializeRepository(LockFactory lockFactory, EventStorageEngine storageEngine) throws Exception {
+        eventStore = new EmbeddedEventStore(storageEngine);
+        repository = new EventSourcingRepository<>(new SimpleAggregateFactory(), eventStore, lockFactory,
+                                                   NoSnapshotTriggerDefinition.INSTANCE);
         EventBus mockEventBus = mock(EventBus.class);
 
         UnitOfWork<?> uow = DefaultUnitOfWork.startAndGet(null);
@@ -82,6 +150,26 @@ private void initializeRepository() throws Exception {
         aggregateIdentifier = aggregate.invoke(SimpleAggregateRoot::getIdentifier);
     }
 
+    private EventStorageEngine createJdbcStorageEngine() throws SQLException {
+        JDBCDataSource dataSource = new JDBCDataSource();
+        dataSource.setUrl("jdbc:hsqldb:mem:optimistic-locking");
+        // connections are bound to the Unit of Work, so that a rejected batch of events is rolled back as a whole
+        ConnectionProvider connectionProvider = new UnitOfWorkAwareConnectionProviderWrapper(() -> {
+            Connection connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+            return connection;
+        });
+        JdbcEventStorageEngine storageEngine =
+                new JdbcEventStorageEngine(null, null, new SQLErrorCodesResolver(dataSource), connectionProvider,
+                                           NoTransactionManager.INSTANCE);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.prepareStatement("DROP TABLE IF EXISTS DomainEventEntry").executeUpdate();
+            connection.prepareStatement("DROP TABLE IF EXISTS SnapshotEventEntry").executeUpdate();
+        }
+        storageEngine.createSchema(HsqlEventTableFactory.INSTANCE);
+        return storageEngine;
+    }
+
     private long executeConcurrentModifications(final int concurrentModifiers) throws Throwable {
         CountDownLatch startSignal = new CountDownLatch(1);
         CountDownLatch threadsDone = new CountDownLatch(concurrentModifiers);
@@ -93,12 +181,19 @@ private long executeConcurrentModifications(final int concurrentModifiers) throw
             printDiagnosticInformation();
             fail("Thread found to be alive after timeout. It might be hanging");
         }
+        // exceptions are reported to the handler after the threads have counted down
+        for (Thread thread : startedThreads) {
+            thread.join();
+        }
         for (Throwable e : uncaughtExceptions) {
             if (!(e instanceof ConcurrencyException)) {
                 throw e;
             }
         }
+        return readLastSequenceNumber();
+    }
 
+    private long readLastSequenceNumber() {
         DomainEventStream committedEvents = eventStore.readEvents(aggregateIdentifier);
         long lastSequenceNumber = -1;
         while (committedEvents.hasNext()) {
@@ -13,11 +13,25 @@
 
 package org.axonframework.eventsourcing.eventstore;
 
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventsourcing.DomainEventMessage;
+import org.axonframework.eventsourcing.GenericDomainEventMessage;
+import org.axonframework.serialization.xml.XStreamSerializer;
 import org.junit.Test;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.stream.Collectors.toList;
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
 import static org.axonframework.eventsourcing.eventstore.EventStoreTestUtils.AGGREGATE;
+import static org.axonframework.eventsourcing.eventstore.EventStoreTestUtils.TYPE;
+import static org.axonframework.eventsourcing.eventstore.EventStoreTestUtils.createEvent;
 import static org.axonframework.eventsourcing.eventstore.EventStoreTestUtils.createEvents;
 
 /**
@@ -38,6 +52,90 @@ public void testLoad_LargeAmountOfEvents() {
                      testSubject.readEvents(AGGREGATE).asStream().reduce((a, b) -> b).get().getSequenceNumber());
     }
 
+    @Test
+    public void testLoadTrackedEventsWithPrefetching() {
+        int eventCount = testSubject.batchSize() * 3 + 10;
+        testSubject.appendEvents(createEvents(eventCount));
+        testSubject.setPrefetchExecutor(Runnable::run);
+        testSubject.setMaxPrefetchedBatches(2);
+
+        List<Long> sequenceNumbers = testSubject.readEvents(null, false)
+                .map(event -> ((DomainEventMessage<?>) event).getSequenceNumber()).collect(toList());
+
+        assertEquals(LongStream.range(0, eventCount).boxed().collect(toList()), sequenceNumbers);
+    }
+
+    @Test
+    public void testLoadTrackedEventsFilteredByPayloadType() {
+        int lastSequenceNumber = testSubject.batchSize() * 2 + 5;
+        List<DomainEventMessage<?>> events = new ArrayList<>();
+        events.add(new GenericDomainEventMessage<>(TYPE, AGGREGATE, 0, 0));
+        for (int i = 1; i < lastSequenceNumber; i++) {
+            events.add(createEvent(i));
+        }
+        events.add(new GenericDomainEventMessage<>(TYPE, AGGREGATE, lastSequenceNumber, 1));
+        testSubject.appendEvents(events);
+
+        String payloadType = new XStreamSerializer().typeForClass(Integer.class).getName();
+        List<? extends TrackedEventMessage<?>> filtered =
+                testSubject.readEvents(null, false, singleton(payloadType))
+                        .filter(event -> !SkippedEvents.isSkippedEvents(event)).collect(toList());
+        TrackedEventMessage<?> last = testSubject.readEvents(null, false).reduce((a, b) -> b).orElse(null);
+
+        assertEquals(asList(0L, (long) lastSequenceNumber), filtered.stream()
+                .map(event -> ((DomainEventMessage<?>) event).getSequenceNumber()).collect(toList()));
+        assertEquals(last.trackingToken(), filtered.get(1).trackingToken());
+        assertEquals(0, testSubject.readEvents(filtered.get(1).trackingToken(), false, singleton(payloadType)).count());
+    }
+
+    @Test
+    public void testLoadTrackedEventsFilteredByPayloadTypeReportsTokenOfSkippedEvents() {
+        int eventCount = testSubject.batchSize() * 2 + 5;
+        List<DomainEventMessage<?>> events = new ArrayList<>();
+        events.add(new GenericDomainEventMessage<>(TYPE, AGGREGATE, 0, 0));
+        for (int i = 1; i < eventCount; i++) {
+            events.add(createEvent(i));
+        }
+        testSubject.appendEvents(events);
+
+        String payloadType = new XStreamSerializer().typeForClass(Integer.class).getName();
+        List<? extends TrackedEventMessage<?>> filtered =
+                testSubject.readEvents(null, false, singleton(payloadType)).collect(toList());
+        TrackedEventMessage<?> last = testSubject.readEvents(null, false).reduce((a, b) -> b).orElse(null);
+        TrackedEventMessage<?> lastFiltered = filtered.get(filtered.size() - 1);
+
+        assertEquals(0L, ((DomainEventMessage<?>) filtered.get(0)).getSequenceNumber());
+        assertTrue(filtered.stream().skip(1).allMatch(SkippedEvents::isSkippedEvents));
+        assertEquals(SkippedEvents.INSTANCE, lastFiltered.getPayload());
+        assertEquals(last.trackingToken(), lastFiltered.trackingToken());
+        assertEquals(0, testSubject.readEvents(lastFiltered.trackingToken(), false, singleton(payloadType)).count());
+    }
+
+    @Test
+    public void testFetchTrackedEventsFilteredByPayloadTypeReportsTokenOfSkippedEntries() {
+        int eventCount = testSubject.batchSize() + 5;
+        List<DomainEventMessage<?>> events = new ArrayList<>();
+        events.add(new GenericDomainEventMessage<>(TYPE, AGGREGATE, 0, 0));
+        for (int i = 1; i < eventCount; i++) {
+            events.add(createEvent(i));
+        }
+        testSubject.appendEvents(events);
+        List<? extends TrackedEventMessage<?>> allEvents = testSubject.readEvents(null, false).collect(toList());
+
+        String payloadType = new XStreamSerializer().typeForClass(Integer.class).getName();
+        List<? extends TrackedEventData<?>> firstBatch =
+                testSubject.fetchTrackedEvents(null, testSubject.batchSize(), singleton(payloadType));
+        TrackingToken lastToken = firstBatch.get(firstBatch.size() - 1).trackingToken();
+        List<? extends TrackedEventData<?>> secondBatch =
+                testSubject.fetchTrackedEvents(lastToken, testSubject.batchSize(), singleton(payloadType));
+
+        assertEquals(allEvents.get(testSubject.batchSize() - 1).trackingToken(), lastToken);
+        assertEquals(allEvents.get(eventCount - 1).trackingToken(),
+                     secondBatch.get(secondBatch.size() - 1).trackingToken());
+        assertTrue(testSubject.fetchTrackedEvents(secondBatch.get(secondBatch.size() - 1).trackingToken(),
+                                                  testSubject.batchSize(), singleton(payloadType)).isEmpty());
+    }
+
     protected void setTestSubject(BatchingEventStorageEngine testSubject) {
         super.setTestSubject(this.testSubject = testSubject);
     }
@@ -30,16 +30,19 @@
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.toList;
 import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.fail;
 import static org.axonframework.eventsourcing.eventstore.EventStoreTestUtils.*;
+import static org.axonframework.eventsourcing.eventstore.EventUtils.asTrackedEventMessage;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
@@ -102,6 +105,44 @@ public void testEventPublishedAfterOpeningStreamIsPassedToReaderImmediately() th
         t.join();
     }
 
+    @Test(timeout = 5000)
+    public void testAllWaitingConsumersAreWokenUpWhenEventsArePublished() throws Exception {
+        int consumerCount = 10;
+        CountDownLatch lock = new CountDownLatch(consumerCount * 2);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < consumerCount; i++) {
+            TrackingEventStream stream = testSubject.openStream(null);
+            assertFalse(stream.hasNextAvailable());
+            Thread t = new Thread(() -> stream.asStream().limit(2).forEach(event -> lock.countDown()));
+            threads.add(t);
+            t.start();
+        }
+        assertFalse(lock.await(100, MILLISECONDS));
+        testSubject.publish(createEvents(2));
+        assertTrue(lock.await(FETCH_DELAY / 2, MILLISECONDS));
+        for (Thread t : threads) {
+            t.join();
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void testWaitingConsumerIsInterrupted() throws Exception {
+        TrackingEventStream stream = testSubject.openStream(null);
+        assertFalse(stream.hasNextAvailable());
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Thread t = new Thread(() -> {
+            try {
+                stream.nextAvailable();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        t.start();
+        assertFalse(interrupted.await(100, MILLISECONDS));
+        t.interrupt();
+        assertTrue(interrupted.await(1, SECONDS));
+    }
+
     @Test(timeout = 5000)
     public void testReadingIsBlockedWhenStoreIsEmpty() throws Exception {
         CountDownLatch lock = new CountDownLatch(1);
@@ -156,6 +197,95 @@ public void testEventIsFetchedFromCacheWhenFetchedASecondTime() throws Exception
         assertSame(events.get(1), second);
     }
 
+    @Test(timeout = 5000)
+    public void testStreamOpenedAtCachedTokenContinuesFromCache() throws Exception {
+        int eventCount = CACHED_EVENTS + 5;
+        CountDownLatch lock = new CountDownLatch(eventCount);
+        List<TrackedEventMessage<?>> events = new CopyOnWriteArrayList<>();
+        Thread t = new Thread(() -> testSubject.openStream(null).asStream().limit(eventCount).forEach(event -> {
+            events.add(event);
+            lock.countDown();
+        }));
+        t.start();
+        assertFalse(lock.await(100, MILLISECONDS));
+        testSubject.publish(createEvents(eventCount));
+        t.join();
+
+        reset(storageEngine);
+        assertSame(events.get(eventCount - 2),
+                   testSubject.openStream(events.get(eventCount - 3).trackingToken()).nextAvailable());
+        assertSame(events.get(6), testSubject.openStream(events.get(5).trackingToken()).nextAvailable());
+        // the producer may still be polling for new events, but the consumers should not open a private stream
+        verify(storageEngine, never()).readEvents(any(TrackingToken.class), eq(false));
+
+        // the oldest events have been evicted from the cache and need to be read from the storage engine
+        TrackedEventMessage<?> second = testSubject.openStream(events.get(0).trackingToken()).nextAvailable();
+        assertEquals(events.get(1).getIdentifier(), second.getIdentifier());
+        verify(storageEngine).readEvents(events.get(0).trackingToken(), false);
+    }
+
+    @Test(timeout = 5000)
+    public void testConsumersReplayingFromSamePositionShareCatchUpStream() throws Exception {
+        List<DomainEventMessage<?>> events = createEvents(CACHED_EVENTS + 5);
+        testSubject.publish(events);
+        List<TrackingEventStream> streams = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            streams.add(testSubject.openStream(null));
+        }
+        for (DomainEventMessage<?> expected : events) {
+            for (TrackingEventStream stream : streams) {
+                assertEquals(expected.getIdentifier(), stream.nextAvailable().getIdentifier());
+            }
+        }
+        verify(storageEngine, times(1)).readEvents(null, false);
+    }
+
+    @Test(timeout = 5000)
+    public void testConsumerJoinsCatchUpStreamAtTokenInItsBuffer() throws Exception {
+        List<DomainEventMessage<?>> events = createEvents(CACHED_EVENTS);
+        testSubject.publish(events);
+        TrackingEventStream first = testSubject.openStream(null);
+        TrackedEventMessage<?> firstEvent = first.nextAvailable();
+        first.nextAvailable();
+
+        TrackingEventStream second = testSubject.openStream(firstEvent.trackingToken());
+        assertEquals(events.get(1).getIdentifier(), second.nextAvailable().getIdentifier());
+        assertEquals(events.get(2).getIdentifier(), second.nextAvailable().getIdentifier());
+        assertEquals(events.get(2).getIdentifier(), first.nextAvailable().getIdentifier());
+        verify(storageEngine, never()).readEvents(firstEvent.trackingToken(), false);
+    }
+
+    @Test(timeout = 5000)
+    public void testCatchUpStreamDoesNotBufferEventsBehindItsSlowestConsumer() throws Exception {
+        List<DomainEventMessage<?>> events = createEvents(CACHED_EVENTS);
+        testSubject.publish(events);
+        TrackingEventStream first = testSubject.openStream(null);
+        TrackedEventMessage<?> firstEvent = first.nextAvailable();
+        for (int i = 0; i < 3; i++) {
+            first.nextAvailable();
+        }
+
+        TrackingEventStream second = testSubject.openStream(firstEvent.trackingToken());
+        assertEquals(events.get(1).getIdentifier(), second.nextAvailable().getIdentifier());
+        verify(storageEngine).readEvents(firstEvent.trackingToken(), false);
+    }
+
+    @Test(timeout = 5000)
+    public void testConsumerFallingBehindCatchUpStreamContinuesOnAnotherOne() throws Exception {
+        List<DomainEventMessage<?>> events = createEvents(CACHED_EVENTS * 2);
+        testSubject.publish(events);
+        TrackingEventStream fast = testSubject.openStream(null);
+        TrackingEventStream slow = testSubject.openStream(null);
+        TrackedEventMessage<?> firstEvent = slow.nextAvailable();
+        for (int i = 0; i < CACHED_EVENTS + 5; i++) {
+            fast.nextAvailable();
+        }
+
+        assertEquals(events.get(1).getIdentifier(), slow.nextAvailable().getIdentifier());
+        verify(storageEngine).readEvents(firstEvent.trackingToken(), false);
+        assertEquals(events.get(CACHED_EVENTS + 5).getIdentifier(), fast.nextAvailable().getIdentifier());
+    }
+
     @Test(timeout = 5000)
     public void testPeriodicPollingWhenEventStorageIsUpdatedIndependently() throws Exception {
         newTestSubject(CACHED_EVENTS, 20, CLEANUP_DELAY);
@@ -169,6 +299,34 @@ public void testPeriodicPollingWhenEventStorageIsUpdatedIndependently() throws E
         assertTrue(lock.await(100, MILLISECONDS));
     }
 
+    @Test(timeout = 5000)
+    public void testWaitingConsumerIsWokenUpBeforeProducerReachesEndOfStream() throws Exception {
+        List<TrackedEventMessage<?>> events = new ArrayList<>();
+        for (int i = 0; i < CACHED_EVENTS; i++) {
+            events.add(asTrackedEventMessage(createEvent(i), new GlobalSequenceTrackingToken(i)));
+        }
+        TrackedEventMessage<?> lastEvent = events.get(events.size() - 1);
+        CountDownLatch endOfStream = new CountDownLatch(1);
+        doAnswer(invocation -> events.stream().map(event -> {
+            if (event == lastEvent) {
+                try {
+                    endOfStream.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return event;
+        })).when(storageEngine).readEvents(any(), eq(true));
+        newTestSubject(CACHED_EVENTS, 20, CLEANUP_DELAY);
+        try {
+            TrackingEventStream stream = testSubject.openStream(null);
+            assertTrue(stream.hasNextAvailable(1, SECONDS));
+            assertEquals(events.get(0).getIdentifier(), stream.nextAvailable().getIdentifier());
+        } finally {
+            endOfStream.countDown();
+        }
+    }
+
     @Test(timeout = 5000)
     public void testConsumerStopsTailingWhenItFallsBehindTheCache() throws Exception {
         newTestSubject(CACHED_EVENTS, FETCH_DELAY, 20);
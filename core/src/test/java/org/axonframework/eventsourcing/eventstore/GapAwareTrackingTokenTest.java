@@ -1,8 +1,16 @@
 package org.axonframework.eventsourcing.eventstore;
 
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.SimpleSerializedObject;
+import org.axonframework.serialization.SimpleSerializedType;
+import org.axonframework.serialization.JavaSerializer;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.axonframework.serialization.xml.XStreamSerializer;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
@@ -10,6 +18,7 @@
 
 import static java.util.Collections.emptySortedSet;
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
 
 public class GapAwareTrackingTokenTest {
 
@@ -63,4 +72,66 @@ public void testAdvanceToLowerSequenceThatIsNotAGapNotAllowed() {
     public void testNewInstanceWithGapHigherThanSequenceNotAllowed() {
         GapAwareTrackingToken.newInstance(9L, Arrays.asList(1L, 5L, 12L));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAdvanceFarAheadOnlyCreatesGapsWithinMaxGapOffset() {
+        GapAwareTrackingToken subject = GapAwareTrackingToken.newInstance(0L, Collections.emptyList());
+        subject = subject.advanceTo(1_000_000L, 3);
+        assertEquals(1_000_000L, subject.getIndex());
+        assertEquals(Stream.of(999_997L, 999_998L, 999_999L).collect(Collectors.toCollection(TreeSet::new)),
+                     subject.getGaps());
+        assertEquals(3, subject.gapCount());
+        assertEquals(999_997L, subject.gapAt(0));
+    }
+
+    @Test
+    public void testNewInstanceFromArraySortsAndRemovesDuplicates() {
+        GapAwareTrackingToken subject = GapAwareTrackingToken.newInstance(10L, new long[]{5L, 1L, 5L});
+        assertEquals(GapAwareTrackingToken.newInstance(10L, Arrays.asList(1L, 5L)), subject);
+    }
+
+    @Test
+    public void testLowerBound() {
+        GapAwareTrackingToken token1 = GapAwareTrackingToken.newInstance(10L, Arrays.asList(1L, 5L));
+        GapAwareTrackingToken token2 = GapAwareTrackingToken.newInstance(15L, Arrays.asList(2L, 5L, 12L));
+        assertEquals(GapAwareTrackingToken.newInstance(10L, Arrays.asList(1L, 2L, 5L)), token1.lowerBound(token2));
+        assertEquals(GapAwareTrackingToken.newInstance(10L, Arrays.asList(1L, 2L, 5L)), token2.lowerBound(token1));
+    }
+
+    @Test
+    public void testSerializationRoundTrip() {
+        GapAwareTrackingToken token = GapAwareTrackingToken.newInstance(10L, Arrays.asList(1L, 5L));
+        GapAwareTrackingToken noGaps = GapAwareTrackingToken.newInstance(10L, Collections.emptyList());
+        for (Serializer serializer : new Serializer[]{new XStreamSerializer(), new JacksonSerializer(),
+                new JavaSerializer()}) {
+            assertEquals(token, serializer.deserialize(serializer.serialize(token, byte[].class)));
+            assertEquals(noGaps, serializer.deserialize(serializer.serialize(noGaps, byte[].class)));
+        }
+    }
+
+    @Test
+    public void testSerializedFormIsCompatibleWithPreviousVersion() {
+        GapAwareTrackingToken expected = GapAwareTrackingToken.newInstance(10L, Arrays.asList(1L, 5L));
+        String legacyXml = "<org.axonframework.eventsourcing.eventstore.GapAwareTrackingToken>" +
+                "<index>10</index><gaps><long>1</long><long>5</long></gaps>" +
+                "</org.axonframework.eventsourcing.eventstore.GapAwareTrackingToken>";
+        String legacyJavaSerialized = "rO0ABXNyAEBvcmcuYXhvbmZyYW1ld29yay5ldmVudHNvdXJjaW5nLmV2ZW50c3RvcmUuR2FwQXdhcmVUcmF" +
+                "ja2luZ1Rva2Vu3t9dUagY4GACAAJKAAVpbmRleEwABGdhcHN0ABVMamF2YS91dGlsL1NvcnRlZFNldDt4cAAAAAAAAAAKc3IAEWphdmEu" +
+                "dXRpbC5UcmVlU2V03ZhQk5Xth1sDAAB4cHB3BAAAAAJzcgAOamF2YS5sYW5nLkxvbmc7i+SQzI8j3wIAAUoABXZhbHVleHIAEGphdmEu" +
+                "bGFuZy5OdW1iZXKGrJUdC5TgiwIAAHhwAAAAAAAAAAFzcQB+AAUAAAAAAAAABXg=";
+        SimpleSerializedType type = new SimpleSerializedType(GapAwareTrackingToken.class.getName(), null);
+
+        XStreamSerializer xStreamSerializer = new XStreamSerializer();
+        GapAwareTrackingToken fromXml =
+                xStreamSerializer.deserialize(new SimpleSerializedObject<>(legacyXml, String.class, type));
+        assertEquals(expected, fromXml);
+        assertTrue(fromXml.hasGaps());
+
+        GapAwareTrackingToken fromJava = new JavaSerializer().deserialize(new SimpleSerializedObject<>(
+                Base64.getDecoder().decode(legacyJavaSerialized), byte[].class, type));
+        assertEquals(expected, fromJava);
+
+        SerializedObject<String> serialized = xStreamSerializer.serialize(expected, String.class);
+        assertEquals(legacyXml, serialized.getData().replaceAll("\\s", ""));
+    }
+}
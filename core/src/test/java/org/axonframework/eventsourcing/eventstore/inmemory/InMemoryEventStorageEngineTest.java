@@ -13,19 +13,49 @@
 
 package org.axonframework.eventsourcing.eventstore.inmemory;
 
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventsourcing.GenericDomainEventMessage;
 import org.axonframework.eventsourcing.eventstore.EventStorageEngineTest;
+import org.axonframework.eventsourcing.eventstore.SkippedEvents;
 import org.junit.Before;
+import org.junit.Test;
 
 import java.sql.SQLException;
+import java.util.List;
+
+import static java.util.Collections.singleton;
+import static java.util.stream.Collectors.toList;
+import static org.axonframework.eventsourcing.eventstore.EventStoreTestUtils.AGGREGATE;
+import static org.axonframework.eventsourcing.eventstore.EventStoreTestUtils.TYPE;
+import static org.axonframework.eventsourcing.eventstore.EventStoreTestUtils.createEvent;
+import static org.junit.Assert.*;
 
 /**
  * @author Rene de Waele
  */
 public class InMemoryEventStorageEngineTest extends EventStorageEngineTest {
 
+    private InMemoryEventStorageEngine testSubject;
+
     @Before
     public void setUp() throws SQLException {
-        setTestSubject(new InMemoryEventStorageEngine());
+        setTestSubject(testSubject = new InMemoryEventStorageEngine());
+    }
+
+    @Test
+    public void testLoadTrackedEventsFilteredByPayloadTypeInMemory() {
+        testSubject.appendEvents(createEvent(0), new GenericDomainEventMessage<>(TYPE, AGGREGATE, 1, 42),
+                                 createEvent(2));
+
+        List<? extends TrackedEventMessage<?>> events =
+                testSubject.readEvents(null, false, singleton(Integer.class.getName())).collect(toList());
+
+        assertEquals(3, events.size());
+        assertTrue(SkippedEvents.isSkippedEvents(events.get(0)));
+        assertEquals(42, events.get(1).getPayload());
+        assertTrue(SkippedEvents.isSkippedEvents(events.get(2)));
+        assertEquals(testSubject.readEvents(null, false).map(TrackedEventMessage::trackingToken).collect(toList()),
+                     events.stream().map(TrackedEventMessage::trackingToken).collect(toList()));
     }
 
 }
\ No newline at end of file
@@ -15,8 +15,11 @@
 
 import org.axonframework.common.jdbc.PersistenceExceptionResolver;
 import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.eventsourcing.DomainEventMessage;
 import org.axonframework.eventsourcing.eventstore.AbstractEventStorageEngine;
 import org.axonframework.eventsourcing.eventstore.BatchingEventStorageEngineTest;
+import org.axonframework.eventsourcing.eventstore.GapAwareTrackingToken;
+import org.axonframework.eventsourcing.eventstore.TrackingToken;
 import org.axonframework.eventsourcing.eventstore.jpa.SQLErrorCodesResolver;
 import org.axonframework.serialization.upcasting.event.EventUpcaster;
 import org.axonframework.serialization.upcasting.event.NoOpEventUpcaster;
@@ -28,8 +31,18 @@
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
 
+import static java.util.stream.Collectors.toList;
 import static org.axonframework.eventsourcing.eventstore.EventStoreTestUtils.createEvent;
+import static org.axonframework.eventsourcing.eventstore.EventStoreTestUtils.createEvents;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
 
 /**
  * @author Rene de Waele
@@ -55,6 +68,96 @@ public void testStoreTwoExactSameSnapshots() {
         testSubject.storeSnapshot(createEvent(1));
     }
 
+    @Test
+    public void testReadEventsForFilledGapsBeforeNewEvents() {
+        testSubject.setGapCheckInterval(0, TimeUnit.MILLISECONDS);
+        testSubject.appendEvents(createEvents(10));
+        List<Long> indices = globalIndices();
+        GapAwareTrackingToken token = GapAwareTrackingToken.newInstance(
+                indices.get(5), new long[]{indices.get(1), indices.get(3), indices.get(0) - 1});
+
+        assertEquals(Arrays.asList(1L, 3L, 6L, 7L, 8L, 9L), sequenceNumbersFrom(token));
+        GapAwareTrackingToken lastToken = (GapAwareTrackingToken) testSubject.readEvents(token, false)
+                .reduce((a, b) -> b).get().trackingToken();
+        assertEquals(indices.get(9).longValue(), lastToken.getIndex());
+        assertEquals(1, lastToken.gapCount());
+        assertEquals(indices.get(0) - 1, lastToken.gapAt(0));
+    }
+
+    @Test
+    public void testFilledGapsAreCheckedOncePerIntervalInEachStream() throws SQLException {
+        JdbcEventStorageEngine engine = spy(createEngineWithMaxGapOffset(null));
+        engine.setGapCheckInterval(1, TimeUnit.HOURS);
+        engine.appendEvents(createEvents(250));
+        List<Long> indices = globalIndices();
+        long gap = indices.get(0) - 1;
+        GapAwareTrackingToken token = GapAwareTrackingToken.newInstance(indices.get(0), new long[]{gap});
+
+        assertEquals(249, engine.readEvents(token, false).count());
+        verify(engine, times(1)).readGlobalIndices(any(), eq(gap), anyLong());
+        assertEquals(249, engine.readEvents(token, false).count());
+        verify(engine, times(2)).readGlobalIndices(any(), eq(gap), anyLong());
+    }
+
+    @Test
+    public void testFilledGapsAreCheckedBeforeGapsAreDropped() throws SQLException {
+        JdbcEventStorageEngine engine = spy(createEngineWithMaxGapOffset(150));
+        engine.setGapCheckInterval(1, TimeUnit.HOURS);
+        engine.appendEvents(createEvents(250));
+        List<Long> indices = globalIndices();
+        long gap = indices.get(0) - 1;
+        GapAwareTrackingToken token = GapAwareTrackingToken.newInstance(indices.get(0), new long[]{gap});
+
+        GapAwareTrackingToken lastToken = (GapAwareTrackingToken) engine.readEvents(token, false)
+                .reduce((a, b) -> b).get().trackingToken();
+        assertFalse(lastToken.hasGaps());
+        verify(engine, times(2)).readGlobalIndices(any(), eq(gap), anyLong());
+    }
+
+    @Test
+    public void testReadEventsForMoreFilledGapsThanFitInOneQuery() {
+        int gapCount = JdbcEventStorageEngine.GAP_QUERY_SIZE * 2 + 1;
+        testSubject.appendEvents(createEvents(gapCount + 1));
+        List<Long> indices = globalIndices();
+        GapAwareTrackingToken token = GapAwareTrackingToken.newInstance(
+                indices.get(gapCount), LongStream.range(indices.get(0), indices.get(gapCount)).toArray());
+
+        assertEquals(LongStream.range(0, gapCount).boxed().collect(toList()), sequenceNumbersFrom(token));
+    }
+
+    @Test
+    public void testPrefetchBatchesOnSeparateThread() throws Exception {
+        int eventCount = testSubject.batchSize() * 5;
+        testSubject.appendEvents(createEvents(eventCount));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            testSubject.setPrefetchExecutor(executor);
+            testSubject.setMaxPrefetchedBatches(1);
+
+            assertEquals(LongStream.range(0, eventCount).boxed().collect(toList()), sequenceNumbersFrom(null));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private JdbcEventStorageEngine createEngineWithMaxGapOffset(Integer maxGapOffset) {
+        // the tables have been created when setting up the test subject
+        return new JdbcEventStorageEngine(new XStreamSerializer(), NoOpEventUpcaster.INSTANCE,
+                                          defaultPersistenceExceptionResolver, 100, dataSource::getConnection,
+                                          NoTransactionManager.INSTANCE, byte[].class, new EventSchema(),
+                                          maxGapOffset, null);
+    }
+
+    private List<Long> globalIndices() {
+        return testSubject.readEvents(null, false)
+                .map(event -> ((GapAwareTrackingToken) event.trackingToken()).getIndex()).collect(toList());
+    }
+
+    private List<Long> sequenceNumbersFrom(TrackingToken token) {
+        return testSubject.readEvents(token, false)
+                .map(event -> ((DomainEventMessage<?>) event).getSequenceNumber()).collect(toList());
+    }
+
     @Test
     @SuppressWarnings({"JpaQlInspection", "OptionalGetWithoutIsPresent"})
     @DirtiesContext
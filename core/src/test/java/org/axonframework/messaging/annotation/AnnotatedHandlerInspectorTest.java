@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2010-2017. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.messaging.annotation;
+
+import org.axonframework.eventhandling.EventHandler;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AnnotatedHandlerInspectorTest {
+
+    private AnnotatedHandlerInspector<Listener> testSubject;
+
+    @Before
+    public void setUp() {
+        testSubject = AnnotatedHandlerInspector.inspectType(Listener.class);
+    }
+
+    @Test
+    public void testHandlersForPayloadTypeContainOnlyAssignableHandlersInOrder() {
+        List<MessageHandlingMember<? super Listener>> handlers = testSubject.getHandlers(Integer.class);
+
+        assertEquals(2, handlers.size());
+        assertEquals(Integer.class, handlers.get(0).payloadType());
+        assertEquals(Number.class, handlers.get(1).payloadType());
+        assertTrue(testSubject.getHandlers().indexOf(handlers.get(0))
+                           < testSubject.getHandlers().indexOf(handlers.get(1)));
+    }
+
+    @Test
+    public void testHandlersForPayloadTypeAreCached() {
+        assertSame(testSubject.getHandlers(Long.class), testSubject.getHandlers(Long.class));
+        assertEquals(1, testSubject.getHandlers(Long.class).size());
+        assertTrue(testSubject.getHandlers(String.class).isEmpty());
+    }
+
+    @Test
+    public void testInspectorIsReusedForSameTypeAndParameterResolverFactory() {
+        assertSame(testSubject, AnnotatedHandlerInspector.inspectType(Listener.class));
+        assertSame(testSubject, AnnotatedHandlerInspector.inspectType(SubListener.class).inspect(Listener.class));
+
+        AnnotatedHandlerInspector<Listener> other = AnnotatedHandlerInspector.inspectType(
+                Listener.class, MultiParameterResolverFactory.ordered(new DefaultParameterResolverFactory()));
+        assertNotSame(testSubject, other);
+        assertEquals(testSubject.getHandlers().size(), other.getHandlers().size());
+    }
+
+    @Test
+    public void testInspectorIsNotReusedForOtherContextClassLoader() throws Exception {
+        Thread currentThread = Thread.currentThread();
+        ClassLoader original = currentThread.getContextClassLoader();
+        try (URLClassLoader other = new URLClassLoader(new URL[0], original)) {
+            currentThread.setContextClassLoader(other);
+            AnnotatedHandlerInspector<Listener> inspector = AnnotatedHandlerInspector.inspectType(Listener.class);
+
+            assertNotSame(testSubject, inspector);
+            assertSame(inspector, AnnotatedHandlerInspector.inspectType(Listener.class));
+        } finally {
+            currentThread.setContextClassLoader(original);
+        }
+        assertSame(testSubject, AnnotatedHandlerInspector.inspectType(Listener.class));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testHandlersCannotBeModified() {
+        testSubject.getHandlers().clear();
+    }
+
+    @SuppressWarnings("unused")
+    private static class SubListener extends Listener {
+
+        @EventHandler
+        public void handle(String event) {
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Listener {
+
+        @EventHandler
+        public void handle(Integer event) {
+        }
+
+        @EventHandler
+        public void handle(Number event) {
+        }
+
+        @EventHandler
+        public void handle(Boolean event) {
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2010-2017. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.messaging.annotation;
+
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.messaging.Message;
+import org.axonframework.messaging.MetaData;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Executable;
+
+import static java.util.Collections.singletonMap;
+import static org.axonframework.eventhandling.GenericEventMessage.asEventMessage;
+import static org.junit.Assert.*;
+
+public class AnnotatedMessageHandlingMemberTest {
+
+    private ParameterResolverFactory parameterResolverFactory;
+    private EventMessage<?> message;
+    private Handlers target;
+
+    @Before
+    public void setUp() {
+        parameterResolverFactory = new DefaultParameterResolverFactory();
+        message = asEventMessage("payload").withMetaData(singletonMap("key", "value"));
+        target = new Handlers();
+    }
+
+    @Test
+    public void testInvokeHandlersWithDifferentNumberOfParameters() throws Exception {
+        assertEquals("payload", createMember(Handlers.class.getDeclaredMethod("oneParameter", String.class))
+                .handle(message, target));
+        assertEquals("payload-value", createMember(Handlers.class.getDeclaredMethod(
+                "twoParameters", String.class, String.class)).handle(message, target));
+        assertEquals("payload-value-1", createMember(Handlers.class.getDeclaredMethod(
+                "threeParameters", String.class, String.class, MetaData.class)).handle(message, target));
+        assertEquals("payload-value-1-" + message.getIdentifier() + "-value",
+                     createMember(Handlers.class.getDeclaredMethod("fiveParameters", String.class, String.class,
+                                                                    MetaData.class, Message.class, String.class))
+                             .handle(message, target));
+    }
+
+    @Test
+    public void testInvokeVoidStaticAndPrimitiveReturningHandlers() throws Exception {
+        assertNull(createMember(Handlers.class.getDeclaredMethod("voidHandler", String.class)).handle(message, target));
+        assertEquals("payload", target.handled);
+        assertEquals("static-payload", createMember(Handlers.class.getDeclaredMethod("staticHandler", String.class))
+                .handle(message, target));
+        assertEquals(7, createMember(Handlers.class.getDeclaredMethod("primitiveHandler", String.class))
+                .handle(message, target));
+    }
+
+    @Test
+    public void testInvokeVarargsHandlers() throws Exception {
+        EventMessage<?> varargsMessage = message.andMetaData(singletonMap("values", new String[]{"a", "b"}));
+
+        assertEquals("payload-a,b", createMember(Handlers.class.getDeclaredMethod(
+                "varargsHandler", String.class, String[].class)).handle(varargsMessage, target));
+        assertEquals("payload-2-" + varargsMessage.getIdentifier() + "-a,b",
+                     createMember(Handlers.class.getDeclaredMethod("fourParametersVarargsHandler", String.class,
+                                                                    MetaData.class, Message.class, String[].class))
+                             .handle(varargsMessage, target));
+    }
+
+    @Test
+    public void testInvokeConstructor() throws Exception {
+        Object result = createMember(Handlers.class.getDeclaredConstructor(String.class)).handle(message, null);
+
+        assertEquals("payload", ((Handlers) result).handled);
+    }
+
+    @Test
+    public void testExceptionFromHandlerIsRethrownUnwrapped() throws Exception {
+        AnnotatedMessageHandlingMember<Handlers> member =
+                createMember(Handlers.class.getDeclaredMethod("failingHandler", String.class));
+        try {
+            member.handle(message, target);
+            fail("Expected exception");
+        } catch (IllegalStateException e) {
+            assertEquals("payload", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testPrimitiveParameterResolvedToNullIsReportedAsInvocationException() throws Exception {
+        AnnotatedMessageHandlingMember<Handlers> member =
+                createMember(Handlers.class.getDeclaredMethod("primitiveParameterHandler", String.class, int.class));
+        try {
+            member.handle(message, target);
+            fail("Expected exception");
+        } catch (MessageHandlerInvocationException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void testParameterResolvedToValueOfOtherTypeIsReportedAsInvocationException() throws Exception {
+        AnnotatedMessageHandlingMember<Handlers> member =
+                createMember(Handlers.class.getDeclaredMethod("primitiveParameterHandler", String.class, int.class));
+        try {
+            member.handle(message.andMetaData(singletonMap("count", "seven")), target);
+            fail("Expected exception");
+        } catch (MessageHandlerInvocationException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+        assertEquals("payload-7", member.handle(message.andMetaData(singletonMap("count", 7)), target));
+    }
+
+    private AnnotatedMessageHandlingMember<Handlers> createMember(Executable executable) {
+        return new AnnotatedMessageHandlingMember<>(executable, EventMessage.class, String.class,
+                                                    parameterResolverFactory);
+    }
+
+    @SuppressWarnings("unused")
+    private static class Handlers {
+
+        private String handled;
+
+        private Handlers() {
+        }
+
+        private Handlers(String payload) {
+            this.handled = payload;
+        }
+
+        private String oneParameter(String payload) {
+            return payload;
+        }
+
+        private String twoParameters(String payload, @MetaDataValue("key") String value) {
+            return payload + "-" + value;
+        }
+
+        private String threeParameters(String payload, @MetaDataValue("key") String value, MetaData metaData) {
+            return payload + "-" + value + "-" + metaData.size();
+        }
+
+        private String fiveParameters(String payload, @MetaDataValue("key") String value, MetaData metaData,
+                                      Message<?> message, @MetaDataValue("key") String other) {
+            return payload + "-" + value + "-" + metaData.size() + "-" + message.getIdentifier() + "-" + other;
+        }
+
+        private String primitiveParameterHandler(String payload, @MetaDataValue("count") int count) {
+            return payload + "-" + count;
+        }
+
+        private String varargsHandler(String payload, @MetaDataValue("values") String... values) {
+            return payload + "-" + String.join(",", values);
+        }
+
+        private String fourParametersVarargsHandler(String payload, MetaData metaData, Message<?> message,
+                                                    @MetaDataValue("values") String... values) {
+            return payload + "-" + metaData.size() + "-" + message.getIdentifier() + "-" + String.join(",", values);
+        }
+
+        private void voidHandler(String payload) {
+            handled = payload;
+        }
+
+        private static String staticHandler(String payload) {
+            return "static-" + payload;
+        }
+
+        private int primitiveHandler(String payload) {
+            return payload.length();
+        }
+
+        private String failingHandler(String payload) {
+            throw new IllegalStateException(payload);
+        }
+    }
+}
@@ -17,6 +17,8 @@
 package org.axonframework.messaging.unitofwork;
 
 import org.axonframework.common.MockException;
+import org.axonframework.common.transaction.Transaction;
+import org.axonframework.common.transaction.TransactionManager;
 import org.axonframework.eventhandling.GenericEventMessage;
 import org.junit.After;
 import org.junit.Before;
@@ -136,6 +138,36 @@ public void testExecuteTaskWithResult() throws Exception {
         assertSame(taskResult, subject.getExecutionResult().getResult());
     }
 
+    @Test
+    public void testAttachedTransactionIsCommittedWithUnitOfWork() {
+        TransactionManager transactionManager = mock(TransactionManager.class);
+        Transaction transaction = mock(Transaction.class);
+        when(transactionManager.startTransaction()).thenReturn(transaction);
+        subject.start();
+        subject.attachTransaction(transactionManager);
+
+        subject.commit();
+
+        verify(transaction).commit();
+        verify(transaction, never()).rollback();
+    }
+
+    @Test
+    public void testUnitOfWorkIsRolledBackWhenTransactionCannotBeStarted() {
+        TransactionManager transactionManager = mock(TransactionManager.class);
+        MockException mockException = new MockException();
+        when(transactionManager.startTransaction()).thenThrow(mockException);
+        subject.start();
+        try {
+            subject.attachTransaction(transactionManager);
+            fail("Expected exception");
+        } catch (MockException e) {
+            assertSame(mockException, e);
+        }
+        verify(subject).rollback(mockException);
+        assertFalse(subject.isActive());
+    }
+
     private static class PhaseTransition {
 
         private final UnitOfWork.Phase phase;
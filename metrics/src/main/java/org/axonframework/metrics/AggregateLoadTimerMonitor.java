@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2010-2017. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.codahale.metrics.RatioGauge;
+import com.codahale.metrics.Timer;
+import org.axonframework.monitoring.AggregateLoadMonitor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the loading of aggregates by a repository. Keeps track of the time it takes to serve aggregates from the
+ * cache and to reconstruct them from the event store, the number of events replayed per load, and the ratio of loads
+ * served from the cache.
+ *
+ * @since 3.1
+ */
+public class AggregateLoadTimerMonitor implements AggregateLoadMonitor, MetricSet {
+
+    private final Timer cacheLoadTimer;
+    private final Timer eventStoreLoadTimer;
+    private final Histogram eventsReplayed;
+    private final RatioGauge cacheHitRatio;
+
+    /**
+     * Creates an AggregateLoadTimerMonitor using a default clock
+     */
+    public AggregateLoadTimerMonitor() {
+        this(Clock.defaultClock());
+    }
+
+    /**
+     * Creates an AggregateLoadTimerMonitor using the provided clock
+     *
+     * @param clock the clock used to calculate the rate of aggregate loads
+     */
+    public AggregateLoadTimerMonitor(Clock clock) {
+        cacheLoadTimer = new Timer(new ExponentiallyDecayingReservoir(), clock);
+        eventStoreLoadTimer = new Timer(new ExponentiallyDecayingReservoir(), clock);
+        eventsReplayed = new Histogram(new ExponentiallyDecayingReservoir());
+        cacheHitRatio = new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                long hits = cacheLoadTimer.getCount();
+                return Ratio.of(hits, hits + eventStoreLoadTimer.getCount());
+            }
+        };
+    }
+
+    @Override
+    public void onLoadedFromCache(long loadTimeNanos) {
+        cacheLoadTimer.update(loadTimeNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onLoadedFromEventStore(long loadTimeNanos, long eventsReplayed) {
+        eventStoreLoadTimer.update(loadTimeNanos, TimeUnit.NANOSECONDS);
+        this.eventsReplayed.update(eventsReplayed);
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        Map<String, Metric> metrics = new HashMap<>();
+        metrics.put("cacheLoadTimer", cacheLoadTimer);
+        metrics.put("eventStoreLoadTimer", eventStoreLoadTimer);
+        metrics.put("eventsReplayed", eventsReplayed);
+        metrics.put("cacheHitRatio", cacheHitRatio);
+        return metrics;
+    }
+}
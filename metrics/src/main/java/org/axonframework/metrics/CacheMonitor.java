@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2010-2017. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Clock;
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import org.axonframework.common.caching.Cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Listens to the entries of a {@link Cache} to count the number of entries that are read, created, updated and
+ * removed, and to measure the rate at which entries are evicted or expire. Register the monitor with the cache using
+ * {@link Cache#registerCacheEntryListener(Cache.EntryListener)}.
+ * <p>
+ * Note that most caches do not notify their listeners of failed lookups. Cache misses are therefore not counted by
+ * this monitor. For aggregates, use the {@link AggregateLoadTimerMonitor} to measure the ratio of cache hits.
+ *
+ * @since 3.1
+ */
+public class CacheMonitor extends Cache.EntryListenerAdapter implements MetricSet {
+
+    private final Counter readCounter = new Counter();
+    private final Counter createdCounter = new Counter();
+    private final Counter updatedCounter = new Counter();
+    private final Counter removedCounter = new Counter();
+    private final Meter evictionMeter;
+
+    /**
+     * Creates a CacheMonitor using a default clock
+     */
+    public CacheMonitor() {
+        this(Clock.defaultClock());
+    }
+
+    /**
+     * Creates a CacheMonitor using the provided clock
+     *
+     * @param clock the clock used to calculate the eviction rate
+     */
+    public CacheMonitor(Clock clock) {
+        evictionMeter = new Meter(clock);
+    }
+
+    @Override
+    public void onEntryExpired(Object key) {
+        evictionMeter.mark();
+    }
+
+    @Override
+    public void onEntryRemoved(Object key) {
+        removedCounter.inc();
+    }
+
+    @Override
+    public void onEntryUpdated(Object key, Object value) {
+        updatedCounter.inc();
+    }
+
+    @Override
+    public void onEntryCreated(Object key, Object value) {
+        createdCounter.inc();
+    }
+
+    @Override
+    public void onEntryRead(Object key, Object value) {
+        readCounter.inc();
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        Map<String, Metric> metrics = new HashMap<>();
+        metrics.put("readCounter", readCounter);
+        metrics.put("createdCounter", createdCounter);
+        metrics.put("updatedCounter", updatedCounter);
+        metrics.put("removedCounter", removedCounter);
+        metrics.put("evictions", evictionMeter);
+        return metrics;
+    }
+}
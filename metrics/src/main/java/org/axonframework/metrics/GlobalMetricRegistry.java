@@ -19,11 +19,13 @@
 import com.codahale.metrics.MetricRegistry;
 import org.axonframework.commandhandling.CommandBus;
 import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.common.caching.Cache;
 import org.axonframework.config.Configurer;
 import org.axonframework.eventhandling.EventBus;
 import org.axonframework.eventhandling.EventMessage;
 import org.axonframework.eventhandling.EventProcessor;
 import org.axonframework.messaging.Message;
+import org.axonframework.monitoring.AggregateLoadMonitor;
 import org.axonframework.monitoring.MessageMonitor;
 import org.axonframework.monitoring.MultiMessageMonitor;
 
@@ -176,6 +178,66 @@ public MessageMonitor<CommandMessage<?>> registerCommandBus(String name) {
         return new MultiMessageMonitor<>(messageTimerMonitor, capacityMonitor, messageCountingMonitor);
     }
 
+    /**
+     * Registers new metrics to the registry to monitor the loading of aggregates by a repository. The monitor will be
+     * registered with the registry under the given {@code name}, typically the name of the aggregate type. The returned
+     * {@link AggregateLoadMonitor} can be installed on the repository to initiate the monitoring, e.g. using {@link
+     * org.axonframework.eventsourcing.EventSourcingRepository#setAggregateLoadMonitor(AggregateLoadMonitor)}.
+     *
+     * @param name the name under which the repository should be registered to the registry
+     * @return AggregateLoadMonitor to monitor the loading of aggregates by a repository
+     */
+    public AggregateLoadMonitor registerAggregateRepository(String name) {
+        AggregateLoadTimerMonitor aggregateLoadTimerMonitor = new AggregateLoadTimerMonitor();
+
+        MetricRegistry repositoryRegistry = new MetricRegistry();
+        repositoryRegistry.register("aggregateLoad", aggregateLoadTimerMonitor);
+        registry.register(name, repositoryRegistry);
+
+        return aggregateLoadTimerMonitor;
+    }
+
+    /**
+     * Registers new metrics to the registry to monitor the loading of aggregates by a repository that stores its
+     * aggregates in the given {@code cache}. Next to the metrics registered by {@link
+     * #registerAggregateRepository(String)}, the entries of the cache are monitored, including the rate at which they
+     * are evicted. The monitor will be registered with the registry under the given {@code name}. The returned {@link
+     * AggregateLoadMonitor} can be installed on the repository to initiate the monitoring.
+     *
+     * @param name  the name under which the repository should be registered to the registry
+     * @param cache the cache used by the repository
+     * @return AggregateLoadMonitor to monitor the loading of aggregates by a repository
+     */
+    public AggregateLoadMonitor registerAggregateRepository(String name, Cache cache) {
+        AggregateLoadTimerMonitor aggregateLoadTimerMonitor = new AggregateLoadTimerMonitor();
+        CacheMonitor cacheMonitor = new CacheMonitor();
+        cache.registerCacheEntryListener(cacheMonitor);
+
+        MetricRegistry repositoryRegistry = new MetricRegistry();
+        repositoryRegistry.register("aggregateLoad", aggregateLoadTimerMonitor);
+        repositoryRegistry.register("cache", cacheMonitor);
+        registry.register(name, repositoryRegistry);
+
+        return aggregateLoadTimerMonitor;
+    }
+
+    /**
+     * Registers new metrics to the registry to monitor the entries of the given {@code cache}, e.g. the cache of a
+     * {@link org.axonframework.eventhandling.saga.repository.CachingSagaStore}. The monitor is registered as a listener
+     * with the cache and with the registry under the given {@code name}.
+     *
+     * @param name  the name under which the cache should be registered to the registry
+     * @param cache the cache to monitor
+     */
+    public void registerCache(String name, Cache cache) {
+        CacheMonitor cacheMonitor = new CacheMonitor();
+        cache.registerCacheEntryListener(cacheMonitor);
+
+        MetricRegistry cacheRegistry = new MetricRegistry();
+        cacheRegistry.register("cache", cacheMonitor);
+        registry.register(name, cacheRegistry);
+    }
+
     /**
      * Returns the global {@link MetricRegistry} to which components are registered.
      *
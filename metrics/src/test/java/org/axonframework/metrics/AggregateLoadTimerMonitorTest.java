@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2010-2017. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.Timer;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class AggregateLoadTimerMonitorTest {
+
+    @Test
+    public void testLoadsMeasured() {
+        AggregateLoadTimerMonitor testSubject = new AggregateLoadTimerMonitor(new TestClock());
+
+        testSubject.onLoadedFromCache(TimeUnit.MILLISECONDS.toNanos(1));
+        testSubject.onLoadedFromCache(TimeUnit.MILLISECONDS.toNanos(1));
+        testSubject.onLoadedFromCache(TimeUnit.MILLISECONDS.toNanos(1));
+        testSubject.onLoadedFromEventStore(TimeUnit.MILLISECONDS.toNanos(50), 20);
+
+        Map<String, Metric> metrics = testSubject.getMetrics();
+        Timer cacheLoadTimer = (Timer) metrics.get("cacheLoadTimer");
+        Timer eventStoreLoadTimer = (Timer) metrics.get("eventStoreLoadTimer");
+        Histogram eventsReplayed = (Histogram) metrics.get("eventsReplayed");
+        Gauge<?> cacheHitRatio = (Gauge<?>) metrics.get("cacheHitRatio");
+
+        assertEquals(3, cacheLoadTimer.getCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1), cacheLoadTimer.getSnapshot().getMax());
+        assertEquals(1, eventStoreLoadTimer.getCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(50), eventStoreLoadTimer.getSnapshot().getMax());
+        assertEquals(20, eventsReplayed.getSnapshot().getMax());
+        assertEquals(0.75, (Double) cacheHitRatio.getValue(), 0.0001);
+    }
+
+    @Test
+    public void testCacheHitRatioUndefinedWithoutLoads() {
+        AggregateLoadTimerMonitor testSubject = new AggregateLoadTimerMonitor(new TestClock());
+
+        Gauge<?> cacheHitRatio = (Gauge<?>) testSubject.getMetrics().get("cacheHitRatio");
+
+        assertEquals(Double.NaN, (Double) cacheHitRatio.getValue(), 0);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2010-2017. Axon Framework
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.axonframework.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metric;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class CacheMonitorTest {
+
+    @Test
+    public void testCacheEntriesCounted() {
+        CacheMonitor testSubject = new CacheMonitor(new TestClock());
+
+        testSubject.onEntryCreated("key1", "value1");
+        testSubject.onEntryRead("key1", "value1");
+        testSubject.onEntryRead("key1", "value1");
+        testSubject.onEntryUpdated("key1", "value2");
+        testSubject.onEntryRemoved("key1");
+        testSubject.onEntryExpired("key2");
+        testSubject.onEntryExpired("key3");
+
+        Map<String, Metric> metrics = testSubject.getMetrics();
+
+        assertEquals(1, ((Counter) metrics.get("createdCounter")).getCount());
+        assertEquals(2, ((Counter) metrics.get("readCounter")).getCount());
+        assertEquals(1, ((Counter) metrics.get("updatedCounter")).getCount());
+        assertEquals(1, ((Counter) metrics.get("removedCounter")).getCount());
+        assertEquals(2, ((Meter) metrics.get("evictions")).getCount());
+    }
+}
@@ -3,7 +3,10 @@
 import com.codahale.metrics.ConsoleReporter;
 import org.axonframework.commandhandling.CommandMessage;
 import org.axonframework.commandhandling.GenericCommandMessage;
+import org.axonframework.common.caching.Cache;
+import org.axonframework.common.caching.WeakReferenceCache;
 import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.monitoring.AggregateLoadMonitor;
 import org.axonframework.monitoring.MessageMonitor;
 import org.junit.Before;
 import org.junit.Test;
@@ -12,6 +15,7 @@
 import java.io.PrintStream;
 
 import static org.axonframework.eventhandling.GenericEventMessage.asEventMessage;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class GlobalMetricRegistryTest {
@@ -65,4 +69,35 @@ public void createCommandBusMonitor() throws Exception {
         assertTrue(output.contains("commandBus"));
     }
 
+    @Test
+    public void createAggregateRepositoryMonitor() throws Exception {
+        Cache cache = new WeakReferenceCache();
+        AggregateLoadMonitor monitor = subject.registerAggregateRepository("aggregateRepository", cache);
+
+        monitor.onLoadedFromEventStore(1000, 10);
+        monitor.onLoadedFromCache(100);
+        cache.put("key", "value");
+        cache.get("key");
+
+        assertEquals(1, subject.getRegistry().timer("aggregateRepository.aggregateLoad.cacheLoadTimer").getCount());
+        assertEquals(1, subject.getRegistry().counter("aggregateRepository.cache.readCounter").getCount());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ConsoleReporter.forRegistry(subject.getRegistry()).outputTo(new PrintStream(out)).build().report();
+        String output = new String(out.toByteArray());
+
+        assertTrue(output.contains("aggregateRepository.aggregateLoad.cacheHitRatio"));
+        assertTrue(output.contains("aggregateRepository.cache.evictions"));
+    }
+
+    @Test
+    public void createCacheMonitor() throws Exception {
+        Cache cache = new WeakReferenceCache();
+        subject.registerCache("sagaCache", cache);
+
+        cache.put("key", "value");
+
+        assertEquals(1, subject.getRegistry().counter("sagaCache.cache.createdCounter").getCount());
+    }
+
 }
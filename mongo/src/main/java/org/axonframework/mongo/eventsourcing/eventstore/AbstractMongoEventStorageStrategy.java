@@ -33,12 +33,14 @@
 import org.bson.BsonDocument;
 import org.bson.BsonString;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -148,18 +150,33 @@ public List<? extends DomainEventData<?>> findDomainEvents(MongoCollection<Docum
     @Override
     public List<? extends TrackedEventData<?>> findTrackedEvents(MongoCollection<Document> eventCollection,
                                                                  TrackingToken lastToken, int batchSize) {
-        FindIterable<Document> cursor;
-        if (lastToken == null) {
-            cursor = eventCollection.find();
-        } else {
+        return findTrackedEvents(eventCollection, lastToken, batchSize, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Documents without an event of the given {@code payloadTypes} are skipped by the query, using the filter
+     * returned by {@link #payloadTypeFilter(Set)}. Documents containing several events may still contain events with
+     * other payload types. A {@code null} value for {@code payloadTypes} returns entries of any payload type.
+     */
+    @Override
+    public List<? extends TrackedEventData<?>> findTrackedEvents(MongoCollection<Document> eventCollection,
+                                                                 TrackingToken lastToken, int batchSize,
+                                                                 Set<String> payloadTypes) {
+        List<Bson> filters = new ArrayList<>();
+        if (lastToken != null) {
             Assert.isTrue(lastToken instanceof MongoTrackingToken,
                           () -> String.format("Token %s is of the wrong type", lastToken));
             MongoTrackingToken trackingToken = (MongoTrackingToken) lastToken;
-            cursor = eventCollection.find(and(gte(eventConfiguration.timestampProperty(),
-                                                  trackingToken.getTimestamp().minus(lookBackTime).toString()),
-                                              nin(eventConfiguration.eventIdentifierProperty(),
-                                                  trackingToken.getKnownEventIds())));
+            filters.add(gte(eventConfiguration.timestampProperty(),
+                            trackingToken.getTimestamp().minus(lookBackTime).toString()));
+            filters.add(nin(eventConfiguration.eventIdentifierProperty(), trackingToken.getKnownEventIds()));
         }
+        if (payloadTypes != null) {
+            filters.add(payloadTypeFilter(payloadTypes));
+        }
+        FindIterable<Document> cursor = filters.isEmpty() ? eventCollection.find() : eventCollection.find(and(filters));
         cursor = cursor.sort(new BasicDBObject(eventConfiguration().timestampProperty(), ORDER_ASC)
                                      .append(eventConfiguration().sequenceNumberProperty(), ORDER_ASC));
         cursor = cursor.limit(batchSize);
@@ -177,6 +194,17 @@ public List<? extends TrackedEventData<?>> findTrackedEvents(MongoCollection<Doc
         return results;
     }
 
+    /**
+     * Returns the query filter that matches documents containing an event with one of the given {@code
+     * payloadTypes}. By default the payload type property of the event configuration is matched.
+     *
+     * @param payloadTypes the names of the serialized payload types to match
+     * @return the filter matching documents containing events with given payload types
+     */
+    protected Bson payloadTypeFilter(Set<String> payloadTypes) {
+        return in(eventConfiguration.payloadTypeProperty(), payloadTypes);
+    }
+
     @Override
     public Optional<? extends DomainEventData<?>> findLastSnapshot(MongoCollection<Document> snapshotCollection,
                                                                    String aggregateIdentifier) {
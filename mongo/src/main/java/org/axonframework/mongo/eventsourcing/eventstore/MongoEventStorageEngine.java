@@ -33,6 +33,7 @@
 import javax.annotation.PostConstruct;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * EventStorageEngine implementation that uses Mongo to store and fetch events.
@@ -160,4 +161,10 @@ protected List<? extends DomainEventData<?>> fetchDomainEvents(String aggregateI
     protected List<? extends TrackedEventData<?>> fetchTrackedEvents(TrackingToken lastToken, int batchSize) {
         return storageStrategy.findTrackedEvents(template.eventCollection(), lastToken, batchSize);
     }
+
+    @Override
+    protected List<? extends TrackedEventData<?>> fetchTrackedEvents(TrackingToken lastToken, int batchSize,
+                                                                     Set<String> payloadTypes) {
+        return storageStrategy.findTrackedEvents(template.eventCollection(), lastToken, batchSize, payloadTypes);
+    }
 }
@@ -15,6 +15,7 @@
 
 package org.axonframework.mongo.eventsourcing.eventstore;
 
+import org.axonframework.common.Assert;
 import org.axonframework.eventsourcing.eventstore.TrackingToken;
 
 import java.time.Duration;
@@ -113,6 +114,19 @@ public Set<String> getKnownEventIds() {
         return unmodifiableSet(trackedEvents.keySet());
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The lower bound of two MongoTrackingTokens is the token with the lowest timestamp.
+     */
+    @Override
+    public TrackingToken lowerBound(TrackingToken other) {
+        Assert.isTrue(other instanceof MongoTrackingToken,
+                      () -> "Incompatible token type provided: " + other.getClass().getSimpleName());
+        MongoTrackingToken otherToken = (MongoTrackingToken) other;
+        return otherToken.timestamp < this.timestamp ? otherToken : this;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
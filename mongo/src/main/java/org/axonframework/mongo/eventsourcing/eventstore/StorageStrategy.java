@@ -27,6 +27,7 @@
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Interface towards the mechanism that prescribes the structure in which events are stored in the Event Store. Events
@@ -102,6 +103,28 @@ List<? extends DomainEventData<?>> findDomainEvents(MongoCollection<Document> ev
     List<? extends TrackedEventData<?>> findTrackedEvents(MongoCollection<Document> eventCollection,
                                                           TrackingToken lastToken, int batchSize);
 
+    /**
+     * Returns a batch of tracked events with a tracking token above the given {@code lastToken} that contains at least
+     * the events with one of the given {@code payloadTypes}. If {@code lastToken} is {@code null} the first (oldest)
+     * batch of entries in the store should be returned. The batch may contain events with other payload types, which
+     * are dropped by the storage engine after using their tracking token. An empty list should only be returned if
+     * there are no more matching entries.
+     * <p>
+     * By default this method returns the batch found using {@link #findTrackedEvents(MongoCollection, TrackingToken,
+     * int)}, leaving the filtering to the storage engine.
+     *
+     * @param eventCollection The collection in which to find the events
+     * @param lastToken       the token of the last event in the previous batch or {@code null} to load the oldest batch
+     * @param batchSize       The maximum number of event entries to fetch
+     * @param payloadTypes    The names of the serialized payload types of the entries to return
+     * @return a list of tracked event entries, including the matching entries
+     */
+    default List<? extends TrackedEventData<?>> findTrackedEvents(MongoCollection<Document> eventCollection,
+                                                                  TrackingToken lastToken, int batchSize,
+                                                                  Set<String> payloadTypes) {
+        return findTrackedEvents(eventCollection, lastToken, batchSize);
+    }
+
     /**
      * Finds the entry containing the last snapshot event for an aggregate with given {@code aggregateIdentifier}
      * in the given {@code collection}.
@@ -28,13 +28,17 @@
 import org.axonframework.mongo.eventsourcing.eventstore.documentperevent.EventEntryConfiguration;
 import org.axonframework.serialization.Serializer;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 
 import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static com.mongodb.client.model.Filters.in;
+
 /**
  * Implementation of a Mongo {@link StorageStrategy} that stores one {@link Document} per commit of a batch of events.
  * <p>
@@ -99,6 +103,12 @@ protected DomainEventData<?> extractSnapshot(Document object) {
         return new CommitEntry(object, commitEntryConfiguration, eventConfiguration()).getEvents()[0];
     }
 
+    @Override
+    protected Bson payloadTypeFilter(Set<String> payloadTypes) {
+        return in(commitEntryConfiguration.eventsProperty() + "." + eventConfiguration().payloadTypeProperty(),
+                  payloadTypes);
+    }
+
     @Override
     public void ensureIndexes(MongoCollection<Document> eventsCollection,
                               MongoCollection<Document> snapshotsCollection) {